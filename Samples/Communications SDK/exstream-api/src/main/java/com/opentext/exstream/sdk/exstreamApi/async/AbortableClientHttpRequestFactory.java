@@ -0,0 +1,88 @@
+/*
+ * Copyright 2023 Open Text Corporation, All Rights Reserved.
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.opentext.exstream.sdk.exstreamApi.async;
+
+import com.opentext.exstream.sdk.exstreamApi.model.enumeration.ExstreamOperation;
+import com.opentext.exstream.sdk.exstreamApi.profiling.GenerationTrace;
+import com.opentext.exstream.sdk.exstreamApi.profiling.ProfilingClientHttpRequest;
+import com.opentext.exstream.sdk.exstreamApi.resilience.Deadline;
+import com.opentext.exstream.sdk.exstreamApi.resilience.DeadlineExceededException;
+import com.opentext.exstream.sdk.exstreamApi.resilience.TimeoutPolicy;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.URI;
+
+/**
+ * {@link SimpleClientHttpRequestFactory} that registers each connection with the {@link ExchangeAbortHandle} of the
+ * current thread, so cancelling an asynchronous call closes the connection instead of waiting for the response.
+ * Behaves exactly like its superclass on threads without a handle.<br>
+ * Each connection gets the connect timeout and the read timeout of its operation from the {@link TimeoutPolicy},
+ * shortened to the time left if a {@link Deadline} is bound to the current thread.<br>
+ * Requests sent while a {@link GenerationTrace} is bound to the current thread record their timing in it.
+ */
+public class AbortableClientHttpRequestFactory extends SimpleClientHttpRequestFactory {
+    private volatile TimeoutPolicy timeoutPolicy = TimeoutPolicy.DEFAULT;
+
+    public TimeoutPolicy getTimeoutPolicy() {
+        return timeoutPolicy;
+    }
+
+    public void setTimeoutPolicy(TimeoutPolicy timeoutPolicy) {
+        this.timeoutPolicy = timeoutPolicy;
+    }
+
+    @Override
+    public ClientHttpRequest createRequest(URI uri, HttpMethod httpMethod) throws IOException {
+        GenerationTrace trace = GenerationTrace.current();
+        if (trace == null) {
+            return super.createRequest(uri, httpMethod);
+        }
+        HttpURLConnection connection = openConnection(uri.toURL(), null);
+        prepareConnection(connection, httpMethod.name());
+        return new ProfilingClientHttpRequest(connection, trace);
+    }
+
+    @Override
+    protected void prepareConnection(HttpURLConnection connection, String httpMethod) throws IOException {
+        super.prepareConnection(connection, httpMethod);
+        applyTimeouts(connection, httpMethod);
+        ExchangeAbortHandle abortHandle = ExchangeAbortHandle.current();
+        if (abortHandle != null) {
+            abortHandle.register(connection);
+        }
+    }
+
+    private void applyTimeouts(HttpURLConnection connection, String httpMethod) {
+        TimeoutPolicy policy = timeoutPolicy;
+        int connectTimeout = policy.getConnectTimeoutMillis();
+        int readTimeout = policy.getReadTimeoutMillis(ExstreamOperation.of(connection.getURL().getPath()));
+
+        Deadline deadline = Deadline.current();
+        if (deadline != null) {
+            long remainingMillis = deadline.remainingMillis();
+            if (remainingMillis <= 0) {
+                throw new DeadlineExceededException("The deadline passed before " + httpMethod + " " + connection.getURL() + " was sent");
+            }
+            connectTimeout = (int) Math.min(connectTimeout, remainingMillis);
+            readTimeout = (int) Math.min(readTimeout, remainingMillis);
+        }
+        connection.setConnectTimeout(connectTimeout);
+        connection.setReadTimeout(readTimeout);
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2023 Open Text Corporation, All Rights Reserved.
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.opentext.exstream.sdk.exstreamApi.async;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tracks the HTTP connections opened by one asynchronous task so they can be closed when the task is cancelled.<br>
+ * The handle is bound to the thread running the task, and {@link AbortableClientHttpRequestFactory} registers every
+ * connection it opens on that thread. Once a handle is aborted, its open connections are disconnected, which fails the
+ * blocked read or write with an I/O error, and any further connection attempt fails immediately.
+ */
+public final class ExchangeAbortHandle {
+    private static final ThreadLocal<ExchangeAbortHandle> CURRENT = new ThreadLocal<>();
+
+    // Guarded by this
+    private final List<HttpURLConnection> connections = new ArrayList<>(2);
+    private final List<ExchangeAbortHandle> children = new ArrayList<>(0);
+    private boolean aborted = false;
+
+    /**
+     * @return The handle bound to the current thread, or null if the thread isn't running an abortable task
+     */
+    public static ExchangeAbortHandle current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Run a task with this handle bound to the current thread
+     * @param task The task to run
+     */
+    public void runBound(Runnable task) {
+        ExchangeAbortHandle previous = CURRENT.get();
+        CURRENT.set(this);
+        try {
+            task.run();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+            synchronized (this) {
+                connections.clear();
+            }
+        }
+    }
+
+    /**
+     * Register a connection that is about to be used
+     * @param connection The connection
+     * @throws IOException If the handle has already been aborted
+     */
+    void register(HttpURLConnection connection) throws IOException {
+        synchronized (this) {
+            if (!aborted) {
+                connections.add(connection);
+                return;
+            }
+        }
+        throw new IOException("Request was cancelled before it was sent: " + connection.getURL());
+    }
+
+    /**
+     * Abort another handle whenever this one is aborted, for example when a request made under this handle is split
+     * into several exchanges that each have their own handle. If this handle is already aborted, the child is aborted
+     * immediately.
+     * @param child The handle to abort with this one
+     */
+    public void link(ExchangeAbortHandle child) {
+        synchronized (this) {
+            if (!aborted) {
+                children.add(child);
+                return;
+            }
+        }
+        child.abort();
+    }
+
+    /**
+     * Stop aborting a handle passed to {@link #link(ExchangeAbortHandle)}
+     * @param child The linked handle
+     */
+    public synchronized void unlink(ExchangeAbortHandle child) {
+        children.remove(child);
+    }
+
+    /**
+     * Move the connections registered with this handle to another handle, so aborting that handle closes them
+     * @param target The handle that takes over the connections
+     */
+    public void transferTo(ExchangeAbortHandle target) {
+        List<HttpURLConnection> toTransfer;
+        synchronized (this) {
+            toTransfer = new ArrayList<>(connections);
+            connections.clear();
+        }
+        for (HttpURLConnection connection : toTransfer) {
+            try {
+                target.register(connection);
+            } catch (IOException e) {
+                // The target was aborted already
+                connection.disconnect();
+            }
+        }
+    }
+
+    /**
+     * Disconnect all connections registered with this handle and reject new ones
+     */
+    public void abort() {
+        List<HttpURLConnection> toDisconnect;
+        List<ExchangeAbortHandle> toAbort;
+        synchronized (this) {
+            if (aborted) {
+                return;
+            }
+            aborted = true;
+            toDisconnect = new ArrayList<>(connections);
+            connections.clear();
+            toAbort = new ArrayList<>(children);
+            children.clear();
+        }
+        toDisconnect.forEach(HttpURLConnection::disconnect);
+        toAbort.forEach(ExchangeAbortHandle::abort);
+    }
+
+    public synchronized boolean isAborted() {
+        return aborted;
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * Copyright 2023 Open Text Corporation, All Rights Reserved.
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.opentext.exstream.sdk.exstreamApi.async;
+
+import com.opentext.exstream.sdk.exstreamApi.profiling.GenerationTrace;
+import com.opentext.exstream.sdk.exstreamApi.resilience.Deadline;
+import com.opentext.exstream.sdk.exstreamApi.tracing.Span;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs the blocking service calls behind the *Async methods. Reads the following environmental properties:<br>
+ * exstream.async.threads: auto, virtual or platform. auto uses a virtual thread per call on Java 21 and later, and a
+ * pool of platform threads on older versions.<br>
+ * exstream.async.platformThreads: Size of the platform thread pool.<br>
+ * An application can supply its own executor with {@link #setExecutor(Executor)}.
+ */
+@Component
+public class ExstreamAsyncExecutor {
+    private static final Logger logger = LoggerFactory.getLogger(ExstreamAsyncExecutor.class);
+    private static final int VIRTUAL_THREADS_FEATURE_VERSION = 21;
+
+    @Value("${exstream.async.threads:auto}")
+    private String threads;
+
+    @Value("${exstream.async.platformThreads:64}")
+    private int platformThreads;
+
+    private volatile Executor executor;
+    private ExecutorService ownedExecutor;
+
+    @PostConstruct
+    private void logConfig() {
+        if (executor == null) {
+            ownedExecutor = newExecutor(threads, platformThreads);
+            executor = ownedExecutor;
+        }
+        logger.info("async.threads={} platformThreads={}", threads, platformThreads);
+    }
+
+    /**
+     * Replace the executor the asynchronous calls run on. The previous executor is shut down if it was created by this class.
+     * @param executor The executor to use. Each call occupies a thread of the executor for the whole exchange.
+     */
+    public synchronized void setExecutor(Executor executor) {
+        if (ownedExecutor != null) {
+            ownedExecutor.shutdown();
+            ownedExecutor = null;
+        }
+        this.executor = executor;
+    }
+
+    /**
+     * Run a blocking call on the executor.<br>
+     * When the returned future is cancelled or otherwise completed before the call finishes, for example by
+     * {@link CompletableFuture#orTimeout}, the HTTP exchange in progress is aborted and no further requests are sent.
+     * Cancelling a future derived from the returned one doesn't abort the call. A {@link Deadline} bound to the calling
+     * thread also applies to the call, its requests are added to the calling thread's {@link GenerationTrace}, and its
+     * spans are children of the calling thread's {@link Span}.
+     * @param call The blocking call
+     * @return A future that completes with the result of the call
+     */
+    public <T> CompletableFuture<T> supplyAsync(Supplier<T> call) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        ExchangeAbortHandle abortHandle = new ExchangeAbortHandle();
+        Deadline deadline = Deadline.current();
+        GenerationTrace trace = GenerationTrace.current();
+        Span span = Span.current();
+        future.whenComplete((result, e) -> {
+            if (e != null) {
+                abortHandle.abort();
+            }
+        });
+
+        try {
+            executor.execute(() -> {
+                if (future.isDone()) {
+                    return;
+                }
+                abortHandle.runBound(() -> {
+                    try {
+                        Supplier<T> profiledCall = trace != null ? () -> trace.call(call) : call;
+                        Supplier<T> tracedCall = span.isValid() ? () -> span.call(profiledCall) : profiledCall;
+                        future.complete(deadline != null ? deadline.call(tracedCall) : tracedCall.get());
+                    } catch (Throwable e) {
+                        future.completeExceptionally(e);
+                    }
+                });
+            });
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    @PreDestroy
+    private synchronized void shutdown() {
+        if (ownedExecutor != null) {
+            ownedExecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * Create an executor for asynchronous calls
+     * @param threads auto, virtual or platform
+     * @param platformThreads The number of threads when platform threads are used
+     * @return The executor
+     */
+    public static ExecutorService newExecutor(String threads, int platformThreads) {
+        switch (threads.trim().toLowerCase(Locale.ROOT)) {
+            case "virtual":
+                ExecutorService virtualThreadExecutor = newVirtualThreadExecutor();
+                if (virtualThreadExecutor == null) {
+                    throw new IllegalStateException("Virtual threads require Java " + VIRTUAL_THREADS_FEATURE_VERSION + " or later");
+                }
+                return virtualThreadExecutor;
+            case "platform":
+                return newPlatformThreadExecutor(platformThreads);
+            case "auto":
+                ExecutorService executor = newVirtualThreadExecutor();
+                return executor != null ? executor : newPlatformThreadExecutor(platformThreads);
+            default:
+                throw new IllegalArgumentException("Invalid exstream.async.threads value: " + threads);
+        }
+    }
+
+    private static ExecutorService newVirtualThreadExecutor() {
+        if (Runtime.version().feature() < VIRTUAL_THREADS_FEATURE_VERSION) {
+            return null;
+        }
+        // Looked up reflectively since the SDK is compiled for Java 17
+        try {
+            ExecutorService executor = (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            logger.debug("Using virtual threads for asynchronous calls");
+            return executor;
+        } catch (ReflectiveOperationException e) {
+            logger.warn("Could not create a virtual thread executor, using platform threads", e);
+            return null;
+        }
+    }
+
+    private static ExecutorService newPlatformThreadExecutor(int threads) {
+        logger.debug("Using {} platform threads for asynchronous calls", threads);
+        AtomicInteger threadCount = new AtomicInteger();
+        return Executors.newFixedThreadPool(Math.max(1, threads), runnable -> {
+            Thread thread = new Thread(runnable, "exstream-async-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
@@ -0,0 +1,319 @@
+/*
+ * Copyright 2023 Open Text Corporation, All Rights Reserved.
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.opentext.exstream.sdk.exstreamApi.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Content-addressed cache of generated output. Reads the following environmental properties:<br>
+ * exstream.outputCache.enabled: Set to true to enable the cache. Disabled by default.<br>
+ * exstream.outputCache.maxMemoryBytes: Maximum total size of outputs kept in memory.<br>
+ * exstream.outputCache.maxDiskBytes: Maximum total size of outputs spilled to disk.<br>
+ * exstream.outputCache.spillThresholdBytes: Outputs larger than this are kept on disk instead of in memory.<br>
+ * exstream.outputCache.spillDirectory: Directory for spilled outputs. A temporary directory is used when empty.<br>
+ * Entries are weighted by their size and the least recently used entries are evicted first. Concurrent requests
+ * for the same key are collapsed into a single render.
+ * @see OutputCacheKey
+ */
+@Component
+public class OutputCache {
+    private static final Logger logger = LoggerFactory.getLogger(OutputCache.class);
+
+    @Value("${exstream.outputCache.enabled:false}")
+    private boolean enabled;
+
+    @Value("${exstream.outputCache.maxMemoryBytes:67108864}")
+    private long maxMemoryBytes;
+
+    @Value("${exstream.outputCache.maxDiskBytes:1073741824}")
+    private long maxDiskBytes;
+
+    @Value("${exstream.outputCache.spillThresholdBytes:1048576}")
+    private long spillThresholdBytes;
+
+    @Value("${exstream.outputCache.spillDirectory:}")
+    private String spillDirectoryName;
+
+    private Path spillDirectory;
+
+    // Access ordered, so iteration starts at the least recently used entry. Guarded by this.
+    private final LinkedHashMap<OutputCacheKey, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long memoryBytes = 0;
+    private long diskBytes = 0;
+
+    // Renders that are currently running, so identical requests can wait for the same result
+    private final Map<OutputCacheKey, CompletableFuture<byte[]>> inFlight = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    @PostConstruct
+    private void logConfig() {
+        logger.info("outputCache.enabled={}", enabled);
+        if (enabled) {
+            logger.info("outputCache.maxMemoryBytes={} maxDiskBytes={} spillThresholdBytes={}", maxMemoryBytes, maxDiskBytes, spillThresholdBytes);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Get the output for a key, rendering it with the loader if it isn't cached.<br>
+     * If another thread is already rendering the same key, this waits for that render instead of starting another one.<br>
+     * The returned array may be shared with other callers and must not be modified.
+     * @param key The key of the output
+     * @param loader Renders the output on a cache miss
+     * @return The output bytes
+     */
+    public byte[] get(OutputCacheKey key, Supplier<byte[]> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+
+        byte[] cached = lookup(key);
+        if (cached != null) {
+            hits.incrementAndGet();
+            return cached;
+        }
+
+        CompletableFuture<byte[]> ownFuture = new CompletableFuture<>();
+        CompletableFuture<byte[]> existingFuture = inFlight.putIfAbsent(key, ownFuture);
+        if (existingFuture != null) {
+            coalesced.incrementAndGet();
+            logger.debug("Waiting for in-flight render of {}", key);
+            try {
+                return existingFuture.join();
+            } catch (CompletionException e) {
+                throw unwrap(e);
+            }
+        }
+
+        misses.incrementAndGet();
+        try {
+            byte[] content = loader.get();
+            put(key, content);
+            ownFuture.complete(content);
+            return content;
+        } catch (Throwable e) {
+            // Failures aren't cached, the next request will try again. Errors such as running out of memory while
+            // rendering must complete the future too, or the requests waiting for it would wait forever.
+            ownFuture.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, ownFuture);
+        }
+    }
+
+    /**
+     * Remove all entries from the cache
+     */
+    public void clear() {
+        synchronized (this) {
+            entries.values().forEach(this::release);
+            entries.clear();
+            memoryBytes = 0;
+            diskBytes = 0;
+        }
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    /**
+     * @return The number of requests that waited for a render another request had started instead of rendering again
+     */
+    public long getCoalescedCount() {
+        return coalesced.get();
+    }
+
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    public synchronized long getMemoryBytes() {
+        return memoryBytes;
+    }
+
+    public synchronized long getDiskBytes() {
+        return diskBytes;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    @PreDestroy
+    private void deleteSpilledEntries() {
+        clear();
+    }
+
+    private byte[] lookup(OutputCacheKey key) {
+        Entry entry;
+        synchronized (this) {
+            entry = entries.get(key);
+        }
+        if (entry == null) {
+            return null;
+        }
+        if (entry.content != null) {
+            return entry.content;
+        }
+
+        // Read spilled entries outside the lock. The file may have been evicted in the meantime, which is a miss.
+        try {
+            return Files.readAllBytes(entry.file);
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            logger.warn("Could not read spilled output cache entry {}", entry.file, e);
+            return null;
+        }
+    }
+
+    private void put(OutputCacheKey key, byte[] content) {
+        if (content.length > maxMemoryBytes && content.length > maxDiskBytes) {
+            logger.debug("Output for {} is too large to cache: {} bytes", key, content.length);
+            return;
+        }
+
+        Entry entry;
+        if (content.length > spillThresholdBytes || content.length > maxMemoryBytes) {
+            try {
+                // Write under a temporary name first so a concurrent lookup never reads a partial file
+                Path directory = getSpillDirectory();
+                Path file = directory.resolve(key.getDigest());
+                Path tempFile = Files.createTempFile(directory, key.getDigest(), ".part");
+                Files.write(tempFile, content);
+                Files.move(tempFile, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                entry = new Entry(null, file, content.length);
+            } catch (IOException e) {
+                logger.warn("Could not spill output cache entry to disk", e);
+                return;
+            }
+        } else {
+            entry = new Entry(content, null, content.length);
+        }
+
+        synchronized (this) {
+            Entry previous = entries.put(key, entry);
+            if (previous != null) {
+                subtract(previous);
+                if (previous.file != null && !previous.file.equals(entry.file)) {
+                    release(previous);
+                }
+            }
+            if (entry.content != null) {
+                memoryBytes += entry.weight;
+            } else {
+                diskBytes += entry.weight;
+            }
+            evict();
+        }
+    }
+
+    // Called while holding the lock
+    private void evict() {
+        Iterator<Entry> iterator = entries.values().iterator();
+        while ((memoryBytes > maxMemoryBytes || diskBytes > maxDiskBytes) && iterator.hasNext()) {
+            Entry eldest = iterator.next();
+            boolean overBudget = eldest.content != null ? memoryBytes > maxMemoryBytes : diskBytes > maxDiskBytes;
+            if (overBudget) {
+                iterator.remove();
+                subtract(eldest);
+                release(eldest);
+                evictions.incrementAndGet();
+            }
+        }
+    }
+
+    private void subtract(Entry entry) {
+        if (entry.content != null) {
+            memoryBytes -= entry.weight;
+        } else {
+            diskBytes -= entry.weight;
+        }
+    }
+
+    private void release(Entry entry) {
+        if (entry.file != null) {
+            try {
+                Files.deleteIfExists(entry.file);
+            } catch (IOException e) {
+                logger.warn("Could not delete spilled output cache entry {}", entry.file, e);
+            }
+        }
+    }
+
+    private synchronized Path getSpillDirectory() throws IOException {
+        if (spillDirectory == null) {
+            spillDirectory = spillDirectoryName == null || spillDirectoryName.isBlank()
+                    ? Files.createTempDirectory("exstream-output-cache")
+                    : Files.createDirectories(Path.of(spillDirectoryName));
+        }
+        return spillDirectory;
+    }
+
+    private static RuntimeException unwrap(CompletionException e) {
+        if (e.getCause() instanceof RuntimeException) {
+            return (RuntimeException) e.getCause();
+        }
+        if (e.getCause() instanceof IOException) {
+            return new UncheckedIOException((IOException) e.getCause());
+        }
+        return e;
+    }
+
+    private static class Entry {
+        // Exactly one of content or file is set
+        final byte[] content;
+        final Path file;
+        final long weight;
+
+        Entry(byte[] content, Path file, long weight) {
+            this.content = content;
+            this.file = file;
+            this.weight = weight;
+        }
+    }
+}
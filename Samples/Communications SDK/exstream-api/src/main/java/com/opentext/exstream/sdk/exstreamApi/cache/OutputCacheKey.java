@@ -0,0 +1,108 @@
+/*
+ * Copyright 2023 Open Text Corporation, All Rights Reserved.
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.opentext.exstream.sdk.exstreamApi.cache;
+
+import com.opentext.exstream.sdk.exstreamApi.model.dto.DasResourceVersion;
+import org.springframework.http.MediaType;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HexFormat;
+
+/**
+ * Key for an {@link OutputCache} entry.<br>
+ * The key is a SHA-256 hash of everything that determines the generated output: the domain, communication id,
+ * driver data source, the resolved DAS resource versions, the driver data bytes and the Accept type. Two requests
+ * with the same key produce the same document.
+ */
+public final class OutputCacheKey {
+    private static final byte SEPARATOR = 0;
+
+    private final String digest;
+
+    private OutputCacheKey(String digest) {
+        this.digest = digest;
+    }
+
+    /**
+     * Build a cache key for an on-demand generate request
+     * @param domain Domain id of the communication
+     * @param communicationId The id of the communication
+     * @param driverDataSource The prodDsn value of the driver file associated with the communication
+     * @param resolvedResourceVersions The DAS resource versions the output depends on, for example the communication and its
+     *                                 communication set. A new approved version of any of them produces a new key.
+     * @param driverData The driver data bytes sent to Orchestration
+     * @param acceptsMediaType Content type passed in the Accept header
+     * @return The key
+     */
+    public static OutputCacheKey of(String domain, String communicationId, String driverDataSource, Collection<DasResourceVersion> resolvedResourceVersions, byte[] driverData, MediaType acceptsMediaType) {
+        MessageDigest messageDigest = newDigest();
+        update(messageDigest, domain);
+        update(messageDigest, communicationId);
+        update(messageDigest, driverDataSource);
+
+        // Sort so the key doesn't depend on the order DAS returned the resources in
+        if (resolvedResourceVersions != null) {
+            resolvedResourceVersions.stream()
+                    .sorted(Comparator.comparing((DasResourceVersion r) -> String.valueOf(r.id)).thenComparingInt(r -> r.version))
+                    .forEach(r -> update(messageDigest, r.id + ":" + r.version));
+        }
+        update(messageDigest, String.valueOf(acceptsMediaType));
+        messageDigest.update(driverData);
+
+        return new OutputCacheKey(HexFormat.of().formatHex(messageDigest.digest()));
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void update(MessageDigest messageDigest, String value) {
+        if (value != null) {
+            messageDigest.update(value.getBytes(StandardCharsets.UTF_8));
+        }
+        messageDigest.update(SEPARATOR);
+    }
+
+    /**
+     * @return The hex encoded digest of the key
+     */
+    public String getDigest() {
+        return digest;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || (o instanceof OutputCacheKey && digest.equals(((OutputCacheKey) o).digest));
+    }
+
+    @Override
+    public int hashCode() {
+        return digest.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return digest;
+    }
+}
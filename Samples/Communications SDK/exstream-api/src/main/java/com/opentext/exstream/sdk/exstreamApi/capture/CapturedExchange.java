@@ -0,0 +1,50 @@
+/*
+ * Copyright 2023 Open Text Corporation, All Rights Reserved.
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.opentext.exstream.sdk.exstreamApi.capture;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.opentext.exstream.sdk.exstreamApi.model.enumeration.ExstreamBackend;
+import com.opentext.exstream.sdk.exstreamApi.model.enumeration.ExstreamOperation;
+
+import java.util.Map;
+
+/**
+ * One request recorded by a {@link TrafficJournal}, with the metadata of its response. Written as one line of JSON.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CapturedExchange {
+    // Time the request was sent, in milliseconds since the epoch
+    public long timestamp;
+    public ExstreamBackend backend;
+    public ExstreamOperation operation;
+    public String method;
+    // Path and query of the request URI, without the scheme, host and port
+    public String uri;
+    // Request headers, without credentials, cookies and trace context
+    public Map<String, String> headers;
+    public long requestBytes;
+    // SHA-256 of the request body in hex, when payloads are hashed
+    public String requestSha256;
+    // The request body in base64, when payloads are captured in full
+    public String requestBody;
+    // HTTP status of the response, null if the request failed without a response
+    public Integer status;
+    public String responseContentType;
+    public long responseBytes;
+    // Time from sending the request until its response was closed
+    public long durationMillis;
+    // Exception the request failed with, null if there was a response
+    public String error;
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2023 Open Text Corporation, All Rights Reserved.
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.opentext.exstream.sdk.exstreamApi.capture;
+
+import com.opentext.exstream.sdk.exstreamApi.model.enumeration.ExstreamBackend;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records every request sent to one backend in a {@link TrafficJournal}. A request is recorded when its response is
+ * closed, with the number of bytes read from the response body and the time it took until then.
+ */
+public class TrafficCaptureInterceptor implements ClientHttpRequestInterceptor {
+    private final TrafficJournal journal;
+    private final ExstreamBackend backend;
+
+    /**
+     * @param journal The journal the requests are written to
+     * @param backend The backend the requests are sent to
+     */
+    public TrafficCaptureInterceptor(TrafficJournal journal, ExstreamBackend backend) {
+        this.journal = journal;
+        this.backend = backend;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+        CapturedExchange exchange = journal.capture(backend, request, body);
+        long startNanos = System.nanoTime();
+        ClientHttpResponse response;
+        try {
+            response = execution.execute(request, body);
+            exchange.status = response.getRawStatusCode();
+        } catch (IOException | RuntimeException e) {
+            exchange.error = e.getClass().getSimpleName();
+            exchange.durationMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+            journal.record(exchange);
+            throw e;
+        }
+        exchange.responseContentType = response.getHeaders().getFirst(HttpHeaders.CONTENT_TYPE);
+        return new CapturedResponse(response, exchange, startNanos);
+    }
+
+    // Records the request when it is closed
+    private class CapturedResponse implements ClientHttpResponse {
+        private final ClientHttpResponse response;
+        private final CapturedExchange exchange;
+        private final long startNanos;
+        private CountingInputStream body;
+        private boolean closed = false;
+
+        CapturedResponse(ClientHttpResponse response, CapturedExchange exchange, long startNanos) {
+            this.response = response;
+            this.exchange = exchange;
+            this.startNanos = startNanos;
+        }
+
+        @Override
+        public HttpStatus getStatusCode() throws IOException {
+            return response.getStatusCode();
+        }
+
+        @Override
+        public int getRawStatusCode() {
+            return exchange.status;
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return response.getStatusText();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return response.getHeaders();
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            if (body == null) {
+                body = new CountingInputStream(response.getBody());
+            }
+            return body;
+        }
+
+        @Override
+        public void close() {
+            response.close();
+            if (closed) {
+                return;
+            }
+            closed = true;
+            exchange.responseBytes = body != null ? body.count : 0;
+            exchange.durationMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+            journal.record(exchange);
+        }
+    }
+
+    private static class CountingInputStream extends FilterInputStream {
+        private long count = 0;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = super.read(b, off, len);
+            if (read > 0) {
+                count += read;
+            }
+            return read;
+        }
+    }
+}
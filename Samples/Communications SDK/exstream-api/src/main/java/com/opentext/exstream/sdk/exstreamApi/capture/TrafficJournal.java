@@ -0,0 +1,222 @@
+/*
+ * Copyright 2023 Open Text Corporation, All Rights Reserved.
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.opentext.exstream.sdk.exstreamApi.capture;
+
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.opentext.exstream.sdk.exstreamApi.model.enumeration.ExstreamBackend;
+import com.opentext.exstream.sdk.exstreamApi.model.enumeration.ExstreamOperation;
+import com.opentext.exstream.sdk.exstreamApi.utils.ExstreamJson;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Records the requests the services send in a local journal, so that the traffic of an application can be replayed
+ * against a test backend later. Reads the following environmental properties:<br>
+ * exstream.capture.file: File the requests are appended to, one JSON object per line. Empty turns capture off, which
+ * is the default.<br>
+ * exstream.capture.payloads: What is kept of the request bodies. redact keeps their size, hash adds their SHA-256 and
+ * full adds the body in base64. The bodies of token requests are always redacted.<br>
+ * exstream.capture.queueSize: Number of recorded requests waiting to be written. Requests recorded while the queue is
+ * full are dropped, so that capture never holds up a request.<br>
+ * Each request is recorded once as a {@link CapturedExchange}, however often it was retried or hedged. Credentials,
+ * cookies and trace context are left out of the recorded headers. A background thread writes the journal.
+ */
+@Component
+public class TrafficJournal {
+    private static final Logger logger = LoggerFactory.getLogger(TrafficJournal.class);
+    private static final Set<String> EXCLUDED_HEADERS = Set.of("authorization", "proxy-authorization", "cookie", "content-length",
+            "traceparent", "tracestate");
+
+    @Value("${exstream.capture.file:}")
+    private String file;
+
+    @Value("${exstream.capture.payloads:redact}")
+    private String payloads;
+
+    @Value("${exstream.capture.queueSize:10000}")
+    private int queueSize;
+
+    private PayloadCapture payloadCapture;
+    private BlockingQueue<CapturedExchange> queue;
+    private BufferedWriter out;
+    private Thread writerThread;
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    @PostConstruct
+    private void logConfig() throws IOException {
+        payloadCapture = PayloadCapture.valueOf(payloads.trim().toUpperCase(Locale.ROOT));
+        logger.info("capture.file={} payloads={} queueSize={}", file, payloadCapture, queueSize);
+        if (!isEnabled()) {
+            return;
+        }
+        Path path = Path.of(file);
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        out = Files.newBufferedWriter(path, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        queue = new ArrayBlockingQueue<>(queueSize);
+        writerThread = new Thread(this::writeJournal, "exstream-capture");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    @PreDestroy
+    private void close() throws IOException, InterruptedException {
+        if (writerThread == null) {
+            return;
+        }
+        writerThread.interrupt();
+        writerThread.join();
+        // Write what the writer thread left in the queue
+        List<CapturedExchange> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        ObjectWriter writer = ExstreamJson.writerFor(CapturedExchange.class);
+        for (CapturedExchange exchange : remaining) {
+            write(writer, exchange);
+        }
+        out.close();
+        logger.info("Captured {} requests in {}, dropped {}", written.get(), file, dropped.get());
+    }
+
+    public boolean isEnabled() {
+        return !file.isBlank();
+    }
+
+    /**
+     * @param backend The backend the requests are sent to
+     * @return An interceptor that records the requests to the backend, or empty if capture is turned off
+     */
+    public Optional<TrafficCaptureInterceptor> getInterceptor(ExstreamBackend backend) {
+        return isEnabled() ? Optional.of(new TrafficCaptureInterceptor(this, backend)) : Optional.empty();
+    }
+
+    /**
+     * @return The number of requests written to the journal
+     */
+    public long getWrittenCount() {
+        return written.get();
+    }
+
+    /**
+     * @return The number of requests that weren't written because the queue was full
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /**
+     * Start recording a request
+     * @return The record of the request, to be completed with its response and passed to {@link #record}
+     */
+    CapturedExchange capture(ExstreamBackend backend, HttpRequest request, byte[] body) {
+        URI uri = request.getURI();
+        CapturedExchange exchange = new CapturedExchange();
+        exchange.timestamp = System.currentTimeMillis();
+        exchange.backend = backend;
+        exchange.operation = ExstreamOperation.of(uri.getPath());
+        exchange.method = request.getMethodValue();
+        exchange.uri = uri.getRawQuery() != null ? uri.getRawPath() + "?" + uri.getRawQuery() : uri.getRawPath();
+        exchange.headers = captureHeaders(request.getHeaders());
+        exchange.requestBytes = body.length;
+
+        // Token requests carry the password or client secret
+        PayloadCapture bodyCapture = exchange.operation == ExstreamOperation.TOKEN ? PayloadCapture.REDACT : payloadCapture;
+        if (body.length > 0 && bodyCapture == PayloadCapture.HASH) {
+            exchange.requestSha256 = sha256(body);
+        } else if (body.length > 0 && bodyCapture == PayloadCapture.FULL) {
+            exchange.requestBody = Base64.getEncoder().encodeToString(body);
+        }
+        return exchange;
+    }
+
+    /**
+     * Queue a completed record to be written
+     */
+    void record(CapturedExchange exchange) {
+        if (!queue.offer(exchange) && dropped.getAndIncrement() == 0) {
+            logger.warn("The traffic capture queue is full, requests are dropped from {}", file);
+        }
+    }
+
+    private static Map<String, String> captureHeaders(HttpHeaders headers) {
+        Map<String, String> captured = new LinkedHashMap<>();
+        headers.forEach((name, values) -> {
+            if (!EXCLUDED_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                captured.put(name, String.join(", ", values));
+            }
+        });
+        return captured;
+    }
+
+    private static String sha256(byte[] body) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(body));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private void writeJournal() {
+        ObjectWriter writer = ExstreamJson.writerFor(CapturedExchange.class);
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                write(writer, queue.take());
+                // Flush whenever the queue runs empty, so the journal is complete while traffic pauses
+                if (queue.isEmpty()) {
+                    out.flush();
+                }
+            }
+        } catch (InterruptedException e) {
+            // Closing
+        } catch (IOException e) {
+            logger.error("Failed to write the traffic journal {}, capture stopped", file, e);
+        }
+    }
+
+    private void write(ObjectWriter writer, CapturedExchange exchange) throws IOException {
+        out.write(writer.writeValueAsString(exchange));
+        out.newLine();
+        written.incrementAndGet();
+    }
+}
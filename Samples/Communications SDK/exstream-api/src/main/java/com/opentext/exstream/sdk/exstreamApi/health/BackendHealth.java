@@ -0,0 +1,146 @@
+/*
+ * Copyright 2023 Open Text Corporation, All Rights Reserved.
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.opentext.exstream.sdk.exstreamApi.health;
+
+import com.opentext.exstream.sdk.exstreamApi.model.dto.ServiceVersionInfo;
+import com.opentext.exstream.sdk.exstreamApi.model.enumeration.ExstreamBackend;
+import com.opentext.exstream.sdk.exstreamApi.resilience.CircuitBreaker;
+
+import java.time.Instant;
+import java.util.Locale;
+
+/**
+ * The health of one backend as seen by the recent probes of the {@link BackendHealthMonitor}
+ */
+public class BackendHealth {
+    private final ExstreamBackend backend;
+    private final int probes;
+    private final int availableProbes;
+    private final boolean available;
+    private final long lastLatencyMillis;
+    private final long averageLatencyMillis;
+    private final long maxLatencyMillis;
+    private final ServiceVersionInfo versionInfo;
+    private final Instant lastProbedAt;
+    private final Instant lastAvailableAt;
+    private final String lastError;
+    private final CircuitBreaker.State circuitBreakerState;
+
+    BackendHealth(ExstreamBackend backend, int probes, int availableProbes, boolean available, long lastLatencyMillis, long averageLatencyMillis,
+                  long maxLatencyMillis, ServiceVersionInfo versionInfo, Instant lastProbedAt, Instant lastAvailableAt, String lastError,
+                  CircuitBreaker.State circuitBreakerState) {
+        this.backend = backend;
+        this.probes = probes;
+        this.availableProbes = availableProbes;
+        this.available = available;
+        this.lastLatencyMillis = lastLatencyMillis;
+        this.averageLatencyMillis = averageLatencyMillis;
+        this.maxLatencyMillis = maxLatencyMillis;
+        this.versionInfo = versionInfo;
+        this.lastProbedAt = lastProbedAt;
+        this.lastAvailableAt = lastAvailableAt;
+        this.lastError = lastError;
+        this.circuitBreakerState = circuitBreakerState;
+    }
+
+    public ExstreamBackend getBackend() {
+        return backend;
+    }
+
+    /**
+     * @return Whether the last probe succeeded. False before the first probe.
+     */
+    public boolean isAvailable() {
+        return available;
+    }
+
+    /**
+     * @return The share of the recent probes that succeeded, from 0 to 1
+     */
+    public double getAvailability() {
+        return probes == 0 ? 0 : (double) availableProbes / probes;
+    }
+
+    /**
+     * @return The number of recent probes the availability and latencies are calculated over
+     */
+    public int getProbes() {
+        return probes;
+    }
+
+    /**
+     * @return The latency of the last probe, whether it succeeded or not
+     */
+    public long getLastLatencyMillis() {
+        return lastLatencyMillis;
+    }
+
+    /**
+     * @return The average latency of the recent probes that succeeded
+     */
+    public long getAverageLatencyMillis() {
+        return averageLatencyMillis;
+    }
+
+    /**
+     * @return The highest latency of the recent probes that succeeded
+     */
+    public long getMaxLatencyMillis() {
+        return maxLatencyMillis;
+    }
+
+    /**
+     * @return The version the backend returned to the last successful probe, a {@link com.opentext.exstream.sdk.exstreamApi.model.dto.BackendServiceVersionInfo}
+     * or an {@link com.opentext.exstream.sdk.exstreamApi.model.dto.EmpowerServiceVersionInfo}, or null if no probe succeeded yet
+     */
+    public ServiceVersionInfo getVersionInfo() {
+        return versionInfo;
+    }
+
+    /**
+     * @return When the last probe completed, or null if none did yet
+     */
+    public Instant getLastProbedAt() {
+        return lastProbedAt;
+    }
+
+    /**
+     * @return When the last successful probe completed, or null if none did yet
+     */
+    public Instant getLastAvailableAt() {
+        return lastAvailableAt;
+    }
+
+    /**
+     * @return Why the last probe failed, or null if it succeeded
+     */
+    public String getLastError() {
+        return lastError;
+    }
+
+    /**
+     * @return The state of the circuit breaker of the backend, or null if circuit breakers are turned off
+     */
+    public CircuitBreaker.State getCircuitBreakerState() {
+        return circuitBreakerState;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "%s %s, availability %.2f over %d probes, latency last %dms average %dms max %dms%s%s",
+                backend, available ? "available" : "unavailable", getAvailability(), probes, lastLatencyMillis, averageLatencyMillis, maxLatencyMillis,
+                versionInfo != null ? ", version " + versionInfo.getServiceVersion() : "", lastError != null ? ", last error " + lastError : "");
+    }
+}
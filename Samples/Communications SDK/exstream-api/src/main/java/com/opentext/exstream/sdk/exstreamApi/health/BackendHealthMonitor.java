@@ -0,0 +1,303 @@
+/*
+ * Copyright 2023 Open Text Corporation, All Rights Reserved.
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.opentext.exstream.sdk.exstreamApi.health;
+
+import com.opentext.exstream.sdk.exstreamApi.async.ExstreamAsyncExecutor;
+import com.opentext.exstream.sdk.exstreamApi.metrics.ExstreamMetrics;
+import com.opentext.exstream.sdk.exstreamApi.model.dto.ServiceVersionInfo;
+import com.opentext.exstream.sdk.exstreamApi.model.enumeration.ExstreamBackend;
+import com.opentext.exstream.sdk.exstreamApi.resilience.CircuitBreaker;
+import com.opentext.exstream.sdk.exstreamApi.service.DasService;
+import com.opentext.exstream.sdk.exstreamApi.service.EmpowerService;
+import com.opentext.exstream.sdk.exstreamApi.service.OrchestrationService;
+import com.opentext.exstream.sdk.exstreamApi.spring.ExstreamRestTemplateConfigurer;
+import com.opentext.exstream.sdk.exstreamApi.utils.ExstreamApiException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Probes the version endpoint of each backend in the background and keeps the outcome, so that health endpoints and
+ * routing decisions can read the state of the backends without calling them.<br>
+ * Every interval each backend is sent a version request on the asynchronous executor. The version it returns is cached,
+ * and the outcome and latency of the last windowSize probes give its availability and latency. A backend whose probe is
+ * still in progress isn't probed again. The probes go through the same interceptors as the other requests to the
+ * backend. When circuit breakers are turned on they count towards the backend's breaker, and while it is half-open
+ * they are the probe calls that close it again without waiting for application traffic. An application that spreads work over several deployments
+ * can use {@link #getHealth} to prefer the one with the best availability and latency.<br>
+ * Reads the following environmental properties:<br>
+ * exstream.health.enabled: Set to true to probe the backends in the background.<br>
+ * exstream.health.backends: Comma separated backends that are probed, from das, orchestration and empower.<br>
+ * exstream.health.intervalMillis: Time between the start of two probes of a backend.<br>
+ * exstream.health.timeoutMillis: Longest time a probe waits for the backend. Slower probes fail.<br>
+ * exstream.health.windowSize: Number of recent probes the availability and latencies are calculated over.
+ */
+@Component
+public class BackendHealthMonitor {
+    private static final Logger logger = LoggerFactory.getLogger(BackendHealthMonitor.class);
+
+    @Autowired
+    DasService dasService;
+
+    @Autowired
+    OrchestrationService orchestrationService;
+
+    @Autowired
+    EmpowerService empowerService;
+
+    @Autowired
+    ExstreamAsyncExecutor asyncExecutor;
+
+    @Autowired
+    ExstreamRestTemplateConfigurer restTemplateConfigurer;
+
+    @Autowired
+    ExstreamMetrics metrics;
+
+    @Value("${exstream.health.enabled:false}")
+    private boolean enabled;
+
+    @Value("${exstream.health.backends:das,orchestration,empower}")
+    private String backends;
+
+    @Value("${exstream.health.intervalMillis:30000}")
+    private long intervalMillis;
+
+    @Value("${exstream.health.timeoutMillis:10000}")
+    private long timeoutMillis;
+
+    @Value("${exstream.health.windowSize:20}")
+    private int windowSize;
+
+    private final Map<ExstreamBackend, ProbeWindow> windows = new EnumMap<>(ExstreamBackend.class);
+    private ScheduledExecutorService scheduler;
+
+    @PostConstruct
+    private void logConfig() {
+        logger.info("health.enabled={} backends={} intervalMillis={} timeoutMillis={} windowSize={}", enabled, backends, intervalMillis, timeoutMillis, windowSize);
+        if (!enabled) {
+            return;
+        }
+        if (intervalMillis < 1 || timeoutMillis < 1 || windowSize < 1) {
+            throw new IllegalArgumentException("Invalid exstream.health settings");
+        }
+        for (String backend : backends.split(",")) {
+            if (!backend.isBlank()) {
+                ExstreamBackend probedBackend = ExstreamBackend.valueOf(backend.trim().toUpperCase(Locale.ROOT));
+                windows.put(probedBackend, new ProbeWindow(probedBackend, probeOf(probedBackend), windowSize));
+                metrics.bind(probedBackend, this);
+            }
+        }
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "exstream-health");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleAtFixedRate(this::probeAll, 0, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    private void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return The backends that are probed
+     */
+    public Set<ExstreamBackend> getBackends() {
+        return Collections.unmodifiableSet(windows.keySet());
+    }
+
+    /**
+     * @param backend The backend
+     * @return The health of the backend from its recent probes
+     * @throws IllegalArgumentException If the backend isn't probed
+     */
+    public BackendHealth getHealth(ExstreamBackend backend) {
+        ProbeWindow window = windows.get(backend);
+        if (window == null) {
+            throw new IllegalArgumentException(backend + " isn't probed, see exstream.health.backends");
+        }
+        CircuitBreaker.State circuitBreakerState = restTemplateConfigurer.getCircuitBreaker(backend).map(CircuitBreaker::getState).orElse(null);
+        return window.snapshot(circuitBreakerState);
+    }
+
+    /**
+     * @return The health of every backend that is probed
+     */
+    public Map<ExstreamBackend, BackendHealth> getHealth() {
+        Map<ExstreamBackend, BackendHealth> health = new EnumMap<>(ExstreamBackend.class);
+        windows.keySet().forEach(backend -> health.put(backend, getHealth(backend)));
+        return health;
+    }
+
+    /**
+     * @return Whether the last probe of the backend succeeded. False before the first probe and for backends that
+     * aren't probed.
+     */
+    public boolean isAvailable(ExstreamBackend backend) {
+        ProbeWindow window = windows.get(backend);
+        return window != null && window.isAvailable();
+    }
+
+    /**
+     * @return The version the backend returned to the last successful probe, or null if there was none
+     */
+    public ServiceVersionInfo getVersionInfo(ExstreamBackend backend) {
+        ProbeWindow window = windows.get(backend);
+        return window != null ? window.getVersionInfo() : null;
+    }
+
+    private void probeAll() {
+        windows.values().forEach(window -> {
+            if (!window.inProgress.compareAndSet(false, true)) {
+                return;
+            }
+            long startNanos = System.nanoTime();
+            // Completing the future aborts the exchange, so a probe that times out doesn't hold a connection
+            asyncExecutor.supplyAsync(window.probe)
+                    .orTimeout(timeoutMillis, TimeUnit.MILLISECONDS)
+                    .whenComplete((versionInfo, error) -> {
+                        window.record(System.nanoTime() - startNanos, versionInfo, error);
+                        window.inProgress.set(false);
+                    });
+        });
+    }
+
+    private Supplier<ServiceVersionInfo> probeOf(ExstreamBackend backend) {
+        switch (backend) {
+            case DAS:
+                return dasService::getVersion;
+            case ORCHESTRATION:
+                return orchestrationService::getVersion;
+            case EMPOWER:
+                return empowerService::getVersion;
+            default:
+                throw new IllegalArgumentException(backend + " has no version to probe");
+        }
+    }
+
+    // The outcome of the recent probes of one backend. Guarded by this.
+    private static class ProbeWindow {
+        private final ExstreamBackend backend;
+        private final Supplier<ServiceVersionInfo> probe;
+        private final AtomicBoolean inProgress = new AtomicBoolean();
+
+        // Ring buffer of the last probes
+        private final boolean[] succeeded;
+        private final long[] latencyNanos;
+        private int index = 0;
+        private int count = 0;
+
+        private boolean available = false;
+        private long lastLatencyNanos;
+        private ServiceVersionInfo versionInfo;
+        private Instant lastProbedAt;
+        private Instant lastAvailableAt;
+        private String lastError;
+
+        ProbeWindow(ExstreamBackend backend, Supplier<ServiceVersionInfo> probe, int windowSize) {
+            this.backend = backend;
+            this.probe = probe;
+            this.succeeded = new boolean[windowSize];
+            this.latencyNanos = new long[windowSize];
+        }
+
+        synchronized void record(long durationNanos, ServiceVersionInfo probedVersion, Throwable error) {
+            boolean success = error == null;
+            succeeded[index] = success;
+            latencyNanos[index] = durationNanos;
+            index = (index + 1) % succeeded.length;
+            count = Math.min(count + 1, succeeded.length);
+
+            if (success != available || lastProbedAt == null) {
+                if (success) {
+                    logger.info("{} is available", backend);
+                } else {
+                    logger.warn("{} is unavailable: {}", backend, describe(error));
+                }
+            }
+            available = success;
+            lastLatencyNanos = durationNanos;
+            lastProbedAt = Instant.now();
+            lastError = success ? null : describe(error);
+            if (success) {
+                versionInfo = probedVersion;
+                lastAvailableAt = lastProbedAt;
+            }
+        }
+
+        synchronized boolean isAvailable() {
+            return available;
+        }
+
+        synchronized ServiceVersionInfo getVersionInfo() {
+            return versionInfo;
+        }
+
+        synchronized BackendHealth snapshot(CircuitBreaker.State circuitBreakerState) {
+            int availableProbes = 0;
+            long totalNanos = 0;
+            long maxNanos = 0;
+            for (int i = 0; i < count; i++) {
+                if (succeeded[i]) {
+                    availableProbes++;
+                    totalNanos += latencyNanos[i];
+                    maxNanos = Math.max(maxNanos, latencyNanos[i]);
+                }
+            }
+            long averageNanos = availableProbes == 0 ? 0 : totalNanos / availableProbes;
+            return new BackendHealth(backend, count, availableProbes, available, TimeUnit.NANOSECONDS.toMillis(lastLatencyNanos),
+                    TimeUnit.NANOSECONDS.toMillis(averageNanos), TimeUnit.NANOSECONDS.toMillis(maxNanos), versionInfo, lastProbedAt,
+                    lastAvailableAt, lastError, circuitBreakerState);
+        }
+
+        private static String describe(Throwable error) {
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            if (cause instanceof TimeoutException) {
+                return "no answer within the timeout";
+            }
+            if (cause instanceof ExstreamApiException) {
+                return "HTTP " + ((ExstreamApiException) cause).getRawStatusCode();
+            }
+            return cause.toString();
+        }
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2023 Open Text Corporation, All Rights Reserved.
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.opentext.exstream.sdk.exstreamApi.health;
+
+import com.opentext.exstream.sdk.exstreamApi.model.enumeration.ExstreamBackend;
+
+/**
+ * The outcome of a {@link ReadinessCheck} for one backend
+ */
+public class BackendReadiness {
+    private final ExstreamBackend backend;
+    private final String version;
+    private final long latencyMillis;
+    private final int warmConnections;
+    private final String error;
+
+    BackendReadiness(ExstreamBackend backend, String version, long latencyMillis, int warmConnections, String error) {
+        this.backend = backend;
+        this.version = version;
+        this.latencyMillis = latencyMillis;
+        this.warmConnections = warmConnections;
+        this.error = error;
+    }
+
+    public ExstreamBackend getBackend() {
+        return backend;
+    }
+
+    /**
+     * @return Whether the backend answered
+     */
+    public boolean isReady() {
+        return error == null;
+    }
+
+    /**
+     * @return The version of the service, or null if it wasn't checked or the backend didn't answer
+     */
+    public String getVersion() {
+        return version;
+    }
+
+    /**
+     * @return The time until every request to the backend completed, or until the check gave up on them
+     */
+    public long getLatencyMillis() {
+        return latencyMillis;
+    }
+
+    /**
+     * @return The number of requests that completed while connections to the backend were opened
+     */
+    public int getWarmConnections() {
+        return warmConnections;
+    }
+
+    /**
+     * @return Why the backend isn't ready, or null if it is
+     */
+    public String getError() {
+        return error;
+    }
+
+    @Override
+    public String toString() {
+        if (!isReady()) {
+            return backend + " not ready after " + latencyMillis + "ms: " + error;
+        }
+        return backend + " ready in " + latencyMillis + "ms" + (version != null ? ", version " + version : "") + ", " + warmConnections + " warm connections";
+    }
+}
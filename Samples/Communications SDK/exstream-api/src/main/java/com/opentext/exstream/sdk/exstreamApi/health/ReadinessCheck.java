@@ -0,0 +1,263 @@
+/*
+ * Copyright 2023 Open Text Corporation, All Rights Reserved.
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.opentext.exstream.sdk.exstreamApi.health;
+
+import com.opentext.exstream.sdk.exstreamApi.async.ExstreamAsyncExecutor;
+import com.opentext.exstream.sdk.exstreamApi.model.dto.ServiceVersionInfo;
+import com.opentext.exstream.sdk.exstreamApi.model.enumeration.ExstreamBackend;
+import com.opentext.exstream.sdk.exstreamApi.service.DasService;
+import com.opentext.exstream.sdk.exstreamApi.service.EmpowerService;
+import com.opentext.exstream.sdk.exstreamApi.service.EtsService;
+import com.opentext.exstream.sdk.exstreamApi.service.OrchestrationService;
+import com.opentext.exstream.sdk.exstreamApi.service.OtdsService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Checks that the backends answer and warms up the client before the application takes traffic, so its first requests
+ * don't pay for opening connections, TLS handshakes or fetching a token.<br>
+ * The OTDS tokens are fetched first: the service client's token, which the Orchestration output requests use, when a
+ * service client is configured, and the user's token. Then every backend is sent prewarmConnections version requests at the same time, so
+ * each of them opens a connection that stays in the JDK's keep-alive cache afterwards, and its TLS session is cached
+ * for later handshakes. The JDK keeps at most http.maxConnections idle connections per server, 5 by default, for as long
+ * as the server's Keep-Alive header allows, 5 seconds if it sends none.<br>
+ * Reads the following environmental properties:<br>
+ * exstream.readiness.onStartup: Run the check when the application context has been refreshed. Spring Boot doesn't
+ * report the application as ready before then.<br>
+ * exstream.readiness.backends: Comma separated backends that are checked besides OTDS. ETS is checked by fetching an
+ * ETS token.<br>
+ * exstream.readiness.prewarmConnections: Connections opened to each backend.<br>
+ * exstream.readiness.prewarmConnectionsByBackend: Comma separated backend=connections overrides, for example orchestration=8.<br>
+ * exstream.readiness.timeoutMillis: Longest time the check waits for the backends.<br>
+ * exstream.readiness.failOnStartup: Fail the startup of the application when a backend isn't ready.
+ */
+@Component
+public class ReadinessCheck {
+    private static final Logger logger = LoggerFactory.getLogger(ReadinessCheck.class);
+
+    @Autowired
+    OtdsService otdsService;
+
+    @Autowired
+    DasService dasService;
+
+    @Autowired
+    OrchestrationService orchestrationService;
+
+    @Autowired
+    EmpowerService empowerService;
+
+    @Autowired
+    EtsService etsService;
+
+    @Autowired
+    ExstreamAsyncExecutor asyncExecutor;
+
+    @Value("${exstream.readiness.onStartup:false}")
+    private boolean onStartup;
+
+    @Value("${exstream.readiness.backends:das,orchestration,empower}")
+    private String backends;
+
+    @Value("${exstream.readiness.prewarmConnections:2}")
+    private int prewarmConnections;
+
+    @Value("${exstream.readiness.prewarmConnectionsByBackend:}")
+    private String prewarmConnectionsByBackend;
+
+    @Value("${exstream.readiness.timeoutMillis:30000}")
+    private long timeoutMillis;
+
+    @Value("${exstream.readiness.failOnStartup:false}")
+    private boolean failOnStartup;
+
+    private final Set<ExstreamBackend> checkedBackends = EnumSet.noneOf(ExstreamBackend.class);
+    private final Map<ExstreamBackend, Integer> backendConnections = new EnumMap<>(ExstreamBackend.class);
+
+    private volatile List<BackendReadiness> lastResults = List.of();
+
+    @PostConstruct
+    private void logConfig() {
+        for (String backend : backends.split(",")) {
+            if (!backend.isBlank()) {
+                checkedBackends.add(ExstreamBackend.valueOf(backend.trim().toUpperCase(Locale.ROOT)));
+            }
+        }
+        // OTDS is checked by fetching the token the other backends need
+        checkedBackends.remove(ExstreamBackend.OTDS);
+        for (String entry : prewarmConnectionsByBackend.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            String[] backendAndConnections = entry.split("=", 2);
+            if (backendAndConnections.length != 2) {
+                throw new IllegalArgumentException("Invalid exstream.readiness.prewarmConnectionsByBackend setting: " + entry);
+            }
+            backendConnections.put(ExstreamBackend.valueOf(backendAndConnections[0].trim().toUpperCase(Locale.ROOT)),
+                    Integer.parseInt(backendAndConnections[1].trim()));
+        }
+        if (prewarmConnections < 1 || backendConnections.values().stream().anyMatch(connections -> connections < 1)) {
+            throw new IllegalArgumentException("exstream.readiness.prewarmConnections must be at least 1");
+        }
+        int keepAliveConnections = Integer.getInteger("http.maxConnections", 5);
+        if (prewarmConnections > keepAliveConnections || backendConnections.values().stream().anyMatch(connections -> connections > keepAliveConnections)) {
+            logger.warn("Only {} idle connections per server are kept, set the http.maxConnections system property to keep more", keepAliveConnections);
+        }
+        logger.info("readiness.onStartup={} backends={} prewarmConnections={} prewarmConnectionsByBackend={} timeoutMillis={} failOnStartup={}",
+                onStartup, checkedBackends, prewarmConnections, backendConnections, timeoutMillis, failOnStartup);
+    }
+
+    @EventListener(ContextRefreshedEvent.class)
+    private void checkOnStartup() {
+        if (!onStartup) {
+            return;
+        }
+        List<BackendReadiness> results = check();
+        if (failOnStartup && !isReady()) {
+            throw new IllegalStateException("Exstream backends aren't ready: " + results);
+        }
+    }
+
+    /**
+     * Fetch the OTDS tokens, then check every backend and open connections to it at the same time
+     * @return The outcome for OTDS and each backend, in the order they were checked
+     */
+    public List<BackendReadiness> check() {
+        long startNanos = System.nanoTime();
+        long deadlineNanos = startNanos + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        List<BackendReadiness> results = new ArrayList<>();
+
+        // Every other request needs a token, so fetching it in parallel with them would fetch it several times. OTDS
+        // isn't ready when either token can't be fetched.
+        BackendReadiness otds = await(ExstreamBackend.OTDS, List.of(asyncExecutor.supplyAsync(() -> {
+            if (otdsService.hasServiceClient()) {
+                otdsService.getServiceClientToken();
+            }
+            otdsService.getToken();
+            return (String) null;
+        })), startNanos, deadlineNanos);
+        results.add(otds);
+
+        if (otds.isReady()) {
+            Map<ExstreamBackend, List<CompletableFuture<String>>> requests = new EnumMap<>(ExstreamBackend.class);
+            long requestsStartNanos = System.nanoTime();
+            for (ExstreamBackend backend : checkedBackends) {
+                List<CompletableFuture<String>> futures = new ArrayList<>();
+                Supplier<String> probe = probeOf(backend);
+                // A token is fetched once, only the other backends have more than one connection to warm
+                int connections = backend == ExstreamBackend.ETS ? 1 : backendConnections.getOrDefault(backend, prewarmConnections);
+                for (int i = 0; i < connections; i++) {
+                    futures.add(asyncExecutor.supplyAsync(probe));
+                }
+                requests.put(backend, futures);
+            }
+            requests.forEach((backend, futures) -> results.add(await(backend, futures, requestsStartNanos, deadlineNanos)));
+        }
+
+        results.forEach(result -> {
+            if (result.isReady()) {
+                logger.info("{}", result);
+            } else {
+                logger.warn("{}", result);
+            }
+        });
+        lastResults = List.copyOf(results);
+        return lastResults;
+    }
+
+    /**
+     * @return Whether OTDS and every backend were ready in the last check. False before the first check.
+     */
+    public boolean isReady() {
+        List<BackendReadiness> results = lastResults;
+        return !results.isEmpty() && results.stream().allMatch(BackendReadiness::isReady);
+    }
+
+    /**
+     * @return The outcome of the last check, or an empty list if there was none
+     */
+    public List<BackendReadiness> getLastResults() {
+        return lastResults;
+    }
+
+    // A request that returns the version of the backend, or null if it has none
+    private Supplier<String> probeOf(ExstreamBackend backend) {
+        switch (backend) {
+            case DAS:
+                return () -> versionOf(dasService.getVersion());
+            case ORCHESTRATION:
+                return () -> versionOf(orchestrationService.getVersion());
+            case EMPOWER:
+                return () -> versionOf(empowerService.getVersion());
+            case ETS:
+                return () -> {
+                    etsService.getToken();
+                    return null;
+                };
+            default:
+                throw new IllegalArgumentException(backend + " can't be checked");
+        }
+    }
+
+    private static String versionOf(ServiceVersionInfo versionInfo) {
+        return versionInfo != null ? versionInfo.getServiceVersion() : null;
+    }
+
+    // Wait for all the requests to a backend. It's ready when one of them succeeded.
+    private static BackendReadiness await(ExstreamBackend backend, List<CompletableFuture<String>> futures, long startNanos, long deadlineNanos) {
+        String version = null;
+        String error = null;
+        int succeeded = 0;
+        for (CompletableFuture<String> future : futures) {
+            try {
+                String result = future.get(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+                version = version != null ? version : result;
+                succeeded++;
+            } catch (TimeoutException e) {
+                // Aborts the exchange in progress
+                future.cancel(true);
+                error = "no answer within the timeout";
+            } catch (ExecutionException | CompletionException e) {
+                error = String.valueOf(e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                future.cancel(true);
+                error = "interrupted";
+            }
+        }
+        long latencyMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        return new BackendReadiness(backend, version, latencyMillis, succeeded, succeeded > 0 ? null : error);
+    }
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright 2023 Open Text Corporation, All Rights Reserved.
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.opentext.exstream.sdk.exstreamApi.metrics;
+
+import com.opentext.exstream.sdk.exstreamApi.health.BackendHealthMonitor;
+import com.opentext.exstream.sdk.exstreamApi.model.enumeration.ExstreamBackend;
+import com.opentext.exstream.sdk.exstreamApi.resilience.AdaptiveConcurrencyLimiter;
+import com.opentext.exstream.sdk.exstreamApi.resilience.Bulkhead;
+import com.opentext.exstream.sdk.exstreamApi.resilience.CircuitBreaker;
+import com.opentext.exstream.sdk.exstreamApi.resilience.HedgingInterceptor;
+import com.opentext.exstream.sdk.exstreamApi.resilience.RetryInterceptor;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Tags;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Publishes the metrics of the services through Micrometer. Reads the following environmental properties:<br>
+ * exstream.metrics.enabled: Set to false to turn off metrics.<br>
+ * exstream.metrics.percentileHistogram: Set to true to publish histogram buckets of the request timers, so percentiles
+ * can be aggregated across instances.<br>
+ * The meters are added to the application's {@link MeterRegistry} bean, or to the global registry of
+ * {@link Metrics} if there is none. Every request is recorded by a {@link MetricsInterceptor}. The state of the
+ * concurrency limiters, bulkheads, circuit breakers, retries and hedging of each backend is published as gauges and
+ * counters tagged with the backend.
+ */
+@Component
+public class ExstreamMetrics {
+    private static final Logger logger = LoggerFactory.getLogger(ExstreamMetrics.class);
+
+    @Value("${exstream.metrics.enabled:true}")
+    private boolean enabled;
+
+    @Value("${exstream.metrics.percentileHistogram:false}")
+    private boolean percentileHistogram;
+
+    @Autowired(required = false)
+    MeterRegistry meterRegistry;
+
+    private MeterRegistry registry;
+
+    @PostConstruct
+    private void logConfig() {
+        registry = meterRegistry != null ? meterRegistry : Metrics.globalRegistry;
+        logger.info("metrics.enabled={} percentileHistogram={} registry={}", enabled, percentileHistogram, registry.getClass().getSimpleName());
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public MeterRegistry getRegistry() {
+        return registry;
+    }
+
+    /**
+     * @param backend The backend the requests are sent to
+     * @return An interceptor that records the requests to the backend, or empty if metrics are turned off
+     */
+    public Optional<MetricsInterceptor> getInterceptor(ExstreamBackend backend) {
+        return enabled ? Optional.of(new MetricsInterceptor(registry, tagOf(backend), percentileHistogram)) : Optional.empty();
+    }
+
+    /**
+     * Count a token request
+     * @param service The service that issues the token, such as otds or ets
+     * @param grant What the token is requested with, such as password or client_credentials
+     * @param refresh Whether a cached token was replaced on request of the caller
+     */
+    public void countTokenFetch(String service, String grant, boolean refresh) {
+        if (enabled) {
+            registry.counter("exstream.token.fetches", "service", service, "grant", grant, "refresh", Boolean.toString(refresh)).increment();
+        }
+    }
+
+    /**
+     * Publish the limit, in-flight calls, queue and rejections of a concurrency limiter
+     */
+    public void bind(ExstreamBackend backend, AdaptiveConcurrencyLimiter limiter) {
+        if (!enabled) {
+            return;
+        }
+        Tags tags = Tags.of("backend", tagOf(backend));
+        Gauge.builder("exstream.limiter.limit", limiter, AdaptiveConcurrencyLimiter::getLimit).tags(tags).register(registry);
+        Gauge.builder("exstream.limiter.inflight", limiter, AdaptiveConcurrencyLimiter::getInFlight).tags(tags).register(registry);
+        Gauge.builder("exstream.limiter.queue", limiter, AdaptiveConcurrencyLimiter::getQueueDepth).tags(tags).register(registry);
+        FunctionCounter.builder("exstream.limiter.rejected", limiter, AdaptiveConcurrencyLimiter::getRejectedCount).tags(tags).register(registry);
+        FunctionCounter.builder("exstream.limiter.dropped", limiter, AdaptiveConcurrencyLimiter::getDroppedCount).tags(tags).register(registry);
+    }
+
+    /**
+     * Publish the size, in-flight calls, queue and rejections of a bulkhead
+     */
+    public void bind(ExstreamBackend backend, Bulkhead bulkhead) {
+        if (!enabled) {
+            return;
+        }
+        Tags tags = Tags.of("backend", tagOf(backend));
+        Gauge.builder("exstream.bulkhead.max", bulkhead, Bulkhead::getMaxConcurrentCalls).tags(tags).register(registry);
+        Gauge.builder("exstream.bulkhead.inflight", bulkhead, Bulkhead::getInFlight).tags(tags).register(registry);
+        Gauge.builder("exstream.bulkhead.queue", bulkhead, Bulkhead::getQueueDepth).tags(tags).register(registry);
+        FunctionCounter.builder("exstream.bulkhead.rejected", bulkhead, Bulkhead::getRejectedCount).tags(tags).register(registry);
+    }
+
+    /**
+     * Publish the state, failure and slow call rates and rejections of a circuit breaker. The state gauge of the
+     * current state is 1, the others are 0.
+     */
+    public void bind(ExstreamBackend backend, CircuitBreaker circuitBreaker) {
+        if (!enabled) {
+            return;
+        }
+        Tags tags = Tags.of("backend", tagOf(backend));
+        for (CircuitBreaker.State state : CircuitBreaker.State.values()) {
+            Gauge.builder("exstream.circuitbreaker.state", circuitBreaker, b -> b.getState() == state ? 1 : 0)
+                    .tags(tags.and("state", state.name().toLowerCase(Locale.ROOT))).register(registry);
+        }
+        Gauge.builder("exstream.circuitbreaker.failure.rate", circuitBreaker, CircuitBreaker::getFailureRate).tags(tags).register(registry);
+        Gauge.builder("exstream.circuitbreaker.slow.rate", circuitBreaker, CircuitBreaker::getSlowCallRate).tags(tags).register(registry);
+        FunctionCounter.builder("exstream.circuitbreaker.rejected", circuitBreaker, CircuitBreaker::getRejectedCount).tags(tags).register(registry);
+    }
+
+    /**
+     * Publish the number of retries
+     */
+    public void bind(ExstreamBackend backend, RetryInterceptor retryInterceptor) {
+        if (enabled) {
+            FunctionCounter.builder("exstream.retry.retries", retryInterceptor, RetryInterceptor::getRetryCount)
+                    .tags("backend", tagOf(backend)).register(registry);
+        }
+    }
+
+    /**
+     * Publish the number of hedged requests, how many of them answered first and how many the budget prevented
+     */
+    public void bind(ExstreamBackend backend, HedgingInterceptor hedgingInterceptor) {
+        if (!enabled) {
+            return;
+        }
+        Tags tags = Tags.of("backend", tagOf(backend));
+        FunctionCounter.builder("exstream.hedging.hedged", hedgingInterceptor, HedgingInterceptor::getHedgedCount).tags(tags).register(registry);
+        FunctionCounter.builder("exstream.hedging.wins", hedgingInterceptor, HedgingInterceptor::getHedgeWinCount).tags(tags).register(registry);
+        FunctionCounter.builder("exstream.hedging.budget.exhausted", hedgingInterceptor, HedgingInterceptor::getBudgetExhaustedCount).tags(tags).register(registry);
+    }
+
+    /**
+     * Publish whether the last health probe of a backend succeeded, the share of recent probes that did and their
+     * average latency
+     */
+    public void bind(ExstreamBackend backend, BackendHealthMonitor healthMonitor) {
+        if (!enabled) {
+            return;
+        }
+        Tags tags = Tags.of("backend", tagOf(backend));
+        Gauge.builder("exstream.health.available", healthMonitor, m -> m.isAvailable(backend) ? 1 : 0).tags(tags).register(registry);
+        Gauge.builder("exstream.health.availability", healthMonitor, m -> m.getHealth(backend).getAvailability()).tags(tags).register(registry);
+        Gauge.builder("exstream.health.latency", healthMonitor, m -> m.getHealth(backend).getAverageLatencyMillis())
+                .tags(tags).baseUnit("milliseconds").register(registry);
+    }
+
+    private static String tagOf(ExstreamBackend backend) {
+        return backend.name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,208 @@
+/*
+ * Copyright 2023 Open Text Corporation, All Rights Reserved.
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.opentext.exstream.sdk.exstreamApi.metrics;
+
+import com.opentext.exstream.sdk.exstreamApi.model.enumeration.ExstreamOperation;
+import com.opentext.exstream.sdk.exstreamApi.model.response.ExstreamErrorResponse;
+import com.opentext.exstream.sdk.exstreamApi.utils.ExstreamJson;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * Records a timer, the request and response bytes and the errors of every request sent to one backend.<br>
+ * Each request is tagged with the backend, its {@link ExstreamOperation}, the domain it accesses, its method and the
+ * status of the response. Requests that failed without a response are tagged with the exception instead. Error
+ * responses are also counted by the Exstream errorCode of their body. A request is recorded when its response is
+ * closed, so the timer includes receiving and reading the body.
+ */
+public class MetricsInterceptor implements ClientHttpRequestInterceptor {
+    // Only the start of an error body is kept to read its errorCode
+    private static final int MAX_ERROR_BODY_BYTES = 4096;
+    static final String NONE = "none";
+
+    private final MeterRegistry registry;
+    private final String backend;
+    private final boolean percentileHistogram;
+
+    /**
+     * @param registry The registry the meters are added to
+     * @param backend Name of the backend, used as the backend tag
+     * @param percentileHistogram Publish histogram buckets of the timer, so percentiles can be aggregated across instances
+     */
+    public MetricsInterceptor(MeterRegistry registry, String backend, boolean percentileHistogram) {
+        this.registry = registry;
+        this.backend = backend;
+        this.percentileHistogram = percentileHistogram;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+        String path = request.getURI().getPath();
+        ExstreamOperation operation = ExstreamOperation.of(path);
+        Tags tags = Tags.of("backend", backend, "operation", operation.name().toLowerCase(Locale.ROOT), "domain", Objects.requireNonNullElse(ExstreamOperation.domainOf(path), NONE),
+                "method", request.getMethodValue());
+        registry.counter("exstream.client.request.bytes", tags).increment(body.length);
+
+        Timer.Sample sample = Timer.start(registry);
+        ClientHttpResponse response;
+        int status;
+        try {
+            response = execution.execute(request, body);
+            status = response.getRawStatusCode();
+        } catch (IOException | RuntimeException e) {
+            Tags failedTags = tags.and("status", NONE, "exception", e.getClass().getSimpleName());
+            sample.stop(timer(failedTags));
+            registry.counter("exstream.client.errors", failedTags.and("errorCode", NONE)).increment();
+            throw e;
+        }
+        return new MeteredResponse(response, status, tags.and("status", Integer.toString(status), "exception", NONE), sample);
+    }
+
+    private Timer timer(Tags tags) {
+        return Timer.builder("exstream.client.requests")
+                .description("Requests sent to the Exstream services")
+                .tags(tags)
+                .publishPercentileHistogram(percentileHistogram)
+                .register(registry);
+    }
+
+    private static String readErrorCode(byte[] errorBody) {
+        try {
+            Integer errorCode = ExstreamJson.readerFor(ExstreamErrorResponse.class).<ExstreamErrorResponse>readValue(errorBody).errorCode;
+            return errorCode != null ? errorCode.toString() : NONE;
+        } catch (IOException | RuntimeException e) {
+            // Not every error response is an ExstreamErrorResponse
+            return NONE;
+        }
+    }
+
+    // Records the request when it is closed
+    private class MeteredResponse implements ClientHttpResponse {
+        private final ClientHttpResponse response;
+        private final int status;
+        private final Tags tags;
+        private final Timer.Sample sample;
+        private CountingInputStream body;
+        private boolean closed = false;
+
+        MeteredResponse(ClientHttpResponse response, int status, Tags tags, Timer.Sample sample) {
+            this.response = response;
+            this.status = status;
+            this.tags = tags;
+            this.sample = sample;
+        }
+
+        @Override
+        public HttpStatus getStatusCode() throws IOException {
+            return response.getStatusCode();
+        }
+
+        @Override
+        public int getRawStatusCode() {
+            return status;
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return response.getStatusText();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return response.getHeaders();
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            if (body == null) {
+                body = new CountingInputStream(response.getBody(), status >= 400);
+            }
+            return body;
+        }
+
+        @Override
+        public void close() {
+            response.close();
+            if (closed) {
+                return;
+            }
+            closed = true;
+            sample.stop(timer(tags));
+            Counter responseBytes = registry.counter("exstream.client.response.bytes", tags);
+            responseBytes.increment(body != null ? body.count : 0);
+            if (status >= 400) {
+                String errorCode = body != null && body.captured != null ? readErrorCode(body.captured.toByteArray()) : NONE;
+                registry.counter("exstream.client.errors", tags.and("errorCode", errorCode)).increment();
+            }
+        }
+    }
+
+    // Counts the bytes read, and keeps the start of the body if asked to
+    private static class CountingInputStream extends FilterInputStream {
+        private final ByteArrayOutputStream captured;
+        private long count = 0;
+
+        CountingInputStream(InputStream in, boolean capture) {
+            super(in);
+            this.captured = capture ? new ByteArrayOutputStream() : null;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+                if (captured != null && captured.size() < MAX_ERROR_BODY_BYTES) {
+                    captured.write(b);
+                }
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = super.read(b, off, len);
+            if (read > 0) {
+                count += read;
+                if (captured != null && captured.size() < MAX_ERROR_BODY_BYTES) {
+                    captured.write(b, off, Math.min(read, MAX_ERROR_BODY_BYTES - captured.size()));
+                }
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+    }
+}
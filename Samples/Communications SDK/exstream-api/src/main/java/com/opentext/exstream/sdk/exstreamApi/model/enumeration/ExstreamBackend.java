@@ -0,0 +1,31 @@
+/*
+ * Copyright 2023 Open Text Corporation, All Rights Reserved.
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.opentext.exstream.sdk.exstreamApi.model.enumeration;
+
+/**
+ * The backend services the SDK calls. Used to configure the REST client of each service separately.
+ */
+public enum ExstreamBackend {
+    // OpenText Directory Services, used for authentication
+    OTDS,
+    // Design and Approval Service
+    DAS,
+    // Exstream Orchestration, used to generate and fulfill output
+    ORCHESTRATION,
+    // Empower (Interactive)
+    EMPOWER,
+    // Entitlement service
+    ETS
+}
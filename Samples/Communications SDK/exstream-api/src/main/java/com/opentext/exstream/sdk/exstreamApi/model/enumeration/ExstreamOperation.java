@@ -0,0 +1,125 @@
+/*
+ * Copyright 2023 Open Text Corporation, All Rights Reserved.
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.opentext.exstream.sdk.exstreamApi.model.enumeration;
+
+import java.util.Locale;
+
+/**
+ * The kinds of requests the SDK sends, used to give each of them a timeout that suits it and to label their metrics
+ * and spans.
+ */
+public enum ExstreamOperation {
+    // OTDS token request
+    TOKEN(TimeoutProfile.SHORT),
+    // Version of a backend service
+    VERSION(TimeoutProfile.SHORT),
+    // DAS manifest of a communication set
+    MANIFEST(TimeoutProfile.SHORT),
+    // DAS links of a resource
+    LINKS(TimeoutProfile.STANDARD),
+    // DAS resource listing, metadata and workflow
+    RESOURCES(TimeoutProfile.STANDARD),
+    // DAS resource content
+    CONTENT(TimeoutProfile.STANDARD),
+    // DAS package import
+    IMPORT(TimeoutProfile.LONG),
+    // Orchestration on-demand generate
+    GENERATE(TimeoutProfile.LONG),
+    // Orchestration on-demand fulfillment of an Empower document
+    FULFILL(TimeoutProfile.LONG),
+    // Any other request
+    OTHER(TimeoutProfile.STANDARD);
+
+    private static final String API_PATH = "/api/v1/";
+
+    private final TimeoutProfile timeoutProfile;
+
+    ExstreamOperation(TimeoutProfile timeoutProfile) {
+        this.timeoutProfile = timeoutProfile;
+    }
+
+    public TimeoutProfile getTimeoutProfile() {
+        return timeoutProfile;
+    }
+
+    /**
+     * Find out which operation a request is
+     * @param path The path of the request URI
+     * @return The operation, {@link #OTHER} if the path isn't recognized
+     */
+    public static ExstreamOperation of(String path) {
+        if (path == null) {
+            return OTHER;
+        }
+        if (path.endsWith("/oauth2/token")) {
+            return TOKEN;
+        }
+        int apiIndex = path.indexOf(API_PATH);
+        if (apiIndex < 0) {
+            return OTHER;
+        }
+        String apiPath = path.substring(apiIndex + API_PATH.length()).toLowerCase(Locale.ROOT);
+        if (apiPath.equals("version")) {
+            return VERSION;
+        }
+        if (apiPath.startsWith("manifests/")) {
+            return MANIFEST;
+        }
+        if (apiPath.startsWith("links/")) {
+            return LINKS;
+        }
+        if (apiPath.startsWith("import/")) {
+            return IMPORT;
+        }
+        if (apiPath.startsWith("resources/")) {
+            return apiPath.endsWith("/content") ? CONTENT : RESOURCES;
+        }
+        if (apiPath.startsWith("inputs/") && apiPath.endsWith("/generate")) {
+            return GENERATE;
+        }
+        if (apiPath.startsWith("inputs/") && apiPath.endsWith("/fulfill")) {
+            return FULFILL;
+        }
+        return OTHER;
+    }
+
+    /**
+     * Find the domain a request accesses
+     * @param path The path of the request URI
+     * @return The domain, or null if the request isn't for a domain
+     */
+    public static String domainOf(String path) {
+        int apiIndex = path == null ? -1 : path.indexOf(API_PATH);
+        if (apiIndex < 0) {
+            return null;
+        }
+        String[] segments = path.substring(apiIndex + API_PATH.length()).split("/");
+        switch (segments[0]) {
+            case "resources":
+            case "links":
+            case "manifests":
+                // resources/{domain}/..., links/{domain}/..., manifests/{domain}/...
+                return segments.length > 1 ? segments[1] : null;
+            case "import":
+                // import/{packageType}/{domain}
+                return segments.length > 2 ? segments[2] : null;
+            case "inputs":
+                // inputs/ondemand/{domain}/generate and inputs/fulfillment/ondemand/{domain}/fulfill
+                return segments.length > 2 ? segments[segments.length - 2] : null;
+            default:
+                return null;
+        }
+    }
+}
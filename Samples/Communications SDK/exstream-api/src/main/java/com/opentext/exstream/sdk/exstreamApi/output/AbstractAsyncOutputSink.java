@@ -0,0 +1,153 @@
+/*
+ * Copyright 2023 Open Text Corporation, All Rights Reserved.
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.opentext.exstream.sdk.exstreamApi.output;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Base class for {@link OutputSink} implementations that store content on a dedicated I/O executor.<br>
+ * Subclasses only implement {@link #store(String, byte[])}, which is always called on the I/O executor.
+ */
+public abstract class AbstractAsyncOutputSink implements OutputSink {
+    private static final Logger logger = LoggerFactory.getLogger(AbstractAsyncOutputSink.class);
+
+    private final Executor ioExecutor;
+    private final boolean ownsExecutor;
+    private final Set<CompletableFuture<URI>> pendingWrites = ConcurrentHashMap.newKeySet();
+    private volatile boolean closed = false;
+
+    /**
+     * @param ioExecutor The executor that performs the writes. Pass null to create a dedicated executor that is shut down with the sink.
+     * @param ioThreads The number of threads for the dedicated executor. Ignored when an executor is passed.
+     */
+    protected AbstractAsyncOutputSink(Executor ioExecutor, int ioThreads) {
+        if (ioExecutor == null) {
+            this.ioExecutor = newIoExecutor(getClass().getSimpleName(), ioThreads);
+            this.ownsExecutor = true;
+        } else {
+            this.ioExecutor = ioExecutor;
+            this.ownsExecutor = false;
+        }
+    }
+
+    /**
+     * Store the content. Called on the I/O executor.
+     * @param name The name of the output file
+     * @param content The binary content of the output file
+     * @return {@link URI} of the stored output
+     * @throws IOException If the content could not be stored
+     */
+    protected abstract URI store(String name, byte[] content) throws IOException;
+
+    /**
+     * Called on close, after all pending writes have completed. Called on the thread that closes the sink.
+     * @throws IOException If the sink could not release its resources
+     */
+    protected void onClose() throws IOException {
+    }
+
+    @Override
+    public CompletableFuture<URI> write(String name, byte[] content) {
+        if (closed) {
+            return CompletableFuture.failedFuture(new IllegalStateException("The output sink is closed"));
+        }
+
+        CompletableFuture<URI> future = CompletableFuture.supplyAsync(() -> {
+            try {
+                return store(name, content);
+            } catch (IOException e) {
+                logger.error("Could not write output {}", name, e);
+                throw new UncheckedIOException(e);
+            }
+        }, ioExecutor);
+        pendingWrites.add(future);
+        future.whenComplete((uri, e) -> pendingWrites.remove(future));
+        return future;
+    }
+
+    @Override
+    public void flush() {
+        CompletableFuture<?>[] pending = pendingWrites.toArray(new CompletableFuture<?>[0]);
+        // Failures are reported through the individual futures, so only wait for completion here
+        CompletableFuture.allOf(pending).exceptionally(e -> null).join();
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        flush();
+        try {
+            onClose();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            if (ownsExecutor) {
+                ((ExecutorService) ioExecutor).shutdown();
+            }
+        }
+    }
+
+    /**
+     * Force a file to disk
+     * @param file The file to sync
+     * @throws IOException If the file could not be synced
+     */
+    protected static void fsyncFile(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+    }
+
+    /**
+     * Force a directory entry to disk. Not every platform supports opening a directory, in which case this is a no-op.
+     * @param directory The directory to sync
+     */
+    protected static void fsyncDirectory(Path directory) {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            logger.debug("Directory sync is not supported for {}", directory, e);
+        }
+    }
+
+    /**
+     * Create a fixed size executor of daemon threads for output I/O
+     * @param name The name prefix for the threads
+     * @param threads The number of threads
+     * @return The executor
+     */
+    public static ExecutorService newIoExecutor(String name, int threads) {
+        AtomicInteger threadCount = new AtomicInteger();
+        return Executors.newFixedThreadPool(Math.max(1, threads), runnable -> {
+            Thread thread = new Thread(runnable, name + "-io-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
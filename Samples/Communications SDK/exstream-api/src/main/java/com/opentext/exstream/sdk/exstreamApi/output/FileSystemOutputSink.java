@@ -0,0 +1,114 @@
+/*
+ * Copyright 2023 Open Text Corporation, All Rights Reserved.
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.opentext.exstream.sdk.exstreamApi.output;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.Executor;
+
+/**
+ * {@link OutputSink} that writes each output to its own file in a directory.<br>
+ * Writing an output with the same name as an existing file overwrites the file. Names that resolve outside of the
+ * directory, such as "../name" or an absolute path, are rejected.<br>
+ * When atomic rename is enabled, the content is written to a temporary file in the same directory and then renamed,
+ * so readers never see a partially written output.
+ */
+public class FileSystemOutputSink extends AbstractAsyncOutputSink {
+    private static final String TEMP_FILE_SUFFIX = ".part";
+
+    private final Path directory;
+    private final FsyncPolicy fsyncPolicy;
+    private final boolean atomicRename;
+
+    /**
+     * Create a sink with atomic rename, no fsync and a dedicated single I/O thread
+     * @param directory The directory to write to. It is created if it doesn't exist.
+     */
+    public FileSystemOutputSink(Path directory) {
+        this(directory, FsyncPolicy.NONE, true, null, 1);
+    }
+
+    /**
+     * @param directory The directory to write to. It is created if it doesn't exist.
+     * @param fsyncPolicy When to force written data to disk. See {@link FsyncPolicy}.
+     * @param atomicRename Write to a temporary file and rename it once complete
+     * @param ioExecutor The executor that performs the writes. Pass null to create a dedicated executor.
+     * @param ioThreads The number of threads for the dedicated executor. Ignored when an executor is passed.
+     */
+    public FileSystemOutputSink(Path directory, FsyncPolicy fsyncPolicy, boolean atomicRename, Executor ioExecutor, int ioThreads) {
+        super(ioExecutor, ioThreads);
+        try {
+            this.directory = Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Could not create output directory " + directory, e);
+        }
+        this.fsyncPolicy = fsyncPolicy;
+        this.atomicRename = atomicRename;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    @Override
+    protected URI store(String name, byte[] content) throws IOException {
+        Path target = resolve(name);
+        if (!atomicRename) {
+            Files.write(target, content);
+            if (fsyncPolicy != FsyncPolicy.NONE) {
+                fsyncFile(target);
+            }
+        } else {
+            Path tempFile = Files.createTempFile(directory, "." + target.getFileName(), TEMP_FILE_SUFFIX);
+            try {
+                Files.write(tempFile, content);
+                if (fsyncPolicy != FsyncPolicy.NONE) {
+                    fsyncFile(tempFile);
+                }
+                move(tempFile, target);
+            } catch (IOException e) {
+                Files.deleteIfExists(tempFile);
+                throw e;
+            }
+        }
+
+        if (fsyncPolicy == FsyncPolicy.FILE_AND_DIRECTORY) {
+            fsyncDirectory(directory);
+        }
+        return target.toUri();
+    }
+
+    // The file of an output, which has to be inside the directory
+    private Path resolve(String name) {
+        Path base = directory.normalize();
+        Path target = base.resolve(name).normalize();
+        if (!target.startsWith(base) || target.equals(base)) {
+            throw new IllegalArgumentException("Output name " + name + " is outside of the output directory " + directory);
+        }
+        return target;
+    }
+
+    private static void move(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2023 Open Text Corporation, All Rights Reserved.
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.opentext.exstream.sdk.exstreamApi.output;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link OutputSink} that keeps outputs in memory. Useful for tests and for callers that stream the output
+ * somewhere else themselves.<br>
+ * Writes complete immediately on the calling thread since there is no I/O involved.
+ */
+public class InMemoryOutputSink implements OutputSink {
+    private static final String URI_SCHEME = "memory:";
+
+    private final Map<String, byte[]> outputs = new ConcurrentHashMap<>();
+    private volatile boolean closed = false;
+
+    @Override
+    public CompletableFuture<URI> write(String name, byte[] content) {
+        if (closed) {
+            return CompletableFuture.failedFuture(new IllegalStateException("The output sink is closed"));
+        }
+        outputs.put(name, content);
+        return CompletableFuture.completedFuture(URI.create(URI_SCHEME + URLEncoder.encode(name, StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Get the content of a stored output
+     * @param name The name the output was written with
+     * @return The content, or empty if no output with that name was written
+     */
+    public Optional<byte[]> get(String name) {
+        return Optional.ofNullable(outputs.get(name));
+    }
+
+    /**
+     * @return A snapshot of all stored outputs by name
+     */
+    public Map<String, byte[]> getOutputs() {
+        return Map.copyOf(outputs);
+    }
+
+    @Override
+    public void flush() {
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+    }
+}
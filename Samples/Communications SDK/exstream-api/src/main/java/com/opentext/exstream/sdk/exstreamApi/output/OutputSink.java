@@ -0,0 +1,49 @@
+/*
+ * Copyright 2023 Open Text Corporation, All Rights Reserved.
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.opentext.exstream.sdk.exstreamApi.output;
+
+import java.net.URI;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Destination for output files generated by Exstream Orchestration.<br>
+ * Implementations accept the content and return immediately. The returned future completes once the content has been
+ * stored, so the thread that requested the output never waits on the storage itself.
+ * @see FileSystemOutputSink
+ * @see RollingZipOutputSink
+ * @see InMemoryOutputSink
+ */
+public interface OutputSink extends AutoCloseable {
+
+    /**
+     * Store the content of an output file
+     * @param name The name of the output file, for example "claimAcknowledgement.pdf"
+     * @param content The binary content of the output file
+     * @return A future that completes with the {@link URI} of the stored output
+     */
+    CompletableFuture<URI> write(String name, byte[] content);
+
+    /**
+     * Wait for all writes that have been accepted so far to complete
+     */
+    void flush();
+
+    /**
+     * Wait for all accepted writes to complete and release the resources held by the sink.
+     * Writes submitted after the sink is closed are rejected.
+     */
+    @Override
+    void close();
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright 2023 Open Text Corporation, All Rights Reserved.
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.opentext.exstream.sdk.exstreamApi.output;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * {@link OutputSink} that collects outputs into ZIP archives, starting a new archive once the current one reaches a
+ * maximum number of entries or bytes.<br>
+ * Archives are written as "&lt;prefix&gt;-&lt;timestamp&gt;-&lt;sequence&gt;.zip.part" and renamed to ".zip" once they are
+ * complete, so only finished archives are visible under the final name. The URI returned for each output points at
+ * the entry in the final archive, which can only be read after the archive has rolled or the sink has been closed.<br>
+ * If writing to an archive fails, the archive is abandoned as a ".zip.part" file, since its stream may hold a partial
+ * entry, and the next output starts a new archive.
+ */
+public class RollingZipOutputSink extends AbstractAsyncOutputSink {
+    private static final Logger logger = LoggerFactory.getLogger(RollingZipOutputSink.class);
+    private static final String ARCHIVE_SUFFIX = ".zip";
+    private static final String PART_SUFFIX = ".part";
+
+    private final Path directory;
+    private final String archivePrefix;
+    private final int maxEntriesPerArchive;
+    private final long maxBytesPerArchive;
+    private final FsyncPolicy fsyncPolicy;
+    private final long startTime = System.currentTimeMillis();
+
+    // Current archive state, guarded by this
+    private int archiveSequence = 0;
+    private Path currentPartFile;
+    private Path currentArchiveFile;
+    private ZipOutputStream currentStream;
+    private int currentEntries;
+    private long currentBytes;
+    private final Set<String> currentEntryNames = new HashSet<>();
+
+    /**
+     * @param directory The directory to write archives to. It is created if it doesn't exist.
+     * @param archivePrefix The file name prefix for archives
+     * @param maxEntriesPerArchive Roll to a new archive after this many entries
+     * @param maxBytesPerArchive Roll to a new archive after this many uncompressed bytes
+     * @param fsyncPolicy When to force archives to disk. Archives are synced when they are completed.
+     * @param ioExecutor The executor that performs the writes. Pass null to create a dedicated single thread executor.
+     */
+    public RollingZipOutputSink(Path directory, String archivePrefix, int maxEntriesPerArchive, long maxBytesPerArchive, FsyncPolicy fsyncPolicy, Executor ioExecutor) {
+        super(ioExecutor, 1);
+        try {
+            this.directory = Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Could not create output directory " + directory, e);
+        }
+        this.archivePrefix = archivePrefix;
+        this.maxEntriesPerArchive = maxEntriesPerArchive;
+        this.maxBytesPerArchive = maxBytesPerArchive;
+        this.fsyncPolicy = fsyncPolicy;
+    }
+
+    @Override
+    protected synchronized URI store(String name, byte[] content) throws IOException {
+        try {
+            // Entry names must be unique within an archive, so a repeated name starts a new archive
+            if (currentStream != null && currentEntryNames.contains(name)) {
+                completeArchive();
+            }
+            if (currentStream == null) {
+                startArchive();
+            }
+
+            currentStream.putNextEntry(new ZipEntry(name));
+            currentStream.write(content);
+            currentStream.closeEntry();
+        } catch (IOException e) {
+            if (currentStream != null) {
+                abandonArchive(e);
+            }
+            throw e;
+        }
+        currentEntryNames.add(name);
+        currentEntries++;
+        currentBytes += content.length;
+
+        URI entryUri = URI.create("jar:" + currentArchiveFile.toUri() + "!/" + name);
+        if (currentEntries >= maxEntriesPerArchive || currentBytes >= maxBytesPerArchive) {
+            completeArchive();
+        }
+        return entryUri;
+    }
+
+    @Override
+    protected synchronized void onClose() throws IOException {
+        if (currentStream != null) {
+            completeArchive();
+        }
+    }
+
+    private void startArchive() throws IOException {
+        archiveSequence++;
+        String archiveName = String.format("%s-%d-%05d%s", archivePrefix, startTime, archiveSequence, ARCHIVE_SUFFIX);
+        currentArchiveFile = directory.resolve(archiveName);
+        currentPartFile = directory.resolve(archiveName + PART_SUFFIX);
+        currentStream = new ZipOutputStream(new BufferedOutputStream(Files.newOutputStream(currentPartFile)));
+        currentEntries = 0;
+        currentBytes = 0;
+        currentEntryNames.clear();
+    }
+
+    // Stop writing to the current archive after a failure. It is closed but not renamed, so it never appears as a
+    // complete archive, and the next output starts a new one.
+    private void abandonArchive(IOException cause) {
+        try {
+            currentStream.close();
+        } catch (IOException e) {
+            cause.addSuppressed(e);
+        }
+        currentStream = null;
+        logger.error("Abandoned output archive {} after a failed write, its {} earlier entries are left in {}",
+                currentArchiveFile, currentEntries, currentPartFile);
+    }
+
+    private void completeArchive() throws IOException {
+        currentStream.close();
+        currentStream = null;
+        if (fsyncPolicy != FsyncPolicy.NONE) {
+            fsyncFile(currentPartFile);
+        }
+        Files.move(currentPartFile, currentArchiveFile, StandardCopyOption.ATOMIC_MOVE);
+        if (fsyncPolicy == FsyncPolicy.FILE_AND_DIRECTORY) {
+            fsyncDirectory(directory);
+        }
+        logger.info("Completed output archive {} with {} entries", currentArchiveFile, currentEntries);
+    }
+}
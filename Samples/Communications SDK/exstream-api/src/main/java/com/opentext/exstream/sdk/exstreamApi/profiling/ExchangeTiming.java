@@ -0,0 +1,93 @@
+/*
+ * Copyright 2023 Open Text Corporation, All Rights Reserved.
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.opentext.exstream.sdk.exstreamApi.profiling;
+
+import com.opentext.exstream.sdk.exstreamApi.model.enumeration.ExstreamOperation;
+
+import java.time.Duration;
+
+/**
+ * How long each phase of one HTTP request of a {@link GenerationTrace} took
+ */
+public final class ExchangeTiming {
+    private final ExstreamOperation operation;
+    private final String method;
+    private final String path;
+    private final int status;
+    private final long connectNanos;
+    private final long firstByteNanos;
+    private final long transferNanos;
+    private final long decodeNanos;
+    private final long totalNanos;
+
+    ExchangeTiming(ExstreamOperation operation, String method, String path, int status, long connectNanos, long firstByteNanos,
+                   long transferNanos, long decodeNanos, long totalNanos) {
+        this.operation = operation;
+        this.method = method;
+        this.path = path;
+        this.status = status;
+        this.connectNanos = connectNanos;
+        this.firstByteNanos = firstByteNanos;
+        this.transferNanos = transferNanos;
+        this.decodeNanos = decodeNanos;
+        this.totalNanos = totalNanos;
+    }
+
+    public ExstreamOperation getOperation() {
+        return operation;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * @return The HTTP status of the response, or -1 if the request failed without one
+     */
+    public int getStatus() {
+        return status;
+    }
+
+    public Duration getConnect() {
+        return Duration.ofNanos(connectNanos);
+    }
+
+    public Duration getFirstByte() {
+        return Duration.ofNanos(firstByteNanos);
+    }
+
+    public Duration getTransfer() {
+        return Duration.ofNanos(transferNanos);
+    }
+
+    public Duration getDecode() {
+        return Duration.ofNanos(decodeNanos);
+    }
+
+    public Duration getTotal() {
+        return Duration.ofNanos(totalNanos);
+    }
+
+    @Override
+    public String toString() {
+        return method + " " + path + " " + status + " " + GenerationTrace.millis(totalNanos) + " (connect " + GenerationTrace.millis(connectNanos)
+                + ", first byte " + GenerationTrace.millis(firstByteNanos) + ", transfer " + GenerationTrace.millis(transferNanos)
+                + ", decode " + GenerationTrace.millis(decodeNanos) + ")";
+    }
+}
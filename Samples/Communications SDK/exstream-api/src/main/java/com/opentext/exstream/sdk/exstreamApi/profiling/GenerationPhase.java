@@ -0,0 +1,63 @@
+/*
+ * Copyright 2023 Open Text Corporation, All Rights Reserved.
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.opentext.exstream.sdk.exstreamApi.profiling;
+
+import com.opentext.exstream.sdk.exstreamApi.model.enumeration.ExstreamOperation;
+
+/**
+ * The parts of an output request whose time {@link LatencyProfiler} measures.<br>
+ * The service phases add up the requests of one kind. The network phases add up all requests of the call, so they
+ * also include retries and hedged requests.
+ */
+public enum GenerationPhase {
+    // The whole call, from start to result
+    TOTAL,
+    // OTDS token requests. Not run when the token was cached.
+    TOKEN,
+    // DAS link requests that look up the communication set
+    LINKS,
+    // DAS manifest requests that look up the driver data source
+    MANIFEST,
+    // Orchestration generate and fulfill requests
+    RENDER,
+    // Opening connections, including the TLS handshake. Close to zero when a kept-alive connection is reused.
+    CONNECT,
+    // From the connection being open until the response headers arrive: sending the request and the service's processing
+    FIRST_BYTE,
+    // Waiting for the bytes of response bodies
+    TRANSFER,
+    // Converting response bodies into results, not counting the time waiting for their bytes
+    DECODE;
+
+    /**
+     * @param operation The operation of a request
+     * @return The service phase the request belongs to, or null if it isn't part of one
+     */
+    public static GenerationPhase of(ExstreamOperation operation) {
+        switch (operation) {
+            case TOKEN:
+                return TOKEN;
+            case LINKS:
+                return LINKS;
+            case MANIFEST:
+                return MANIFEST;
+            case GENERATE:
+            case FULFILL:
+                return RENDER;
+            default:
+                return null;
+        }
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright 2023 Open Text Corporation, All Rights Reserved.
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.opentext.exstream.sdk.exstreamApi.profiling;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Supplier;
+
+/**
+ * Where the time of one output request went: the duration of each {@link GenerationPhase} and the timing of every HTTP
+ * request it sent.<br>
+ * A trace is bound to the thread running the call while {@link LatencyProfiler} profiles it. Requests sent by that
+ * thread, by the *Async service methods it calls and by hedged requests are added to it.
+ */
+public final class GenerationTrace {
+    private static final ThreadLocal<GenerationTrace> CURRENT = new ThreadLocal<>();
+
+    private final String communicationId;
+    private final Instant startTime = Instant.now();
+    private final long startNanos = System.nanoTime();
+    // Guarded by itself
+    private final List<ExchangeTiming> exchanges = new ArrayList<>();
+    private volatile long totalNanos = -1;
+
+    GenerationTrace(String communicationId) {
+        this.communicationId = communicationId;
+    }
+
+    /**
+     * @return The trace bound to the current thread, or null if the thread isn't running a profiled call
+     */
+    public static GenerationTrace current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Run a call with this trace bound to the current thread
+     * @param call The call
+     * @return The result of the call
+     */
+    public <T> T call(Supplier<T> call) {
+        GenerationTrace previous = CURRENT.get();
+        CURRENT.set(this);
+        try {
+            return call.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    /**
+     * Run a call with this trace bound to the current thread, see {@link #call(Supplier)}
+     * @param call The call
+     */
+    public void run(Runnable call) {
+        call(() -> {
+            call.run();
+            return null;
+        });
+    }
+
+    void addExchange(ExchangeTiming exchange) {
+        synchronized (exchanges) {
+            exchanges.add(exchange);
+        }
+    }
+
+    void finish() {
+        totalNanos = System.nanoTime() - startNanos;
+    }
+
+    public String getCommunicationId() {
+        return communicationId;
+    }
+
+    public Instant getStartTime() {
+        return startTime;
+    }
+
+    /**
+     * @return How long the call took, or how long it has been running if it hasn't finished
+     */
+    public Duration getTotal() {
+        long total = totalNanos;
+        return Duration.ofNanos(total >= 0 ? total : System.nanoTime() - startNanos);
+    }
+
+    public List<ExchangeTiming> getExchanges() {
+        synchronized (exchanges) {
+            return List.copyOf(exchanges);
+        }
+    }
+
+    /**
+     * @param phase The phase
+     * @return Whether the call ran the phase. A service phase ran when the call sent a request of its kind, a network
+     * phase when the call sent any request.
+     */
+    public boolean hasPhase(GenerationPhase phase) {
+        if (phase == GenerationPhase.TOTAL) {
+            return true;
+        }
+        for (ExchangeTiming exchange : getExchanges()) {
+            switch (phase) {
+                case CONNECT:
+                case FIRST_BYTE:
+                case TRANSFER:
+                case DECODE:
+                    return true;
+                default:
+                    if (GenerationPhase.of(exchange.getOperation()) == phase) {
+                        return true;
+                    }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param phase The phase
+     * @return The time spent in the phase, added up over all requests of the call. Zero if it didn't run the phase, see
+     * {@link #hasPhase(GenerationPhase)}.
+     */
+    public Duration getPhase(GenerationPhase phase) {
+        if (phase == GenerationPhase.TOTAL) {
+            return getTotal();
+        }
+        long nanos = 0;
+        for (ExchangeTiming exchange : getExchanges()) {
+            switch (phase) {
+                case CONNECT:
+                    nanos += exchange.getConnect().toNanos();
+                    break;
+                case FIRST_BYTE:
+                    nanos += exchange.getFirstByte().toNanos();
+                    break;
+                case TRANSFER:
+                    nanos += exchange.getTransfer().toNanos();
+                    break;
+                case DECODE:
+                    nanos += exchange.getDecode().toNanos();
+                    break;
+                default:
+                    if (GenerationPhase.of(exchange.getOperation()) == phase) {
+                        nanos += exchange.getTotal().toNanos();
+                    }
+            }
+        }
+        return Duration.ofNanos(nanos);
+    }
+
+    static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.1fms", nanos / 1_000_000.0);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("Communication ").append(communicationId).append(" at ").append(startTime).append(':');
+        for (GenerationPhase phase : GenerationPhase.values()) {
+            if (!hasPhase(phase)) {
+                continue;
+            }
+            builder.append(' ').append(phase).append(' ').append(millis(getPhase(phase).toNanos()));
+        }
+        for (ExchangeTiming exchange : getExchanges()) {
+            builder.append(System.lineSeparator()).append("  ").append(exchange);
+        }
+        return builder.toString();
+    }
+}
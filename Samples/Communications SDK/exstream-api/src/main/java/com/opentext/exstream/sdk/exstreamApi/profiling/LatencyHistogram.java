@@ -0,0 +1,103 @@
+/*
+ * Copyright 2023 Open Text Corporation, All Rights Reserved.
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.opentext.exstream.sdk.exstreamApi.profiling;
+
+import java.time.Duration;
+
+/**
+ * Distribution of durations in buckets that grow by 20% from 10µs up to one hour, so any percentile is accurate to
+ * within 20% while the histogram keeps a fixed size whatever the number of values recorded.
+ */
+public class LatencyHistogram {
+    private static final long MIN_NANOS = 10_000;
+    private static final long MAX_NANOS = Duration.ofHours(1).toNanos();
+    private static final double GROWTH = 1.2;
+    private static final double LOG_GROWTH = Math.log(GROWTH);
+    private static final int BUCKETS = (int) Math.ceil(Math.log((double) MAX_NANOS / MIN_NANOS) / LOG_GROWTH) + 1;
+
+    // Guarded by this. Bucket 0 counts values up to MIN_NANOS, bucket i values up to MIN_NANOS * GROWTH^i.
+    private final long[] counts = new long[BUCKETS + 1];
+    private long count = 0;
+    private long totalNanos = 0;
+    private long maxNanos = 0;
+
+    public synchronized void record(long nanos) {
+        nanos = Math.max(0, nanos);
+        counts[bucketOf(nanos)]++;
+        count++;
+        totalNanos += nanos;
+        maxNanos = Math.max(maxNanos, nanos);
+    }
+
+    public synchronized long getCount() {
+        return count;
+    }
+
+    public synchronized Duration getMean() {
+        return Duration.ofNanos(count == 0 ? 0 : totalNanos / count);
+    }
+
+    public synchronized Duration getMax() {
+        return Duration.ofNanos(maxNanos);
+    }
+
+    /**
+     * @param percentile The percentile, from 0 to 100
+     * @return The upper bound of the bucket holding the percentile, never more than the largest value recorded
+     */
+    public synchronized Duration getValueAtPercentile(double percentile) {
+        if (count == 0) {
+            return Duration.ZERO;
+        }
+        long rank = Math.max(1, (long) Math.ceil(count * Math.min(100, Math.max(0, percentile)) / 100));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Duration.ofNanos(Math.min(upperBoundOf(i), maxNanos));
+            }
+        }
+        return Duration.ofNanos(maxNanos);
+    }
+
+    private static int bucketOf(long nanos) {
+        if (nanos <= MIN_NANOS) {
+            return 0;
+        }
+        if (nanos > MAX_NANOS) {
+            return BUCKETS;
+        }
+        int bucket = (int) Math.ceil(Math.log((double) nanos / MIN_NANOS) / LOG_GROWTH);
+        // Correct rounding errors of the logarithm at the bucket bounds
+        while (bucket > 0 && upperBoundOf(bucket - 1) >= nanos) {
+            bucket--;
+        }
+        while (upperBoundOf(bucket) < nanos) {
+            bucket++;
+        }
+        return bucket;
+    }
+
+    private static long upperBoundOf(int bucket) {
+        return bucket >= BUCKETS ? Long.MAX_VALUE : (long) (MIN_NANOS * Math.pow(GROWTH, bucket));
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "count " + count + ", mean " + GenerationTrace.millis(getMean().toNanos()) + ", p50 " + GenerationTrace.millis(getValueAtPercentile(50).toNanos())
+                + ", p95 " + GenerationTrace.millis(getValueAtPercentile(95).toNanos()) + ", p99 " + GenerationTrace.millis(getValueAtPercentile(99).toNanos())
+                + ", max " + GenerationTrace.millis(maxNanos);
+    }
+}
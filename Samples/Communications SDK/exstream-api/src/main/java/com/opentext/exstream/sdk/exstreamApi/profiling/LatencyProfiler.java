@@ -0,0 +1,162 @@
+/*
+ * Copyright 2023 Open Text Corporation, All Rights Reserved.
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.opentext.exstream.sdk.exstreamApi.profiling;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Times each phase of the output requests of the services, see {@link GenerationPhase}. Reads the following
+ * environmental properties:<br>
+ * exstream.profiler.enabled: Set to true to turn on profiling. Off by default, since it sends the output requests
+ * through {@link ProfilingClientHttpRequest}.<br>
+ * exstream.profiler.slowestTraces: Number of the slowest traces that are kept.<br>
+ * exstream.profiler.maxCommunications: Maximum number of communications with their own histograms. Calls for further
+ * communications are added to the histograms of the communication "*".<br>
+ * The duration of every phase that a call ran is added to the histograms of its communication, and its
+ * {@link GenerationTrace} is kept while it is among the slowest calls.
+ */
+@Component
+public class LatencyProfiler {
+    private static final Logger logger = LoggerFactory.getLogger(LatencyProfiler.class);
+
+    /**
+     * The communication whose histograms hold the calls for communications beyond maxCommunications
+     */
+    public static final String OTHER_COMMUNICATIONS = "*";
+
+    @Value("${exstream.profiler.enabled:false}")
+    private boolean enabled;
+
+    @Value("${exstream.profiler.slowestTraces:20}")
+    private int slowestTraces;
+
+    @Value("${exstream.profiler.maxCommunications:200}")
+    private int maxCommunications;
+
+    private final Map<String, Map<GenerationPhase, LatencyHistogram>> histograms = new ConcurrentHashMap<>();
+
+    // The slowest traces, the fastest of them at the head. Guarded by itself.
+    private final PriorityQueue<GenerationTrace> slowest = new PriorityQueue<>(Comparator.comparing(GenerationTrace::getTotal));
+
+    @PostConstruct
+    private void logConfig() {
+        logger.info("profiler.enabled={}", enabled);
+        if (enabled) {
+            logger.info("profiler.slowestTraces={} maxCommunications={}", slowestTraces, maxCommunications);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Run an output request with a {@link GenerationTrace} bound to the current thread and record it when it ends,
+     * whether it succeeds or fails. Within a call that is already profiled, the call is just run.
+     * @param communicationId The communication the output is generated for
+     * @param call The call
+     * @return The result of the call
+     */
+    public <T> T profile(String communicationId, Supplier<T> call) {
+        if (!enabled || GenerationTrace.current() != null) {
+            return call.get();
+        }
+        GenerationTrace trace = new GenerationTrace(communicationId);
+        try {
+            return trace.call(call);
+        } finally {
+            trace.finish();
+            record(trace);
+        }
+    }
+
+    private void record(GenerationTrace trace) {
+        Map<GenerationPhase, LatencyHistogram> phases = histograms.get(trace.getCommunicationId());
+        if (phases == null) {
+            String key = histograms.size() < maxCommunications ? trace.getCommunicationId() : OTHER_COMMUNICATIONS;
+            phases = histograms.computeIfAbsent(key, k -> new ConcurrentHashMap<>());
+        }
+        // A phase that didn't run, such as the token of a call that found it cached, isn't a sample of zero
+        for (GenerationPhase phase : GenerationPhase.values()) {
+            if (trace.hasPhase(phase)) {
+                phases.computeIfAbsent(phase, p -> new LatencyHistogram()).record(trace.getPhase(phase).toNanos());
+            }
+        }
+
+        synchronized (slowest) {
+            if (slowest.size() < slowestTraces) {
+                slowest.add(trace);
+            } else if (!slowest.isEmpty() && slowest.peek().getTotal().compareTo(trace.getTotal()) < 0) {
+                slowest.poll();
+                slowest.add(trace);
+            }
+        }
+        logger.debug("{}", trace);
+    }
+
+    /**
+     * @return The communications that have histograms
+     */
+    public Set<String> getCommunicationIds() {
+        return new TreeSet<>(histograms.keySet());
+    }
+
+    /**
+     * @param communicationId The communication
+     * @param phase The phase
+     * @return The histogram of the phase for the communication, or empty if no profiled call for it ran the phase
+     */
+    public Optional<LatencyHistogram> getHistogram(String communicationId, GenerationPhase phase) {
+        return Optional.ofNullable(histograms.get(communicationId)).map(phases -> phases.get(phase));
+    }
+
+    /**
+     * @param count The maximum number of traces to return. At most exstream.profiler.slowestTraces are kept.
+     * @return The slowest traces recorded, the slowest first
+     */
+    public List<GenerationTrace> getSlowestTraces(int count) {
+        List<GenerationTrace> traces;
+        synchronized (slowest) {
+            traces = new ArrayList<>(slowest);
+        }
+        traces.sort(Comparator.comparing(GenerationTrace::getTotal).reversed());
+        return traces.subList(0, Math.min(Math.max(0, count), traces.size()));
+    }
+
+    /**
+     * Forget all histograms and traces
+     */
+    public void reset() {
+        histograms.clear();
+        synchronized (slowest) {
+            slowest.clear();
+        }
+    }
+}
@@ -0,0 +1,243 @@
+/*
+ * Copyright 2023 Open Text Corporation, All Rights Reserved.
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.opentext.exstream.sdk.exstreamApi.profiling;
+
+import com.opentext.exstream.sdk.exstreamApi.model.enumeration.ExstreamOperation;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.AbstractClientHttpRequest;
+import org.springframework.http.client.AbstractClientHttpResponse;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.util.StreamUtils;
+import org.springframework.util.StringUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.net.URISyntaxException;
+
+/**
+ * Buffering request over an {@link HttpURLConnection} that records how long each part of the exchange took in a
+ * {@link GenerationTrace}. Sends the same request as the one SimpleClientHttpRequestFactory creates when output
+ * streaming is off.<br>
+ * The connect time covers opening the connection and the TLS handshake. The first byte time runs from the open
+ * connection until the response headers have arrived. The transfer time is the time spent waiting for the bytes of
+ * the body, and the decode time is the rest of the time until the response is closed, mostly converting the body.
+ */
+public class ProfilingClientHttpRequest extends AbstractClientHttpRequest {
+    private final HttpURLConnection connection;
+    private final GenerationTrace trace;
+    private final long startNanos = System.nanoTime();
+    private final ByteArrayOutputStream bufferedOutput = new ByteArrayOutputStream(1024);
+
+    /**
+     * @param connection A prepared connection that hasn't been opened yet
+     * @param trace The trace the timing of the exchange is added to
+     */
+    public ProfilingClientHttpRequest(HttpURLConnection connection, GenerationTrace trace) {
+        this.connection = connection;
+        this.trace = trace;
+    }
+
+    @Override
+    public String getMethodValue() {
+        return connection.getRequestMethod();
+    }
+
+    @Override
+    public URI getURI() {
+        try {
+            return connection.getURL().toURI();
+        } catch (URISyntaxException e) {
+            throw new IllegalStateException("Could not get HttpURLConnection URI: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    protected OutputStream getBodyInternal(HttpHeaders headers) {
+        return bufferedOutput;
+    }
+
+    @Override
+    protected ClientHttpResponse executeInternal(HttpHeaders headers) throws IOException {
+        byte[] body = bufferedOutput.toByteArray();
+        if (headers.getContentLength() < 0) {
+            headers.setContentLength(body.length);
+        }
+        addHeaders(headers);
+        if (getMethod() == HttpMethod.DELETE && body.length == 0) {
+            connection.setDoOutput(false);
+        }
+
+        long connectNanos = 0;
+        try {
+            connection.connect();
+            connectNanos = System.nanoTime() - startNanos;
+            if (connection.getDoOutput()) {
+                try (OutputStream output = connection.getOutputStream()) {
+                    output.write(body);
+                }
+            }
+            connection.getResponseCode();
+        } catch (IOException | RuntimeException e) {
+            long elapsedNanos = System.nanoTime() - startNanos;
+            record(-1, connectNanos == 0 ? elapsedNanos : connectNanos, connectNanos == 0 ? 0 : elapsedNanos - connectNanos, 0, elapsedNanos);
+            throw e;
+        }
+        return new ProfilingResponse(connectNanos, System.nanoTime() - startNanos);
+    }
+
+    // The headers are set like SimpleClientHttpRequestFactory sets them
+    private void addHeaders(HttpHeaders headers) {
+        String method = connection.getRequestMethod();
+        if (method.equals("PUT") || method.equals("DELETE")) {
+            if (!StringUtils.hasText(headers.getFirst(HttpHeaders.ACCEPT))) {
+                headers.set(HttpHeaders.ACCEPT, "*/*");
+            }
+        }
+        headers.forEach((headerName, headerValues) -> {
+            if (HttpHeaders.COOKIE.equalsIgnoreCase(headerName)) {
+                connection.setRequestProperty(headerName, StringUtils.collectionToDelimitedString(headerValues, "; "));
+            } else {
+                for (String headerValue : headerValues) {
+                    connection.addRequestProperty(headerName, headerValue != null ? headerValue : "");
+                }
+            }
+        });
+    }
+
+    private void record(int status, long connectNanos, long firstByteNanos, long transferNanos, long totalNanos) {
+        String path = connection.getURL().getPath();
+        trace.addExchange(new ExchangeTiming(ExstreamOperation.of(path), connection.getRequestMethod(), path, status, connectNanos,
+                firstByteNanos, transferNanos, Math.max(0, totalNanos - connectNanos - firstByteNanos - transferNanos), totalNanos));
+    }
+
+    private class ProfilingResponse extends AbstractClientHttpResponse {
+        private final long connectNanos;
+        private final long headersNanos;
+        private HttpHeaders headers;
+        private TimedInputStream responseStream;
+        private boolean closed = false;
+
+        ProfilingResponse(long connectNanos, long headersNanos) {
+            this.connectNanos = connectNanos;
+            this.headersNanos = headersNanos;
+        }
+
+        @Override
+        public int getRawStatusCode() throws IOException {
+            return connection.getResponseCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            String result = connection.getResponseMessage();
+            return result != null ? result : "";
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            if (headers == null) {
+                headers = new HttpHeaders();
+                // Header field 0 is the status line for most HttpURLConnections, but not on GAE
+                String name = connection.getHeaderFieldKey(0);
+                if (StringUtils.hasLength(name)) {
+                    headers.add(name, connection.getHeaderField(0));
+                }
+                for (int i = 1; ; i++) {
+                    name = connection.getHeaderFieldKey(i);
+                    if (!StringUtils.hasLength(name)) {
+                        break;
+                    }
+                    headers.add(name, connection.getHeaderField(i));
+                }
+            }
+            return headers;
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            if (responseStream == null) {
+                InputStream errorStream = connection.getErrorStream();
+                responseStream = new TimedInputStream(errorStream != null ? errorStream : connection.getInputStream());
+            }
+            return responseStream;
+        }
+
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            int status = -1;
+            try {
+                status = connection.getResponseCode();
+                if (responseStream == null) {
+                    getBody();
+                }
+                StreamUtils.drain(responseStream);
+                responseStream.close();
+            } catch (Exception e) {
+                // Ignore, like SimpleClientHttpResponse
+            }
+            long transferNanos = responseStream != null ? responseStream.readNanos : 0;
+            record(status, connectNanos, headersNanos - connectNanos, transferNanos, System.nanoTime() - startNanos);
+        }
+    }
+
+    // Adds up the time spent waiting in reads
+    private static class TimedInputStream extends FilterInputStream {
+        private long readNanos = 0;
+
+        TimedInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            long start = System.nanoTime();
+            try {
+                return super.read();
+            } finally {
+                readNanos += System.nanoTime() - start;
+            }
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            long start = System.nanoTime();
+            try {
+                return super.read(b, off, len);
+            } finally {
+                readNanos += System.nanoTime() - start;
+            }
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long start = System.nanoTime();
+            try {
+                return super.skip(n);
+            } finally {
+                readNanos += System.nanoTime() - start;
+            }
+        }
+    }
+}
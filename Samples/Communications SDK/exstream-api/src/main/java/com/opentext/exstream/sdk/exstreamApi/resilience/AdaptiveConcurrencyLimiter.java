@@ -0,0 +1,353 @@
+/*
+ * Copyright 2023 Open Text Corporation, All Rights Reserved.
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.opentext.exstream.sdk.exstreamApi.resilience;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Client-side concurrency limit for one backend that adapts to the latency and errors the backend returns.<br>
+ * Each response time is compared to the no-load response time of the same operation, which is the minimum seen over
+ * a recent window. While responses are within rttTolerance times their no-load time the limit grows. When they get
+ * slower the limit shrinks in proportion, and every failed or throttled request cuts it by a fixed ratio. Tracking the
+ * no-load time per operation keeps fast calls like a version check, or a short communication, from making slow renders
+ * look like overload.<br>
+ * Requests over the limit wait in a FIFO queue for up to the maximum queue wait, and a freed permit goes to the request
+ * that has waited longest. They are rejected with a {@link ConcurrencyLimitExceededException} when the queue is full or
+ * the wait runs out, so callers fail fast instead of piling onto a backend that is already slow.
+ */
+public class AdaptiveConcurrencyLimiter {
+    private static final Logger logger = LoggerFactory.getLogger(AdaptiveConcurrencyLimiter.class);
+
+    // The no-load response time is the minimum over the previous and current window, so the estimate follows a
+    // backend that became permanently slower. The window has to be long: under sustained load every recent sample
+    // includes queueing time and a short window would mistake that for the no-load time.
+    private static final long RTT_WINDOW_NANOS = TimeUnit.MINUTES.toNanos(10);
+    // Operations beyond this many, such as the communications of a large domain, share one no-load estimate
+    private static final int MAX_OPERATIONS = 1024;
+    private static final String DEFAULT_OPERATION = "";
+    // Weight of the new estimate when the limit is updated, to smooth out noise
+    private static final double SMOOTHING = 0.2;
+    // Ratio the limit is multiplied by when a request fails or is throttled
+    private static final double BACKOFF_RATIO = 0.9;
+
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+    private final int maxQueueSize;
+    private final long maxQueueWaitNanos;
+    private final double rttTolerance;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // Guarded by lock
+    private double limit;
+    private int inFlight = 0;
+    // One condition per waiting request, in arrival order. Only the first one may take a permit.
+    private final Deque<Condition> waiters = new ArrayDeque<>();
+    // Samples of the current round. A round is roughly one response time of traffic, about limit samples, so the
+    // limit is updated once the requests sent under the previous limit have answered.
+    private double roundRatioSum = 0;
+    private int roundSamples = 0;
+    private boolean roundLimited = false;
+    private final Map<String, RttWindow> rttWindows = new HashMap<>();
+
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    /**
+     * @param name Name of the limited backend, used in log messages
+     * @param initialLimit The concurrency limit before any responses have been measured
+     * @param minLimit The lowest the limit can go
+     * @param maxLimit The highest the limit can go
+     * @param maxQueueSize Maximum number of requests waiting for a permit. Further requests are rejected immediately.
+     * @param maxQueueWait Maximum time a request waits for a permit. Zero rejects requests over the limit immediately.
+     * @param rttTolerance How many times their no-load response time responses can take before the limit shrinks
+     */
+    public AdaptiveConcurrencyLimiter(String name, int initialLimit, int minLimit, int maxLimit, int maxQueueSize, Duration maxQueueWait, double rttTolerance) {
+        if (minLimit < 1 || maxLimit < minLimit || rttTolerance < 1.0) {
+            throw new IllegalArgumentException("Invalid concurrency limiter settings for " + name);
+        }
+        this.name = name;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.maxQueueSize = maxQueueSize;
+        this.maxQueueWaitNanos = maxQueueWait.toNanos();
+        this.rttTolerance = rttTolerance;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    /**
+     * Get a permit to send a request, waiting up to the maximum queue wait if the backend is at its limit
+     * @return The permit. It must be completed exactly once.
+     * @throws ConcurrencyLimitExceededException If the queue is full or no permit became available in time
+     */
+    public Permit acquire() {
+        return acquire(maxQueueWaitNanos);
+    }
+
+    /**
+     * Get a permit to send a request
+     * @param maxWait Maximum time to wait for a permit. It is capped by the maximum queue wait.
+     * @return The permit. It must be completed exactly once.
+     * @throws ConcurrencyLimitExceededException If the queue is full or no permit became available in time
+     */
+    public Permit acquire(Duration maxWait) {
+        return acquire(Math.min(maxWait.toNanos(), maxQueueWaitNanos));
+    }
+
+    private Permit acquire(long maxWaitNanos) {
+        lock.lock();
+        try {
+            // Requests that are already queued go first
+            if (waiters.isEmpty() && inFlight < (int) limit) {
+                inFlight++;
+                return new Permit();
+            }
+            if (maxWaitNanos <= 0) {
+                // A caller that can't wait takes a permit that is free right now, even while a woken waiter hasn't
+                // taken it yet. That waiter stays first in the queue.
+                if (inFlight < (int) limit) {
+                    inFlight++;
+                    return new Permit();
+                }
+                throw reject("no permit is available");
+            }
+            if (waiters.size() >= maxQueueSize) {
+                throw reject("the queue is full");
+            }
+
+            Condition turn = lock.newCondition();
+            waiters.addLast(turn);
+            try {
+                long remainingNanos = maxWaitNanos;
+                while (waiters.peekFirst() != turn || inFlight >= (int) limit) {
+                    if (remainingNanos <= 0) {
+                        throw reject("no permit became available within " + TimeUnit.NANOSECONDS.toMillis(maxWaitNanos) + "ms");
+                    }
+                    remainingNanos = turn.awaitNanos(remainingNanos);
+                }
+                inFlight++;
+                return new Permit();
+            } finally {
+                boolean first = waiters.peekFirst() == turn;
+                waiters.remove(turn);
+                // The next waiter's turn, whether this one got its permit or gave up
+                if (first) {
+                    signalFirstWaiter();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw reject("the thread was interrupted while waiting");
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private ConcurrencyLimitExceededException reject(String reason) {
+        rejected.incrementAndGet();
+        return new ConcurrencyLimitExceededException("Request to " + name + " rejected at concurrency limit " + (int) limit + ": " + reason);
+    }
+
+    private void release(String operation, long rttNanos, Outcome outcome) {
+        lock.lock();
+        try {
+            inFlight--;
+            int previousLimit = (int) limit;
+            if (outcome == Outcome.DROPPED) {
+                dropped.incrementAndGet();
+                limit = Math.max(minLimit, limit * BACKOFF_RATIO);
+            } else if (outcome == Outcome.SUCCESS) {
+                updateLimit(operation, rttNanos);
+            }
+
+            signalFirstWaiter();
+            if ((int) limit != previousLimit) {
+                logger.debug("Concurrency limit for {} changed from {} to {}", name, previousLimit, (int) limit);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Wake the first waiter if there is a permit for it. Each waiter wakes the next when it leaves the queue, so a
+    // limit that grew by several permits lets as many waiters through. Called while holding the lock.
+    private void signalFirstWaiter() {
+        Condition first = waiters.peekFirst();
+        if (first != null && inFlight < (int) limit) {
+            first.signal();
+        }
+    }
+
+    // Called while holding the lock
+    private void updateLimit(String operation, long rttNanos) {
+        RttWindow rttWindow = rttWindows.get(operation);
+        if (rttWindow == null) {
+            rttWindow = rttWindows.computeIfAbsent(rttWindows.size() < MAX_OPERATIONS ? operation : DEFAULT_OPERATION, key -> new RttWindow());
+        }
+        long noLoadRttNanos = rttWindow.add(Math.max(1, rttNanos));
+        roundRatioSum += (double) rttNanos / noLoadRttNanos;
+        // Don't grow a limit the caller isn't using, the latency says nothing about whether more would be safe
+        roundLimited |= inFlight + 1 >= limit / 2;
+        if (++roundSamples < limit) {
+            return;
+        }
+
+        double latencyRatio = roundRatioSum / roundSamples;
+        double gradient = Math.max(0.5, Math.min(1.0, rttTolerance / latencyRatio));
+        if (gradient < 1.0 || roundLimited) {
+            double newLimit = limit * gradient + Math.sqrt(limit);
+            limit = Math.max(minLimit, Math.min(maxLimit, limit * (1 - SMOOTHING) + newLimit * SMOOTHING));
+        }
+        roundRatioSum = 0;
+        roundSamples = 0;
+        roundLimited = false;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return The current concurrency limit
+     */
+    public int getLimit() {
+        lock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return The number of requests holding a permit
+     */
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return The number of requests waiting for a permit
+     */
+    public int getQueueDepth() {
+        lock.lock();
+        try {
+            return waiters.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return The total number of requests rejected without being sent
+     */
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+
+    /**
+     * @return The total number of requests that failed or were throttled by the backend
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /**
+     * How a request that held a permit ended
+     */
+    public enum Outcome {
+        // The backend answered normally. The response time is used to adjust the limit.
+        SUCCESS,
+        // The request failed, timed out or was throttled. The limit is reduced.
+        DROPPED,
+        // The request ended in a way that says nothing about the backend's capacity, such as a client error
+        IGNORED
+    }
+
+    /**
+     * Permission to send one request. Complete it when the response has been received.
+     */
+    public final class Permit {
+        private final long startNanos = System.nanoTime();
+        private boolean completed = false;
+
+        private Permit() {
+        }
+
+        /**
+         * Release the permit. Only the first call has an effect.
+         * @param outcome How the request ended
+         */
+        public void complete(Outcome outcome) {
+            complete(outcome, DEFAULT_OPERATION);
+        }
+
+        /**
+         * Release the permit. Only the first call has an effect.
+         * @param outcome How the request ended
+         * @param operation Identifies requests with a comparable response time, such as the method and path of an endpoint
+         */
+        public void complete(Outcome outcome, String operation) {
+            complete(outcome, operation, System.nanoTime() - startNanos);
+        }
+
+        // Takes the response time from the caller, so tests can replay known latencies
+        void complete(Outcome outcome, String operation, long rttNanos) {
+            synchronized (this) {
+                if (completed) {
+                    return;
+                }
+                completed = true;
+            }
+            release(operation, rttNanos, outcome);
+        }
+    }
+
+    // Minimum response time of one operation over the previous and the current window. Guarded by the limiter lock.
+    private static class RttWindow {
+        private long previousMinNanos = Long.MAX_VALUE;
+        private long currentMinNanos = Long.MAX_VALUE;
+        private long startNanos = System.nanoTime();
+
+        long add(long rttNanos) {
+            currentMinNanos = Math.min(currentMinNanos, rttNanos);
+            long noLoadRttNanos = Math.min(previousMinNanos, currentMinNanos);
+            long now = System.nanoTime();
+            if (now - startNanos >= RTT_WINDOW_NANOS) {
+                previousMinNanos = currentMinNanos;
+                currentMinNanos = Long.MAX_VALUE;
+                startNanos = now;
+            }
+            return noLoadRttNanos;
+        }
+    }
+}
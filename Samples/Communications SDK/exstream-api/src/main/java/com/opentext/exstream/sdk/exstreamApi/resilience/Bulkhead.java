@@ -0,0 +1,96 @@
+/*
+ * Copyright 2023 Open Text Corporation, All Rights Reserved.
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.opentext.exstream.sdk.exstreamApi.resilience;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fixed budget of concurrent calls to one backend.<br>
+ * Each backend has its own bulkhead, so a backend that stops responding can only tie up the threads within its
+ * budget. Once the budget is used up further callers wait for up to the maximum wait and are then rejected with a
+ * {@link BulkheadFullException}, leaving the remaining threads free for calls to the other backends.
+ */
+public class Bulkhead {
+    private final String name;
+    private final int maxConcurrentCalls;
+    private final long maxWaitNanos;
+    private final Semaphore semaphore;
+
+    private final AtomicLong rejected = new AtomicLong();
+
+    /**
+     * @param name Name of the backend, used in error messages
+     * @param maxConcurrentCalls Maximum number of calls in progress at the same time
+     * @param maxWait Maximum time a call waits for a free slot. Zero rejects calls immediately when the bulkhead is full.
+     */
+    public Bulkhead(String name, int maxConcurrentCalls, Duration maxWait) {
+        if (maxConcurrentCalls < 1) {
+            throw new IllegalArgumentException("Invalid bulkhead settings for " + name);
+        }
+        this.name = name;
+        this.maxConcurrentCalls = maxConcurrentCalls;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.semaphore = new Semaphore(maxConcurrentCalls, true);
+    }
+
+    /**
+     * Take a slot for a call, waiting up to the maximum wait if the bulkhead is full. Call {@link #release()} when the
+     * call is done.
+     * @throws BulkheadFullException If no slot became available in time
+     */
+    public void acquire() {
+        boolean acquired;
+        try {
+            acquired = maxWaitNanos > 0 ? semaphore.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS) : semaphore.tryAcquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            rejected.incrementAndGet();
+            throw new BulkheadFullException("Request to " + name + " rejected, all " + maxConcurrentCalls + " concurrent calls are in progress");
+        }
+    }
+
+    /**
+     * Give back the slot taken by {@link #acquire()}
+     */
+    public void release() {
+        semaphore.release();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getMaxConcurrentCalls() {
+        return maxConcurrentCalls;
+    }
+
+    public int getInFlight() {
+        return maxConcurrentCalls - semaphore.availablePermits();
+    }
+
+    public int getQueueDepth() {
+        return semaphore.getQueueLength();
+    }
+
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2023 Open Text Corporation, All Rights Reserved.
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.opentext.exstream.sdk.exstreamApi.resilience;
+
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+
+/**
+ * Sends each request through a {@link Bulkhead}. The slot is held until the response status and headers have arrived.
+ */
+public class BulkheadInterceptor implements ClientHttpRequestInterceptor {
+    private final Bulkhead bulkhead;
+
+    public BulkheadInterceptor(Bulkhead bulkhead) {
+        this.bulkhead = bulkhead;
+    }
+
+    public Bulkhead getBulkhead() {
+        return bulkhead;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+        bulkhead.acquire();
+        try {
+            ClientHttpResponse response = execution.execute(request, body);
+            // Waiting for the status line is where a stalled backend ties up the thread
+            response.getRawStatusCode();
+            return response;
+        } finally {
+            bulkhead.release();
+        }
+    }
+}
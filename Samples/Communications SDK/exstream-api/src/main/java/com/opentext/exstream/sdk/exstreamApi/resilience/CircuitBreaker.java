@@ -0,0 +1,255 @@
+/*
+ * Copyright 2023 Open Text Corporation, All Rights Reserved.
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.opentext.exstream.sdk.exstreamApi.resilience;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Circuit breaker for one backend.<br>
+ * While closed, the outcome of the last windowSize calls is recorded. When at least minimumCalls have been recorded
+ * and the share of failed calls or of calls slower than slowCallDuration reaches its threshold, the breaker opens.
+ * While open every call is rejected with a {@link CircuitBreakerOpenException} without being sent. After openDuration
+ * the breaker is half-open and lets halfOpenCalls probe calls through. It closes again when all of them succeed and
+ * reopens as soon as one fails or is slow.
+ */
+public class CircuitBreaker {
+    private static final Logger logger = LoggerFactory.getLogger(CircuitBreaker.class);
+
+    private final String name;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final double slowCallRateThreshold;
+    private final long slowCallNanos;
+    private final long openNanos;
+    private final int halfOpenCalls;
+
+    // Guarded by this. Ring buffer of the outcomes of the last calls while closed.
+    private final boolean[] failedCalls;
+    private final boolean[] slowCalls;
+    private int windowIndex = 0;
+    private int windowCount = 0;
+    private int failedCount = 0;
+    private int slowCount = 0;
+
+    // Guarded by this
+    private State state = State.CLOSED;
+    // Incremented on every state change, so calls that started in an earlier state aren't counted in the new one
+    private long generation = 0;
+    private long openedAtNanos;
+    private int probesStarted;
+    private int probesSucceeded;
+
+    private final AtomicLong rejected = new AtomicLong();
+
+    /**
+     * @param name Name of the backend, used in log and error messages
+     * @param windowSize Number of recent calls the failure and slow call rates are calculated over
+     * @param minimumCalls Number of calls that must be recorded before the breaker can open
+     * @param failureRateThreshold Share of failed calls, from 0 to 1, that opens the breaker
+     * @param slowCallRateThreshold Share of slow calls, from 0 to 1, that opens the breaker
+     * @param slowCallDuration Calls that take longer than this are slow
+     * @param openDuration How long the breaker stays open before probing the backend
+     * @param halfOpenCalls Number of probe calls that must succeed to close the breaker
+     */
+    public CircuitBreaker(String name, int windowSize, int minimumCalls, double failureRateThreshold, double slowCallRateThreshold,
+                          Duration slowCallDuration, Duration openDuration, int halfOpenCalls) {
+        if (windowSize < 1 || minimumCalls < 1 || minimumCalls > windowSize || halfOpenCalls < 1) {
+            throw new IllegalArgumentException("Invalid circuit breaker settings for " + name);
+        }
+        this.name = name;
+        this.minimumCalls = minimumCalls;
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallRateThreshold = slowCallRateThreshold;
+        this.slowCallNanos = slowCallDuration.toNanos();
+        this.openNanos = openDuration.toNanos();
+        this.halfOpenCalls = halfOpenCalls;
+        this.failedCalls = new boolean[windowSize];
+        this.slowCalls = new boolean[windowSize];
+    }
+
+    /**
+     * Get permission to send a call
+     * @return The permit. It must be completed exactly once.
+     * @throws CircuitBreakerOpenException If the breaker is open, or half-open and all probe calls are in progress
+     */
+    public synchronized Permit acquire() {
+        if (state == State.OPEN && System.nanoTime() - openedAtNanos >= openNanos) {
+            transitionTo(State.HALF_OPEN);
+        }
+        if (state == State.OPEN) {
+            rejected.incrementAndGet();
+            long remainingMillis = TimeUnit.NANOSECONDS.toMillis(openNanos - (System.nanoTime() - openedAtNanos));
+            throw new CircuitBreakerOpenException("Request to " + name + " rejected, the circuit breaker is open for another " + remainingMillis + "ms");
+        }
+        if (state == State.HALF_OPEN) {
+            if (probesStarted >= halfOpenCalls) {
+                rejected.incrementAndGet();
+                throw new CircuitBreakerOpenException("Request to " + name + " rejected, the circuit breaker is waiting for probe requests");
+            }
+            probesStarted++;
+        }
+        return new Permit(generation);
+    }
+
+    private synchronized void record(long permitGeneration, long durationNanos, Outcome outcome) {
+        if (permitGeneration != generation) {
+            return;
+        }
+        boolean slow = durationNanos > slowCallNanos;
+
+        if (state == State.HALF_OPEN) {
+            if (outcome == Outcome.IGNORED) {
+                // Let another probe take its place
+                probesStarted--;
+            } else if (outcome == Outcome.FAILURE || slow) {
+                transitionTo(State.OPEN);
+            } else if (++probesSucceeded >= halfOpenCalls) {
+                transitionTo(State.CLOSED);
+            }
+            return;
+        }
+
+        if (outcome == Outcome.IGNORED) {
+            return;
+        }
+        if (windowCount == failedCalls.length) {
+            failedCount -= failedCalls[windowIndex] ? 1 : 0;
+            slowCount -= slowCalls[windowIndex] ? 1 : 0;
+        } else {
+            windowCount++;
+        }
+        failedCalls[windowIndex] = outcome == Outcome.FAILURE;
+        slowCalls[windowIndex] = slow;
+        failedCount += outcome == Outcome.FAILURE ? 1 : 0;
+        slowCount += slow ? 1 : 0;
+        windowIndex = (windowIndex + 1) % failedCalls.length;
+
+        if (windowCount >= minimumCalls && (getFailureRateLocked() >= failureRateThreshold || getSlowCallRateLocked() >= slowCallRateThreshold)) {
+            transitionTo(State.OPEN);
+        }
+    }
+
+    // Called while holding the lock
+    private void transitionTo(State newState) {
+        if (newState == State.OPEN && state == State.HALF_OPEN) {
+            logger.warn("Reopening the circuit breaker for {}: a probe request failed or was slow", name);
+        } else if (newState == State.OPEN) {
+            logger.warn("Opening the circuit breaker for {}: failure rate {}, slow call rate {}", name, getFailureRateLocked(), getSlowCallRateLocked());
+        } else {
+            logger.info("Circuit breaker for {} changed from {} to {}", name, state, newState);
+        }
+        state = newState;
+        generation++;
+        windowIndex = 0;
+        windowCount = 0;
+        failedCount = 0;
+        slowCount = 0;
+        probesStarted = 0;
+        probesSucceeded = 0;
+        if (newState == State.OPEN) {
+            openedAtNanos = System.nanoTime();
+        }
+    }
+
+    private double getFailureRateLocked() {
+        return windowCount == 0 ? 0 : (double) failedCount / windowCount;
+    }
+
+    private double getSlowCallRateLocked() {
+        return windowCount == 0 ? 0 : (double) slowCount / windowCount;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * @return The share of failed calls in the current window, from 0 to 1
+     */
+    public synchronized double getFailureRate() {
+        return getFailureRateLocked();
+    }
+
+    /**
+     * @return The share of slow calls in the current window, from 0 to 1
+     */
+    public synchronized double getSlowCallRate() {
+        return getSlowCallRateLocked();
+    }
+
+    /**
+     * @return The total number of calls rejected without being sent
+     */
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+
+    public enum State {
+        // Calls are sent and their outcomes recorded
+        CLOSED,
+        // Calls are rejected without being sent
+        OPEN,
+        // A limited number of probe calls are sent to find out whether the backend has recovered
+        HALF_OPEN
+    }
+
+    /**
+     * How a call that held a permit ended
+     */
+    public enum Outcome {
+        // The backend answered. The call still counts as slow if it took longer than the slow call duration.
+        SUCCESS,
+        // The call failed, timed out or the backend returned a server error
+        FAILURE,
+        // The call ended in a way that says nothing about the backend's health, such as being rejected by the client
+        IGNORED
+    }
+
+    /**
+     * Permission to send one call. Complete it when the response has been received.
+     */
+    public final class Permit {
+        private final long generation;
+        private final long startNanos = System.nanoTime();
+        private boolean completed = false;
+
+        private Permit(long generation) {
+            this.generation = generation;
+        }
+
+        /**
+         * Record the outcome of the call. Only the first call has an effect.
+         * @param outcome How the call ended
+         */
+        public void complete(Outcome outcome) {
+            synchronized (this) {
+                if (completed) {
+                    return;
+                }
+                completed = true;
+            }
+            record(generation, System.nanoTime() - startNanos, outcome);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2023 Open Text Corporation, All Rights Reserved.
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.opentext.exstream.sdk.exstreamApi.resilience;
+
+import com.opentext.exstream.sdk.exstreamApi.async.ExchangeAbortHandle;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+
+/**
+ * Sends each request through a {@link CircuitBreaker}.<br>
+ * Server errors, 429 Too Many Requests and I/O errors such as timeouts count as failures. Requests that the client
+ * rejected itself, that were cancelled by the caller or that ran out of the caller's {@link Deadline} aren't counted.
+ */
+public class CircuitBreakerInterceptor implements ClientHttpRequestInterceptor {
+    private final CircuitBreaker circuitBreaker;
+
+    public CircuitBreakerInterceptor(CircuitBreaker circuitBreaker) {
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+        CircuitBreaker.Permit permit = circuitBreaker.acquire();
+        ClientHttpResponse response;
+        int status;
+        try {
+            response = execution.execute(request, body);
+            status = response.getRawStatusCode();
+        } catch (BulkheadFullException | ConcurrencyLimitExceededException | DeadlineExceededException e) {
+            permit.complete(CircuitBreaker.Outcome.IGNORED);
+            throw e;
+        } catch (IOException | RuntimeException e) {
+            ExchangeAbortHandle abortHandle = ExchangeAbortHandle.current();
+            boolean callerGaveUp = (abortHandle != null && abortHandle.isAborted()) || Deadline.isCurrentExpired();
+            permit.complete(callerGaveUp ? CircuitBreaker.Outcome.IGNORED : CircuitBreaker.Outcome.FAILURE);
+            throw e;
+        }
+
+        if (status >= 500 || status == HttpStatus.TOO_MANY_REQUESTS.value()) {
+            permit.complete(CircuitBreaker.Outcome.FAILURE);
+        } else {
+            permit.complete(CircuitBreaker.Outcome.SUCCESS);
+        }
+        return response;
+    }
+}
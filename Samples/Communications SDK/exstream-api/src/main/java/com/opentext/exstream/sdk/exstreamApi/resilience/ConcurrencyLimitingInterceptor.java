@@ -0,0 +1,85 @@
+/*
+ * Copyright 2023 Open Text Corporation, All Rights Reserved.
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.opentext.exstream.sdk.exstreamApi.resilience;
+
+import com.opentext.exstream.sdk.exstreamApi.async.ExchangeAbortHandle;
+import com.opentext.exstream.sdk.exstreamApi.service.OrchestrationService;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+import java.util.regex.Pattern;
+
+/**
+ * Sends each request through an {@link AdaptiveConcurrencyLimiter}.<br>
+ * The permit is held until the response status and headers have arrived. Server errors, 429 Too Many Requests and
+ * I/O errors such as timeouts reduce the limit, other client errors and cancelled requests don't affect it.
+ */
+public class ConcurrencyLimitingInterceptor implements ClientHttpRequestInterceptor {
+    // UUIDs and numbers
+    private static final Pattern ID_SEGMENT = Pattern.compile("/(?:[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}|[0-9]+)(?=/|$)");
+
+    private final AdaptiveConcurrencyLimiter limiter;
+
+    public ConcurrencyLimitingInterceptor(AdaptiveConcurrencyLimiter limiter) {
+        this.limiter = limiter;
+    }
+
+    public AdaptiveConcurrencyLimiter getLimiter() {
+        return limiter;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+        AdaptiveConcurrencyLimiter.Permit permit = limiter.acquire();
+        ClientHttpResponse response;
+        int status;
+        try {
+            response = execution.execute(request, body);
+            status = response.getRawStatusCode();
+        } catch (IOException | RuntimeException e) {
+            // A request the caller cancelled or ran out of time for says nothing about the backend
+            ExchangeAbortHandle abortHandle = ExchangeAbortHandle.current();
+            boolean callerGaveUp = (abortHandle != null && abortHandle.isAborted()) || Deadline.isCurrentExpired();
+            permit.complete(callerGaveUp ? AdaptiveConcurrencyLimiter.Outcome.IGNORED : AdaptiveConcurrencyLimiter.Outcome.DROPPED);
+            throw e;
+        }
+
+        if (status >= 500 || status == HttpStatus.TOO_MANY_REQUESTS.value()) {
+            permit.complete(AdaptiveConcurrencyLimiter.Outcome.DROPPED);
+        } else if (status >= 400) {
+            permit.complete(AdaptiveConcurrencyLimiter.Outcome.IGNORED);
+        } else {
+            permit.complete(AdaptiveConcurrencyLimiter.Outcome.SUCCESS, operationOf(request));
+        }
+        return response;
+    }
+
+    /**
+     * Identify the endpoint of a request. Path segments that are ids are replaced so all requests to the same endpoint
+     * share one response time baseline. Generate and fulfill requests name the communication in a header rather than
+     * the path, and one communication can take many times longer to render than another, so each communication gets
+     * its own baseline.
+     */
+    static String operationOf(HttpRequest request) {
+        String path = request.getURI().getRawPath();
+        String operation = request.getMethodValue() + " " + (path == null ? "" : ID_SEGMENT.matcher(path).replaceAll("/{id}"));
+        String communicationId = request.getHeaders().getFirst(OrchestrationService.COMMUNICATION_ID_HEADER);
+        return communicationId == null ? operation : operation + " " + communicationId;
+    }
+}
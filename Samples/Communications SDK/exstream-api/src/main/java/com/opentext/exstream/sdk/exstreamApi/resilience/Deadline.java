@@ -0,0 +1,135 @@
+/*
+ * Copyright 2023 Open Text Corporation, All Rights Reserved.
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.opentext.exstream.sdk.exstreamApi.resilience;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * The time by which a call must have finished, including every request it sends, retries and hedged requests.<br>
+ * A deadline is bound to the thread running the call with {@link #call(Supplier)}. While it is bound, the connect and
+ * read timeouts of each request are shortened to the time left (see {@link TimeoutPolicy}), no retry is started that
+ * could not finish in time, and requests that would start after the deadline fail with a
+ * {@link DeadlineExceededException} without being sent. The *Async service methods carry the deadline of the calling
+ * thread over to the thread they run on.<br>
+ * A call made of several steps can give each step a share of the time with {@link #step(double)}, so one slow step
+ * doesn't use up the time of the steps after it. Time a step doesn't use is left for the next ones.
+ */
+public final class Deadline {
+    private static final ThreadLocal<Deadline> CURRENT = new ThreadLocal<>();
+
+    private final long deadlineNanos;
+
+    private Deadline(long deadlineNanos) {
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    /**
+     * @param timeout How long the call may take from now
+     * @return A deadline that passes after the timeout
+     */
+    public static Deadline after(Duration timeout) {
+        return new Deadline(System.nanoTime() + timeout.toNanos());
+    }
+
+    /**
+     * @return The deadline bound to the current thread, or null if the thread isn't running a call with a deadline
+     */
+    public static Deadline current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * @return Whether a deadline is bound to the current thread and has passed
+     */
+    public static boolean isCurrentExpired() {
+        Deadline deadline = CURRENT.get();
+        return deadline != null && deadline.isExpired();
+    }
+
+    public long remainingNanos() {
+        return deadlineNanos - System.nanoTime();
+    }
+
+    public long remainingMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(remainingNanos());
+    }
+
+    public boolean isExpired() {
+        return remainingNanos() <= 0;
+    }
+
+    /**
+     * Get the deadline of one step of a call
+     * @param share Share of the time left, from 0 to 1, the step may use
+     * @return A deadline that passes when the step has used its share, never later than this deadline
+     */
+    public Deadline step(double share) {
+        if (share < 0 || share > 1) {
+            throw new IllegalArgumentException("share must be between 0 and 1: " + share);
+        }
+        long now = System.nanoTime();
+        return new Deadline(now + (long) (Math.max(0, deadlineNanos - now) * share));
+    }
+
+    /**
+     * Run one step of a call with its share of the time left of the deadline bound to the current thread
+     * @param share Share of the time left, from 0 to 1, the step may use
+     * @param step The step
+     * @return The result of the step
+     * @see #step(double)
+     */
+    public static <T> T callStep(double share, Supplier<T> step) {
+        Deadline deadline = CURRENT.get();
+        return deadline != null ? deadline.step(share).call(step) : step.get();
+    }
+
+    /**
+     * Run a call with this deadline bound to the current thread. If a deadline that passes earlier is already bound,
+     * that one stays in effect.
+     * @param call The call
+     * @return The result of the call
+     * @throws DeadlineExceededException If the deadline has already passed, the call isn't made
+     */
+    public <T> T call(Supplier<T> call) {
+        Deadline previous = CURRENT.get();
+        Deadline effective = previous != null && previous.deadlineNanos - deadlineNanos < 0 ? previous : this;
+        if (effective.isExpired()) {
+            throw new DeadlineExceededException("The deadline passed " + -effective.remainingMillis() + "ms ago, the call wasn't started");
+        }
+        CURRENT.set(effective);
+        try {
+            return call.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    /**
+     * Run a call with this deadline bound to the current thread, see {@link #call(Supplier)}
+     * @param call The call
+     */
+    public void run(Runnable call) {
+        call(() -> {
+            call.run();
+            return null;
+        });
+    }
+}
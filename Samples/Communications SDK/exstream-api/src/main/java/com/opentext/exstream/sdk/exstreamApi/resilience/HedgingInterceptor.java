@@ -0,0 +1,357 @@
+/*
+ * Copyright 2023 Open Text Corporation, All Rights Reserved.
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.opentext.exstream.sdk.exstreamApi.resilience;
+
+import com.opentext.exstream.sdk.exstreamApi.async.ExchangeAbortHandle;
+import com.opentext.exstream.sdk.exstreamApi.profiling.GenerationTrace;
+import com.opentext.exstream.sdk.exstreamApi.tracing.Span;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
+
+/**
+ * Sends a second copy of a slow request and uses whichever response arrives first.<br>
+ * The response times of each endpoint are tracked, and when a request has been waiting longer than the configured
+ * percentile of them, the same request is sent again on another thread. The first response wins and the connection of
+ * the other one is closed. Hedges are paid for from a budget that each request adds a fraction of a hedge to, so they
+ * add at most that fraction of extra load even when the backend is slow for everyone.<br>
+ * Only requests accepted by the eligibility predicate are hedged, which must be safe to send twice.
+ */
+public class HedgingInterceptor implements ClientHttpRequestInterceptor {
+    private static final Logger logger = LoggerFactory.getLogger(HedgingInterceptor.class);
+
+    // Response times kept per endpoint, and how many are needed before requests to it are hedged
+    private static final int LATENCY_SAMPLES = 256;
+    private static final int MIN_LATENCY_SAMPLES = 32;
+    // How often the threshold is recalculated from the samples
+    private static final int RECALCULATE_EVERY = 32;
+    // Endpoints beyond this many share one set of samples
+    private static final int MAX_OPERATIONS = 256;
+    private static final String DEFAULT_OPERATION = "";
+    // Hedges that can be saved up while the backend is fast
+    private static final double MAX_BUDGET = 10;
+
+    private final String name;
+    private final Predicate<HttpRequest> eligible;
+    private final double percentile;
+    private final long minDelayNanos;
+    private final double budgetRatio;
+    private final Executor executor;
+    private final ScheduledExecutorService scheduler;
+
+    // Guarded by this
+    private final Map<String, LatencyTracker> trackers = new HashMap<>();
+    private double budget = 0;
+
+    private final AtomicLong hedged = new AtomicLong();
+    private final AtomicLong hedgeWins = new AtomicLong();
+    private final AtomicLong budgetExhausted = new AtomicLong();
+
+    /**
+     * @param name Name of the backend, used in log messages
+     * @param eligible Accepts the requests that may be hedged
+     * @param percentile Percentile of the response times of an endpoint after which a request is hedged, from 0 to 1
+     * @param minDelay Shortest time to wait before hedging a request
+     * @param budgetRatio Maximum number of hedges per request, for example 0.05 for at most 5% extra requests
+     * @param executor Runs the hedged requests. Each one occupies a thread until its response headers arrive.
+     * @param scheduler Starts the hedged requests when their delay has passed
+     */
+    public HedgingInterceptor(String name, Predicate<HttpRequest> eligible, double percentile, Duration minDelay, double budgetRatio,
+                              Executor executor, ScheduledExecutorService scheduler) {
+        if (percentile <= 0 || percentile > 1 || budgetRatio < 0) {
+            throw new IllegalArgumentException("Invalid hedging settings for " + name);
+        }
+        this.name = name;
+        this.eligible = eligible;
+        this.percentile = percentile;
+        this.minDelayNanos = minDelay.toNanos();
+        this.budgetRatio = budgetRatio;
+        this.executor = executor;
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * @return The total number of requests that were sent a second time
+     */
+    public long getHedgedCount() {
+        return hedged.get();
+    }
+
+    /**
+     * @return The total number of hedged requests whose second copy answered first
+     */
+    public long getHedgeWinCount() {
+        return hedgeWins.get();
+    }
+
+    /**
+     * @return The total number of slow requests that weren't hedged because the budget was used up
+     */
+    public long getBudgetExhaustedCount() {
+        return budgetExhausted.get();
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+        if (!eligible.test(request)) {
+            return execution.execute(request, body);
+        }
+
+        LatencyTracker tracker;
+        long delayNanos;
+        synchronized (this) {
+            budget = Math.min(MAX_BUDGET, budget + budgetRatio);
+            String operation = ConcurrencyLimitingInterceptor.operationOf(request);
+            tracker = trackers.get(operation);
+            if (tracker == null) {
+                tracker = trackers.computeIfAbsent(trackers.size() < MAX_OPERATIONS ? operation : DEFAULT_OPERATION, key -> new LatencyTracker());
+            }
+            delayNanos = tracker.thresholdNanos;
+        }
+        if (delayNanos < 0) {
+            // Not enough samples yet to know what slow is
+            return timedExecute(tracker, request, body, execution);
+        }
+
+        Exchange exchange = new Exchange(tracker, request, body, execution);
+        return exchange.run(Math.max(delayNanos, minDelayNanos));
+    }
+
+    private ClientHttpResponse timedExecute(LatencyTracker tracker, HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+        long startNanos = System.nanoTime();
+        ClientHttpResponse response = execution.execute(request, body);
+        record(tracker, System.nanoTime() - startNanos);
+        return response;
+    }
+
+    private synchronized void record(LatencyTracker tracker, long latencyNanos) {
+        tracker.record(latencyNanos, percentile);
+    }
+
+    private synchronized boolean withdrawBudget() {
+        if (budget < 1) {
+            return false;
+        }
+        budget -= 1;
+        return true;
+    }
+
+    // One request that may be hedged. The primary copy runs on the calling thread, the hedge on the executor.
+    private class Exchange {
+        private final LatencyTracker tracker;
+        private final HttpRequest request;
+        private final byte[] body;
+        private final ClientHttpRequestExecution execution;
+
+        private final ExchangeAbortHandle parentHandle = ExchangeAbortHandle.current();
+        private final Deadline deadline = Deadline.current();
+        private final GenerationTrace trace = GenerationTrace.current();
+        private final Span span = Span.current();
+        private final ExchangeAbortHandle primaryHandle = new ExchangeAbortHandle();
+        private final ExchangeAbortHandle hedgeHandle = new ExchangeAbortHandle();
+        private final CompletableFuture<ClientHttpResponse> hedgeResult = new CompletableFuture<>();
+        // The timer moves it to STARTED before it withdraws budget, the primary to CANCELLED once it has finished. Only
+        // one of them gets there, so the primary never gives up on a hedge that is being sent.
+        private final AtomicReference<HedgeState> hedgeState = new AtomicReference<>(HedgeState.NOT_STARTED);
+        // Set by whichever copy gets its response first
+        private final AtomicBoolean decided = new AtomicBoolean();
+        // When the primary copy was sent. Whichever copy wins, the sample is the time since then, which is how long the
+        // caller waited. Timing a winning hedge from its own start would record faster responses than the endpoint
+        // gave and pull the threshold down with every hedge.
+        private final long startNanos = System.nanoTime();
+
+        Exchange(LatencyTracker tracker, HttpRequest request, byte[] body, ClientHttpRequestExecution execution) {
+            this.tracker = tracker;
+            this.request = request;
+            this.body = body;
+            this.execution = execution;
+        }
+
+        ClientHttpResponse run(long delayNanos) throws IOException {
+            if (parentHandle != null) {
+                // Cancelling the caller's request cancels both copies
+                parentHandle.link(primaryHandle);
+                parentHandle.link(hedgeHandle);
+            }
+            try {
+                ScheduledFuture<?> timer = scheduler.schedule(this::startHedge, delayNanos, TimeUnit.NANOSECONDS);
+                PrimaryResult primary = new PrimaryResult();
+                primaryHandle.runBound(() -> {
+                    try {
+                        ClientHttpResponse response = execution.execute(request, body);
+                        if (win(primaryHandle)) {
+                            record(tracker, System.nanoTime() - startNanos);
+                            hedgeHandle.abort();
+                            primary.response = response;
+                        } else {
+                            // The hedge won while the primary response was arriving
+                            response.close();
+                        }
+                    } catch (IOException e) {
+                        primary.ioException = e;
+                    } catch (RuntimeException e) {
+                        primary.runtimeException = e;
+                    }
+                });
+                timer.cancel(false);
+
+                boolean hedgeStarted = !hedgeState.compareAndSet(HedgeState.NOT_STARTED, HedgeState.CANCELLED);
+
+                if (primary.response != null) {
+                    return primary.response;
+                }
+                if (hedgeStarted) {
+                    return awaitHedge(primary);
+                }
+                hedgeHandle.abort();
+                if (primary.runtimeException != null) {
+                    throw primary.runtimeException;
+                }
+                throw primary.ioException;
+            } finally {
+                if (parentHandle != null) {
+                    parentHandle.unlink(primaryHandle);
+                    parentHandle.unlink(hedgeHandle);
+                }
+            }
+        }
+
+        // Called by the copy that got its response. Returns false if the other copy already won.
+        private boolean win(ExchangeAbortHandle winner) {
+            if (!decided.compareAndSet(false, true)) {
+                return false;
+            }
+            // The caller may still cancel while reading the body, so its handle takes over the winning connection
+            if (parentHandle != null) {
+                winner.transferTo(parentHandle);
+            }
+            return true;
+        }
+
+        private ClientHttpResponse awaitHedge(PrimaryResult primary) throws IOException {
+            try {
+                return hedgeResult.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                hedgeHandle.abort();
+                throw new InterruptedIOException("Interrupted while waiting for the hedged request to " + name);
+            } catch (ExecutionException e) {
+                // Both copies failed, report the primary's failure
+                if (primary.runtimeException != null) {
+                    primary.runtimeException.addSuppressed(e.getCause());
+                    throw primary.runtimeException;
+                }
+                if (primary.ioException != null) {
+                    primary.ioException.addSuppressed(e.getCause());
+                    throw primary.ioException;
+                }
+                throw new IOException("Hedged request to " + name + " failed", e.getCause());
+            }
+        }
+
+        private void startHedge() {
+            if (decided.get() || !hedgeState.compareAndSet(HedgeState.NOT_STARTED, HedgeState.STARTED)) {
+                return;
+            }
+            if (!withdrawBudget()) {
+                budgetExhausted.incrementAndGet();
+                // The primary waits for the hedge once it has started, so it has to fail rather than never run
+                hedgeResult.completeExceptionally(new IOException("No budget left to hedge the request to " + name));
+                return;
+            }
+            try {
+                Runnable profiledHedge = trace != null ? () -> trace.run(this::runHedge) : this::runHedge;
+                Runnable hedge = span.isValid() ? () -> span.run(profiledHedge) : profiledHedge;
+                executor.execute(() -> hedgeHandle.runBound(deadline != null ? () -> deadline.run(hedge) : hedge));
+            } catch (RejectedExecutionException e) {
+                hedgeResult.completeExceptionally(e);
+            }
+        }
+
+        private void runHedge() {
+            hedged.incrementAndGet();
+            logger.debug("Hedging {} {} to {}", request.getMethodValue(), request.getURI(), name);
+            try {
+                ClientHttpResponse response = execution.execute(request, body);
+                if (win(hedgeHandle)) {
+                    hedgeWins.incrementAndGet();
+                    record(tracker, System.nanoTime() - startNanos);
+                    primaryHandle.abort();
+                    hedgeResult.complete(response);
+                } else {
+                    response.close();
+                    hedgeResult.completeExceptionally(new IOException("The primary request answered first"));
+                }
+            } catch (IOException | RuntimeException e) {
+                hedgeResult.completeExceptionally(e);
+            }
+        }
+    }
+
+    private enum HedgeState {
+        NOT_STARTED,
+        STARTED,
+        CANCELLED
+    }
+
+    private static class PrimaryResult {
+        ClientHttpResponse response;
+        IOException ioException;
+        RuntimeException runtimeException;
+    }
+
+    // Recent response times of one endpoint. Guarded by the interceptor.
+    private static class LatencyTracker {
+        private final long[] samples = new long[LATENCY_SAMPLES];
+        private int count = 0;
+        private int index = 0;
+        private int sinceRecalculation = 0;
+        // The hedging delay, or -1 while there aren't enough samples
+        long thresholdNanos = -1;
+
+        void record(long latencyNanos, double percentile) {
+            samples[index] = latencyNanos;
+            index = (index + 1) % samples.length;
+            count = Math.min(count + 1, samples.length);
+            if (count >= MIN_LATENCY_SAMPLES && ++sinceRecalculation >= RECALCULATE_EVERY) {
+                long[] sorted = Arrays.copyOf(samples, count);
+                Arrays.sort(sorted);
+                thresholdNanos = sorted[Math.min(count - 1, (int) Math.ceil(percentile * count) - 1)];
+                sinceRecalculation = 0;
+            }
+        }
+    }
+}
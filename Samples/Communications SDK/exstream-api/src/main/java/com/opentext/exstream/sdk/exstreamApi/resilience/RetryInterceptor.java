@@ -0,0 +1,230 @@
+/*
+ * Copyright 2023 Open Text Corporation, All Rights Reserved.
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.opentext.exstream.sdk.exstreamApi.resilience;
+
+import com.opentext.exstream.sdk.exstreamApi.async.ExchangeAbortHandle;
+import com.opentext.exstream.sdk.exstreamApi.model.response.ExstreamErrorResponse;
+import com.opentext.exstream.sdk.exstreamApi.utils.ExstreamJson;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.util.StreamUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.ConnectException;
+import java.net.NoRouteToHostException;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sends requests again that failed with a transient error, as decided by a {@link RetryPolicy}.<br>
+ * The serialized request body is sent again as is. A Retry-After header on the response sets the wait before the next
+ * attempt. Requests that the client rejected itself, such as calls to a backend whose circuit breaker is open, and
+ * asynchronous requests that were cancelled aren't retried. Neither is a request whose {@link Deadline} would pass
+ * before the retry could be sent.
+ */
+public class RetryInterceptor implements ClientHttpRequestInterceptor {
+    private static final Logger logger = LoggerFactory.getLogger(RetryInterceptor.class);
+
+    private final String name;
+    private final RetryPolicy retryPolicy;
+    private final boolean allRequestsIdempotent;
+
+    private final AtomicLong retries = new AtomicLong();
+
+    /**
+     * @param name Name of the backend, used in log messages
+     * @param retryPolicy Decides which requests are retried
+     * @param allRequestsIdempotent Treat every request to the backend as idempotent, whatever its method
+     */
+    public RetryInterceptor(String name, RetryPolicy retryPolicy, boolean allRequestsIdempotent) {
+        this.name = name;
+        this.retryPolicy = retryPolicy;
+        this.allRequestsIdempotent = allRequestsIdempotent;
+    }
+
+    public RetryPolicy getRetryPolicy() {
+        return retryPolicy;
+    }
+
+    /**
+     * @return The total number of requests that were sent again
+     */
+    public long getRetryCount() {
+        return retries.get();
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+        boolean idempotent = allRequestsIdempotent || retryPolicy.isIdempotent(request.getMethodValue());
+        for (int attempt = 1; ; attempt++) {
+            ClientHttpResponse response;
+            int status;
+            try {
+                response = execution.execute(request, body);
+                status = response.getRawStatusCode();
+            } catch (IOException e) {
+                // A connection that could not be opened never reached the backend, so any request can be sent again
+                boolean notSent = e instanceof ConnectException || e instanceof NoRouteToHostException;
+                if (attempt >= retryPolicy.getMaxAttempts() || isAborted() || !(idempotent || notSent)) {
+                    throw e;
+                }
+                if (!waitBeforeRetry(request, attempt, retryPolicy.backoffMillis(attempt), e.toString())) {
+                    throw e;
+                }
+                continue;
+            }
+
+            if (status < 400 || attempt >= retryPolicy.getMaxAttempts() || isAborted()) {
+                return response;
+            }
+
+            Integer errorCode = null;
+            if (retryPolicy.needsErrorCode(status)) {
+                // Read the error body so its errorCode can be checked, and hand a copy to the error handler
+                byte[] errorBody = StreamUtils.copyToByteArray(response.getBody());
+                response = new BufferedResponse(response, errorBody);
+                errorCode = readErrorCode(errorBody);
+            }
+            if (!retryPolicy.isRetryable(status, errorCode, idempotent)) {
+                return response;
+            }
+
+            long waitMillis = retryPolicy.backoffMillis(attempt);
+            Long retryAfterMillis = parseRetryAfter(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+            if (retryAfterMillis != null) {
+                if (!retryPolicy.acceptsRetryAfter(retryAfterMillis)) {
+                    logger.debug("Not retrying {} {}, Retry-After of {}ms is too long", request.getMethodValue(), request.getURI(), retryAfterMillis);
+                    return response;
+                }
+                waitMillis = retryAfterMillis;
+            }
+
+            String reason = "status " + status + (errorCode != null ? " errorCode " + errorCode : "");
+            if (!waitBeforeRetry(request, attempt, waitMillis, reason)) {
+                return response;
+            }
+            response.close();
+        }
+    }
+
+    // Returns false if the thread was interrupted or the request cancelled while waiting, or if the deadline would pass
+    private boolean waitBeforeRetry(HttpRequest request, int attempt, long waitMillis, String reason) {
+        Deadline deadline = Deadline.current();
+        if (deadline != null && deadline.remainingMillis() <= waitMillis) {
+            logger.debug("Not retrying {} {} after {}, the deadline passes in {}ms", request.getMethodValue(), request.getURI(), reason, deadline.remainingMillis());
+            return false;
+        }
+        logger.info("Retrying {} {} to {} in {}ms after {} (attempt {} of {})", request.getMethodValue(), request.getURI(), name,
+                waitMillis, reason, attempt + 1, retryPolicy.getMaxAttempts());
+        try {
+            Thread.sleep(waitMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        if (isAborted()) {
+            return false;
+        }
+        retries.incrementAndGet();
+        return true;
+    }
+
+    private static boolean isAborted() {
+        ExchangeAbortHandle abortHandle = ExchangeAbortHandle.current();
+        return abortHandle != null && abortHandle.isAborted();
+    }
+
+    private static Integer readErrorCode(byte[] errorBody) {
+        try {
+            return ExstreamJson.readerFor(ExstreamErrorResponse.class).<ExstreamErrorResponse>readValue(errorBody).errorCode;
+        } catch (IOException | RuntimeException e) {
+            // Not every error response is an ExstreamErrorResponse
+            return null;
+        }
+    }
+
+    /**
+     * Parse a Retry-After header, which is either a number of seconds or an HTTP date
+     * @return The wait in milliseconds, or null if there is no valid header
+     */
+    static Long parseRetryAfter(String retryAfter) {
+        if (retryAfter == null || retryAfter.isBlank()) {
+            return null;
+        }
+        try {
+            return Math.max(0, Long.parseLong(retryAfter.trim()) * 1000);
+        } catch (NumberFormatException e) {
+            // Not a number of seconds, try a date
+        }
+        try {
+            ZonedDateTime date = ZonedDateTime.parse(retryAfter.trim(), DateTimeFormatter.RFC_1123_DATE_TIME);
+            return Math.max(0, Duration.between(ZonedDateTime.now(date.getZone()), date).toMillis());
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    // An error response whose body has already been read
+    private static class BufferedResponse implements ClientHttpResponse {
+        private final ClientHttpResponse response;
+        private final byte[] body;
+
+        BufferedResponse(ClientHttpResponse response, byte[] body) {
+            this.response = response;
+            this.body = body;
+        }
+
+        @Override
+        public HttpStatus getStatusCode() throws IOException {
+            return response.getStatusCode();
+        }
+
+        @Override
+        public int getRawStatusCode() throws IOException {
+            return response.getRawStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return response.getStatusText();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return response.getHeaders();
+        }
+
+        @Override
+        public InputStream getBody() {
+            return new ByteArrayInputStream(body);
+        }
+
+        @Override
+        public void close() {
+            response.close();
+        }
+    }
+}
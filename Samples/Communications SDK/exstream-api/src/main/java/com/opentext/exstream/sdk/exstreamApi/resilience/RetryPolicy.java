@@ -0,0 +1,131 @@
+/*
+ * Copyright 2023 Open Text Corporation, All Rights Reserved.
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.opentext.exstream.sdk.exstreamApi.resilience;
+
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+/**
+ * Decides which failed requests are retried and how long to wait before each retry.<br>
+ * A response is retried when its status is one of the retryable statuses, or when its Exstream errorCode is one of
+ * the retryable error codes. A non-retryable error code prevents a retry even when the status is retryable. Requests
+ * that aren't idempotent are only retried when the backend rejected them before processing, that is on
+ * 429 Too Many Requests or when the connection could not be opened.<br>
+ * The wait doubles from the initial backoff up to the maximum backoff. Half of it is random, so clients that failed
+ * at the same time don't retry at the same time.
+ */
+public class RetryPolicy {
+    /**
+     * The policy of the default exstream.retry settings
+     */
+    public static final RetryPolicy DEFAULT = new RetryPolicy(3, Duration.ofMillis(200), Duration.ofMillis(5000), Duration.ofMillis(30000),
+            Set.of(408, 429, 502, 503, 504), Set.of(), Set.of(309016), Set.of("GET", "HEAD", "OPTIONS", "PUT", "DELETE"));
+
+    private final int maxAttempts;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+    private final long maxRetryAfterMillis;
+    private final Set<Integer> retryableStatuses;
+    private final Set<Integer> retryableErrorCodes;
+    private final Set<Integer> nonRetryableErrorCodes;
+    private final Set<String> idempotentMethods;
+
+    /**
+     * @param maxAttempts Maximum number of times a request is sent, including the first attempt
+     * @param initialBackoff Wait before the first retry, before jitter
+     * @param maxBackoff Longest wait between two attempts, before jitter
+     * @param maxRetryAfter Longest Retry-After the client waits for. Responses asking for a longer wait aren't retried.
+     * @param retryableStatuses HTTP statuses that are retried
+     * @param retryableErrorCodes Exstream error codes that are retried whatever the HTTP status
+     * @param nonRetryableErrorCodes Exstream error codes that are never retried
+     * @param idempotentMethods HTTP methods that can be sent again without side effects
+     */
+    public RetryPolicy(int maxAttempts, Duration initialBackoff, Duration maxBackoff, Duration maxRetryAfter, Set<Integer> retryableStatuses,
+                       Set<Integer> retryableErrorCodes, Set<Integer> nonRetryableErrorCodes, Set<String> idempotentMethods) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("maxAttempts must be at least 1");
+        }
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffMillis = initialBackoff.toMillis();
+        this.maxBackoffMillis = maxBackoff.toMillis();
+        this.maxRetryAfterMillis = maxRetryAfter.toMillis();
+        this.retryableStatuses = Set.copyOf(retryableStatuses);
+        this.retryableErrorCodes = Set.copyOf(retryableErrorCodes);
+        this.nonRetryableErrorCodes = Set.copyOf(nonRetryableErrorCodes);
+        this.idempotentMethods = idempotentMethods.stream().map(m -> m.toUpperCase(Locale.ROOT)).collect(Collectors.toUnmodifiableSet());
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    public boolean isIdempotent(String method) {
+        return method != null && idempotentMethods.contains(method.toUpperCase(Locale.ROOT));
+    }
+
+    /**
+     * @return Whether the error code of the response body is needed to decide about a response with this status
+     */
+    boolean needsErrorCode(int status) {
+        return retryableStatuses.contains(status) ? !nonRetryableErrorCodes.isEmpty() : !retryableErrorCodes.isEmpty();
+    }
+
+    /**
+     * Decide whether an error is transient, so that the same request may succeed when it's sent again
+     * @param status The HTTP status of the response
+     * @param errorCode The Exstream errorCode of the response, or null if it has none
+     */
+    public boolean isTransient(int status, Integer errorCode) {
+        if (errorCode != null && nonRetryableErrorCodes.contains(errorCode)) {
+            return false;
+        }
+        return retryableStatuses.contains(status) || (errorCode != null && retryableErrorCodes.contains(errorCode));
+    }
+
+    /**
+     * Decide whether an error response is retried
+     * @param status The HTTP status of the response
+     * @param errorCode The Exstream errorCode of the response, or null if it has none
+     * @param idempotent Whether the request can be sent again without side effects
+     */
+    boolean isRetryable(int status, Integer errorCode, boolean idempotent) {
+        // A throttled request was never processed, so it's safe to send again whatever it does
+        return isTransient(status, errorCode) && (idempotent || status == HttpStatus.TOO_MANY_REQUESTS.value());
+    }
+
+    /**
+     * @param retry The number of the retry, starting at 1
+     * @return A random wait between half and all of the exponential backoff for this retry
+     */
+    long backoffMillis(int retry) {
+        long ceiling = initialBackoffMillis << Math.min(retry - 1, 30);
+        if (ceiling <= 0 || ceiling > maxBackoffMillis) {
+            ceiling = maxBackoffMillis;
+        }
+        return ceiling <= 0 ? 0 : ceiling / 2 + ThreadLocalRandom.current().nextLong(ceiling / 2 + 1);
+    }
+
+    /**
+     * @return Whether the client waits as long as a Retry-After header asks for
+     */
+    boolean acceptsRetryAfter(long retryAfterMillis) {
+        return retryAfterMillis <= maxRetryAfterMillis;
+    }
+}
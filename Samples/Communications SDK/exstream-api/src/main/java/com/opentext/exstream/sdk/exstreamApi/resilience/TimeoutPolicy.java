@@ -0,0 +1,75 @@
+/*
+ * Copyright 2023 Open Text Corporation, All Rights Reserved.
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.opentext.exstream.sdk.exstreamApi.resilience;
+
+import com.opentext.exstream.sdk.exstreamApi.model.enumeration.ExstreamOperation;
+import com.opentext.exstream.sdk.exstreamApi.model.enumeration.TimeoutProfile;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * The connect and read timeouts of requests.<br>
+ * Every request gets the read timeout of the {@link TimeoutProfile} of its {@link ExstreamOperation}, unless the
+ * operation has a timeout of its own. The read timeout limits how long the client waits for each read from the
+ * connection, so a backend that stops answering fails the request instead of holding its thread forever. A
+ * {@link Deadline} bound to the thread shortens both timeouts to the time it has left.
+ */
+public class TimeoutPolicy {
+    /**
+     * The timeouts used when none are configured
+     */
+    public static final TimeoutPolicy DEFAULT = new TimeoutPolicy(Duration.ofSeconds(5),
+            Map.of(TimeoutProfile.SHORT, Duration.ofSeconds(10), TimeoutProfile.STANDARD, Duration.ofSeconds(60), TimeoutProfile.LONG, Duration.ofMinutes(10)),
+            Map.of());
+
+    private final int connectTimeoutMillis;
+    private final Map<ExstreamOperation, Integer> readTimeoutMillis = new EnumMap<>(ExstreamOperation.class);
+
+    /**
+     * @param connectTimeout How long to wait for a connection to be opened
+     * @param profileReadTimeouts Read timeout of each profile. Every profile must have one.
+     * @param operationReadTimeouts Read timeouts of operations that don't use the timeout of their profile
+     */
+    public TimeoutPolicy(Duration connectTimeout, Map<TimeoutProfile, Duration> profileReadTimeouts, Map<ExstreamOperation, Duration> operationReadTimeouts) {
+        this.connectTimeoutMillis = toTimeoutMillis(connectTimeout);
+        for (ExstreamOperation operation : ExstreamOperation.values()) {
+            Duration readTimeout = operationReadTimeouts.get(operation);
+            if (readTimeout == null) {
+                readTimeout = profileReadTimeouts.get(operation.getTimeoutProfile());
+            }
+            if (readTimeout == null) {
+                throw new IllegalArgumentException("No read timeout for timeout profile " + operation.getTimeoutProfile());
+            }
+            readTimeoutMillis.put(operation, toTimeoutMillis(readTimeout));
+        }
+    }
+
+    private static int toTimeoutMillis(Duration timeout) {
+        if (timeout.isNegative() || timeout.isZero()) {
+            throw new IllegalArgumentException("Timeouts must be positive: " + timeout);
+        }
+        return (int) Math.min(Integer.MAX_VALUE, timeout.toMillis());
+    }
+
+    public int getConnectTimeoutMillis() {
+        return connectTimeoutMillis;
+    }
+
+    public int getReadTimeoutMillis(ExstreamOperation operation) {
+        return readTimeoutMillis.get(operation);
+    }
+}
@@ -15,7 +15,7 @@
 package com.opentext.exstream.sdk.exstreamApi.service;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.opentext.exstream.sdk.exstreamApi.async.ExstreamAsyncExecutor;
 import com.opentext.exstream.sdk.exstreamApi.model.dto.*;
 import com.opentext.exstream.sdk.exstreamApi.model.enumeration.ImportPackageTypes;
 import com.opentext.exstream.sdk.exstreamApi.model.enumeration.ImportReplacementPolicy;
@@ -23,6 +23,11 @@ import com.opentext.exstream.sdk.exstreamApi.model.enumeration.ResourceType;
 import com.opentext.exstream.sdk.exstreamApi.model.enumeration.WorkflowState;
 import com.opentext.exstream.sdk.exstreamApi.model.request.WorkflowRequestBody;
 import com.opentext.exstream.sdk.exstreamApi.model.response.*;
+import com.opentext.exstream.sdk.exstreamApi.resilience.Deadline;
+import com.opentext.exstream.sdk.exstreamApi.model.enumeration.ExstreamBackend;
+import com.opentext.exstream.sdk.exstreamApi.spring.ExstreamRestTemplateConfigurer;
+import com.opentext.exstream.sdk.exstreamApi.tracing.Tracer;
+import com.opentext.exstream.sdk.exstreamApi.utils.ExstreamJson;
 import com.opentext.exstream.sdk.exstreamApi.utils.RestTemplateUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -35,9 +40,11 @@ import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
 import org.springframework.web.client.RestTemplate;
 
+import javax.annotation.PostConstruct;
 import java.net.URI;
 import java.util.Collection;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Service layer for making API calls to an Exstream DAS instance.
@@ -45,6 +52,8 @@ import java.util.Objects;
 @Service
 public class DasService {
     private static final Logger logger = LoggerFactory.getLogger(DasService.class);
+    // Share of the time left that looking up the communication set of a communication may use
+    private static final double LINKS_STEP_SHARE = 0.5;
 
     // OTDS service for authentication
     @Autowired
@@ -53,12 +62,26 @@ public class DasService {
     @Autowired
     DasUriBuilder uriBuilder;
 
+    @Autowired
+    ExstreamRestTemplateConfigurer restTemplateConfigurer;
+
+    @Autowired
+    ExstreamAsyncExecutor asyncExecutor;
+
+    @Autowired
+    Tracer tracer;
+
     RestTemplate restTemplate;
 
     public DasService() {
         restTemplate = RestTemplateUtils.buildRestTemplateWithLoggingAndErrorHandler();
     }
 
+    @PostConstruct
+    private void configureRestTemplate() {
+        restTemplateConfigurer.configure(restTemplate, ExstreamBackend.DAS);
+    }
+
     /**
      * Get a list of resources from DAS
      * @param domain The domain to get resources from
@@ -158,10 +181,9 @@ public class DasService {
         // Add conflict settings file with the general replacement policy
         ImportResponse conflictSettings = new ImportResponse();
         conflictSettings.policies.generalPolicy = generalReplacementPolicy;
-        ObjectMapper mapper = new ObjectMapper();
         byte[] conflictSettingsBytes;
         try {
-            conflictSettingsBytes = mapper.writeValueAsBytes(conflictSettings);
+            conflictSettingsBytes = ExstreamJson.writerFor(ImportResponse.class).writeValueAsBytes(conflictSettings);
         } catch (JsonProcessingException e) {
             logger.error("Could not serialize conflict settings", e);
             throw new RuntimeException(e);
@@ -428,4 +450,198 @@ public class DasService {
 
         return responseBody;
     }
+
+    /**
+     * Get the driver data source of a communication, which is needed to generate output for it.<br>
+     * The communication set linked to the communication is looked up, and the prodDsn of the first data source in its
+     * manifest is returned. If a {@link Deadline} is bound to the thread, the link lookup may use half of the time left
+     * so the manifest request still gets its share.
+     * @param domain The domain of the communication
+     * @param communicationId The communication ID to get the driver data source for
+     * @return The prodDsn of the communication's driver file
+     */
+    public String getDriverDataSourceForCommunication(String domain, String communicationId) {
+        return tracer.trace("exstream.driverDataSource", span -> {
+            span.setAttribute("exstream.domain", domain).setAttribute("exstream.communication_id", communicationId);
+
+            // Get the communication set id for the communication
+            ResourceFilter resourceFilter = new ResourceFilter().addType(ResourceType.exstrcommunicationset);
+            Collection<DasLink> links = Deadline.callStep(LINKS_STEP_SHARE, () -> listLinks(domain, communicationId, 2, resourceFilter));
+            final String communicationSetId = links.stream().findFirst().map(l -> l.linkObjectId)
+                    .orElseThrow(() -> new IllegalStateException("Communication " + communicationId + " isn't linked to a communication set")).toString();
+
+            // Get the driver file DSN for the communication set
+            DasManifest manifest = getManifestForCommunicationSet(domain, communicationSetId);
+            return Objects.requireNonNull(manifest.dsnlist).stream().findFirst()
+                    .orElseThrow(() -> new IllegalStateException("Communication set " + communicationSetId + " has no data source")).prodDsn;
+        });
+    }
+
+    /**
+     * Asynchronous version of {@link #listResources(String, ResourceFilter)}.<br>
+     * Cancelling the returned future aborts the HTTP request.
+     * @param domain The domain to get resources from
+     * @param resourceFilter {@link ResourceFilter} to apply to the request
+     * @return Future that completes with {@link Collection} of {@link DasResourceVersion} objects representing each resource from the response
+     */
+    public CompletableFuture<Collection<DasResourceVersion>> listResourcesAsync(String domain, ResourceFilter resourceFilter) {
+        return asyncExecutor.supplyAsync(() -> listResources(domain, resourceFilter));
+    }
+
+    /**
+     * Asynchronous version of {@link #listResources(String, ResourceFilter, PageInfo)}.<br>
+     * Cancelling the returned future aborts the HTTP request.
+     * @param domain The domain to get resources from
+     * @param resourceFilter {@link ResourceFilter} to apply to the request
+     * @param pageInfo {@link PageInfo} to send with the request
+     * @return Future that completes with {@link Collection} of {@link DasResourceVersion} objects representing each resource from the response
+     */
+    public CompletableFuture<Collection<DasResourceVersion>> listResourcesAsync(String domain, ResourceFilter resourceFilter, PageInfo pageInfo) {
+        return asyncExecutor.supplyAsync(() -> listResources(domain, resourceFilter, pageInfo));
+    }
+
+    /**
+     * Asynchronous version of {@link #listDomains()}.<br>
+     * Cancelling the returned future aborts the HTTP request.
+     * @return Future that completes with {@link Collection} of {@link DasDomain} objects from DAS
+     */
+    public CompletableFuture<Collection<DasDomain>> listDomainsAsync() {
+        return asyncExecutor.supplyAsync(() -> listDomains());
+    }
+
+    /**
+     * Asynchronous version of {@link #importPackage(String, Object)}.<br>
+     * Cancelling the returned future aborts the HTTP request.
+     * @param domain The domain to import into.
+     * @param exportPackageBody The export file that is being imported. The object should be a {@link org.springframework.core.io.Resource}, {@link java.io.File}, or byte array.
+     * @return Future that completes with the {@link ImportResponse} from DAS.
+     */
+    public CompletableFuture<ImportResponse> importPackageAsync(String domain, Object exportPackageBody) {
+        return asyncExecutor.supplyAsync(() -> importPackage(domain, exportPackageBody));
+    }
+
+    /**
+     * Asynchronous version of {@link #importPackage(String, Object, ImportPackageTypes, ImportReplacementPolicy, boolean)}.<br>
+     * Cancelling the returned future aborts the HTTP request.
+     * @param domain The domain to import into.
+     * @param exportPackageBody The export file that is being imported. The object should be a {@link org.springframework.core.io.Resource}, {@link java.io.File}, or byte array.
+     * @param packageType The package type being imported. See {@link ImportPackageTypes}.
+     * @param generalReplacementPolicy The replacement policy to use for conflicting resources. See {@link ImportReplacementPolicy}
+     * @param commit Flag to indicate whether to commit the import. Use false for a "dry run".
+     * @return Future that completes with the {@link ImportResponse} from DAS.
+     */
+    public CompletableFuture<ImportResponse> importPackageAsync(String domain, Object exportPackageBody, ImportPackageTypes packageType, ImportReplacementPolicy generalReplacementPolicy, boolean commit) {
+        return asyncExecutor.supplyAsync(() -> importPackage(domain, exportPackageBody, packageType, generalReplacementPolicy, commit));
+    }
+
+    /**
+     * Asynchronous version of {@link #getVersion()}.<br>
+     * Cancelling the returned future aborts the HTTP request.
+     * @return Future that completes with {@link ServiceVersionInfo} object from the DAS version response
+     */
+    public CompletableFuture<ServiceVersionInfo> getVersionAsync() {
+        return asyncExecutor.supplyAsync(() -> getVersion());
+    }
+
+    /**
+     * Asynchronous version of {@link #changeWorkflowState(String, String, WorkflowState, String, boolean)}.<br>
+     * Cancelling the returned future aborts the HTTP request.
+     * @param domain The domain the resource is associated with
+     * @param resourceId The ID of the resource being modified
+     * @param targetState The desired state for the resource
+     * @param workflowComment An optional comment describing the workflow change
+     * @param shouldLockResource A flag that indicates whether to lock the resource while changing the state
+     * @return Future that completes with {@link DasResourceVersion} object of the resource after the workflow change is complete
+     */
+    public CompletableFuture<DasResourceVersion> changeWorkflowStateAsync(String domain, String resourceId, WorkflowState targetState, String workflowComment, boolean shouldLockResource) {
+        return asyncExecutor.supplyAsync(() -> changeWorkflowState(domain, resourceId, targetState, workflowComment, shouldLockResource));
+    }
+
+    /**
+     * Asynchronous version of {@link #updateResourceContent(String, String, Object)}.<br>
+     * Cancelling the returned future aborts the HTTP request.
+     * @param domain The domain the resource is associated with
+     * @param resourceId The ID of the resource being modified
+     * @param newContent The new content for the resource being updated
+     * @return Future that completes with {@link DasResourceVersion} object of the resource after the update
+     */
+    public CompletableFuture<DasResourceVersion> updateResourceContentAsync(String domain, String resourceId, Object newContent) {
+        return asyncExecutor.supplyAsync(() -> updateResourceContent(domain, resourceId, newContent));
+    }
+
+    /**
+     * Asynchronous version of {@link #createResource(String, String, ResourceType, String, Object)}.<br>
+     * Cancelling the returned future aborts the HTTP request.
+     * @param domain The domain the resource will be associated with. Required
+     * @param resourceName The name for the new resource. Required.
+     * @param resourceType The type of the new resource. Required.
+     * @param resourceSubtype The subtype of the new resource. Optional.
+     * @param resourceContent The new content for the resource being created. Optional.
+     * @return Future that completes with {@link DasResourceVersion} object of the resource that was created
+     */
+    public CompletableFuture<DasResourceVersion> createResourceAsync(String domain, String resourceName, ResourceType resourceType, String resourceSubtype, Object resourceContent) {
+        return asyncExecutor.supplyAsync(() -> createResource(domain, resourceName, resourceType, resourceSubtype, resourceContent));
+    }
+
+    /**
+     * Asynchronous version of {@link #listLinks(String, String, int, ResourceFilter)}.<br>
+     * Cancelling the returned future aborts the HTTP request.
+     * @param domain The domain to get links from
+     * @param linkSubjectId The link subject ID to query for
+     * @param linkDepth The maximum link depth for a recursive traversal of a link tree
+     * @param resourceFilter {@link ResourceFilter} to apply when querying links
+     * @return Future that completes with {@link Collection} of {@link DasLink} objects representing each link from the response
+     */
+    public CompletableFuture<Collection<DasLink>> listLinksAsync(String domain, String linkSubjectId, int linkDepth, ResourceFilter resourceFilter) {
+        return asyncExecutor.supplyAsync(() -> listLinks(domain, linkSubjectId, linkDepth, resourceFilter));
+    }
+
+    /**
+     * Asynchronous version of {@link #listLinks(String, String, Integer, int, ResourceFilter)}.<br>
+     * Cancelling the returned future aborts the HTTP request.
+     * @param domain The domain to get links from
+     * @param linkSubjectId The link subject ID to query for
+     * @param linkSubjectVersion The version of the link subject. Null will query for the latest version.
+     * @param linkDepth The maximum link depth for a recursive traversal of a link tree
+     * @param resourceFilter {@link ResourceFilter} to apply when querying links
+     * @return Future that completes with {@link Collection} of {@link DasLink} objects representing each link from the response
+     */
+    public CompletableFuture<Collection<DasLink>> listLinksAsync(String domain, String linkSubjectId, Integer linkSubjectVersion, int linkDepth, ResourceFilter resourceFilter) {
+        return asyncExecutor.supplyAsync(() -> listLinks(domain, linkSubjectId, linkSubjectVersion, linkDepth, resourceFilter));
+    }
+
+    /**
+     * Asynchronous version of {@link #recursiveListLinks(String, String, int, ResourceFilter)}.<br>
+     * Cancelling the returned future aborts the HTTP request.
+     * @param domain The domain to get links from
+     * @param linkObjectId The link object ID to query for
+     * @param linkDepth The maximum link depth for a recursive traversal of a link tree
+     * @param resourceFilter {@link ResourceFilter} to apply when querying links
+     * @return Future that completes with a {@link Collection} of {@link DasResourceVersion} objects linking to the object
+     */
+    public CompletableFuture<Collection<DasResourceVersion>> recursiveListLinksAsync(String domain, String linkObjectId, int linkDepth, ResourceFilter resourceFilter) {
+        return asyncExecutor.supplyAsync(() -> recursiveListLinks(domain, linkObjectId, linkDepth, resourceFilter));
+    }
+
+    /**
+     * Asynchronous version of {@link #getManifestForCommunicationSet(String, String)}.<br>
+     * Cancelling the returned future aborts the HTTP request.
+     * @param domain The domain to get the manifest from
+     * @param communicationSetId The communication set ID to get the manifest for
+     * @return Future that completes with {@link DasManifest} object from the response
+     */
+    public CompletableFuture<DasManifest> getManifestForCommunicationSetAsync(String domain, String communicationSetId) {
+        return asyncExecutor.supplyAsync(() -> getManifestForCommunicationSet(domain, communicationSetId));
+    }
+
+    /**
+     * Asynchronous version of {@link #getDriverDataSourceForCommunication(String, String)}.<br>
+     * Cancelling the returned future aborts the HTTP request.
+     * @param domain The domain of the communication
+     * @param communicationId The communication ID to get the driver data source for
+     * @return Future that completes with the prodDsn of the communication's driver file
+     */
+    public CompletableFuture<String> getDriverDataSourceForCommunicationAsync(String domain, String communicationId) {
+        return asyncExecutor.supplyAsync(() -> getDriverDataSourceForCommunication(domain, communicationId));
+    }
 }
@@ -17,6 +17,8 @@ package com.opentext.exstream.sdk.exstreamApi.service;
 import com.opentext.exstream.sdk.exstreamApi.model.dto.EmpowerServiceVersionInfo;
 import com.opentext.exstream.sdk.exstreamApi.model.dto.ServiceVersionInfo;
 import com.opentext.exstream.sdk.exstreamApi.model.response.EmpowerResponse;
+import com.opentext.exstream.sdk.exstreamApi.model.enumeration.ExstreamBackend;
+import com.opentext.exstream.sdk.exstreamApi.spring.ExstreamRestTemplateConfigurer;
 import com.opentext.exstream.sdk.exstreamApi.utils.RestTemplateUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -29,6 +31,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
+import javax.annotation.PostConstruct;
 import java.net.URI;
 import java.util.Objects;
 
@@ -44,6 +47,9 @@ public class EmpowerService {
     @Autowired
     OtdsService otdsService;
 
+    @Autowired
+    ExstreamRestTemplateConfigurer restTemplateConfigurer;
+
     RestTemplate restTemplate;
 
 
@@ -51,6 +57,11 @@ public class EmpowerService {
         restTemplate = RestTemplateUtils.buildRestTemplateWithLoggingAndErrorHandler();
     }
 
+    @PostConstruct
+    private void configureRestTemplate() {
+        restTemplateConfigurer.configure(restTemplate, ExstreamBackend.EMPOWER);
+    }
+
     /**
      * Get the Empower service version information
      * @return {@link ServiceVersionInfo} object from the Empower version response
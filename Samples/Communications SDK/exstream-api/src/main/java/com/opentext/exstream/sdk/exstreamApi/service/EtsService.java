@@ -1,5 +1,8 @@
 package com.opentext.exstream.sdk.exstreamApi.service;
 
+import com.opentext.exstream.sdk.exstreamApi.metrics.ExstreamMetrics;
+import com.opentext.exstream.sdk.exstreamApi.model.enumeration.ExstreamBackend;
+import com.opentext.exstream.sdk.exstreamApi.spring.ExstreamRestTemplateConfigurer;
 import com.opentext.exstream.sdk.exstreamApi.utils.RestTemplateUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -11,6 +14,8 @@ import org.springframework.web.client.HttpStatusCodeException;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
 
+import javax.annotation.PostConstruct;
+
 @Service
 public class EtsService {
     public static final String ETS_TOKEN = "ETSToken";
@@ -18,6 +23,12 @@ public class EtsService {
     private static final String ETS_SEARCH = "/search";
     private static final String MEDIA_TYPE_HAL_JSON = "application/hal+json";
 
+    @Autowired
+    ExstreamRestTemplateConfigurer restTemplateConfigurer;
+
+    @Autowired
+    ExstreamMetrics metrics;
+
     RestTemplate restTemplate;
 
     @Autowired
@@ -42,6 +53,11 @@ public class EtsService {
         restTemplate = RestTemplateUtils.buildRestTemplateWithLoggingAndErrorHandler();
     }
 
+    @PostConstruct
+    private void configureRestTemplate() {
+        restTemplateConfigurer.configure(restTemplate, ExstreamBackend.ETS);
+    }
+
     /**
      * Authenticates as the configured user in the configured tenant and returns the resulting token.
      * The cached copy of the token will always be returned if it exists.
@@ -73,6 +89,7 @@ public class EtsService {
     public String getToken(String userId, String subscriptionName, boolean refreshToken) {
         if ((cachedToken == null) || (refreshToken)) {
             cachedToken = fetchETSToken(userId, subscriptionName);
+            metrics.countTokenFetch("ets", "entitlement", refreshToken);
         }
         return cachedToken;
     }
@@ -14,24 +14,41 @@
 
 package com.opentext.exstream.sdk.exstreamApi.service;
 
+import com.opentext.exstream.sdk.exstreamApi.async.ExstreamAsyncExecutor;
+import com.opentext.exstream.sdk.exstreamApi.cache.OutputCache;
+import com.opentext.exstream.sdk.exstreamApi.cache.OutputCacheKey;
+import com.opentext.exstream.sdk.exstreamApi.model.dto.DasResourceVersion;
 import com.opentext.exstream.sdk.exstreamApi.model.dto.EmpowerOutputChannelContent;
 import com.opentext.exstream.sdk.exstreamApi.model.dto.OrchestrationResponseData;
 import com.opentext.exstream.sdk.exstreamApi.model.dto.ServiceVersionInfo;
 import com.opentext.exstream.sdk.exstreamApi.model.dto.BackendServiceVersionInfo;
-import com.opentext.exstream.sdk.exstreamApi.model.request.EmpowerFulfillmentRequestBody;
 import com.opentext.exstream.sdk.exstreamApi.model.response.OrchestrationDataListResponse;
+import com.opentext.exstream.sdk.exstreamApi.model.enumeration.ExstreamBackend;
+import com.opentext.exstream.sdk.exstreamApi.profiling.LatencyProfiler;
+import com.opentext.exstream.sdk.exstreamApi.resilience.Deadline;
+import com.opentext.exstream.sdk.exstreamApi.spring.ExstreamRestTemplateConfigurer;
+import com.opentext.exstream.sdk.exstreamApi.tracing.Tracer;
+import com.opentext.exstream.sdk.exstreamApi.utils.ExstreamApiUtils;
 import com.opentext.exstream.sdk.exstreamApi.utils.RestTemplateUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.Resource;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
+import javax.annotation.PostConstruct;
+import java.io.File;
 import java.net.URI;
+import java.util.Collection;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
 
 
 /**
@@ -40,24 +57,49 @@ import java.util.Optional;
 @Service
 public class OrchestrationService {
     private static final Logger logger = LoggerFactory.getLogger(OrchestrationService.class);
-    private static final String COMMUNICATION_ID_HEADER = "communicationId";
-    private static final String DRIVER_DATA_SOURCE_HEADER = "driverDataSource";
-    private static final String EMPOWER_USER_HEADER = "empowerUser";
-    private static final String PRESERVE_DOCUMENTS_HEADER = "preserveDocuments";
+    public static final String COMMUNICATION_ID_HEADER = "communicationId";
+    public static final String DRIVER_DATA_SOURCE_HEADER = "driverDataSource";
+    public static final String EMPOWER_USER_HEADER = "empowerUser";
+    public static final String PRESERVE_DOCUMENTS_HEADER = "preserveDocuments";
+    // Share of the time left that looking up the driver data source of a communication may use
+    private static final double DRIVER_DATA_SOURCE_STEP_SHARE = 0.4;
 
     // OTDS service for authentication
     @Autowired
     OtdsService otdsService;
 
+    @Autowired
+    DasService dasService;
+
     @Autowired
     OrchestrationUriBuilder uriBuilder;
 
+    @Autowired
+    OutputCache outputCache;
+
+    @Autowired
+    ExstreamRestTemplateConfigurer restTemplateConfigurer;
+
+    @Autowired
+    ExstreamAsyncExecutor asyncExecutor;
+
+    @Autowired
+    LatencyProfiler latencyProfiler;
+
+    @Autowired
+    Tracer tracer;
+
     RestTemplate restTemplate;
 
     public OrchestrationService() {
         restTemplate = RestTemplateUtils.buildRestTemplateWithLoggingAndErrorHandler();
     }
 
+    @PostConstruct
+    private void configureRestTemplate() {
+        restTemplateConfigurer.configure(restTemplate, ExstreamBackend.ORCHESTRATION);
+    }
+
     /**
      * Get the Orchestration service version information
      *
@@ -119,6 +161,34 @@ public class OrchestrationService {
         return generateOnDemandOutput(domain, communicationId, driverDataSource, Optional.empty(), driverData, requestContentType, Optional.of(acceptsMediaType), byte[].class);
     }
 
+    /**
+     * Generate on-demand output from the Exstream Orchestration service, reusing previously generated output for identical requests<br>
+     * This method behaves like {@link #generateOnDemandOutputWithContentResponse} when the output cache is disabled.
+     * When it is enabled (see {@link OutputCache}), the output is cached under a hash of the request and the resolved
+     * resource versions, and concurrent identical requests share a single render.
+     *
+     * @param domain                   Domain id to access.
+     * @param communicationId          The id of the communication to generate output for.
+     * @param driverDataSource         The prodDsn value of the driver file associated with the communication (retrieve this value from the communication set associated with the communication).
+     * @param resolvedResourceVersions The DAS resource versions the output depends on, such as the approved versions of the communication
+     *                                 and its communication set. Approving a new version of one of them must change this collection
+     *                                 so stale output isn't returned.
+     * @param driverData               The driver file data that will be sent to the Exstream Orchestration service.
+     * @param requestContentType       Content type of the driver data file.
+     * @param acceptsMediaType         Content type to pass to the Accept header.
+     * @return Byte array containing the binary data of the output file from the response. The array must not be modified.
+     */
+    public byte[] generateOnDemandOutputWithCachedContentResponse(String domain, String communicationId, String driverDataSource, Collection<DasResourceVersion> resolvedResourceVersions, Object driverData, MediaType requestContentType, MediaType acceptsMediaType) {
+        if (!outputCache.isEnabled()) {
+            return generateOnDemandOutputWithContentResponse(domain, communicationId, driverDataSource, driverData, requestContentType, acceptsMediaType);
+        }
+
+        // Read the driver data once, it is needed for the key and as the request body
+        final byte[] driverDataBytes = ExstreamApiUtils.toByteArray(driverData);
+        OutputCacheKey key = OutputCacheKey.of(domain, communicationId, driverDataSource, resolvedResourceVersions, driverDataBytes, acceptsMediaType);
+        return outputCache.get(key, () -> generateOnDemandOutputWithContentResponse(domain, communicationId, driverDataSource, driverDataBytes, requestContentType, acceptsMediaType));
+    }
+
     /**
      * Generate on-demand Empower output from the Exstream Orchestration service.<br>
      * This method gets the full response data from the Orchestration service and returns the list of outputs.
@@ -152,6 +222,59 @@ public class OrchestrationService {
         return generateOnDemandOutput(domain, communicationId, driverDataSource, Optional.of(empowerUser), driverData, requestContentType, Optional.of(MediaType.APPLICATION_JSON), EmpowerOutputChannelContent.class);
     }
 
+    /**
+     * Generate on-demand output for a communication whose driver data source isn't known yet.<br>
+     * This method gets the full response data from the Orchestration service and returns the list of outputs. The
+     * driver data source is looked up in DAS while the Orchestration token is fetched and the driver data is read, and
+     * the output is requested as soon as the driver data source is known.
+     *
+     * @param domain             Domain id to access.
+     * @param communicationId    The id of the communication to generate output for.
+     * @param driverData         The driver file data that will be sent to the Exstream Orchestration service.
+     * @param requestContentType Content type of the driver data file.
+     * @return {@link List}<{@link OrchestrationResponseData}> objects representing each output in the response.
+     * @see DasService#getDriverDataSourceForCommunication(String, String)
+     */
+    public List<OrchestrationResponseData> generateCommunicationWithFullResponse(String domain, String communicationId, Object driverData, MediaType requestContentType) {
+        return generateCommunication(domain, communicationId, Optional.empty(), driverData, requestContentType, Optional.empty(), OrchestrationDataListResponse.class).data;
+    }
+
+    /**
+     * Generate on-demand output for a communication whose driver data source isn't known yet, and get only the content
+     * of the output that matches the Accept type.<br>
+     * The driver data source is looked up in DAS while the Orchestration token is fetched and the driver data is read,
+     * and the output is requested as soon as the driver data source is known.
+     *
+     * @param domain             Domain id to access.
+     * @param communicationId    The id of the communication to generate output for.
+     * @param driverData         The driver file data that will be sent to the Exstream Orchestration service.
+     * @param requestContentType Content type of the driver data file.
+     * @param acceptsMediaType   Content type to pass to the Accept header.
+     * @return Byte array containing the binary data of the output file from the response
+     * @see DasService#getDriverDataSourceForCommunication(String, String)
+     */
+    public byte[] generateCommunicationWithContentResponse(String domain, String communicationId, Object driverData, MediaType requestContentType, MediaType acceptsMediaType) {
+        return generateCommunication(domain, communicationId, Optional.empty(), driverData, requestContentType, Optional.of(acceptsMediaType), byte[].class);
+    }
+
+    /**
+     * Generate an on-demand Empower document for a communication whose driver data source isn't known yet, and get
+     * only its document id.<br>
+     * The driver data source is looked up in DAS while the Orchestration token is fetched and the driver data is read,
+     * and the document is requested as soon as the driver data source is known.
+     *
+     * @param domain             Domain id to access.
+     * @param communicationId    The id of the communication to generate output for.
+     * @param empowerUser        The user that should be used to import documents into Empower
+     * @param driverData         The driver file data that will be sent to the Exstream Orchestration service.
+     * @param requestContentType Content type of the driver data file.
+     * @return {@link EmpowerOutputChannelContent} object containing the document id of the generated document
+     * @see DasService#getDriverDataSourceForCommunication(String, String)
+     */
+    public EmpowerOutputChannelContent generateCommunicationEmpowerDocumentIdResponse(String domain, String communicationId, String empowerUser, Object driverData, MediaType requestContentType) {
+        return generateCommunication(domain, communicationId, Optional.of(empowerUser), driverData, requestContentType, Optional.of(MediaType.APPLICATION_JSON), EmpowerOutputChannelContent.class);
+    }
+
     /**
      * Fulfill an Empower document with the Exstream Orchestration on-demand service.<br>
      * This method gets the full response data from the Orchestration service and returns the list of outputs.
@@ -189,6 +312,35 @@ public class OrchestrationService {
         return fulfillOnDemandOutput(domain, empowerDocumentId, communicationId, driverDataSource, preserveDocuments, Optional.of(acceptsMediaType), byte[].class);
     }
 
+    /**
+     * Prepare a communication for repeated on-demand output requests.<br>
+     * The Orchestration URIs and the communication headers are resolved once, so each request made with the returned
+     * {@link PreparedCommunication} only attaches the current token and the body.
+     *
+     * @param domain           Domain id to access.
+     * @param communicationId  The id of the communication to generate output for.
+     * @param driverDataSource The prodDsn value of the driver file associated with the communication (retrieve this value from the communication set associated with the communication).
+     * @return {@link PreparedCommunication} for the communication
+     */
+    public PreparedCommunication prepareCommunication(String domain, String communicationId, String driverDataSource) {
+        return new PreparedCommunication(this, domain, communicationId, driverDataSource, null);
+    }
+
+    /**
+     * Prepare a communication for repeated on-demand Empower output requests.<br>
+     * The Orchestration URIs and the communication headers are resolved once, so each request made with the returned
+     * {@link PreparedCommunication} only attaches the current token and the body.
+     *
+     * @param domain           Domain id to access.
+     * @param communicationId  The id of the communication to generate output for.
+     * @param driverDataSource The prodDsn value of the driver file associated with the communication (retrieve this value from the communication set associated with the communication).
+     * @param empowerUser      The user that should be used to import documents into Empower
+     * @return {@link PreparedCommunication} for the communication
+     */
+    public PreparedCommunication prepareEmpowerCommunication(String domain, String communicationId, String driverDataSource, String empowerUser) {
+        return new PreparedCommunication(this, domain, communicationId, driverDataSource, Objects.requireNonNull(empowerUser));
+    }
+
     /**
      * Generate on-demand output from the Exstream Orchestration service
      * If the acceptsMediaType parameter is passed it will be included in an Accept header in the request
@@ -208,38 +360,63 @@ public class OrchestrationService {
      * @return The response body
      */
     private <T> T generateOnDemandOutput(String domain, String communicationId, String driverDataSource, Optional<String> empowerUser, Object driverData, MediaType requestContentType, Optional<MediaType> acceptsMediaType, Class<T> expectedResponseType) {
-        // Build request
-        HttpHeaders headers = new HttpHeaders();
-        headers.setBearerAuth(Objects.requireNonNull(otdsService.getServiceClientToken()));
-
-        // Add headers to indicate which communication to generate output for
-        headers.add(COMMUNICATION_ID_HEADER, communicationId);
-        headers.add(DRIVER_DATA_SOURCE_HEADER, driverDataSource);
-        acceptsMediaType.ifPresent(mediaType -> headers.setAccept(List.of(mediaType)));
-        empowerUser.ifPresent(user -> headers.add(EMPOWER_USER_HEADER, user));
-
-        // Add the driver data as the body
-        headers.setContentType(requestContentType);
-        HttpEntity<?> entity = new HttpEntity<>(driverData, headers);
-
-        // Get the URI
-        final URI uri = uriBuilder.buildOnDemandGenerateUri(domain);
-
-        // Send the request
-        logger.info("Requesting output from Exstream orchestration service: {}", uri);
-        ResponseEntity<T> response = restTemplate.exchange(uri, HttpMethod.POST, entity, expectedResponseType);
-
-        // Log response code
-        logger.info("Orchestration response: {}", response.getStatusCode());
+        return new PreparedCommunication(this, domain, communicationId, driverDataSource, empowerUser.orElse(null))
+                .generate(driverData, requestContentType, acceptsMediaType.orElse(null), expectedResponseType);
+    }
 
-        T responseBody = Objects.requireNonNull(response.getBody());
-        if (expectedResponseType != byte[].class) {
-            logger.debug("Response data:\n{}", responseBody);
-        } else {
-            logger.debug("Response data: byte[] with length {}", ((byte[]) responseBody).length);
-        }
+    /**
+     * Generate on-demand output for a communication, looking up its driver data source in DAS<br>
+     * The DAS lookups run on the calling thread. The Orchestration token, which the DAS requests don't wait for, and the
+     * driver data are prepared on the async executor at the same time. If the executor hasn't started on them by the
+     * time the driver data source is known, the calling thread prepares them itself, so a busy executor never holds
+     * up the call. If a {@link Deadline} is bound to the thread, the DAS lookups may use part of the time left and the
+     * render gets the rest. The whole call is profiled and traced, see {@link #observeOutput}.
+     *
+     * @param domain               Domain id to access.
+     * @param communicationId      The id of the communication to generate output for.
+     * @param empowerUser          The user that should be used to import documents into Empower
+     * @param driverData           The driver file data that will be sent to the Exstream Orchestration service.
+     * @param requestContentType   Content type of the driver data file.
+     * @param acceptsMediaType     Content type to pass to the Accept header.
+     * @param expectedResponseType Java type of the expected response data.
+     * @return The response body
+     */
+    private <T> T generateCommunication(String domain, String communicationId, Optional<String> empowerUser, Object driverData, MediaType requestContentType, Optional<MediaType> acceptsMediaType, Class<T> expectedResponseType) {
+        return observeOutput("exstream.generateCommunication", domain, communicationId, () -> {
+            AtomicBoolean preparing = new AtomicBoolean();
+            CompletableFuture<Object> preparedBody = asyncExecutor.supplyAsync(() -> preparing.compareAndSet(false, true) ? prepareRequest(driverData) : null);
+
+            final String driverDataSource;
+            Object body;
+            try {
+                driverDataSource = Deadline.callStep(DRIVER_DATA_SOURCE_STEP_SHARE, () -> dasService.getDriverDataSourceForCommunication(domain, communicationId));
+
+                if (preparing.compareAndSet(false, true)) {
+                    body = prepareRequest(driverData);
+                } else {
+                    try {
+                        body = preparedBody.join();
+                    } catch (CompletionException e) {
+                        throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+                    }
+                }
+            } finally {
+                // If the DAS lookup failed, keep the executor from reading a driver file that will never be sent.
+                // Otherwise the body is ready and this has no effect.
+                preparing.set(true);
+                preparedBody.cancel(false);
+            }
+            // Observed by this call's span, a nested exstream.generate span would record the output size twice
+            return new PreparedCommunication(this, domain, communicationId, driverDataSource, empowerUser.orElse(null))
+                    .sendGenerate(body, requestContentType, acceptsMediaType.orElse(null), expectedResponseType);
+        });
+    }
 
-        return responseBody;
+    // Fetch the token the output request needs and read driver data that comes from a file, so neither is left for
+    // after the driver data source is known. Other driver data is converted when the request is sent.
+    private Object prepareRequest(Object driverData) {
+        otdsService.getServiceClientToken();
+        return driverData instanceof File || driverData instanceof Resource ? ExstreamApiUtils.toByteArray(driverData) : driverData;
     }
 
     /**
@@ -261,25 +438,64 @@ public class OrchestrationService {
      * @return The response body
      */
     private <T> T fulfillOnDemandOutput(String domain, String empowerDocumentId, String communicationId, String driverDataSource, boolean preserveDocuments, Optional<MediaType> acceptsMediaType, Class<T> expectedResponseType) {
-        // Build request
-        HttpHeaders headers = new HttpHeaders();
-        headers.setBearerAuth(Objects.requireNonNull(otdsService.getServiceClientToken()));
+        return new PreparedCommunication(this, domain, communicationId, driverDataSource, null)
+                .fulfill(empowerDocumentId, preserveDocuments, acceptsMediaType.orElse(null), expectedResponseType);
+    }
 
-        // Add headers to indicate which communication to generate output for
-        headers.add(COMMUNICATION_ID_HEADER, communicationId);
-        headers.add(DRIVER_DATA_SOURCE_HEADER, driverDataSource);
-        headers.add(PRESERVE_DOCUMENTS_HEADER, Boolean.toString(preserveDocuments));
-        acceptsMediaType.ifPresent(mediaType -> headers.setAccept(List.of(mediaType)));
+    /**
+     * Run an output operation in a span of the {@link Tracer} and profile it with the {@link LatencyProfiler}. The span
+     * gets the domain, the communication and the size of the output.
+     *
+     * @param spanName        Name of the span
+     * @param domain          Domain id the output is generated in.
+     * @param communicationId The id of the communication the output is generated for.
+     * @param operation       The operation
+     * @return The result of the operation
+     */
+    <T> T observeOutput(String spanName, String domain, String communicationId, Supplier<T> operation) {
+        return tracer.trace(spanName, span -> {
+            span.setAttribute("exstream.domain", domain).setAttribute("exstream.communication_id", communicationId);
+            T result = latencyProfiler.profile(communicationId, operation);
+            span.setAttribute("exstream.output.size", outputSizeOf(result));
+            return result;
+        });
+    }
 
-        // Add the driver data as the body
-        headers.setContentType(MediaType.APPLICATION_JSON);
-        HttpEntity<?> entity = new HttpEntity<>(new EmpowerFulfillmentRequestBody(List.of(empowerDocumentId)), headers);
+    // The number of bytes of output in a response, or null if the response holds no output
+    private static Long outputSizeOf(Object response) {
+        if (response instanceof byte[]) {
+            return (long) ((byte[]) response).length;
+        }
+        if (response instanceof OrchestrationDataListResponse && ((OrchestrationDataListResponse) response).data != null) {
+            long size = 0;
+            for (OrchestrationResponseData output : ((OrchestrationDataListResponse) response).data) {
+                String content = output.getContent();
+                if (content != null) {
+                    // Decoded size of the base64 content
+                    size += content.length() / 4 * 3 - (content.endsWith("==") ? 2 : content.endsWith("=") ? 1 : 0);
+                }
+            }
+            return size;
+        }
+        return null;
+    }
 
-        // Get the URI
-        final URI uri = uriBuilder.buildOnDemandFulfillmentUri(domain);
+    /**
+     * Send an on-demand output request to the Exstream Orchestration service
+     *
+     * @param uri                  The generate or fulfillment URI
+     * @param headers              Request headers without authorization. The token is added to these headers.
+     * @param body                 The request body
+     * @param expectedResponseType Java type of the expected response data.
+     * @param logMessage           Message logged with the URI before the request is sent
+     * @return The response body
+     */
+    <T> T postForOutput(URI uri, HttpHeaders headers, Object body, Class<T> expectedResponseType, String logMessage) {
+        headers.setBearerAuth(Objects.requireNonNull(otdsService.getServiceClientToken()));
+        HttpEntity<?> entity = new HttpEntity<>(body, headers);
 
         // Send the request
-        logger.info("Requesting fulfillment output from Exstream orchestration service: {}", uri);
+        logger.info(logMessage, uri);
         ResponseEntity<T> response = restTemplate.exchange(uri, HttpMethod.POST, entity, expectedResponseType);
 
         // Log response code
@@ -294,4 +510,162 @@ public class OrchestrationService {
 
         return responseBody;
     }
+
+    /**
+     * Asynchronous version of {@link #getVersion()}.<br>
+     * Cancelling the returned future aborts the HTTP request.
+     * @return Future that completes with {@link ServiceVersionInfo} object from the Orchestration version response
+     */
+    public CompletableFuture<ServiceVersionInfo> getVersionAsync() {
+        return asyncExecutor.supplyAsync(() -> getVersion());
+    }
+
+    /**
+     * Asynchronous version of {@link #generateOnDemandOutputWithFullResponse(String, String, String, Object, MediaType)}.<br>
+     * Cancelling the returned future aborts the HTTP request.
+     * @param domain             Domain id to access.
+     * @param communicationId    The id of the communication to generate output for.
+     * @param driverDataSource   The prodDsn value of the driver file associated with the communication (retrieve this value from the communication set associated with the communication).
+     * @param driverData         The driver file data that will be sent to the Exstream Orchestration service.
+     * @param requestContentType Content type of the driver data file.
+     * @return Future that completes with {@link List}<{@link OrchestrationResponseData}> objects representing each output in the response.
+     */
+    public CompletableFuture<List<OrchestrationResponseData>> generateOnDemandOutputWithFullResponseAsync(String domain, String communicationId, String driverDataSource, Object driverData, MediaType requestContentType) {
+        return asyncExecutor.supplyAsync(() -> generateOnDemandOutputWithFullResponse(domain, communicationId, driverDataSource, driverData, requestContentType));
+    }
+
+    /**
+     * Asynchronous version of {@link #generateOnDemandOutputWithContentResponse(String, String, String, Object, MediaType, MediaType)}.<br>
+     * Cancelling the returned future aborts the HTTP request.
+     * @param domain             Domain id to access.
+     * @param communicationId    The id of the communication to generate output for.
+     * @param driverDataSource   The prodDsn value of the driver file associated with the communication (retrieve this value from the communication set associated with the communication).
+     * @param driverData         The driver file data that will be sent to the Exstream Orchestration service.
+     * @param requestContentType Content type of the driver data file.
+     * @param acceptsMediaType   Content type to pass to the Accept header.
+     * @return Future that completes with a byte array containing the binary data of the output file from the response
+     */
+    public CompletableFuture<byte[]> generateOnDemandOutputWithContentResponseAsync(String domain, String communicationId, String driverDataSource, Object driverData, MediaType requestContentType, MediaType acceptsMediaType) {
+        return asyncExecutor.supplyAsync(() -> generateOnDemandOutputWithContentResponse(domain, communicationId, driverDataSource, driverData, requestContentType, acceptsMediaType));
+    }
+
+    /**
+     * Asynchronous version of {@link #generateOnDemandOutputWithCachedContentResponse(String, String, String, Collection, Object, MediaType, MediaType)}.<br>
+     * Cancelling the returned future aborts the HTTP request.
+     * @param domain                   Domain id to access.
+     * @param communicationId          The id of the communication to generate output for.
+     * @param driverDataSource         The prodDsn value of the driver file associated with the communication (retrieve this value from the communication set associated with the communication).
+     * @param resolvedResourceVersions The DAS resource versions the output depends on, such as the approved versions of the communication
+     * @param driverData               The driver file data that will be sent to the Exstream Orchestration service.
+     * @param requestContentType       Content type of the driver data file.
+     * @param acceptsMediaType         Content type to pass to the Accept header.
+     * @return Future that completes with a byte array containing the binary data of the output file from the response. The array must not be modified.
+     */
+    public CompletableFuture<byte[]> generateOnDemandOutputWithCachedContentResponseAsync(String domain, String communicationId, String driverDataSource, Collection<DasResourceVersion> resolvedResourceVersions, Object driverData, MediaType requestContentType, MediaType acceptsMediaType) {
+        return asyncExecutor.supplyAsync(() -> generateOnDemandOutputWithCachedContentResponse(domain, communicationId, driverDataSource, resolvedResourceVersions, driverData, requestContentType, acceptsMediaType));
+    }
+
+    /**
+     * Asynchronous version of {@link #generateOnDemandEmpowerOutputWithFullResponse(String, String, String, String, Object, MediaType)}.<br>
+     * Cancelling the returned future aborts the HTTP request.
+     * @param domain             Domain id to access.
+     * @param communicationId    The id of the communication to generate output for.
+     * @param driverDataSource   The prodDsn value of the driver file associated with the communication (retrieve this value from the communication set associated with the communication).
+     * @param empowerUser        The user that should be used to import documents into Empower
+     * @param driverData         The driver file data that will be sent to the Exstream Orchestration service.
+     * @param requestContentType Content type of the driver data file.
+     * @return Future that completes with {@link List}<{@link OrchestrationResponseData}> objects representing each output in the response.
+     */
+    public CompletableFuture<List<OrchestrationResponseData>> generateOnDemandEmpowerOutputWithFullResponseAsync(String domain, String communicationId, String driverDataSource, String empowerUser, Object driverData, MediaType requestContentType) {
+        return asyncExecutor.supplyAsync(() -> generateOnDemandEmpowerOutputWithFullResponse(domain, communicationId, driverDataSource, empowerUser, driverData, requestContentType));
+    }
+
+    /**
+     * Asynchronous version of {@link #generateOnDemandEmpowerOutputDocumentIdResponse(String, String, String, String, Object, MediaType)}.<br>
+     * Cancelling the returned future aborts the HTTP request.
+     * @param domain             Domain id to access.
+     * @param communicationId    The id of the communication to generate output for.
+     * @param driverDataSource   The prodDsn value of the driver file associated with the communication (retrieve this value from the communication set associated with the communication).
+     * @param empowerUser        The user that should be used to import documents into Empower
+     * @param driverData         The driver file data that will be sent to the Exstream Orchestration service.
+     * @param requestContentType Content type of the driver data file.
+     * @return Future that completes with {@link EmpowerOutputChannelContent} object containing the document id of the generated document
+     */
+    public CompletableFuture<EmpowerOutputChannelContent> generateOnDemandEmpowerOutputDocumentIdResponseAsync(String domain, String communicationId, String driverDataSource, String empowerUser, Object driverData, MediaType requestContentType) {
+        return asyncExecutor.supplyAsync(() -> generateOnDemandEmpowerOutputDocumentIdResponse(domain, communicationId, driverDataSource, empowerUser, driverData, requestContentType));
+    }
+
+    /**
+     * Asynchronous version of {@link #generateCommunicationWithFullResponse(String, String, Object, MediaType)}.<br>
+     * Cancelling the returned future aborts the HTTP requests.
+     * @param domain             Domain id to access.
+     * @param communicationId    The id of the communication to generate output for.
+     * @param driverData         The driver file data that will be sent to the Exstream Orchestration service.
+     * @param requestContentType Content type of the driver data file.
+     * @return Future that completes with {@link List}<{@link OrchestrationResponseData}> objects representing each output in the response.
+     */
+    public CompletableFuture<List<OrchestrationResponseData>> generateCommunicationWithFullResponseAsync(String domain, String communicationId, Object driverData, MediaType requestContentType) {
+        return asyncExecutor.supplyAsync(() -> generateCommunicationWithFullResponse(domain, communicationId, driverData, requestContentType));
+    }
+
+    /**
+     * Asynchronous version of {@link #generateCommunicationWithContentResponse(String, String, Object, MediaType, MediaType)}.<br>
+     * Cancelling the returned future aborts the HTTP requests.
+     * @param domain             Domain id to access.
+     * @param communicationId    The id of the communication to generate output for.
+     * @param driverData         The driver file data that will be sent to the Exstream Orchestration service.
+     * @param requestContentType Content type of the driver data file.
+     * @param acceptsMediaType   Content type to pass to the Accept header.
+     * @return Future that completes with a byte array containing the binary data of the output file from the response
+     */
+    public CompletableFuture<byte[]> generateCommunicationWithContentResponseAsync(String domain, String communicationId, Object driverData, MediaType requestContentType, MediaType acceptsMediaType) {
+        return asyncExecutor.supplyAsync(() -> generateCommunicationWithContentResponse(domain, communicationId, driverData, requestContentType, acceptsMediaType));
+    }
+
+    /**
+     * Asynchronous version of {@link #generateCommunicationEmpowerDocumentIdResponse(String, String, String, Object, MediaType)}.<br>
+     * Cancelling the returned future aborts the HTTP requests.
+     * @param domain             Domain id to access.
+     * @param communicationId    The id of the communication to generate output for.
+     * @param empowerUser        The user that should be used to import documents into Empower
+     * @param driverData         The driver file data that will be sent to the Exstream Orchestration service.
+     * @param requestContentType Content type of the driver data file.
+     * @return Future that completes with {@link EmpowerOutputChannelContent} object containing the document id of the generated document
+     */
+    public CompletableFuture<EmpowerOutputChannelContent> generateCommunicationEmpowerDocumentIdResponseAsync(String domain, String communicationId, String empowerUser, Object driverData, MediaType requestContentType) {
+        return asyncExecutor.supplyAsync(() -> generateCommunicationEmpowerDocumentIdResponse(domain, communicationId, empowerUser, driverData, requestContentType));
+    }
+
+    /**
+     * Asynchronous version of {@link #fulfillOnDemandEmpowerDocumentWithFullResponse(String, String, String, String, boolean)}.<br>
+     * Cancelling the returned future aborts the HTTP request.
+     * @param domain             Domain id to access.
+     * @param empowerDocumentId  The id of the Empower document to fulfill
+     * @param communicationId    The id of the fulfillment communication to generate output for.
+     * @param driverDataSource   The prodDsn value of the driver file associated with the communication (retrieve this
+     *                           value from the communication set associated with the communication).
+     * @param preserveDocuments  Flag to indicate whether to preserve the Empower document after fulfillment. Setting
+     *                           this to false will remove the document from Empower upon fulfillment.
+     * @return Future that completes with {@link List}<{@link OrchestrationResponseData}> objects representing each output in the response.
+     */
+    public CompletableFuture<List<OrchestrationResponseData>> fulfillOnDemandEmpowerDocumentWithFullResponseAsync(String domain, String empowerDocumentId, String communicationId, String driverDataSource, boolean preserveDocuments) {
+        return asyncExecutor.supplyAsync(() -> fulfillOnDemandEmpowerDocumentWithFullResponse(domain, empowerDocumentId, communicationId, driverDataSource, preserveDocuments));
+    }
+
+    /**
+     * Asynchronous version of {@link #fulfillOnDemandEmpowerDocumentWithContentResponse(String, String, String, String, boolean, MediaType)}.<br>
+     * Cancelling the returned future aborts the HTTP request.
+     * @param domain             Domain id to access.
+     * @param empowerDocumentId  The id of the Empower document to fulfill
+     * @param communicationId    The id of the fulfillment communication to generate output for.
+     * @param driverDataSource   The prodDsn value of the driver file associated with the communication (retrieve this
+     *                           value from the communication set associated with the communication).
+     * @param preserveDocuments  Flag to indicate whether to preserve the Empower document after fulfillment. Setting
+     *                           this to false will remove the document from Empower upon fulfillment.
+     * @param acceptsMediaType   Content type to pass to the Accept header.
+     * @return Future that completes with a byte array containing the binary data of the output file from the response
+     */
+    public CompletableFuture<byte[]> fulfillOnDemandEmpowerDocumentWithContentResponseAsync(String domain, String empowerDocumentId, String communicationId, String driverDataSource, boolean preserveDocuments, MediaType acceptsMediaType) {
+        return asyncExecutor.supplyAsync(() -> fulfillOnDemandEmpowerDocumentWithContentResponse(domain, empowerDocumentId, communicationId, driverDataSource, preserveDocuments, acceptsMediaType));
+    }
 }
@@ -14,7 +14,10 @@
 
 package com.opentext.exstream.sdk.exstreamApi.service;
 
+import com.opentext.exstream.sdk.exstreamApi.metrics.ExstreamMetrics;
 import com.opentext.exstream.sdk.exstreamApi.model.response.OtdsTokenResponse;
+import com.opentext.exstream.sdk.exstreamApi.model.enumeration.ExstreamBackend;
+import com.opentext.exstream.sdk.exstreamApi.spring.ExstreamRestTemplateConfigurer;
 import com.opentext.exstream.sdk.exstreamApi.spring.ExstreamApiConfiguration;
 import com.opentext.exstream.sdk.exstreamApi.utils.RestTemplateUtils;
 import org.slf4j.Logger;
@@ -27,9 +30,11 @@ import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
 import org.springframework.web.client.RestTemplate;
 
+import javax.annotation.PostConstruct;
 import java.net.URI;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Service layer for interacting with an OpenText Directory Service instance. Reads the following environmental properties:<br>
@@ -74,13 +79,22 @@ public class OtdsService {
     @Value("${otds.subscription.name:}")
     private String otdsSubscriptionName;
 
-    private OtdsTokenResponse cachedToken = null;
+    private volatile OtdsTokenResponse cachedToken = null;
+    // Held while a token is requested, so that callers that find no cached token at the same time send a single token
+    // request. A lock rather than synchronized, so virtual threads waiting for the token don't pin their carrier threads.
+    private final ReentrantLock tokenLock = new ReentrantLock();
 
     private static final String GRANT_TYPE_PASSWORD = "password";
     private static final String GRANT_TYPE_CLIENT_CREDENTIALS = "client_credentials";
     private static final String LOCAL_OTDS_SCOPE = "otds:groups";
     private static final String OT2_OTDS_SCOPE = "search otds:groups subscription:%s";
 
+    @Autowired
+    ExstreamRestTemplateConfigurer restTemplateConfigurer;
+
+    @Autowired
+    ExstreamMetrics metrics;
+
 	RestTemplate restTemplate;
 	@Autowired
     OtdsUriBuilder uriBuilder;
@@ -89,6 +103,11 @@ public class OtdsService {
 		restTemplate = RestTemplateUtils.buildRestTemplateWithLoggingAndErrorHandler();
 	}
 
+    @PostConstruct
+    private void configureRestTemplate() {
+        restTemplateConfigurer.configure(restTemplate, ExstreamBackend.OTDS);
+    }
+
 	/**
 	 * Authenticates as the configured user in the configured tenant and returns the resulting token.
      * The cached copy of the token will always be returned if it exists.
@@ -119,12 +138,31 @@ public class OtdsService {
 	 * @return The access token string
 	 */
 	public String getToken(String tenant, String username, String password, boolean refreshToken) {
+        OtdsTokenResponse token = cachedToken;
+        if (token != null && !refreshToken) {
+            logger.debug("Reusing cached OTDS token.");
+            return token.access_token;
+        }
+        return fetchToken(tenant, username, password, refreshToken);
+    }
+
+    private String fetchToken(String tenant, String username, String password, boolean refreshToken) {
+        tokenLock.lock();
+        try {
+            return requestToken(tenant, username, password, refreshToken);
+        } finally {
+            tokenLock.unlock();
+        }
+    }
+
+    // Called while holding the token lock
+    private String requestToken(String tenant, String username, String password, boolean refreshToken) {
         // This could potentially be smart and know when to automatically refresh the token
         // since the OtdsTokenResponse object has the expires_in time, and we could log the time
         // we got it.
         // Return the cached token if we have one
         if (cachedToken != null && !refreshToken) {
-            logger.info("Reusing cached OTDS token.");
+            logger.debug("Reusing cached OTDS token.");
             return cachedToken.access_token;
         }
 
@@ -152,6 +190,7 @@ public class OtdsService {
 		ResponseEntity<OtdsTokenResponse> response = restTemplate.exchange(uri, HttpMethod.POST, entity, OtdsTokenResponse.class);
 
 		logger.info("Successfully authenticated to OTDS.");
+		metrics.countTokenFetch("otds", GRANT_TYPE_PASSWORD, refreshToken);
 
         // Cache the token
         cachedToken = Objects.requireNonNull(response.getBody());
@@ -160,6 +199,13 @@ public class OtdsService {
 		return cachedToken.access_token;
 	}
 
+    /**
+     * @return Whether a service client is configured, whose token the Orchestration output requests use
+     */
+    public boolean hasServiceClient() {
+        return serviceClientId != null && !serviceClientId.isBlank();
+    }
+
     /**
      * Authenticates as the configured user in the configured tenant and returns the resulting token.
      * The cached copy of the token will always be returned if it exists.
@@ -189,12 +235,32 @@ public class OtdsService {
      * @return The access token string
      */
     public String getServiceClientToken(String tenant,  boolean refreshToken) {
+        OtdsTokenResponse token = cachedToken;
+        if (token != null && !refreshToken) {
+            logger.debug("Reusing cached OTDS token.");
+            return token.access_token;
+        }
+        return fetchServiceClientToken(tenant, refreshToken);
+    }
+
+    // Uses the same lock as fetchToken, the token of either request is cached for both
+    private String fetchServiceClientToken(String tenant, boolean refreshToken) {
+        tokenLock.lock();
+        try {
+            return requestServiceClientToken(tenant, refreshToken);
+        } finally {
+            tokenLock.unlock();
+        }
+    }
+
+    // Called while holding the token lock
+    private String requestServiceClientToken(String tenant, boolean refreshToken) {
         // This could potentially be smart and know when to automatically refresh the token
         // since the OtdsTokenResponse object has the expires_in time, and we could log the time
         // we got it.
         // Return the cached token if we have one
         if (cachedToken != null && !refreshToken) {
-            logger.info("Reusing cached OTDS token.");
+            logger.debug("Reusing cached OTDS token.");
             return cachedToken.access_token;
         }
 
@@ -221,6 +287,7 @@ public class OtdsService {
         ResponseEntity<OtdsTokenResponse> response = restTemplate.exchange(uri, HttpMethod.POST, entity, OtdsTokenResponse.class);
 
         logger.info("Successfully authenticated to OTDS.");
+        metrics.countTokenFetch("otds", GRANT_TYPE_CLIENT_CREDENTIALS, refreshToken);
 
         // Cache the token
         cachedToken = Objects.requireNonNull(response.getBody());
@@ -0,0 +1,180 @@
+/*
+ * Copyright 2023 Open Text Corporation, All Rights Reserved.
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.opentext.exstream.sdk.exstreamApi.service;
+
+import com.opentext.exstream.sdk.exstreamApi.model.dto.EmpowerOutputChannelContent;
+import com.opentext.exstream.sdk.exstreamApi.model.dto.OrchestrationResponseData;
+import com.opentext.exstream.sdk.exstreamApi.model.request.EmpowerFulfillmentRequestBody;
+import com.opentext.exstream.sdk.exstreamApi.model.response.OrchestrationDataListResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+import java.net.URI;
+import java.util.List;
+
+/**
+ * A communication that has been prepared for repeated on-demand output requests.<br>
+ * The headers that identify the communication are resolved once when the communication is prepared, and each
+ * Orchestration URI the first time it is used, so a handle used for a single request only builds the URI it needs. Each
+ * request only adds the current OTDS token and the body. Instances are thread-safe and can be shared between threads.
+ * @see OrchestrationService#prepareCommunication(String, String, String)
+ */
+public class PreparedCommunication {
+    private final OrchestrationService orchestrationService;
+    private final String domain;
+    private final String communicationId;
+    private final String driverDataSource;
+    private final String empowerUser;
+
+    // Built when first used. Threads that race build equal URIs.
+    private volatile URI generateUri;
+    private volatile URI fulfillUri;
+
+    // Headers that are the same for every generate and fulfill request to this communication
+    private final HttpHeaders staticHeaders;
+
+    PreparedCommunication(OrchestrationService orchestrationService, String domain, String communicationId, String driverDataSource, String empowerUser) {
+        this.orchestrationService = orchestrationService;
+        this.domain = domain;
+        this.communicationId = communicationId;
+        this.driverDataSource = driverDataSource;
+        this.empowerUser = empowerUser;
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(OrchestrationService.COMMUNICATION_ID_HEADER, communicationId);
+        headers.add(OrchestrationService.DRIVER_DATA_SOURCE_HEADER, driverDataSource);
+        this.staticHeaders = HttpHeaders.readOnlyHttpHeaders(headers);
+    }
+
+    public String getDomain() {
+        return domain;
+    }
+
+    public String getCommunicationId() {
+        return communicationId;
+    }
+
+    public String getDriverDataSource() {
+        return driverDataSource;
+    }
+
+    /**
+     * Generate on-demand output and get the full response with all outputs
+     * @param driverData         The driver file data that will be sent to the Exstream Orchestration service.
+     * @param requestContentType Content type of the driver data file.
+     * @return {@link List}<{@link OrchestrationResponseData}> objects representing each output in the response.
+     */
+    public List<OrchestrationResponseData> generateWithFullResponse(Object driverData, MediaType requestContentType) {
+        return generate(driverData, requestContentType, null, OrchestrationDataListResponse.class).data;
+    }
+
+    /**
+     * Generate on-demand output and get only the content of the output that matches the Accept type
+     * @param driverData         The driver file data that will be sent to the Exstream Orchestration service.
+     * @param requestContentType Content type of the driver data file.
+     * @param acceptsMediaType   Content type to pass to the Accept header.
+     * @return Byte array containing the binary data of the output file from the response
+     */
+    public byte[] generateWithContentResponse(Object driverData, MediaType requestContentType, MediaType acceptsMediaType) {
+        return generate(driverData, requestContentType, acceptsMediaType, byte[].class);
+    }
+
+    /**
+     * Generate an on-demand Empower document and get only its document id. The communication must have been prepared
+     * with an Empower user.
+     * @param driverData         The driver file data that will be sent to the Exstream Orchestration service.
+     * @param requestContentType Content type of the driver data file.
+     * @return {@link EmpowerOutputChannelContent} object containing the document id of the generated document
+     */
+    public EmpowerOutputChannelContent generateEmpowerDocumentIdResponse(Object driverData, MediaType requestContentType) {
+        return generate(driverData, requestContentType, MediaType.APPLICATION_JSON, EmpowerOutputChannelContent.class);
+    }
+
+    /**
+     * Fulfill an Empower document and get the full response with all outputs
+     * @param empowerDocumentId The id of the Empower document to fulfill
+     * @param preserveDocuments Flag to indicate whether to preserve the Empower document after fulfillment.
+     * @return {@link List}<{@link OrchestrationResponseData}> objects representing each output in the response.
+     */
+    public List<OrchestrationResponseData> fulfillWithFullResponse(String empowerDocumentId, boolean preserveDocuments) {
+        return fulfill(empowerDocumentId, preserveDocuments, null, OrchestrationDataListResponse.class).data;
+    }
+
+    /**
+     * Fulfill an Empower document and get only the content of the output that matches the Accept type
+     * @param empowerDocumentId The id of the Empower document to fulfill
+     * @param preserveDocuments Flag to indicate whether to preserve the Empower document after fulfillment.
+     * @param acceptsMediaType  Content type to pass to the Accept header.
+     * @return Byte array containing the binary data of the output file from the response
+     */
+    public byte[] fulfillWithContentResponse(String empowerDocumentId, boolean preserveDocuments, MediaType acceptsMediaType) {
+        return fulfill(empowerDocumentId, preserveDocuments, acceptsMediaType, byte[].class);
+    }
+
+    <T> T generate(Object driverData, MediaType requestContentType, MediaType acceptsMediaType, Class<T> expectedResponseType) {
+        return orchestrationService.observeOutput("exstream.generate", domain, communicationId, () ->
+                sendGenerate(driverData, requestContentType, acceptsMediaType, expectedResponseType));
+    }
+
+    // Sends the generate request without observing it, for callers whose own span and profile already cover it
+    <T> T sendGenerate(Object driverData, MediaType requestContentType, MediaType acceptsMediaType, Class<T> expectedResponseType) {
+        HttpHeaders headers = newRequestHeaders(acceptsMediaType);
+        headers.setContentType(requestContentType);
+        // Only generate imports documents into Empower, fulfillment never sends the user
+        if (empowerUser != null) {
+            headers.set(OrchestrationService.EMPOWER_USER_HEADER, empowerUser);
+        }
+
+        return orchestrationService.postForOutput(getGenerateUri(), headers, driverData, expectedResponseType, "Requesting output from Exstream orchestration service: {}");
+    }
+
+    <T> T fulfill(String empowerDocumentId, boolean preserveDocuments, MediaType acceptsMediaType, Class<T> expectedResponseType) {
+        HttpHeaders headers = newRequestHeaders(acceptsMediaType);
+        headers.set(OrchestrationService.PRESERVE_DOCUMENTS_HEADER, Boolean.toString(preserveDocuments));
+        headers.setContentType(MediaType.APPLICATION_JSON);
+
+        EmpowerFulfillmentRequestBody body = new EmpowerFulfillmentRequestBody(List.of(empowerDocumentId));
+        return orchestrationService.observeOutput("exstream.fulfill", domain, communicationId, () ->
+                orchestrationService.postForOutput(getFulfillUri(), headers, body, expectedResponseType, "Requesting fulfillment output from Exstream orchestration service: {}"));
+    }
+
+    private URI getGenerateUri() {
+        URI uri = generateUri;
+        if (uri == null) {
+            uri = orchestrationService.uriBuilder.buildOnDemandGenerateUri(domain);
+            generateUri = uri;
+        }
+        return uri;
+    }
+
+    private URI getFulfillUri() {
+        URI uri = fulfillUri;
+        if (uri == null) {
+            uri = orchestrationService.uriBuilder.buildOnDemandFulfillmentUri(domain);
+            fulfillUri = uri;
+        }
+        return uri;
+    }
+
+    private HttpHeaders newRequestHeaders(MediaType acceptsMediaType) {
+        HttpHeaders headers = new HttpHeaders();
+        // The static header values are never modified, only replaced, so sharing the value lists is safe
+        headers.putAll(staticHeaders);
+        if (acceptsMediaType != null) {
+            headers.setAccept(List.of(acceptsMediaType));
+        }
+        return headers;
+    }
+}
@@ -0,0 +1,532 @@
+/*
+ * Copyright 2023 Open Text Corporation, All Rights Reserved.
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.opentext.exstream.sdk.exstreamApi.spring;
+
+import com.opentext.exstream.sdk.exstreamApi.capture.TrafficJournal;
+import com.opentext.exstream.sdk.exstreamApi.metrics.ExstreamMetrics;
+import com.opentext.exstream.sdk.exstreamApi.model.enumeration.ExstreamBackend;
+import com.opentext.exstream.sdk.exstreamApi.model.enumeration.ExstreamOperation;
+import com.opentext.exstream.sdk.exstreamApi.model.enumeration.TimeoutProfile;
+import com.opentext.exstream.sdk.exstreamApi.resilience.AdaptiveConcurrencyLimiter;
+import com.opentext.exstream.sdk.exstreamApi.resilience.Bulkhead;
+import com.opentext.exstream.sdk.exstreamApi.resilience.BulkheadInterceptor;
+import com.opentext.exstream.sdk.exstreamApi.resilience.CircuitBreaker;
+import com.opentext.exstream.sdk.exstreamApi.resilience.CircuitBreakerInterceptor;
+import com.opentext.exstream.sdk.exstreamApi.resilience.ConcurrencyLimitingInterceptor;
+import com.opentext.exstream.sdk.exstreamApi.resilience.HedgingInterceptor;
+import com.opentext.exstream.sdk.exstreamApi.resilience.RetryInterceptor;
+import com.opentext.exstream.sdk.exstreamApi.resilience.RetryPolicy;
+import com.opentext.exstream.sdk.exstreamApi.resilience.TimeoutPolicy;
+import com.opentext.exstream.sdk.exstreamApi.service.OrchestrationService;
+import com.opentext.exstream.sdk.exstreamApi.tracing.Tracer;
+import com.opentext.exstream.sdk.exstreamApi.tracing.TracingInterceptor;
+import com.opentext.exstream.sdk.exstreamApi.utils.InterceptorChain;
+import com.opentext.exstream.sdk.exstreamApi.utils.RestTemplateResponseErrorHandler;
+import com.opentext.exstream.sdk.exstreamApi.utils.RestTemplateUtils;
+import com.opentext.exstream.sdk.exstreamApi.utils.WireLoggingInterceptor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.client.RestTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Applies the configured client behavior to the RestTemplate of each service. Reads the following environmental properties:<br>
+ * exstream.wireLog.enabled: Set to false to turn off request and response logging. Logging is done at debug level.<br>
+ * exstream.wireLog.maxBodyBytes: Maximum number of bytes of each request and response body that are logged.<br>
+ * exstream.wireLog.sampleRate: Fraction of requests that are logged, from 0 to 1.<br>
+ * exstream.wireLog.sampleRates: Comma separated overrides of the sample rate. Each entry is key=rate where the key is
+ * either a backend name (otds, das, orchestration, empower, ets) or a path prefix starting with /.
+ * Example: orchestration=0.01,/das/api/v1/imports=1<br>
+ * exstream.limiter.backends: Comma separated backends whose concurrency is limited adaptively. Empty turns the limiter off.<br>
+ * exstream.limiter.initialLimit: Concurrency limit of each backend before any responses have been measured.<br>
+ * exstream.limiter.minLimit: Lowest concurrency limit.<br>
+ * exstream.limiter.maxLimit: Highest concurrency limit.<br>
+ * exstream.limiter.maxQueueSize: Maximum number of requests waiting for the limit. Further requests are rejected.<br>
+ * exstream.limiter.maxQueueWaitMillis: Maximum time a request waits for the limit. 0 rejects requests over the limit immediately.<br>
+ * exstream.limiter.rttTolerance: How many times slower than usual responses can get before the limit shrinks.<br>
+ * exstream.bulkhead.enabled: Set to true to turn on the per-backend bulkheads.<br>
+ * exstream.bulkhead.maxConcurrentCalls: Maximum number of concurrent calls to each backend.<br>
+ * exstream.bulkhead.maxConcurrentCallsByBackend: Comma separated overrides of maxConcurrentCalls, for example orchestration=200,otds=20<br>
+ * exstream.bulkhead.maxWaitMillis: Maximum time a call waits when its backend has no calls left. 0 rejects it immediately.<br>
+ * exstream.circuitBreaker.enabled: Set to true to turn on the per-backend circuit breakers.<br>
+ * exstream.circuitBreaker.windowSize: Number of recent calls the failure and slow call rates are calculated over.<br>
+ * exstream.circuitBreaker.minimumCalls: Number of calls in the window before a breaker can open.<br>
+ * exstream.circuitBreaker.failureRateThreshold: Share of failed calls, from 0 to 1, that opens a breaker.<br>
+ * exstream.circuitBreaker.slowCallRateThreshold: Share of slow calls, from 0 to 1, that opens a breaker.<br>
+ * exstream.circuitBreaker.slowCallDurationMillis: Calls slower than this count as slow.<br>
+ * exstream.circuitBreaker.slowCallDurationMillisByBackend: Comma separated overrides of slowCallDurationMillis, for example otds=2000<br>
+ * exstream.circuitBreaker.openDurationMillis: How long an open breaker rejects calls before it lets probe calls through.<br>
+ * exstream.circuitBreaker.halfOpenCalls: Number of probe calls that must succeed to close a breaker.<br>
+ * exstream.retry.enabled: Set to true to retry transient errors.<br>
+ * exstream.retry.maxAttempts: Maximum number of times a request is sent, including the first attempt.<br>
+ * exstream.retry.initialBackoffMillis: Wait before the first retry. It doubles for every further retry.<br>
+ * exstream.retry.maxBackoffMillis: Longest wait between two attempts.<br>
+ * exstream.retry.maxRetryAfterMillis: Longest Retry-After that is honored. Responses asking for a longer wait aren't retried.<br>
+ * exstream.retry.retryableStatuses: Comma separated HTTP statuses that are retried.<br>
+ * exstream.retry.retryableErrorCodes: Comma separated Exstream error codes that are retried whatever the HTTP status.<br>
+ * exstream.retry.nonRetryableErrorCodes: Comma separated Exstream error codes that are never retried.<br>
+ * exstream.retry.idempotentMethods: Comma separated HTTP methods that are safe to send again.<br>
+ * exstream.retry.idempotentBackends: Comma separated backends whose requests are all safe to send again, whatever their method.<br>
+ * exstream.hedging.backends: Comma separated backends whose slow idempotent reads are hedged: version checks, manifests,
+ * links and resource listings. Empty turns hedging off.<br>
+ * exstream.hedging.generate: Set to true to also hedge Orchestration generate requests that don't create Empower documents.
+ * Only do this when generating the same output twice has no side effects, for example no delivery channels.<br>
+ * exstream.hedging.percentile: Percentile of the response times of an endpoint, from 0 to 1, after which a request is hedged.<br>
+ * exstream.hedging.minDelayMillis: Shortest time to wait before hedging a request.<br>
+ * exstream.hedging.budgetRatio: Maximum number of hedged requests per request, for example 0.05 for 5% extra load.<br>
+ * exstream.timeout.connectMillis: How long to wait for a connection to a backend to be opened.<br>
+ * exstream.timeout.shortReadMillis: Read timeout of quick lookups, such as tokens, version checks and manifests.<br>
+ * exstream.timeout.standardReadMillis: Read timeout of resource lists, links, content and any other request.<br>
+ * exstream.timeout.longReadMillis: Read timeout of package imports and of output generation and fulfillment.<br>
+ * exstream.timeout.readMillisByOperation: Comma separated read timeouts of single operations (token, version, manifest,
+ * links, resources, content, import, generate, fulfill, other), for example generate=120000<br>
+ */
+@Component
+public class ExstreamRestTemplateConfigurer {
+    private static final Logger logger = LoggerFactory.getLogger(ExstreamRestTemplateConfigurer.class);
+
+    // Reads that are quick and safe to send twice. Content downloads aren't hedged, a second copy would double a large body.
+    private static final Set<ExstreamOperation> HEDGED_READS = EnumSet.of(ExstreamOperation.VERSION, ExstreamOperation.MANIFEST,
+            ExstreamOperation.LINKS, ExstreamOperation.RESOURCES);
+
+    @Autowired
+    ExstreamMetrics metrics;
+
+    @Autowired
+    Tracer tracer;
+
+    @Autowired
+    TrafficJournal trafficJournal;
+
+    @Value("${exstream.wireLog.enabled:true}")
+    private boolean wireLogEnabled;
+
+    @Value("${exstream.wireLog.maxBodyBytes:4096}")
+    private int wireLogMaxBodyBytes;
+
+    @Value("${exstream.wireLog.sampleRate:0.1}")
+    private double wireLogSampleRate;
+
+    @Value("${exstream.wireLog.sampleRates:}")
+    private String wireLogSampleRates;
+
+    @Value("${exstream.limiter.backends:}")
+    private String limiterBackends;
+
+    @Value("${exstream.limiter.initialLimit:20}")
+    private int limiterInitialLimit;
+
+    @Value("${exstream.limiter.minLimit:1}")
+    private int limiterMinLimit;
+
+    @Value("${exstream.limiter.maxLimit:200}")
+    private int limiterMaxLimit;
+
+    @Value("${exstream.limiter.maxQueueSize:100}")
+    private int limiterMaxQueueSize;
+
+    @Value("${exstream.limiter.maxQueueWaitMillis:1000}")
+    private long limiterMaxQueueWaitMillis;
+
+    @Value("${exstream.limiter.rttTolerance:2.0}")
+    private double limiterRttTolerance;
+
+    @Value("${exstream.bulkhead.enabled:false}")
+    private boolean bulkheadEnabled;
+
+    @Value("${exstream.bulkhead.maxConcurrentCalls:100}")
+    private int bulkheadMaxConcurrentCalls;
+
+    @Value("${exstream.bulkhead.maxConcurrentCallsByBackend:}")
+    private String bulkheadMaxConcurrentCallsByBackend;
+
+    @Value("${exstream.bulkhead.maxWaitMillis:500}")
+    private long bulkheadMaxWaitMillis;
+
+    @Value("${exstream.circuitBreaker.enabled:false}")
+    private boolean circuitBreakerEnabled;
+
+    @Value("${exstream.circuitBreaker.windowSize:50}")
+    private int circuitBreakerWindowSize;
+
+    @Value("${exstream.circuitBreaker.minimumCalls:20}")
+    private int circuitBreakerMinimumCalls;
+
+    @Value("${exstream.circuitBreaker.failureRateThreshold:0.5}")
+    private double circuitBreakerFailureRateThreshold;
+
+    @Value("${exstream.circuitBreaker.slowCallRateThreshold:0.8}")
+    private double circuitBreakerSlowCallRateThreshold;
+
+    @Value("${exstream.circuitBreaker.slowCallDurationMillis:30000}")
+    private long circuitBreakerSlowCallDurationMillis;
+
+    @Value("${exstream.circuitBreaker.slowCallDurationMillisByBackend:}")
+    private String circuitBreakerSlowCallDurationMillisByBackend;
+
+    @Value("${exstream.circuitBreaker.openDurationMillis:30000}")
+    private long circuitBreakerOpenDurationMillis;
+
+    @Value("${exstream.circuitBreaker.halfOpenCalls:5}")
+    private int circuitBreakerHalfOpenCalls;
+
+    @Value("${exstream.retry.enabled:false}")
+    private boolean retryEnabled;
+
+    @Value("${exstream.retry.maxAttempts:3}")
+    private int retryMaxAttempts;
+
+    @Value("${exstream.retry.initialBackoffMillis:200}")
+    private long retryInitialBackoffMillis;
+
+    @Value("${exstream.retry.maxBackoffMillis:5000}")
+    private long retryMaxBackoffMillis;
+
+    @Value("${exstream.retry.maxRetryAfterMillis:30000}")
+    private long retryMaxRetryAfterMillis;
+
+    @Value("${exstream.retry.retryableStatuses:408,429,502,503,504}")
+    private String retryableStatuses;
+
+    @Value("${exstream.retry.retryableErrorCodes:}")
+    private String retryableErrorCodes;
+
+    @Value("${exstream.retry.nonRetryableErrorCodes:309016}")
+    private String nonRetryableErrorCodes;
+
+    @Value("${exstream.retry.idempotentMethods:GET,HEAD,OPTIONS,PUT,DELETE}")
+    private String idempotentMethods;
+
+    @Value("${exstream.retry.idempotentBackends:otds}")
+    private String idempotentBackends;
+
+    @Value("${exstream.hedging.backends:}")
+    private String hedgingBackends;
+
+    @Value("${exstream.hedging.generate:false}")
+    private boolean hedgingGenerate;
+
+    @Value("${exstream.hedging.percentile:0.95}")
+    private double hedgingPercentile;
+
+    @Value("${exstream.hedging.minDelayMillis:50}")
+    private long hedgingMinDelayMillis;
+
+    @Value("${exstream.hedging.budgetRatio:0.05}")
+    private double hedgingBudgetRatio;
+
+    @Value("${exstream.timeout.connectMillis:5000}")
+    private long timeoutConnectMillis;
+
+    @Value("${exstream.timeout.shortReadMillis:10000}")
+    private long timeoutShortReadMillis;
+
+    @Value("${exstream.timeout.standardReadMillis:60000}")
+    private long timeoutStandardReadMillis;
+
+    @Value("${exstream.timeout.longReadMillis:600000}")
+    private long timeoutLongReadMillis;
+
+    @Value("${exstream.timeout.readMillisByOperation:}")
+    private String timeoutReadMillisByOperation;
+
+    private final Map<ExstreamBackend, Double> backendSampleRates = new HashMap<>();
+    private final Map<String, Double> pathSampleRates = new HashMap<>();
+    private final Map<ExstreamBackend, AdaptiveConcurrencyLimiter> limiters = new ConcurrentHashMap<>();
+    private final Set<ExstreamBackend> limitedBackends = EnumSet.noneOf(ExstreamBackend.class);
+    private final Map<ExstreamBackend, Bulkhead> bulkheads = new ConcurrentHashMap<>();
+    private final Map<ExstreamBackend, Integer> backendMaxConcurrentCalls = new EnumMap<>(ExstreamBackend.class);
+    private final Map<ExstreamBackend, CircuitBreaker> circuitBreakers = new ConcurrentHashMap<>();
+    private final Map<ExstreamBackend, Long> backendSlowCallDurationMillis = new EnumMap<>(ExstreamBackend.class);
+    private final Set<ExstreamBackend> idempotentBackendSet = EnumSet.noneOf(ExstreamBackend.class);
+    private RetryPolicy retryPolicy;
+    private final Set<ExstreamBackend> hedgedBackends = EnumSet.noneOf(ExstreamBackend.class);
+    private final Map<ExstreamBackend, HedgingInterceptor> hedgingInterceptors = new ConcurrentHashMap<>();
+    private ExecutorService hedgeExecutor;
+    private ScheduledExecutorService hedgeScheduler;
+    private TimeoutPolicy timeoutPolicy;
+
+    @PostConstruct
+    private void logConfig() {
+        for (String entry : wireLogSampleRates.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            String[] keyAndRate = entry.split("=", 2);
+            if (keyAndRate.length != 2) {
+                throw new IllegalArgumentException("Invalid exstream.wireLog.sampleRates entry: " + entry);
+            }
+            String key = keyAndRate[0].trim();
+            double rate = Double.parseDouble(keyAndRate[1].trim());
+            if (key.startsWith("/")) {
+                pathSampleRates.put(key, rate);
+            } else {
+                backendSampleRates.put(ExstreamBackend.valueOf(key.toUpperCase(Locale.ROOT)), rate);
+            }
+        }
+
+        for (String backend : limiterBackends.split(",")) {
+            if (!backend.isBlank()) {
+                limitedBackends.add(ExstreamBackend.valueOf(backend.trim().toUpperCase(Locale.ROOT)));
+            }
+        }
+
+        for (String backend : idempotentBackends.split(",")) {
+            if (!backend.isBlank()) {
+                idempotentBackendSet.add(ExstreamBackend.valueOf(backend.trim().toUpperCase(Locale.ROOT)));
+            }
+        }
+        for (String backend : hedgingBackends.split(",")) {
+            if (!backend.isBlank()) {
+                hedgedBackends.add(ExstreamBackend.valueOf(backend.trim().toUpperCase(Locale.ROOT)));
+            }
+        }
+        retryPolicy = new RetryPolicy(retryMaxAttempts, Duration.ofMillis(retryInitialBackoffMillis), Duration.ofMillis(retryMaxBackoffMillis),
+                Duration.ofMillis(retryMaxRetryAfterMillis), parseIntegers(retryableStatuses), parseIntegers(retryableErrorCodes),
+                parseIntegers(nonRetryableErrorCodes), StringUtils.commaDelimitedListToSet(idempotentMethods.replace(" ", "")));
+
+        Map<ExstreamOperation, Duration> operationReadTimeouts = new EnumMap<>(ExstreamOperation.class);
+        parseEnumValues(timeoutReadMillisByOperation, ExstreamOperation.class).forEach((operation, value) -> operationReadTimeouts.put(operation, Duration.ofMillis(Long.parseLong(value))));
+        timeoutPolicy = new TimeoutPolicy(Duration.ofMillis(timeoutConnectMillis), Map.of(TimeoutProfile.SHORT, Duration.ofMillis(timeoutShortReadMillis),
+                TimeoutProfile.STANDARD, Duration.ofMillis(timeoutStandardReadMillis), TimeoutProfile.LONG, Duration.ofMillis(timeoutLongReadMillis)), operationReadTimeouts);
+
+        parseBackendValues(bulkheadMaxConcurrentCallsByBackend).forEach((backend, value) -> backendMaxConcurrentCalls.put(backend, Integer.parseInt(value)));
+        parseBackendValues(circuitBreakerSlowCallDurationMillisByBackend).forEach((backend, value) -> backendSlowCallDurationMillis.put(backend, Long.parseLong(value)));
+
+        logger.info("wireLog.enabled={} maxBodyBytes={} sampleRate={} sampleRates={}", wireLogEnabled, wireLogMaxBodyBytes, wireLogSampleRate, wireLogSampleRates);
+        logger.info("limiter.backends={} initialLimit={} minLimit={} maxLimit={} maxQueueSize={} maxQueueWaitMillis={} rttTolerance={}",
+                limitedBackends, limiterInitialLimit, limiterMinLimit, limiterMaxLimit, limiterMaxQueueSize, limiterMaxQueueWaitMillis, limiterRttTolerance);
+        logger.info("bulkhead.enabled={} maxConcurrentCalls={} maxConcurrentCallsByBackend={} maxWaitMillis={}",
+                bulkheadEnabled, bulkheadMaxConcurrentCalls, backendMaxConcurrentCalls, bulkheadMaxWaitMillis);
+        logger.info("circuitBreaker.enabled={} windowSize={} minimumCalls={} failureRateThreshold={} slowCallRateThreshold={} slowCallDurationMillis={} slowCallDurationMillisByBackend={} openDurationMillis={} halfOpenCalls={}",
+                circuitBreakerEnabled, circuitBreakerWindowSize, circuitBreakerMinimumCalls, circuitBreakerFailureRateThreshold, circuitBreakerSlowCallRateThreshold,
+                circuitBreakerSlowCallDurationMillis, backendSlowCallDurationMillis, circuitBreakerOpenDurationMillis, circuitBreakerHalfOpenCalls);
+        logger.info("retry.enabled={} maxAttempts={} initialBackoffMillis={} maxBackoffMillis={} maxRetryAfterMillis={} retryableStatuses={} retryableErrorCodes={} nonRetryableErrorCodes={} idempotentMethods={} idempotentBackends={}",
+                retryEnabled, retryMaxAttempts, retryInitialBackoffMillis, retryMaxBackoffMillis, retryMaxRetryAfterMillis, retryableStatuses,
+                retryableErrorCodes, nonRetryableErrorCodes, idempotentMethods, idempotentBackendSet);
+        logger.info("hedging.backends={} generate={} percentile={} minDelayMillis={} budgetRatio={}",
+                hedgedBackends, hedgingGenerate, hedgingPercentile, hedgingMinDelayMillis, hedgingBudgetRatio);
+        logger.info("timeout.connectMillis={} shortReadMillis={} standardReadMillis={} longReadMillis={} readMillisByOperation={}",
+                timeoutConnectMillis, timeoutShortReadMillis, timeoutStandardReadMillis, timeoutLongReadMillis, operationReadTimeouts);
+    }
+
+    @PreDestroy
+    private synchronized void shutdown() {
+        if (hedgeExecutor != null) {
+            hedgeExecutor.shutdownNow();
+            hedgeScheduler.shutdownNow();
+        }
+    }
+
+    private static Set<Integer> parseIntegers(String values) {
+        Set<Integer> integers = new HashSet<>();
+        for (String value : values.split(",")) {
+            if (!value.isBlank()) {
+                integers.add(Integer.parseInt(value.trim()));
+            }
+        }
+        return integers;
+    }
+
+    // Parse a comma separated list of backend=value entries
+    private static Map<ExstreamBackend, String> parseBackendValues(String entries) {
+        return parseEnumValues(entries, ExstreamBackend.class);
+    }
+
+    // Parse a comma separated list of key=value entries whose keys are constants of an enum, in any case
+    private static <E extends Enum<E>> Map<E, String> parseEnumValues(String entries, Class<E> keyType) {
+        Map<E, String> values = new EnumMap<>(keyType);
+        for (String entry : entries.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            String[] keyAndValue = entry.split("=", 2);
+            if (keyAndValue.length != 2) {
+                throw new IllegalArgumentException("Invalid " + keyType.getSimpleName() + " setting: " + entry);
+            }
+            values.put(Enum.valueOf(keyType, keyAndValue[0].trim().toUpperCase(Locale.ROOT)), keyAndValue[1].trim());
+        }
+        return values;
+    }
+
+    /**
+     * Configure the RestTemplate of a service
+     * @param restTemplate A RestTemplate built by {@link com.opentext.exstream.sdk.exstreamApi.utils.RestTemplateUtils}
+     * @param backend The backend the RestTemplate calls
+     */
+    public void configure(RestTemplate restTemplate, ExstreamBackend backend) {
+        restTemplate.setRequestFactory(RestTemplateUtils.buildRequestFactory(timeoutPolicy));
+        // Errors are retryable when the retry settings consider them transient, whether or not retries are enabled
+        restTemplate.setErrorHandler(new RestTemplateResponseErrorHandler(retryPolicy));
+
+        List<ClientHttpRequestInterceptor> interceptors = new ArrayList<>(restTemplate.getInterceptors());
+        interceptors.removeIf(interceptor -> interceptor instanceof InterceptorChain || interceptor instanceof WireLoggingInterceptor);
+
+        // Interceptors run in list order, the first one added is the outermost. Every retry and hedged request is
+        // traced, measured, logged and passes the circuit breaker again. An open circuit breaker rejects calls before they
+        // take a bulkhead slot, and the limiter only sees calls the bulkhead let through. Traffic capture records each
+        // call once with the response the service returned in the end.
+        List<ClientHttpRequestInterceptor> chain = new ArrayList<>();
+        trafficJournal.getInterceptor(backend).ifPresent(chain::add);
+        if (retryEnabled && retryMaxAttempts > 1) {
+            RetryInterceptor retryInterceptor = new RetryInterceptor(backend.name().toLowerCase(Locale.ROOT), retryPolicy, idempotentBackendSet.contains(backend));
+            metrics.bind(backend, retryInterceptor);
+            chain.add(retryInterceptor);
+        }
+        getHedgingInterceptor(backend).ifPresent(hedgingInterceptor -> {
+            metrics.bind(backend, hedgingInterceptor);
+            chain.add(hedgingInterceptor);
+        });
+        if (tracer.isEnabled()) {
+            chain.add(new TracingInterceptor(tracer, backend.name().toLowerCase(Locale.ROOT)));
+        }
+        metrics.getInterceptor(backend).ifPresent(chain::add);
+        if (wireLogEnabled) {
+            double sampleRate = backendSampleRates.getOrDefault(backend, wireLogSampleRate);
+            chain.add(new WireLoggingInterceptor(wireLogMaxBodyBytes, sampleRate, pathSampleRates));
+        }
+        getCircuitBreaker(backend).ifPresent(circuitBreaker -> {
+            metrics.bind(backend, circuitBreaker);
+            chain.add(new CircuitBreakerInterceptor(circuitBreaker));
+        });
+        getBulkhead(backend).ifPresent(bulkhead -> {
+            metrics.bind(backend, bulkhead);
+            chain.add(new BulkheadInterceptor(bulkhead));
+        });
+        getLimiter(backend).ifPresent(limiter -> {
+            metrics.bind(backend, limiter);
+            chain.add(new ConcurrencyLimitingInterceptor(limiter));
+        });
+
+        // The chain has to be the last interceptor, see InterceptorChain
+        interceptors.add(new InterceptorChain(chain));
+        restTemplate.setInterceptors(interceptors);
+    }
+
+    /**
+     * @return The connect and read timeouts of the requests to every backend
+     */
+    public TimeoutPolicy getTimeoutPolicy() {
+        return timeoutPolicy;
+    }
+
+    /**
+     * Get the hedging interceptor of a backend, for example to monitor how many requests were hedged
+     * @param backend The backend
+     * @return The interceptor, or empty if requests to the backend aren't hedged
+     */
+    public Optional<HedgingInterceptor> getHedgingInterceptor(ExstreamBackend backend) {
+        if (!hedgedBackends.contains(backend)) {
+            return Optional.empty();
+        }
+        return Optional.of(hedgingInterceptors.computeIfAbsent(backend, b -> {
+            startHedgeThreads();
+            return new HedgingInterceptor(b.name().toLowerCase(Locale.ROOT), request -> isHedgeable(b, request), hedgingPercentile,
+                    Duration.ofMillis(hedgingMinDelayMillis), hedgingBudgetRatio, hedgeExecutor, hedgeScheduler);
+        }));
+    }
+
+    private boolean isHedgeable(ExstreamBackend backend, HttpRequest request) {
+        if (request.getMethod() == HttpMethod.GET) {
+            return HEDGED_READS.contains(ExstreamOperation.of(request.getURI().getPath()));
+        }
+        // On-demand generate requests without an Empower user only return the output
+        return hedgingGenerate && backend == ExstreamBackend.ORCHESTRATION && request.getMethod() == HttpMethod.POST
+                && request.getURI().getPath().endsWith("/generate")
+                && !request.getHeaders().containsKey(OrchestrationService.EMPOWER_USER_HEADER);
+    }
+
+    private synchronized void startHedgeThreads() {
+        if (hedgeExecutor == null) {
+            AtomicInteger threadCount = new AtomicInteger();
+            hedgeExecutor = Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, "exstream-hedge-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+            hedgeScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "exstream-hedge-timer");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * Get the concurrency limiter of a backend, for example to monitor its limit and queue depth
+     * @param backend The backend
+     * @return The limiter, or empty if the backend isn't limited
+     */
+    public Optional<AdaptiveConcurrencyLimiter> getLimiter(ExstreamBackend backend) {
+        if (!limitedBackends.contains(backend)) {
+            return Optional.empty();
+        }
+        return Optional.of(limiters.computeIfAbsent(backend, b -> new AdaptiveConcurrencyLimiter(b.name().toLowerCase(Locale.ROOT),
+                limiterInitialLimit, limiterMinLimit, limiterMaxLimit, limiterMaxQueueSize, Duration.ofMillis(limiterMaxQueueWaitMillis), limiterRttTolerance)));
+    }
+
+    /**
+     * Get the bulkhead of a backend, for example to monitor how many of its calls are in use
+     * @param backend The backend
+     * @return The bulkhead, or empty if bulkheads are turned off
+     */
+    public Optional<Bulkhead> getBulkhead(ExstreamBackend backend) {
+        if (!bulkheadEnabled) {
+            return Optional.empty();
+        }
+        return Optional.of(bulkheads.computeIfAbsent(backend, b -> new Bulkhead(b.name().toLowerCase(Locale.ROOT),
+                backendMaxConcurrentCalls.getOrDefault(b, bulkheadMaxConcurrentCalls), Duration.ofMillis(bulkheadMaxWaitMillis))));
+    }
+
+    /**
+     * Get the circuit breaker of a backend, for example to monitor its state
+     * @param backend The backend
+     * @return The circuit breaker, or empty if circuit breakers are turned off
+     */
+    public Optional<CircuitBreaker> getCircuitBreaker(ExstreamBackend backend) {
+        if (!circuitBreakerEnabled) {
+            return Optional.empty();
+        }
+        return Optional.of(circuitBreakers.computeIfAbsent(backend, b -> new CircuitBreaker(b.name().toLowerCase(Locale.ROOT),
+                circuitBreakerWindowSize, circuitBreakerMinimumCalls, circuitBreakerFailureRateThreshold, circuitBreakerSlowCallRateThreshold,
+                Duration.ofMillis(backendSlowCallDurationMillis.getOrDefault(b, circuitBreakerSlowCallDurationMillis)),
+                Duration.ofMillis(circuitBreakerOpenDurationMillis), circuitBreakerHalfOpenCalls)));
+    }
+}
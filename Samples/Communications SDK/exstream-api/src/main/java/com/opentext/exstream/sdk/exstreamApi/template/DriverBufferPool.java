@@ -0,0 +1,68 @@
+/*
+ * Copyright 2023 Open Text Corporation, All Rights Reserved.
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.opentext.exstream.sdk.exstreamApi.template;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Pool of byte arrays that {@link DriverTemplate} renders driver data into.<br>
+ * Buffers are returned to the pool when the {@link RenderedDriverData} is closed. Buffers that have grown larger than
+ * the maximum retained capacity are dropped instead of being pooled, so one unusually large record doesn't pin memory.
+ */
+public class DriverBufferPool {
+    private static final DriverBufferPool DEFAULT = new DriverBufferPool(64, 1024 * 1024);
+
+    private final BlockingQueue<byte[]> buffers;
+    private final int maxRetainedCapacity;
+
+    /**
+     * @param maxPooledBuffers Maximum number of idle buffers kept in the pool
+     * @param maxRetainedCapacity Buffers larger than this many bytes are not returned to the pool
+     */
+    public DriverBufferPool(int maxPooledBuffers, int maxRetainedCapacity) {
+        this.buffers = new ArrayBlockingQueue<>(maxPooledBuffers);
+        this.maxRetainedCapacity = maxRetainedCapacity;
+    }
+
+    /**
+     * @return The pool shared by templates that aren't given their own pool. It keeps up to 64 buffers of up to 1 MB.
+     */
+    public static DriverBufferPool getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * @return The number of idle buffers in the pool
+     */
+    public int size() {
+        return buffers.size();
+    }
+
+    byte[] acquire(int minCapacity) {
+        byte[] buffer = buffers.poll();
+        if (buffer == null || buffer.length < minCapacity) {
+            // A pooled buffer that is too small is dropped, the new larger buffer replaces it when it is released
+            return new byte[minCapacity];
+        }
+        return buffer;
+    }
+
+    void release(byte[] buffer) {
+        if (buffer.length <= maxRetainedCapacity) {
+            buffers.offer(buffer);
+        }
+    }
+}
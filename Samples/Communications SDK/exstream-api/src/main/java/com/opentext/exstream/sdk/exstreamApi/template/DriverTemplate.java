@@ -0,0 +1,404 @@
+/*
+ * Copyright 2023 Open Text Corporation, All Rights Reserved.
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.opentext.exstream.sdk.exstreamApi.template;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.opentext.exstream.sdk.exstreamApi.utils.ExstreamApiUtils;
+import com.opentext.exstream.sdk.exstreamApi.utils.ExstreamJson;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAccessor;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JSON driver data template compiled from a sample driver file.<br>
+ * Compiling splits the sample into fixed JSON segments and typed placeholders. Rendering a record writes the segments
+ * and the escaped placeholder values straight into a pooled buffer, without building an object tree or serializing
+ * it through Jackson. The output is compact JSON; the whitespace of the sample isn't kept.<br>
+ * Example:
+ * <pre>
+ * DriverTemplate template = DriverTemplate.compile(sampleDriverData,
+ *         TemplatePlaceholder.of("claimNumber", "/claim/claimNumber", PlaceholderType.STRING),
+ *         TemplatePlaceholder.of("lossDate", "/claim/lossDate", PlaceholderType.DATE));
+ * try (RenderedDriverData driverData = template.render("000-00-000204", LocalDate.now())) {
+ *     byte[] pdf = preparedCommunication.generateWithContentResponse(driverData, MediaType.APPLICATION_JSON, MediaType.APPLICATION_PDF);
+ * }
+ * </pre>
+ * Templates are immutable and can be shared between threads.
+ */
+public final class DriverTemplate {
+    private static final byte[] NULL = {'n', 'u', 'l', 'l'};
+    private static final byte[] TRUE = {'t', 'r', 'u', 'e'};
+    private static final byte[] FALSE = {'f', 'a', 'l', 's', 'e'};
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+    // Space reserved for each placeholder value when sizing a new buffer
+    private static final int PLACEHOLDER_SIZE_ESTIMATE = 32;
+
+    private final List<TemplatePlaceholder> placeholders;
+    private final Map<String, Integer> placeholderIndexes;
+    private final DriverBufferPool pool;
+
+    // segments[i] is written before the value of placeholder slotIndexes[i], the last segment follows the last value
+    private final byte[][] segments;
+    private final int[] slotIndexes;
+    private final int initialCapacity;
+
+    private DriverTemplate(List<TemplatePlaceholder> placeholders, byte[][] segments, int[] slotIndexes, DriverBufferPool pool) {
+        this.placeholders = List.copyOf(placeholders);
+        this.segments = segments;
+        this.slotIndexes = slotIndexes;
+        this.pool = pool;
+
+        Map<String, Integer> indexes = new HashMap<>();
+        for (int i = 0; i < placeholders.size(); i++) {
+            if (indexes.put(placeholders.get(i).getName(), i) != null) {
+                throw new IllegalArgumentException("Duplicate placeholder name: " + placeholders.get(i).getName());
+            }
+        }
+        this.placeholderIndexes = Map.copyOf(indexes);
+
+        int fixedSize = 0;
+        for (byte[] segment : segments) {
+            fixedSize += segment.length;
+        }
+        this.initialCapacity = fixedSize + PLACEHOLDER_SIZE_ESTIMATE * slotIndexes.length;
+    }
+
+    /**
+     * Compile a template that renders into the default {@link DriverBufferPool}
+     * @param sampleDriverData A sample JSON driver file as a {@link org.springframework.core.io.Resource}, {@link java.io.File}, {@link String} or byte array
+     * @param placeholders The variable fields. Values are passed to {@link #render(Object...)} in this order.
+     * @return The compiled template
+     */
+    public static DriverTemplate compile(Object sampleDriverData, TemplatePlaceholder... placeholders) {
+        return compile(sampleDriverData, List.of(placeholders), DriverBufferPool.getDefault());
+    }
+
+    /**
+     * Compile a template
+     * @param sampleDriverData A sample JSON driver file as a {@link org.springframework.core.io.Resource}, {@link java.io.File}, {@link String} or byte array
+     * @param placeholders The variable fields. Values are passed to {@link #render(Object...)} in this order.
+     * @param pool The pool rendered driver data is written into
+     * @return The compiled template
+     */
+    public static DriverTemplate compile(Object sampleDriverData, List<TemplatePlaceholder> placeholders, DriverBufferPool pool) {
+        JsonNode sample;
+        try {
+            sample = ExstreamJson.getObjectMapper().readTree(ExstreamApiUtils.toByteArray(sampleDriverData));
+        } catch (IOException e) {
+            throw new IllegalArgumentException("The sample driver data is not valid JSON", e);
+        }
+
+        Map<String, Integer> pointers = new HashMap<>();
+        for (int i = 0; i < placeholders.size(); i++) {
+            TemplatePlaceholder placeholder = placeholders.get(i);
+            if (sample.at(placeholder.getJsonPointer()).isMissingNode()) {
+                throw new IllegalArgumentException("Placeholder " + placeholder + " does not match a field in the sample driver data");
+            }
+            if (pointers.put(placeholder.getJsonPointer(), i) != null) {
+                throw new IllegalArgumentException("More than one placeholder for " + placeholder.getJsonPointer());
+            }
+        }
+
+        Compiler compiler = new Compiler(pointers);
+        compiler.write(sample, "");
+        return new DriverTemplate(placeholders, compiler.finish(), compiler.slotIndexes.stream().mapToInt(Integer::intValue).toArray(), pool);
+    }
+
+    public List<TemplatePlaceholder> getPlaceholders() {
+        return placeholders;
+    }
+
+    /**
+     * Render the driver data for one record
+     * @param values The placeholder values, in the order the placeholders were passed to compile
+     * @return The rendered driver data. Close it after the request to return its buffer to the pool.
+     */
+    public RenderedDriverData render(Object... values) {
+        if (values.length != placeholders.size()) {
+            throw new IllegalArgumentException("Expected " + placeholders.size() + " placeholder values but got " + values.length);
+        }
+
+        Buffer buffer = new Buffer(pool.acquire(initialCapacity));
+        try {
+            for (int i = 0; i < slotIndexes.length; i++) {
+                buffer.write(segments[i]);
+                int index = slotIndexes[i];
+                writeValue(buffer, placeholders.get(index), values[index]);
+            }
+            buffer.write(segments[slotIndexes.length]);
+        } catch (RuntimeException e) {
+            pool.release(buffer.bytes);
+            throw e;
+        }
+        return new RenderedDriverData(pool, buffer.bytes, buffer.size);
+    }
+
+    /**
+     * Render the driver data for one record
+     * @param values The placeholder values by placeholder name. Placeholders without a value are rendered as null.
+     * @return The rendered driver data. Close it after the request to return its buffer to the pool.
+     */
+    public RenderedDriverData render(Map<String, ?> values) {
+        Object[] orderedValues = new Object[placeholders.size()];
+        for (Map.Entry<String, ?> value : values.entrySet()) {
+            Integer index = placeholderIndexes.get(value.getKey());
+            if (index == null) {
+                throw new IllegalArgumentException("Unknown placeholder: " + value.getKey());
+            }
+            orderedValues[index] = value.getValue();
+        }
+        return render(orderedValues);
+    }
+
+    private static void writeValue(Buffer buffer, TemplatePlaceholder placeholder, Object value) {
+        if (value == null) {
+            buffer.write(NULL);
+            return;
+        }
+
+        switch (placeholder.getType()) {
+            case STRING:
+                if (value instanceof CharSequence) {
+                    writeString(buffer, (CharSequence) value);
+                    return;
+                }
+                break;
+            case NUMBER:
+                if (value instanceof Number) {
+                    writeNumber(buffer, (Number) value, placeholder);
+                    return;
+                }
+                break;
+            case BOOLEAN:
+                if (value instanceof Boolean) {
+                    buffer.write((Boolean) value ? TRUE : FALSE);
+                    return;
+                }
+                break;
+            case DATE:
+                if (value instanceof TemporalAccessor) {
+                    writeString(buffer, DateTimeFormatter.ISO_LOCAL_DATE.format((TemporalAccessor) value));
+                    return;
+                } else if (value instanceof CharSequence) {
+                    writeString(buffer, (CharSequence) value);
+                    return;
+                }
+                break;
+            case RAW_JSON:
+                if (value instanceof byte[]) {
+                    buffer.write((byte[]) value);
+                    return;
+                } else if (value instanceof CharSequence) {
+                    writeUtf8(buffer, (CharSequence) value, false);
+                    return;
+                }
+                break;
+        }
+        throw new IllegalArgumentException("Value of type " + value.getClass().getName() + " is not valid for placeholder " + placeholder);
+    }
+
+    private static void writeNumber(Buffer buffer, Number value, TemplatePlaceholder placeholder) {
+        String text;
+        if (value instanceof Double || value instanceof Float) {
+            double doubleValue = value.doubleValue();
+            if (Double.isNaN(doubleValue) || Double.isInfinite(doubleValue)) {
+                throw new IllegalArgumentException("Value " + value + " is not a valid JSON number for placeholder " + placeholder);
+            }
+            text = value.toString();
+        } else if (value instanceof BigDecimal) {
+            text = ((BigDecimal) value).toString();
+        } else {
+            text = value.toString();
+        }
+        writeUtf8(buffer, text, false);
+    }
+
+    private static void writeString(Buffer buffer, CharSequence value) {
+        buffer.write('"');
+        writeUtf8(buffer, value, true);
+        buffer.write('"');
+    }
+
+    // Encode UTF-8 directly into the buffer, escaping JSON string characters when requested
+    private static void writeUtf8(Buffer buffer, CharSequence value, boolean escape) {
+        int length = value.length();
+        buffer.ensureCapacity(length);
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                if (escape && (c < 0x20 || c == '"' || c == '\\')) {
+                    writeEscaped(buffer, c);
+                } else {
+                    buffer.write(c);
+                }
+            } else if (c < 0x800) {
+                buffer.write(0xc0 | (c >> 6));
+                buffer.write(0x80 | (c & 0x3f));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                buffer.write(0xf0 | (codePoint >> 18));
+                buffer.write(0x80 | ((codePoint >> 12) & 0x3f));
+                buffer.write(0x80 | ((codePoint >> 6) & 0x3f));
+                buffer.write(0x80 | (codePoint & 0x3f));
+            } else if (Character.isSurrogate(c)) {
+                // Unpaired surrogate, written as a replacement character like String.getBytes does
+                buffer.write('?');
+            } else {
+                buffer.write(0xe0 | (c >> 12));
+                buffer.write(0x80 | ((c >> 6) & 0x3f));
+                buffer.write(0x80 | (c & 0x3f));
+            }
+        }
+    }
+
+    private static void writeEscaped(Buffer buffer, char c) {
+        buffer.write('\\');
+        switch (c) {
+            case '"':
+            case '\\':
+                buffer.write(c);
+                break;
+            case '\n':
+                buffer.write('n');
+                break;
+            case '\r':
+                buffer.write('r');
+                break;
+            case '\t':
+                buffer.write('t');
+                break;
+            case '\b':
+                buffer.write('b');
+                break;
+            case '\f':
+                buffer.write('f');
+                break;
+            default:
+                buffer.write('u');
+                buffer.write('0');
+                buffer.write('0');
+                buffer.write(HEX[c >> 4]);
+                buffer.write(HEX[c & 0xf]);
+        }
+    }
+
+    // Growable view of a pooled byte array
+    private static final class Buffer {
+        byte[] bytes;
+        int size;
+
+        Buffer(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        void ensureCapacity(int additional) {
+            if (size + additional > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + additional));
+            }
+        }
+
+        void write(int b) {
+            if (size == bytes.length) {
+                ensureCapacity(1);
+            }
+            bytes[size++] = (byte) b;
+        }
+
+        void write(byte[] b) {
+            ensureCapacity(b.length);
+            System.arraycopy(b, 0, bytes, size, b.length);
+            size += b.length;
+        }
+    }
+
+    // Serializes the sample tree, cutting it into segments at each placeholder
+    private static final class Compiler {
+        private final Map<String, Integer> pointers;
+        private final List<byte[]> segments = new ArrayList<>();
+        private final List<Integer> slotIndexes = new ArrayList<>();
+        private final ByteArrayOutputStream current = new ByteArrayOutputStream();
+
+        Compiler(Map<String, Integer> pointers) {
+            this.pointers = pointers;
+        }
+
+        void write(JsonNode node, String pointer) {
+            Integer slot = pointers.get(pointer);
+            if (slot != null) {
+                segments.add(current.toByteArray());
+                slotIndexes.add(slot);
+                current.reset();
+                return;
+            }
+
+            if (node.isObject()) {
+                current.write('{');
+                Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+                while (fields.hasNext()) {
+                    Map.Entry<String, JsonNode> field = fields.next();
+                    writeRaw(quote(field.getKey()));
+                    current.write(':');
+                    write(field.getValue(), pointer + "/" + escapePointerSegment(field.getKey()));
+                    if (fields.hasNext()) {
+                        current.write(',');
+                    }
+                }
+                current.write('}');
+            } else if (node.isArray()) {
+                current.write('[');
+                for (int i = 0; i < node.size(); i++) {
+                    if (i > 0) {
+                        current.write(',');
+                    }
+                    write(node.get(i), pointer + "/" + i);
+                }
+                current.write(']');
+            } else {
+                // Value nodes serialize to valid JSON
+                writeRaw(node.toString());
+            }
+        }
+
+        byte[][] finish() {
+            segments.add(current.toByteArray());
+            return segments.toArray(new byte[0][]);
+        }
+
+        private void writeRaw(String json) {
+            current.writeBytes(json.getBytes(StandardCharsets.UTF_8));
+        }
+
+        private static String quote(String value) {
+            Buffer buffer = new Buffer(new byte[value.length() + 2]);
+            writeString(buffer, value);
+            return new String(buffer.bytes, 0, buffer.size, StandardCharsets.UTF_8);
+        }
+
+        private static String escapePointerSegment(String segment) {
+            return segment.replace("~", "~0").replace("/", "~1");
+        }
+    }
+}
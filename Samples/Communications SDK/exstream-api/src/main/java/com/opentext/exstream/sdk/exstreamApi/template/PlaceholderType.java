@@ -0,0 +1,32 @@
+/*
+ * Copyright 2023 Open Text Corporation, All Rights Reserved.
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.opentext.exstream.sdk.exstreamApi.template;
+
+/**
+ * Type of a {@link TemplatePlaceholder} value. The type decides which Java values a placeholder accepts and how they
+ * are written to the JSON driver data. A null value is always written as JSON null.
+ */
+public enum PlaceholderType {
+    // A CharSequence written as a JSON string
+    STRING,
+    // A Number written as a JSON number
+    NUMBER,
+    // A Boolean written as JSON true or false
+    BOOLEAN,
+    // A TemporalAccessor written as an ISO-8601 date string (yyyy-MM-dd), or a CharSequence that is already formatted
+    DATE,
+    // A CharSequence or UTF-8 byte array of JSON that is written as is. The value isn't validated.
+    RAW_JSON
+}
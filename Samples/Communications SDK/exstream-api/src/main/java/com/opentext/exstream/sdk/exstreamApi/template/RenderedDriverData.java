@@ -0,0 +1,107 @@
+/*
+ * Copyright 2023 Open Text Corporation, All Rights Reserved.
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.opentext.exstream.sdk.exstreamApi.template;
+
+import org.springframework.core.io.AbstractResource;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * Driver data rendered by a {@link DriverTemplate} into a pooled buffer.<br>
+ * This is a {@link org.springframework.core.io.Resource}, so it can be passed directly as the driverData of the
+ * {@link com.opentext.exstream.sdk.exstreamApi.service.OrchestrationService} and
+ * {@link com.opentext.exstream.sdk.exstreamApi.service.PreparedCommunication} generate methods. The body is streamed
+ * from the buffer without copying it into a new array.<br>
+ * Close it once the request has completed to return the buffer to the pool. It must not be used after it is closed.
+ */
+public final class RenderedDriverData extends AbstractResource implements AutoCloseable {
+    private final DriverBufferPool pool;
+    private byte[] buffer;
+    private final int length;
+
+    RenderedDriverData(DriverBufferPool pool, byte[] buffer, int length) {
+        this.pool = pool;
+        this.buffer = buffer;
+        this.length = length;
+    }
+
+    @Override
+    public InputStream getInputStream() {
+        return new ByteArrayInputStream(getBuffer(), 0, length);
+    }
+
+    @Override
+    public long contentLength() {
+        return length;
+    }
+
+    @Override
+    public boolean exists() {
+        return buffer != null;
+    }
+
+    @Override
+    public String getDescription() {
+        return "Rendered driver data [" + length + " bytes]";
+    }
+
+    /**
+     * Write the driver data to a stream
+     * @param outputStream The stream to write to
+     * @throws IOException If the stream can't be written to
+     */
+    public void writeTo(OutputStream outputStream) throws IOException {
+        outputStream.write(getBuffer(), 0, length);
+    }
+
+    /**
+     * @return A copy of the driver data
+     */
+    public byte[] toByteArray() {
+        return Arrays.copyOf(getBuffer(), length);
+    }
+
+    /**
+     * Return the buffer to the pool
+     */
+    @Override
+    public synchronized void close() {
+        if (buffer != null) {
+            pool.release(buffer);
+            buffer = null;
+        }
+    }
+
+    private synchronized byte[] getBuffer() {
+        if (buffer == null) {
+            throw new IllegalStateException("The rendered driver data has been closed");
+        }
+        return buffer;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return this == other;
+    }
+
+    @Override
+    public int hashCode() {
+        return System.identityHashCode(this);
+    }
+}
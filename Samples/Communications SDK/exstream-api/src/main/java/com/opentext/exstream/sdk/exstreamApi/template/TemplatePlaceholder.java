@@ -0,0 +1,74 @@
+/*
+ * Copyright 2023 Open Text Corporation, All Rights Reserved.
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.opentext.exstream.sdk.exstreamApi.template;
+
+import com.fasterxml.jackson.core.JsonPointer;
+
+import java.util.Objects;
+
+/**
+ * A variable field of a {@link DriverTemplate}.<br>
+ * The field is located in the sample driver data with a JSON pointer (RFC 6901), for example
+ * <pre>/claim/claimNumber</pre>
+ */
+public final class TemplatePlaceholder {
+    private final String name;
+    private final String jsonPointer;
+    private final PlaceholderType type;
+
+    private TemplatePlaceholder(String name, String jsonPointer, PlaceholderType type) {
+        this.name = Objects.requireNonNull(name);
+        this.jsonPointer = JsonPointer.compile(jsonPointer).toString();
+        this.type = Objects.requireNonNull(type);
+    }
+
+    /**
+     * Create a placeholder that is named after its JSON pointer
+     * @param jsonPointer Location of the field in the sample driver data
+     * @param type Type of the values written to the field
+     * @return The placeholder
+     */
+    public static TemplatePlaceholder of(String jsonPointer, PlaceholderType type) {
+        return new TemplatePlaceholder(jsonPointer, jsonPointer, type);
+    }
+
+    /**
+     * Create a named placeholder
+     * @param name Name used to pass values by name with {@link DriverTemplate#render(java.util.Map)}
+     * @param jsonPointer Location of the field in the sample driver data
+     * @param type Type of the values written to the field
+     * @return The placeholder
+     */
+    public static TemplatePlaceholder of(String name, String jsonPointer, PlaceholderType type) {
+        return new TemplatePlaceholder(name, jsonPointer, type);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getJsonPointer() {
+        return jsonPointer;
+    }
+
+    public PlaceholderType getType() {
+        return type;
+    }
+
+    @Override
+    public String toString() {
+        return name + " (" + jsonPointer + ": " + type + ")";
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2023 Open Text Corporation, All Rights Reserved.
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.opentext.exstream.sdk.exstreamApi.tracing;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the ended spans in memory, so tests can check which spans an operation created and how they are related.
+ */
+public class InMemorySpanExporter implements SpanExporter {
+    // Guarded by itself
+    private final List<Span> spans = new ArrayList<>();
+
+    @Override
+    public void export(Span span) {
+        synchronized (spans) {
+            spans.add(span);
+        }
+    }
+
+    /**
+     * @return The spans in the order they ended
+     */
+    public List<Span> getFinishedSpans() {
+        synchronized (spans) {
+            return List.copyOf(spans);
+        }
+    }
+
+    /**
+     * @param traceId The id of a trace
+     * @return The spans of the trace in the order they ended
+     */
+    public List<Span> getFinishedSpans(String traceId) {
+        return getFinishedSpans().stream().filter(span -> traceId.equals(span.getTraceId())).collect(Collectors.toList());
+    }
+
+    public void reset() {
+        synchronized (spans) {
+            spans.clear();
+        }
+    }
+}
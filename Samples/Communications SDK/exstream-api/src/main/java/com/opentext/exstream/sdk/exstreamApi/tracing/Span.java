@@ -0,0 +1,255 @@
+/*
+ * Copyright 2023 Open Text Corporation, All Rights Reserved.
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.opentext.exstream.sdk.exstreamApi.tracing;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * One timed operation of a trace, either an SDK operation or a single HTTP exchange with a backend.<br>
+ * Spans that aren't sampled keep their trace and span ids, so they can be propagated to the backends, but record
+ * nothing and are never exported. {@link #NOOP} stands for no span at all.
+ */
+public final class Span {
+    private static final ThreadLocal<Span> CURRENT = new ThreadLocal<>();
+
+    /**
+     * A span that isn't part of any trace. Everything done with it is ignored.
+     */
+    public static final Span NOOP = new Span(null, null, null, null, Kind.INTERNAL, false, null, false);
+
+    private final String traceId;
+    private final String spanId;
+    private final String parentSpanId;
+    private final String name;
+    private final Kind kind;
+    private final boolean sampled;
+    // False for spans that only carry the ids and sampling decision of a caller's span
+    private final boolean recording;
+    private final SpanExporter exporter;
+    private final Instant startTime;
+    private final long startNanos;
+
+    // Guarded by this
+    private final Map<String, Object> attributes = new LinkedHashMap<>();
+    private boolean error = false;
+    private String errorMessage;
+    private long durationNanos = -1;
+
+    Span(String traceId, String spanId, String parentSpanId, String name, Kind kind, boolean sampled, SpanExporter exporter) {
+        this(traceId, spanId, parentSpanId, name, kind, sampled, exporter, sampled);
+    }
+
+    private Span(String traceId, String spanId, String parentSpanId, String name, Kind kind, boolean sampled, SpanExporter exporter, boolean recording) {
+        this.traceId = traceId;
+        this.spanId = spanId;
+        this.parentSpanId = parentSpanId;
+        this.name = name;
+        this.kind = kind;
+        this.sampled = sampled;
+        this.recording = recording;
+        this.exporter = exporter;
+        this.startTime = recording ? Instant.now() : null;
+        this.startNanos = recording ? System.nanoTime() : 0;
+    }
+
+    /**
+     * @return A span that stands for the span of a caller in another process. It is never recorded, it only passes its
+     * ids and sampling decision on to its children.
+     */
+    static Span remote(String traceId, String spanId, boolean sampled) {
+        return new Span(traceId, spanId, null, "remote", Kind.INTERNAL, sampled, null, false);
+    }
+
+    /**
+     * @return The span bound to the current thread, or {@link #NOOP} if there is none
+     */
+    public static Span current() {
+        Span span = CURRENT.get();
+        return span != null ? span : NOOP;
+    }
+
+    /**
+     * Run a call with this span bound to the current thread, so spans started by the call are its children
+     * @param call The call
+     * @return The result of the call
+     */
+    public <T> T call(Supplier<T> call) {
+        Span previous = CURRENT.get();
+        CURRENT.set(this);
+        try {
+            return call.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    /**
+     * Run a call with this span bound to the current thread, see {@link #call(Supplier)}
+     * @param call The call
+     */
+    public void run(Runnable call) {
+        call(() -> {
+            call.run();
+            return null;
+        });
+    }
+
+    /**
+     * @return Whether the span has trace and span ids that can be propagated
+     */
+    public boolean isValid() {
+        return traceId != null;
+    }
+
+    public boolean isSampled() {
+        return sampled;
+    }
+
+    /**
+     * Add an attribute. Ignored if the span isn't sampled or the value is null.
+     * @param key The name of the attribute
+     * @param value The value, usually a String, a number or a boolean
+     * @return This span
+     */
+    public Span setAttribute(String key, Object value) {
+        if (recording && value != null) {
+            synchronized (this) {
+                attributes.put(key, value);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Mark the span as failed
+     * @param message What went wrong
+     * @return This span
+     */
+    public Span setError(String message) {
+        if (recording) {
+            synchronized (this) {
+                error = true;
+                errorMessage = message;
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Mark the span as failed because of an exception
+     * @param e The exception
+     * @return This span
+     */
+    public Span recordException(Throwable e) {
+        setAttribute("exception.type", e.getClass().getName());
+        return setError(e.getMessage());
+    }
+
+    /**
+     * End the span and hand it to the exporter. Only the first call has an effect.
+     */
+    public void end() {
+        if (!recording) {
+            return;
+        }
+        synchronized (this) {
+            if (durationNanos >= 0) {
+                return;
+            }
+            durationNanos = System.nanoTime() - startNanos;
+        }
+        exporter.export(this);
+    }
+
+    /**
+     * @return The W3C traceparent header value that makes this span the parent of the receiver's spans, or null if
+     * the span isn't valid
+     */
+    public String toTraceparent() {
+        return isValid() ? "00-" + traceId + "-" + spanId + (sampled ? "-01" : "-00") : null;
+    }
+
+    public String getTraceId() {
+        return traceId;
+    }
+
+    public String getSpanId() {
+        return spanId;
+    }
+
+    /**
+     * @return The id of the parent span, or null for the root span of a trace
+     */
+    public String getParentSpanId() {
+        return parentSpanId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public Instant getStartTime() {
+        return startTime;
+    }
+
+    /**
+     * @return How long the span took, or null if it hasn't ended
+     */
+    public synchronized Duration getDuration() {
+        return durationNanos >= 0 ? Duration.ofNanos(durationNanos) : null;
+    }
+
+    public synchronized Map<String, Object> getAttributes() {
+        return Collections.unmodifiableMap(new LinkedHashMap<>(attributes));
+    }
+
+    public synchronized boolean isError() {
+        return error;
+    }
+
+    public synchronized String getErrorMessage() {
+        return errorMessage;
+    }
+
+    @Override
+    public synchronized String toString() {
+        if (!isValid()) {
+            return "Span NOOP";
+        }
+        return "Span " + name + " trace=" + traceId + " span=" + spanId + " parent=" + parentSpanId + " kind=" + kind
+                + (durationNanos >= 0 ? " duration=" + Duration.ofNanos(durationNanos).toMillis() + "ms" : "")
+                + (error ? " error=" + errorMessage : "") + " " + attributes;
+    }
+
+    public enum Kind {
+        // An operation of the SDK, such as generating output for a communication
+        INTERNAL,
+        // A request sent to a backend
+        CLIENT
+    }
+}
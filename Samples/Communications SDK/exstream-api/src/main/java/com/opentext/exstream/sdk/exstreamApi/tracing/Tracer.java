@@ -0,0 +1,141 @@
+/*
+ * Copyright 2023 Open Text Corporation, All Rights Reserved.
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.opentext.exstream.sdk.exstreamApi.tracing;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * Creates the spans of the SDK operations and of their HTTP exchanges. Reads the following environmental properties:<br>
+ * exstream.tracing.enabled: Set to false to turn off tracing and trace propagation.<br>
+ * exstream.tracing.sampleRate: Fraction of the operations, from 0 to 1, that start a new sampled trace. Operations run
+ * within a trace continued with {@link #continueTrace(String, Supplier)} follow its sampling decision instead.<br>
+ * Sampled spans are handed to the application's {@link SpanExporter} bean, or logged by a {@link LoggingSpanExporter}
+ * if there is none. When an operation isn't sampled and isn't part of a continued trace, no span or id is created.
+ */
+@Component
+public class Tracer {
+    private static final Logger logger = LoggerFactory.getLogger(Tracer.class);
+    private static final Pattern TRACEPARENT = Pattern.compile("[0-9a-f]{2}-[0-9a-f]{32}-[0-9a-f]{16}-[0-9a-f]{2}");
+    private static final String INVALID_TRACE_ID = "00000000000000000000000000000000";
+    private static final String INVALID_SPAN_ID = "0000000000000000";
+
+    @Value("${exstream.tracing.enabled:true}")
+    private boolean enabled;
+
+    @Value("${exstream.tracing.sampleRate:0.0}")
+    private double sampleRate;
+
+    @Autowired(required = false)
+    SpanExporter spanExporter;
+
+    private SpanExporter exporter;
+
+    @PostConstruct
+    private void logConfig() {
+        exporter = spanExporter != null ? spanExporter : new LoggingSpanExporter();
+        logger.info("tracing.enabled={} sampleRate={} exporter={}", enabled, sampleRate, exporter.getClass().getSimpleName());
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Start a span. It is a child of the span bound to the current thread, or the root of a new trace if there is none
+     * and the sampler picks it. The span isn't bound to the thread, use {@link Span#call(Supplier)} for that.
+     * @param name The name of the span
+     * @param kind What the span stands for
+     * @return The span, {@link Span#NOOP} if tracing is off or the operation isn't traced
+     */
+    public Span startSpan(String name, Span.Kind kind) {
+        if (!enabled) {
+            return Span.NOOP;
+        }
+        Span parent = Span.current();
+        if (parent.isValid()) {
+            return new Span(parent.getTraceId(), newId(8), parent.getSpanId(), name, kind, parent.isSampled(), exporter);
+        }
+        if (sampleRate <= 0 || (sampleRate < 1 && ThreadLocalRandom.current().nextDouble() >= sampleRate)) {
+            return Span.NOOP;
+        }
+        return new Span(newId(16), newId(8), null, name, kind, true, exporter);
+    }
+
+    /**
+     * Run an operation in a new span bound to the current thread. The span ends when the operation returns, and is
+     * marked as failed if it throws.
+     * @param name The name of the span
+     * @param operation The operation. It gets the span to add attributes to.
+     * @return The result of the operation
+     */
+    public <T> T trace(String name, Function<Span, T> operation) {
+        Span span = startSpan(name, Span.Kind.INTERNAL);
+        if (span == Span.NOOP) {
+            return operation.apply(span);
+        }
+        try {
+            return span.call(() -> operation.apply(span));
+        } catch (RuntimeException | Error e) {
+            span.recordException(e);
+            throw e;
+        } finally {
+            span.end();
+        }
+    }
+
+    /**
+     * Run a call as part of a trace started elsewhere, for example by the web request the call serves. Spans created
+     * by the call belong to that trace, and are sampled if the caller sampled it.
+     * @param traceparent The W3C traceparent header of the caller. A missing or invalid header starts a new trace as usual.
+     * @param call The call
+     * @return The result of the call
+     */
+    public <T> T continueTrace(String traceparent, Supplier<T> call) {
+        Span remoteParent = enabled ? parseTraceparent(traceparent) : null;
+        return remoteParent != null ? remoteParent.call(call) : call.get();
+    }
+
+    // Returns a span that stands for the caller's span, or null if the header isn't valid
+    private Span parseTraceparent(String traceparent) {
+        if (traceparent == null || !TRACEPARENT.matcher(traceparent.trim()).matches()) {
+            return null;
+        }
+        String[] parts = traceparent.trim().split("-");
+        if (parts[0].equals("ff") || parts[1].equals(INVALID_TRACE_ID) || parts[2].equals(INVALID_SPAN_ID)) {
+            return null;
+        }
+        return Span.remote(parts[1], parts[2], (Integer.parseInt(parts[3], 16) & 1) == 1);
+    }
+
+    private static String newId(int bytes) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        StringBuilder id = new StringBuilder(bytes * 2);
+        for (int i = 0; i < bytes; i++) {
+            int b = random.nextInt(256);
+            id.append(Character.forDigit(b >> 4, 16)).append(Character.forDigit(b & 0xf, 16));
+        }
+        return id.toString();
+    }
+}
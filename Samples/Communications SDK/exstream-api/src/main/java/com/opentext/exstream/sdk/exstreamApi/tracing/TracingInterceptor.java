@@ -0,0 +1,99 @@
+/*
+ * Copyright 2023 Open Text Corporation, All Rights Reserved.
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.opentext.exstream.sdk.exstreamApi.tracing;
+
+import com.opentext.exstream.sdk.exstreamApi.model.enumeration.ExstreamOperation;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.support.HttpRequestWrapper;
+
+import java.io.IOException;
+import java.util.Locale;
+
+/**
+ * Creates a client span for every request sent to one backend and adds the W3C traceparent header, so the backend's
+ * spans join the trace. Each retry and hedged copy gets its own span. The span ends when the response headers have
+ * arrived. Requests outside of a traced operation are passed on untouched, unless the sampler starts a trace for them.
+ */
+public class TracingInterceptor implements ClientHttpRequestInterceptor {
+    static final String TRACEPARENT_HEADER = "traceparent";
+
+    private final Tracer tracer;
+    private final String backend;
+
+    /**
+     * @param tracer Creates the spans
+     * @param backend Name of the backend, added to each span
+     */
+    public TracingInterceptor(Tracer tracer, String backend) {
+        this.tracer = tracer;
+        this.backend = backend;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+        String path = request.getURI().getPath();
+        ExstreamOperation operation = ExstreamOperation.of(path);
+        Span span = tracer.startSpan("HTTP " + request.getMethodValue() + " " + operation.name().toLowerCase(Locale.ROOT), Span.Kind.CLIENT);
+        if (!span.isValid()) {
+            return execution.execute(request, body);
+        }
+        span.setAttribute("http.method", request.getMethodValue())
+                .setAttribute("http.url", request.getURI().getScheme() + "://" + request.getURI().getAuthority() + path)
+                .setAttribute("http.request_content_length", body.length)
+                .setAttribute("exstream.backend", backend)
+                .setAttribute("exstream.operation", operation.name().toLowerCase(Locale.ROOT))
+                .setAttribute("exstream.domain", ExstreamOperation.domainOf(path));
+
+        try {
+            ClientHttpResponse response = execution.execute(new TracedRequest(request, span.toTraceparent()), body);
+            int status = response.getRawStatusCode();
+            span.setAttribute("http.status_code", status);
+            long contentLength = response.getHeaders().getContentLength();
+            if (contentLength >= 0) {
+                span.setAttribute("http.response_content_length", contentLength);
+            }
+            if (status >= 400) {
+                span.setError("HTTP " + status);
+            }
+            return response;
+        } catch (IOException | RuntimeException e) {
+            span.recordException(e);
+            throw e;
+        } finally {
+            span.end();
+        }
+    }
+
+    // Retries and hedged copies send the same request, possibly at the same time, so each gets its own headers
+    private static class TracedRequest extends HttpRequestWrapper {
+        private final HttpHeaders headers;
+
+        TracedRequest(HttpRequest request, String traceparent) {
+            super(request);
+            headers = new HttpHeaders();
+            headers.addAll(request.getHeaders());
+            headers.set(TRACEPARENT_HEADER, traceparent);
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2023 Open Text Corporation, All Rights Reserved.
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.opentext.exstream.sdk.exstreamApi.utils;
+
+import com.opentext.exstream.sdk.exstreamApi.model.dto.OrchestrationErrorData;
+import com.opentext.exstream.sdk.exstreamApi.model.response.ExstreamErrorResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.RestClientResponseException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Thrown when an Exstream service returns an error response.<br>
+ * The body is parsed once. If it's an Exstream error response, the response and its errorCode are available. If it's
+ * an Orchestration response with status error, the error of each output is available. Only the first
+ * {@link #MAX_BODY_BYTES} bytes of the body are kept.
+ * @see RetryableExstreamApiException
+ * @see RestTemplateResponseErrorHandler
+ */
+public class ExstreamApiException extends RestClientResponseException {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Number of bytes of the response body the exception keeps
+     */
+    public static final int MAX_BODY_BYTES = 8 * 1024;
+
+    private final int bodyLength;
+    private final transient ExstreamErrorResponse errorResponse;
+    private final transient List<OrchestrationErrorData> orchestrationErrors;
+
+    /**
+     * @param message The exception message
+     * @param status The HTTP status of the response
+     * @param headers The response headers, or null if they aren't known
+     * @param body The response body, or at least its first {@link #MAX_BODY_BYTES} + 1 bytes when it's longer, so that
+     * it's known to be truncated
+     * @param errorResponse The body parsed as an Exstream error response, or null if it isn't one
+     * @param orchestrationErrors The errors of an Orchestration response with status error, or an empty list
+     */
+    public ExstreamApiException(String message, int status, HttpHeaders headers, byte[] body, ExstreamErrorResponse errorResponse,
+                                List<OrchestrationErrorData> orchestrationErrors) {
+        super(message, status, reasonPhrase(status), headers, body.length > MAX_BODY_BYTES ? Arrays.copyOf(body, MAX_BODY_BYTES) : body,
+                StandardCharsets.UTF_8);
+        this.bodyLength = body.length;
+        this.errorResponse = errorResponse;
+        this.orchestrationErrors = List.copyOf(orchestrationErrors);
+    }
+
+    private static String reasonPhrase(int status) {
+        HttpStatus httpStatus = HttpStatus.resolve(status);
+        return httpStatus != null ? httpStatus.getReasonPhrase() : "";
+    }
+
+    /**
+     * @return Whether the same request may succeed when it's sent again
+     */
+    public boolean isRetryable() {
+        return false;
+    }
+
+    /**
+     * @return The Exstream errorCode of the response, or null if it has none
+     */
+    public Integer getErrorCode() {
+        return errorResponse != null ? errorResponse.errorCode : null;
+    }
+
+    /**
+     * @return The body parsed as an Exstream error response, or null if it isn't one
+     */
+    public ExstreamErrorResponse getErrorResponse() {
+        return errorResponse;
+    }
+
+    /**
+     * @return The errors of an Orchestration response with status error, or an empty list
+     */
+    public List<OrchestrationErrorData> getOrchestrationErrors() {
+        return orchestrationErrors;
+    }
+
+    /**
+     * @return The number of bytes of the response body that were read, of which {@link #getResponseBodyAsByteArray()} has
+     * the first ones. Error responses received by {@link RestTemplateResponseErrorHandler} are read up to one byte past
+     * {@link #MAX_BODY_BYTES}, so the whole body of a truncated one may have been longer.
+     */
+    public int getBodyLength() {
+        return bodyLength;
+    }
+
+    /**
+     * @return Whether only part of the response body was kept
+     */
+    public boolean isBodyTruncated() {
+        return bodyLength > MAX_BODY_BYTES;
+    }
+}
@@ -15,11 +15,18 @@
 package com.opentext.exstream.sdk.exstreamApi.utils;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.opentext.exstream.sdk.exstreamApi.model.dto.EmpowerOutputChannelContent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.core.io.Resource;
+import org.springframework.util.StreamUtils;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.Base64;
 
 public class ExstreamApiUtils {
@@ -33,10 +40,34 @@ public class ExstreamApiUtils {
     public static EmpowerOutputChannelContent readEmpowerOutputChannelContent(String encodedContent) {
         String decodedContent = new String(Base64.getDecoder().decode(encodedContent.getBytes()));
         try {
-            return new ObjectMapper().readValue(decodedContent, EmpowerOutputChannelContent.class);
+            return ExstreamJson.strictReaderFor(EmpowerOutputChannelContent.class).readValue(decodedContent);
         } catch (JsonProcessingException e) {
             logger.error("Could not deserialize JSON to EmpowerOutputChannelContent:\n{}", decodedContent);
             throw new RuntimeException(e);
         }
     }
+
+    /**
+     * Read driver data into a byte array. Accepts the same body types as the Orchestration generate methods.
+     * @param driverData A {@link Resource}, {@link File}, {@link String} or byte array
+     * @return The driver data bytes
+     */
+    public static byte[] toByteArray(Object driverData) {
+        try {
+            if (driverData instanceof byte[]) {
+                return (byte[]) driverData;
+            } else if (driverData instanceof String) {
+                return ((String) driverData).getBytes(StandardCharsets.UTF_8);
+            } else if (driverData instanceof File) {
+                return Files.readAllBytes(((File) driverData).toPath());
+            } else if (driverData instanceof Resource) {
+                try (InputStream stream = ((Resource) driverData).getInputStream()) {
+                    return StreamUtils.copyToByteArray(stream);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        throw new IllegalArgumentException("Unsupported driver data type: " + (driverData == null ? null : driverData.getClass().getName()));
+    }
 }
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2023 Open Text Corporation, All Rights Reserved.
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.opentext.exstream.sdk.exstreamApi.utils;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.springframework.http.converter.ByteArrayHttpMessageConverter;
+import org.springframework.http.converter.FormHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.ResourceHttpMessageConverter;
+import org.springframework.http.converter.StringHttpMessageConverter;
+
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The JSON codec shared by the whole SDK.<br>
+ * There is a single preconfigured {@link ObjectMapper}, and the {@link JavaType}, {@link ObjectReader} and
+ * {@link ObjectWriter} for each type are created once and reused. The mapper is configured like the one Spring
+ * creates for RestTemplate, so unknown properties in responses are ignored.<br>
+ * The mapper and the cached readers and writers are thread safe and must not be reconfigured.
+ */
+public final class ExstreamJson {
+    private static final ObjectMapper MAPPER = JsonMapper.builder()
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .disable(MapperFeature.DEFAULT_VIEW_INCLUSION)
+            .build();
+
+    private static final Map<Type, JavaType> javaTypes = new ConcurrentHashMap<>();
+    private static final Map<JavaType, ObjectReader> readers = new ConcurrentHashMap<>();
+    private static final Map<JavaType, ObjectReader> strictReaders = new ConcurrentHashMap<>();
+    private static final Map<JavaType, ObjectWriter> writers = new ConcurrentHashMap<>();
+
+    // Converters are stateless once configured, so every RestTemplate in the SDK shares the same instances
+    private static final List<HttpMessageConverter<?>> MESSAGE_CONVERTERS = buildMessageConverters();
+
+    private ExstreamJson() {
+    }
+
+    /**
+     * @return The shared object mapper
+     */
+    public static ObjectMapper getObjectMapper() {
+        return MAPPER;
+    }
+
+    /**
+     * Get the Jackson type for a Java type, such as the type of a {@link org.springframework.core.ParameterizedTypeReference}
+     * @param type A fully resolved Java type
+     * @return The cached Jackson type
+     */
+    public static JavaType getJavaType(Type type) {
+        return javaTypes.computeIfAbsent(type, MAPPER::constructType);
+    }
+
+    /**
+     * @param type The type to read
+     * @return A cached reader for the type
+     */
+    public static ObjectReader readerFor(Type type) {
+        return readerFor(getJavaType(type));
+    }
+
+    /**
+     * @param type The type to read
+     * @return A cached reader for the type
+     */
+    public static ObjectReader readerFor(JavaType type) {
+        return readers.computeIfAbsent(type, MAPPER::readerFor);
+    }
+
+    /**
+     * Get a reader that fails on properties the type doesn't declare. Used where the shape of a response decides how
+     * it is handled, such as telling the different error responses apart.
+     * @param type The type to read
+     * @return A cached reader for the type
+     */
+    public static ObjectReader strictReaderFor(Type type) {
+        return strictReaders.computeIfAbsent(getJavaType(type), t -> MAPPER.readerFor(t).with(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES));
+    }
+
+    /**
+     * @param type The type to write
+     * @return A cached writer for the type
+     */
+    public static ObjectWriter writerFor(Type type) {
+        return writerFor(getJavaType(type));
+    }
+
+    /**
+     * @param type The type to write
+     * @return A cached writer for the type
+     */
+    public static ObjectWriter writerFor(JavaType type) {
+        return writers.computeIfAbsent(type, MAPPER::writerFor);
+    }
+
+    /**
+     * @return The message converters used by the SDK's RestTemplates. The list must not be modified.
+     */
+    public static List<HttpMessageConverter<?>> getMessageConverters() {
+        return MESSAGE_CONVERTERS;
+    }
+
+    // Only the converters for the bodies the Exstream APIs use: binary content, text, resources, forms and JSON
+    private static List<HttpMessageConverter<?>> buildMessageConverters() {
+        ExstreamJsonHttpMessageConverter jsonConverter = new ExstreamJsonHttpMessageConverter(MAPPER);
+
+        FormHttpMessageConverter formConverter = new FormHttpMessageConverter();
+        formConverter.addPartConverter(jsonConverter);
+
+        return List.of(
+                new ByteArrayHttpMessageConverter(),
+                new StringHttpMessageConverter(),
+                new ResourceHttpMessageConverter(false),
+                formConverter,
+                jsonConverter);
+    }
+}
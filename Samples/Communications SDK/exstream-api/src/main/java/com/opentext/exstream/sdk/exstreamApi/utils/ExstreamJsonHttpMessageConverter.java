@@ -0,0 +1,128 @@
+/*
+ * Copyright 2023 Open Text Corporation, All Rights Reserved.
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.opentext.exstream.sdk.exstreamApi.utils;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.exc.InvalidDefinitionException;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConversionException;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.util.StreamUtils;
+import org.springframework.util.TypeUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.lang.reflect.Type;
+import java.nio.charset.Charset;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * JSON message converter backed by {@link ExstreamJson}.<br>
+ * Unlike the default converter it resolves each response type, checks that it can be deserialized and looks up its
+ * reader only once, instead of on every request.
+ */
+public class ExstreamJsonHttpMessageConverter extends MappingJackson2HttpMessageConverter {
+    private final Map<JavaType, Boolean> readableTypes = new ConcurrentHashMap<>();
+
+    public ExstreamJsonHttpMessageConverter(ObjectMapper objectMapper) {
+        super(objectMapper);
+    }
+
+    @Override
+    protected JavaType getJavaType(Type type, Class<?> contextClass) {
+        if (contextClass == null) {
+            return ExstreamJson.getJavaType(type);
+        }
+        return super.getJavaType(type, contextClass);
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        if (!canRead(mediaType)) {
+            return false;
+        }
+        return readableTypes.computeIfAbsent(getJavaType(type, contextClass), javaType -> super.canRead(type, contextClass, null));
+    }
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) throws IOException, HttpMessageNotReadableException {
+        return read(getJavaType(type, contextClass), inputMessage);
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) throws IOException, HttpMessageNotReadableException {
+        return read(getJavaType(clazz, null), inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage) throws IOException, HttpMessageNotWritableException {
+        if (object instanceof MappingJacksonValue) {
+            super.writeInternal(object, type, outputMessage);
+            return;
+        }
+
+        JsonEncoding encoding = getJsonEncoding(outputMessage.getHeaders().getContentType());
+        try (JsonGenerator generator = getObjectMapper().getFactory().createGenerator(StreamUtils.nonClosing(outputMessage.getBody()), encoding)) {
+            writerFor(object, type).writeValue(generator, object);
+            generator.flush();
+        } catch (InvalidDefinitionException e) {
+            throw new HttpMessageConversionException("Type definition error: " + e.getType(), e);
+        } catch (JsonProcessingException e) {
+            throw new HttpMessageNotWritableException("Could not write JSON: " + e.getOriginalMessage(), e);
+        }
+    }
+
+    // Like the default converter, the declared type is only used for collections, maps and arrays, whose element type
+    // the runtime class doesn't tell. Elements of a polymorphic base type then keep their type information.
+    private ObjectWriter writerFor(Object object, Type type) {
+        if (type != null && TypeUtils.isAssignable(type, object.getClass())) {
+            JavaType javaType = getJavaType(type, null);
+            if (javaType.isContainerType()) {
+                return ExstreamJson.writerFor(javaType);
+            }
+        }
+        return ExstreamJson.writerFor(object.getClass());
+    }
+
+    private Object read(JavaType javaType, HttpInputMessage inputMessage) throws IOException {
+        Charset charset = getCharset(inputMessage.getHeaders().getContentType());
+        ObjectReader reader = ExstreamJson.readerFor(javaType);
+        try {
+            InputStream inputStream = StreamUtils.nonClosing(inputMessage.getBody());
+            // Jackson detects the Unicode encodings itself, anything else has to be decoded first
+            if (charset.name().startsWith("UTF-")) {
+                return reader.readValue(inputStream);
+            }
+            return reader.readValue(new InputStreamReader(inputStream, charset));
+        } catch (InvalidDefinitionException e) {
+            throw new HttpMessageConversionException("Type definition error: " + e.getType(), e);
+        } catch (JsonProcessingException e) {
+            throw new HttpMessageNotReadableException("JSON parse error: " + e.getOriginalMessage(), e, inputMessage);
+        }
+    }
+}
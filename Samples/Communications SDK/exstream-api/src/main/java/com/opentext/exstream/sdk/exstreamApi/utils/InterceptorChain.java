@@ -0,0 +1,71 @@
+/*
+ * Copyright 2023 Open Text Corporation, All Rights Reserved.
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.opentext.exstream.sdk.exstreamApi.utils;
+
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Runs a list of interceptors so that each of them can call the rest of the chain more than once, sequentially or
+ * from several threads.<br>
+ * The execution RestTemplate passes to its interceptors walks a single iterator, so when an interceptor calls it a
+ * second time the remaining interceptors are skipped and the request goes straight to the connection. Retries would
+ * then bypass the circuit breaker and the concurrency limits. Install this as the only interceptor of a RestTemplate
+ * and each request is sent through every interceptor after the one that repeats it.
+ */
+public class InterceptorChain implements ClientHttpRequestInterceptor {
+    private final List<ClientHttpRequestInterceptor> interceptors;
+
+    /**
+     * @param interceptors The interceptors in the order they run, the first one is the outermost
+     */
+    public InterceptorChain(List<ClientHttpRequestInterceptor> interceptors) {
+        this.interceptors = List.copyOf(interceptors);
+    }
+
+    public List<ClientHttpRequestInterceptor> getInterceptors() {
+        return interceptors;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+        // This is the last interceptor RestTemplate knows about, so each call to its execution opens a new connection
+        return new Position(0, execution).execute(request, body);
+    }
+
+    // The rest of the chain from one interceptor onwards. Immutable, so it can be executed any number of times.
+    private class Position implements ClientHttpRequestExecution {
+        private final int index;
+        private final ClientHttpRequestExecution connection;
+
+        Position(int index, ClientHttpRequestExecution connection) {
+            this.index = index;
+            this.connection = connection;
+        }
+
+        @Override
+        public ClientHttpResponse execute(HttpRequest request, byte[] body) throws IOException {
+            if (index < interceptors.size()) {
+                return interceptors.get(index).intercept(request, body, new Position(index + 1, connection));
+            }
+            return connection.execute(request, body);
+        }
+    }
+}
@@ -25,6 +25,13 @@ import org.springframework.util.StreamUtils;
 import java.io.IOException;
 import java.nio.charset.Charset;
 
+/**
+ * Logs complete requests and responses at debug level. The response body is read to log it, so this only works with a
+ * buffering request factory.
+ * @deprecated Use {@link WireLoggingInterceptor}, which samples requests, limits the logged size and doesn't need
+ * responses to be buffered.
+ */
+@Deprecated
 public class RequestResponseLoggingInterceptor implements ClientHttpRequestInterceptor {
     private final Logger logger = LoggerFactory.getLogger(this.getClass());
 
@@ -14,61 +14,146 @@
 
 package com.opentext.exstream.sdk.exstreamApi.utils;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.opentext.exstream.sdk.exstreamApi.model.dto.OrchestrationErrorData;
 import com.opentext.exstream.sdk.exstreamApi.model.response.ExstreamErrorResponse;
 import com.opentext.exstream.sdk.exstreamApi.model.response.OrchestrationErrorResonse;
+import com.opentext.exstream.sdk.exstreamApi.resilience.RetryPolicy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.web.client.ResponseErrorHandler;
-import org.springframework.web.client.RestClientException;
 
 import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
 
+/**
+ * Turns error responses of the Exstream services into {@link ExstreamApiException}s.<br>
+ * The body is parsed once with the shared {@link ExstreamJson} mapper. Errors that the {@link RetryPolicy} of the
+ * service considers transient are thrown as {@link RetryableExstreamApiException}s, which don't capture a stack trace.
+ */
 public class RestTemplateResponseErrorHandler implements ResponseErrorHandler {
-    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+    private static final Logger logger = LoggerFactory.getLogger(RestTemplateResponseErrorHandler.class);
+
+    // Characters of an unparsed body that are included in the exception message
+    private static final int MAX_MESSAGE_BODY_CHARS = 200;
+
+    private final RetryPolicy retryPolicy;
+
+    /**
+     * Handle errors with the default retry settings
+     */
+    public RestTemplateResponseErrorHandler() {
+        this(RetryPolicy.DEFAULT);
+    }
+
+    /**
+     * @param retryPolicy Decides which errors are retryable
+     */
+    public RestTemplateResponseErrorHandler(RetryPolicy retryPolicy) {
+        this.retryPolicy = retryPolicy;
+    }
 
     @Override
     public boolean hasError(ClientHttpResponse response) throws IOException {
-        return (response.getStatusCode().series() == HttpStatus.Series.CLIENT_ERROR
-                || response.getStatusCode().series() == HttpStatus.Series.SERVER_ERROR);
+        return response.getRawStatusCode() >= 400;
     }
 
     @Override
-    public void handleError(ClientHttpResponse response) throws RestClientException, IOException {
+    public void handleError(ClientHttpResponse response) throws IOException {
+        handleError(null, null, response);
+    }
+
+    @Override
+    public void handleError(URI url, HttpMethod method, ClientHttpResponse response) throws IOException {
+        // The body can only be read once since responses aren't buffered. Only what the exception keeps is read, and one
+        // byte more to tell that the body was truncated, so a large error page or an endless stream isn't read in full.
+        byte[] body = response.getBody().readNBytes(ExstreamApiException.MAX_BODY_BYTES + 1);
+        String request = method != null && url != null ? method + " " + url.getPath() : null;
+        throw toException(response.getRawStatusCode(), response.getHeaders(), body, request, retryPolicy);
+    }
+
+    /**
+     * Build the exception for an Exstream API error response, with the default retry settings. Also used for responses
+     * received by clients other than RestTemplate.
+     * @param rawStatusCode The HTTP status code of the response
+     * @param headers The response headers, or null if they aren't known
+     * @param body The response body, or its first bytes. A body longer than {@link ExstreamApiException#MAX_BODY_BYTES}
+     * is kept truncated.
+     * @return The exception to throw
+     */
+    public static ExstreamApiException toException(int rawStatusCode, HttpHeaders headers, byte[] body) {
+        return toException(rawStatusCode, headers, body, null, RetryPolicy.DEFAULT);
+    }
+
+    private static ExstreamApiException toException(int rawStatusCode, HttpHeaders headers, byte[] body, String request, RetryPolicy retryPolicy) {
+        ExstreamErrorResponse errorResponse = null;
+        List<OrchestrationErrorData> orchestrationErrors = List.of();
         try {
-            // Try to parse an ExstreamErrorResponse. There isn't one for every single error case, so the response
-            // may be in a different format. In that case the response will fail to parse.
-            ObjectMapper mapper = new ObjectMapper();
-            ExstreamErrorResponse errorResponse = null;
-            try {
-                errorResponse = mapper.readValue(response.getBody(), ExstreamErrorResponse.class);
-                logger.error("Received error response. Status code: {}", response.getRawStatusCode());
-                logger.error("\n" + errorResponse.toString());
-                if (response.getStatusCode() == HttpStatus.CONFLICT && errorResponse.errorCode == 309016) {
-                    logger.error("If you're attempting to import a package with the conflict resolution policy ERROR, and you have conflicting resources, then the import cannot be completed. Either remove the conflicting resource from DAS, or use a different resolution policy (SKIP or REPLACE) and retry the import.");
-                }
-            } catch (InvalidFormatException e) {
-                // Orchestration errors can come back with the full response data still, but just have status: error
-                OrchestrationErrorResonse orchestrationErrorDataResponse = mapper.readValue(response.getBody(), OrchestrationErrorResonse.class);
-                logger.error("Received Orchestration error data response. Status code: {}", response.getRawStatusCode());
-                logger.error("\n" + orchestrationErrorDataResponse.toString());
-                if (orchestrationErrorDataResponse.status.equals("error") &&
-                    !orchestrationErrorDataResponse.data.isEmpty() &&
-                    orchestrationErrorDataResponse.data.get(0).statusCode.equals(Integer.toString(HttpStatus.UNAUTHORIZED.value()))) {
-                    logger.error("401 - Unauthorized. If you're attempting to generate Empower output with Exstream Orchestration and getting this error, your empowerUser is probably wrong. Try a different user for the empowerUser that has permission to import Empower documents.");
-                }
+            JsonNode tree = body.length > 0 ? ExstreamJson.getObjectMapper().readTree(body) : null;
+            // Orchestration errors can come back with the full response data still, but just have status: error
+            if (tree != null && tree.path("status").isTextual() && tree.path("data").isArray()) {
+                OrchestrationErrorResonse orchestrationResponse = ExstreamJson.readerFor(OrchestrationErrorResonse.class).readValue(tree);
+                orchestrationErrors = orchestrationResponse.data;
+            } else if (tree != null && (tree.has("errorCode") || tree.has("message"))) {
+                errorResponse = ExstreamJson.readerFor(ExstreamErrorResponse.class).readValue(tree);
+            }
+        } catch (IOException | RuntimeException e) {
+            // There isn't an ExstreamErrorResponse for every single error case, the raw body is kept in the exception
+        }
+
+        String message = buildMessage(rawStatusCode, body, request, errorResponse, orchestrationErrors);
+        Integer errorCode = errorResponse != null ? errorResponse.errorCode : null;
+        if (retryPolicy.isTransient(rawStatusCode, errorCode)) {
+            logger.debug("Received retryable error response: {}", message);
+            return new RetryableExstreamApiException(message, rawStatusCode, headers, body, errorResponse, orchestrationErrors);
+        }
+        logger.debug("Received error response: {}", message);
+        return new ExstreamApiException(message, rawStatusCode, headers, body, errorResponse, orchestrationErrors);
+    }
+
+    private static String buildMessage(int rawStatusCode, byte[] body, String request, ExstreamErrorResponse errorResponse,
+                                       List<OrchestrationErrorData> orchestrationErrors) {
+        HttpStatus status = HttpStatus.resolve(rawStatusCode);
+        StringBuilder message = new StringBuilder("The Exstream API returned ").append(rawStatusCode);
+        if (status != null) {
+            message.append(' ').append(status.getReasonPhrase());
+        }
+        if (request != null) {
+            message.append(" for ").append(request);
+        }
+
+        if (errorResponse != null) {
+            message.append(": errorCode ").append(errorResponse.errorCode).append(", ").append(errorResponse.message);
+            if (errorResponse.details != null) {
+                message.append(", ").append(errorResponse.details);
+            }
+            if (status == HttpStatus.CONFLICT && Integer.valueOf(309016).equals(errorResponse.errorCode)) {
+                message.append(". If you're attempting to import a package with the conflict resolution policy ERROR, and you have conflicting resources, then the import cannot be completed. Either remove the conflicting resource from DAS, or use a different resolution policy (SKIP or REPLACE) and retry the import.");
+            }
+        } else if (!orchestrationErrors.isEmpty()) {
+            OrchestrationErrorData firstError = orchestrationErrors.get(0);
+            message.append(": errors in ").append(orchestrationErrors.size()).append(" outputs, the first with status ")
+                    .append(firstError.statusCode).append(", ").append(firstError.errorMessage);
+            if (Integer.toString(HttpStatus.UNAUTHORIZED.value()).equals(firstError.statusCode)) {
+                message.append(". If you're attempting to generate Empower output with Exstream Orchestration and getting this error, your empowerUser is probably wrong. Try a different user for the empowerUser that has permission to import Empower documents.");
+            }
+        } else {
+            if (body.length == 0) {
+                message.append(", the response has no body");
+            } else {
+                String text = new String(body, 0, Math.min(body.length, MAX_MESSAGE_BODY_CHARS), StandardCharsets.UTF_8);
+                message.append(", the response isn't an Exstream error response: ").append(text.replaceAll("\\s+", " ").trim());
             }
-            throw new RestClientException("The Exstream API returned an error response. See log for details.");
-        } catch (IOException e) {
-            // If we can't parse the error, log additional information for a few cases and rethrow the exception
-            logger.error("The Exstream API returned an error but the response could not be parsed. Status code: {}", response.getRawStatusCode());
-            if (response.getStatusCode() == HttpStatus.BAD_REQUEST) {
-                logger.error("400 - Bad Request. One of the parameters in the request is likely an incorrect value. Double check the values and try again once the error is corrected.");
+            if (status == HttpStatus.BAD_REQUEST) {
+                message.append(". One of the parameters in the request is likely an incorrect value. Double check the values and try again once the error is corrected.");
             }
-            throw e;
         }
+        return message.toString();
     }
 }
@@ -14,19 +14,27 @@
 
 package com.opentext.exstream.sdk.exstreamApi.utils;
 
-import org.springframework.http.client.BufferingClientHttpRequestFactory;
-import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import com.opentext.exstream.sdk.exstreamApi.async.AbortableClientHttpRequestFactory;
+import com.opentext.exstream.sdk.exstreamApi.resilience.TimeoutPolicy;
 import org.springframework.web.client.RestTemplate;
 
 import java.util.Collections;
 
 public class RestTemplateUtils {
     public static RestTemplate buildRestTemplateWithLoggingAndErrorHandler() {
-        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
-        requestFactory.setOutputStreaming(false);  // Required to be able to log 401 errors nicely
-        RestTemplate restTemplate = new RestTemplate(new BufferingClientHttpRequestFactory(requestFactory));
-        restTemplate.setInterceptors(Collections.singletonList(new RequestResponseLoggingInterceptor()));
+        // Responses aren't buffered, the wire log only copies the bodies of the requests it samples
+        RestTemplate restTemplate = new RestTemplate(ExstreamJson.getMessageConverters());
+        restTemplate.setRequestFactory(buildRequestFactory(TimeoutPolicy.DEFAULT));
+        restTemplate.setInterceptors(Collections.singletonList(new WireLoggingInterceptor()));
         restTemplate.setErrorHandler(new RestTemplateResponseErrorHandler());
         return restTemplate;
     }
+
+    public static AbortableClientHttpRequestFactory buildRequestFactory(TimeoutPolicy timeoutPolicy) {
+        // Connections opened by the *Async service methods are closed when their future is cancelled
+        AbortableClientHttpRequestFactory requestFactory = new AbortableClientHttpRequestFactory();
+        requestFactory.setOutputStreaming(false);  // Required to be able to log 401 errors nicely
+        requestFactory.setTimeoutPolicy(timeoutPolicy);
+        return requestFactory;
+    }
 }
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2023 Open Text Corporation, All Rights Reserved.
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.opentext.exstream.sdk.exstreamApi.utils;
+
+import com.opentext.exstream.sdk.exstreamApi.model.dto.OrchestrationErrorData;
+import com.opentext.exstream.sdk.exstreamApi.model.response.ExstreamErrorResponse;
+import com.opentext.exstream.sdk.exstreamApi.resilience.RetryPolicy;
+import org.springframework.http.HttpHeaders;
+
+import java.util.List;
+
+/**
+ * Thrown when an Exstream service returns a transient error, such as 503 Service Unavailable, that the
+ * {@link RetryPolicy} of the service retries.<br>
+ * These errors are expected while a service is overloaded, and callers retry or fall back rather than look for a bug at
+ * the call site, so the exception doesn't capture a stack trace.
+ */
+public class RetryableExstreamApiException extends ExstreamApiException {
+    private static final long serialVersionUID = 1L;
+
+    public RetryableExstreamApiException(String message, int status, HttpHeaders headers, byte[] body, ExstreamErrorResponse errorResponse,
+                                         List<OrchestrationErrorData> orchestrationErrors) {
+        super(message, status, headers, body, errorResponse, orchestrationErrors);
+    }
+
+    @Override
+    public boolean isRetryable() {
+        return true;
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
@@ -0,0 +1,265 @@
+/*
+ * Copyright 2023 Open Text Corporation, All Rights Reserved.
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.opentext.exstream.sdk.exstreamApi.utils;
+
+import com.opentext.exstream.sdk.exstreamApi.service.EtsService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Pattern;
+
+/**
+ * Logs requests and responses at debug level without buffering responses that aren't logged.<br>
+ * Only a sample of the requests is logged. The rate can be set per endpoint by path prefix. For a sampled request the
+ * response body is copied as the caller reads it, up to a maximum number of bytes, and logged when the response is
+ * closed. Responses of requests that aren't sampled are passed through untouched.<br>
+ * Binary bodies and long base64 values inside JSON are replaced with their size, and credentials are masked.
+ */
+public class WireLoggingInterceptor implements ClientHttpRequestInterceptor {
+    private static final Logger logger = LoggerFactory.getLogger(WireLoggingInterceptor.class);
+
+    public static final int DEFAULT_MAX_LOGGED_BYTES = 4096;
+
+    // Quoted runs of base64 characters long enough to be file content rather than an id. The closing quote may have been truncated.
+    private static final Pattern BASE64_VALUE = Pattern.compile("\"([A-Za-z0-9+/]{64,}={0,2})(\"|$)");
+    private static final Pattern JSON_SECRET = Pattern.compile("(\"(?:access_token|refresh_token|id_token|password|client_secret)\"\\s*:\\s*\")[^\"]*");
+    private static final Pattern FORM_SECRET = Pattern.compile("((?:^|&)(?:password|client_secret)=)[^&]*");
+    // Headers that carry credentials or session ids, in requests and responses
+    private static final List<String> SECRET_HEADERS = List.of(HttpHeaders.AUTHORIZATION, HttpHeaders.PROXY_AUTHORIZATION,
+            HttpHeaders.COOKIE, HttpHeaders.SET_COOKIE, EtsService.ETS_TOKEN);
+
+    private final int maxLoggedBytes;
+    private final double sampleRate;
+    // Sorted longest prefix first, so the most specific prefix wins
+    private final Map<String, Double> pathSampleRates;
+
+    /**
+     * Log every request with up to {@link #DEFAULT_MAX_LOGGED_BYTES} bytes of each body
+     */
+    public WireLoggingInterceptor() {
+        this(DEFAULT_MAX_LOGGED_BYTES, 1.0, Map.of());
+    }
+
+    /**
+     * @param maxLoggedBytes Maximum number of bytes of each body that are logged
+     * @param sampleRate Fraction of requests that are logged, from 0 to 1
+     * @param pathSampleRates Sample rates for requests whose path starts with the key. These override the sampleRate.
+     */
+    public WireLoggingInterceptor(int maxLoggedBytes, double sampleRate, Map<String, Double> pathSampleRates) {
+        this.maxLoggedBytes = maxLoggedBytes;
+        this.sampleRate = sampleRate;
+        this.pathSampleRates = new LinkedHashMap<>();
+        pathSampleRates.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey(Comparator.comparingInt(String::length).reversed()))
+                .forEach(e -> this.pathSampleRates.put(e.getKey(), e.getValue()));
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+        if (!logger.isDebugEnabled() || !isSampled(request)) {
+            return execution.execute(request, body);
+        }
+
+        logger.debug("Request {} {}\nHeaders: {}\nBody: {}", request.getMethod(), request.getURI(), maskHeaders(request.getHeaders()),
+                describeBody(body, Math.min(body.length, maxLoggedBytes), body.length, request.getHeaders().getContentType()));
+
+        long start = System.nanoTime();
+        ClientHttpResponse response = execution.execute(request, body);
+        return new LoggedResponse(request, response, start);
+    }
+
+    private boolean isSampled(HttpRequest request) {
+        double rate = sampleRate;
+        String path = request.getURI().getRawPath();
+        if (path != null) {
+            for (Map.Entry<String, Double> entry : pathSampleRates.entrySet()) {
+                if (path.startsWith(entry.getKey())) {
+                    rate = entry.getValue();
+                    break;
+                }
+            }
+        }
+        return rate >= 1.0 || (rate > 0 && ThreadLocalRandom.current().nextDouble() < rate);
+    }
+
+    private static HttpHeaders maskHeaders(HttpHeaders headers) {
+        if (SECRET_HEADERS.stream().noneMatch(headers::containsKey)) {
+            return headers;
+        }
+        HttpHeaders masked = new HttpHeaders();
+        masked.putAll(headers);
+        SECRET_HEADERS.stream().filter(masked::containsKey).forEach(name -> masked.set(name, "***"));
+        return masked;
+    }
+
+    private String describeBody(byte[] bytes, int length, long totalLength, MediaType contentType) {
+        if (totalLength == 0) {
+            return "<empty>";
+        }
+        if (!isText(contentType)) {
+            return "<" + totalLength + " bytes of " + contentType + " elided>";
+        }
+
+        Charset charset = contentType != null && contentType.getCharset() != null ? contentType.getCharset() : StandardCharsets.UTF_8;
+        String text = new String(bytes, 0, length, charset);
+        text = BASE64_VALUE.matcher(text).replaceAll(m -> "\"<base64 " + m.group(1).length() + " chars elided>" + m.group(2));
+        text = JSON_SECRET.matcher(text).replaceAll("$1***");
+        text = FORM_SECRET.matcher(text).replaceAll("$1***");
+        if (totalLength > length) {
+            text += "... <" + totalLength + " bytes total, truncated>";
+        }
+        return text;
+    }
+
+    private static boolean isText(MediaType contentType) {
+        if (contentType == null) {
+            // Most Exstream API responses are JSON, log them unless they are declared as something else
+            return true;
+        }
+        return contentType.getType().equals("text")
+                || contentType.getSubtype().equals("json") || contentType.getSubtype().endsWith("+json")
+                || contentType.getSubtype().equals("xml") || contentType.getSubtype().endsWith("+xml")
+                || MediaType.APPLICATION_FORM_URLENCODED.includes(contentType);
+    }
+
+    /**
+     * Response that copies the start of the body as it is read and logs it when it is closed
+     */
+    private class LoggedResponse implements ClientHttpResponse {
+        private final HttpRequest request;
+        private final ClientHttpResponse delegate;
+        private final long start;
+        private TeeInputStream body;
+
+        LoggedResponse(HttpRequest request, ClientHttpResponse delegate, long start) {
+            this.request = request;
+            this.delegate = delegate;
+            this.start = start;
+        }
+
+        @Override
+        public HttpStatus getStatusCode() throws IOException {
+            return delegate.getStatusCode();
+        }
+
+        @Override
+        public int getRawStatusCode() throws IOException {
+            return delegate.getRawStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return delegate.getStatusText();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return delegate.getHeaders();
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            if (body == null) {
+                body = new TeeInputStream(delegate.getBody(), maxLoggedBytes);
+            }
+            return body;
+        }
+
+        @Override
+        public void close() {
+            try {
+                String bodyDescription = body == null
+                        ? "<not read>"
+                        : describeBody(body.captured.toByteArray(), body.captured.size(), body.count, getHeaders().getContentType());
+                logger.debug("Response {} {} {} in {} ms\nHeaders: {}\nBody: {}", getRawStatusCode(), request.getMethod(), request.getURI(),
+                        (System.nanoTime() - start) / 1_000_000, maskHeaders(getHeaders()), bodyDescription);
+            } catch (IOException | RuntimeException e) {
+                logger.debug("Could not log response for {}", request.getURI(), e);
+            } finally {
+                delegate.close();
+            }
+        }
+    }
+
+    /**
+     * Keeps a copy of the first bytes read from the stream
+     */
+    private static class TeeInputStream extends FilterInputStream {
+        final ByteArrayOutputStream captured = new ByteArrayOutputStream();
+        final int limit;
+        long count = 0;
+
+        TeeInputStream(InputStream in, int limit) {
+            super(in);
+            this.limit = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                if (captured.size() < limit) {
+                    captured.write(b);
+                }
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                int remaining = limit - captured.size();
+                if (remaining > 0) {
+                    captured.write(b, off, Math.min(n, remaining));
+                }
+                count += n;
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            // Skipped bytes are counted but not captured
+            long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+    }
+}
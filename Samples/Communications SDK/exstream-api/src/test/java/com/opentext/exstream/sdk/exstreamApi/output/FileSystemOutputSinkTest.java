@@ -0,0 +1,57 @@
+/*
+ * Copyright 2023 Open Text Corporation, All Rights Reserved.
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.opentext.exstream.sdk.exstreamApi.output;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class FileSystemOutputSinkTest {
+    private static final byte[] CONTENT = "output".getBytes(StandardCharsets.UTF_8);
+
+    @TempDir
+    Path root;
+
+    @Test
+    void outputIsWrittenInsideTheDirectory() throws Exception {
+        Path directory = root.resolve("out");
+        try (FileSystemOutputSink sink = new FileSystemOutputSink(directory)) {
+            assertEquals(directory.resolve("letter.pdf").toUri(), sink.write("letter.pdf", CONTENT).join());
+        }
+        assertArrayEquals(CONTENT, Files.readAllBytes(directory.resolve("letter.pdf")));
+    }
+
+    @Test
+    void namesOutsideTheDirectoryAreRejected() {
+        Path directory = root.resolve("out");
+        try (FileSystemOutputSink sink = new FileSystemOutputSink(directory)) {
+            for (String name : new String[] {"../escaped.pdf", "a/../../escaped.pdf", root.resolve("escaped.pdf").toString(), "."}) {
+                CompletionException e = assertThrows(CompletionException.class, () -> sink.write(name, CONTENT).join(), name);
+                assertInstanceOf(IllegalArgumentException.class, e.getCause(), name);
+            }
+        }
+        assertFalse(Files.exists(root.resolve("escaped.pdf")));
+    }
+}
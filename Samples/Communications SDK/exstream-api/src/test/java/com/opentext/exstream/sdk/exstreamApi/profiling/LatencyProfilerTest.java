@@ -0,0 +1,80 @@
+/*
+ * Copyright 2023 Open Text Corporation, All Rights Reserved.
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.opentext.exstream.sdk.exstreamApi.profiling;
+
+import com.opentext.exstream.sdk.exstreamApi.model.enumeration.ExstreamOperation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LatencyProfilerTest {
+    private final LatencyProfiler profiler = new LatencyProfiler();
+
+    @BeforeEach
+    void enable() throws ReflectiveOperationException {
+        set("enabled", true);
+        set("slowestTraces", 5);
+        set("maxCommunications", 10);
+    }
+
+    @Test
+    void phasesThatDidNotRunAreNotRecorded() {
+        profiler.profile("c1", () -> send(ExstreamOperation.GENERATE));
+
+        assertEquals(1, profiler.getHistogram("c1", GenerationPhase.RENDER).orElseThrow().getCount());
+        assertEquals(1, profiler.getHistogram("c1", GenerationPhase.TRANSFER).orElseThrow().getCount());
+        assertFalse(profiler.getHistogram("c1", GenerationPhase.TOKEN).isPresent());
+        assertFalse(profiler.getHistogram("c1", GenerationPhase.MANIFEST).isPresent());
+    }
+
+    @Test
+    void cachedTokenDoesNotAddZeroSamples() {
+        profiler.profile("c1", () -> {
+            send(ExstreamOperation.TOKEN);
+            return send(ExstreamOperation.GENERATE);
+        });
+        profiler.profile("c1", () -> send(ExstreamOperation.GENERATE));
+
+        assertEquals(1, profiler.getHistogram("c1", GenerationPhase.TOKEN).orElseThrow().getCount());
+        assertEquals(2, profiler.getHistogram("c1", GenerationPhase.RENDER).orElseThrow().getCount());
+    }
+
+    @Test
+    void traceReportsOnlyPhasesThatRan() {
+        profiler.profile("c1", () -> send(ExstreamOperation.GENERATE));
+
+        GenerationTrace trace = profiler.getSlowestTraces(1).get(0);
+        assertTrue(trace.hasPhase(GenerationPhase.RENDER));
+        assertFalse(trace.hasPhase(GenerationPhase.TOKEN));
+        assertFalse(trace.toString().contains("TOKEN"));
+        assertTrue(trace.toString().contains("RENDER"));
+    }
+
+    private static Object send(ExstreamOperation operation) {
+        GenerationTrace.current().addExchange(new ExchangeTiming(operation, "POST", "/", 200, 1_000, 2_000, 3_000, 4_000, 10_000));
+        return null;
+    }
+
+    private void set(String name, Object value) throws ReflectiveOperationException {
+        Field field = LatencyProfiler.class.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(profiler, value);
+    }
+}
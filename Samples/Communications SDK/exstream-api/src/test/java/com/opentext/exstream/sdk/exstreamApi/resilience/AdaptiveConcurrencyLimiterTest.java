@@ -0,0 +1,171 @@
+/*
+ * Copyright 2023 Open Text Corporation, All Rights Reserved.
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.opentext.exstream.sdk.exstreamApi.resilience;
+
+import com.opentext.exstream.sdk.exstreamApi.service.OrchestrationService;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRequest;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdaptiveConcurrencyLimiterTest {
+    private static final long FAST_NANOS = TimeUnit.MILLISECONDS.toNanos(20);
+    private static final long SLOW_NANOS = TimeUnit.MILLISECONDS.toNanos(2000);
+
+    private static AdaptiveConcurrencyLimiter newLimiter() {
+        return new AdaptiveConcurrencyLimiter("orchestration", 20, 1, 200, 100, Duration.ofMillis(1000), 2.0);
+    }
+
+    // Sends rounds of requests at the limit, alternating between a fast and a slow communication. Neither gets slower.
+    private static void sendMixedRounds(AdaptiveConcurrencyLimiter limiter, String fastOperation, String slowOperation, int rounds) {
+        for (int round = 0; round < rounds; round++) {
+            List<AdaptiveConcurrencyLimiter.Permit> permits = new ArrayList<>();
+            for (int i = 0; i < limiter.getLimit(); i++) {
+                permits.add(limiter.acquire());
+            }
+            for (int i = 0; i < permits.size(); i++) {
+                boolean fast = i % 2 == 0;
+                permits.get(i).complete(AdaptiveConcurrencyLimiter.Outcome.SUCCESS, fast ? fastOperation : slowOperation, fast ? FAST_NANOS : SLOW_NANOS);
+            }
+        }
+    }
+
+    @Test
+    void mixedCommunicationsDontCollapseTheLimit() {
+        AdaptiveConcurrencyLimiter limiter = newLimiter();
+        sendMixedRounds(limiter, ConcurrencyLimitingInterceptor.operationOf(generateRequest("fast")),
+                ConcurrencyLimitingInterceptor.operationOf(generateRequest("slow")), 50);
+        assertTrue(limiter.getLimit() >= 20, "limit " + limiter.getLimit());
+    }
+
+    @Test
+    void mixedLatenciesOfOneOperationShrinkTheLimit() {
+        // The same samples under one baseline look like overload, which is why communications are kept apart
+        AdaptiveConcurrencyLimiter limiter = newLimiter();
+        sendMixedRounds(limiter, "POST /generate", "POST /generate", 50);
+        assertTrue(limiter.getLimit() < 20, "limit " + limiter.getLimit());
+    }
+
+    @Test
+    void slowerResponsesShrinkTheLimit() {
+        AdaptiveConcurrencyLimiter limiter = newLimiter();
+        for (int round = 0; round < 50; round++) {
+            List<AdaptiveConcurrencyLimiter.Permit> permits = new ArrayList<>();
+            for (int i = 0; i < limiter.getLimit(); i++) {
+                permits.add(limiter.acquire());
+            }
+            // The first response of all sets the no-load time, the others are ten times slower
+            long rttNanos = round == 0 ? FAST_NANOS : 10 * FAST_NANOS;
+            permits.forEach(permit -> permit.complete(AdaptiveConcurrencyLimiter.Outcome.SUCCESS, "POST /generate a", rttNanos));
+        }
+        assertTrue(limiter.getLimit() < 20, "limit " + limiter.getLimit());
+    }
+
+    @Test
+    void queuedRequestsGetPermitsInArrivalOrder() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("das", 1, 1, 1, 10, Duration.ofSeconds(10), 2.0);
+        AdaptiveConcurrencyLimiter.Permit held = limiter.acquire();
+        List<String> order = new CopyOnWriteArrayList<>();
+        CompletableFuture<AdaptiveConcurrencyLimiter.Permit> first = queue(limiter, "first", order, 1);
+        CompletableFuture<AdaptiveConcurrencyLimiter.Permit> second = queue(limiter, "second", order, 2);
+
+        held.complete(AdaptiveConcurrencyLimiter.Outcome.IGNORED);
+        first.get(10, TimeUnit.SECONDS).complete(AdaptiveConcurrencyLimiter.Outcome.IGNORED);
+        second.get(10, TimeUnit.SECONDS).complete(AdaptiveConcurrencyLimiter.Outcome.IGNORED);
+
+        assertEquals(List.of("first", "second"), order);
+        assertEquals(0, limiter.getQueueDepth());
+    }
+
+    @Test
+    void requestsThatCantWaitTakeFreePermitsOnly() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("das", 1, 1, 1, 10, Duration.ofSeconds(10), 2.0);
+        AdaptiveConcurrencyLimiter.Permit permit = limiter.acquire(Duration.ZERO);
+        assertThrows(ConcurrencyLimitExceededException.class, () -> limiter.acquire(Duration.ZERO));
+        permit.complete(AdaptiveConcurrencyLimiter.Outcome.IGNORED);
+        limiter.acquire(Duration.ZERO).complete(AdaptiveConcurrencyLimiter.Outcome.IGNORED);
+        assertEquals(1, limiter.getRejectedCount());
+    }
+
+    // Waits for a permit on another thread, and returns once the request is in the queue at the given depth
+    private static CompletableFuture<AdaptiveConcurrencyLimiter.Permit> queue(AdaptiveConcurrencyLimiter limiter, String name,
+                                                                            List<String> order, int depth) throws InterruptedException {
+        CompletableFuture<AdaptiveConcurrencyLimiter.Permit> future = CompletableFuture.supplyAsync(() -> {
+            AdaptiveConcurrencyLimiter.Permit permit = limiter.acquire();
+            order.add(name);
+            return permit;
+        }, runnable -> new Thread(runnable).start());
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (limiter.getQueueDepth() < depth && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertFalse(future.isDone());
+        return future;
+    }
+
+    @Test
+    void operationIncludesTheCommunication() {
+        assertEquals("POST /api/v1/communications/generate fast", ConcurrencyLimitingInterceptor.operationOf(generateRequest("fast")));
+        assertNotEquals(ConcurrencyLimitingInterceptor.operationOf(generateRequest("fast")),
+                ConcurrencyLimitingInterceptor.operationOf(generateRequest("slow")));
+    }
+
+    @Test
+    void idSegmentsShareOneOperation() {
+        HttpRequest first = request(HttpMethod.GET, "/das/api/v1/resources/123/content", new HttpHeaders());
+        HttpRequest second = request(HttpMethod.GET, "/das/api/v1/resources/456/content", new HttpHeaders());
+        assertEquals("GET /das/api/v1/resources/{id}/content", ConcurrencyLimitingInterceptor.operationOf(first));
+        assertEquals(ConcurrencyLimitingInterceptor.operationOf(first), ConcurrencyLimitingInterceptor.operationOf(second));
+    }
+
+    private static HttpRequest generateRequest(String communicationId) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(OrchestrationService.COMMUNICATION_ID_HEADER, communicationId);
+        return request(HttpMethod.POST, "/api/v1/communications/generate", headers);
+    }
+
+    private static HttpRequest request(HttpMethod method, String path, HttpHeaders headers) {
+        return new HttpRequest() {
+            @Override
+            public String getMethodValue() {
+                return method.name();
+            }
+
+            @Override
+            public URI getURI() {
+                return URI.create("http://localhost:8080" + path);
+            }
+
+            @Override
+            public HttpHeaders getHeaders() {
+                return headers;
+            }
+        };
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2023 Open Text Corporation, All Rights Reserved.
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.opentext.exstream.sdk.exstreamApi.resilience;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class HedgingInterceptorTest {
+    private final HeldTimerScheduler scheduler = new HeldTimerScheduler();
+    private final HedgingInterceptor interceptor = new HedgingInterceptor("das", request -> true, 0.5, Duration.ZERO, 1,
+            Runnable::run, scheduler);
+    private final HttpRequest request = new TestRequest();
+
+    @AfterEach
+    void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    void hedgeTimerThatFiresAfterThePrimaryFailedSendsNothing() throws IOException {
+        warmUp();
+        AtomicInteger sent = new AtomicInteger();
+
+        assertThrows(IOException.class, () -> interceptor.intercept(request, new byte[0], (r, b) -> {
+            sent.incrementAndGet();
+            throw new IOException("Connection reset");
+        }));
+        // The timer had already passed its cancel check when the primary failed
+        assertNotNull(scheduler.held);
+        scheduler.held.run();
+
+        assertEquals(1, sent.get());
+        assertEquals(0, interceptor.getHedgedCount());
+        assertEquals(0, interceptor.getBudgetExhaustedCount());
+    }
+
+    // Enough quick responses for the endpoint to have a hedging threshold
+    private void warmUp() throws IOException {
+        for (int i = 0; i < 64; i++) {
+            interceptor.intercept(request, new byte[0], (r, b) -> new TestResponse()).close();
+        }
+        scheduler.held = null;
+    }
+
+    // Keeps the hedge timer's task instead of running it, and ignores its cancellation, so the test decides when it runs
+    private static class HeldTimerScheduler extends ScheduledThreadPoolExecutor {
+        volatile Runnable held;
+
+        HeldTimerScheduler() {
+            super(1);
+        }
+
+        @Override
+        public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+            held = command;
+            return super.schedule(() -> { }, 1, TimeUnit.DAYS);
+        }
+    }
+
+    private static class TestRequest implements HttpRequest {
+        private final HttpHeaders headers = new HttpHeaders();
+
+        @Override
+        public String getMethodValue() {
+            return HttpMethod.GET.name();
+        }
+
+        @Override
+        public URI getURI() {
+            return URI.create("http://localhost/api/v1/manifests/domain/communication-set");
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+    }
+
+    private static class TestResponse implements ClientHttpResponse {
+        @Override
+        public HttpStatus getStatusCode() {
+            return HttpStatus.OK;
+        }
+
+        @Override
+        public int getRawStatusCode() {
+            return HttpStatus.OK.value();
+        }
+
+        @Override
+        public String getStatusText() {
+            return HttpStatus.OK.getReasonPhrase();
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public InputStream getBody() {
+            return new ByteArrayInputStream(new byte[0]);
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return new HttpHeaders();
+        }
+    }
+}
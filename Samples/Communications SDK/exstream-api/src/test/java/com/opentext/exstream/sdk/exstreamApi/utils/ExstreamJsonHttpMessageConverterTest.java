@@ -0,0 +1,74 @@
+/*
+ * Copyright 2023 Open Text Corporation, All Rights Reserved.
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.opentext.exstream.sdk.exstreamApi.utils;
+
+import com.fasterxml.jackson.annotation.JsonSubTypes;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ExstreamJsonHttpMessageConverterTest {
+    private final ExstreamJsonHttpMessageConverter converter = new ExstreamJsonHttpMessageConverter(ExstreamJson.getObjectMapper());
+
+    @JsonTypeInfo(use = JsonTypeInfo.Id.NAME, property = "kind")
+    @JsonSubTypes(@JsonSubTypes.Type(value = Circle.class, name = "circle"))
+    public abstract static class Shape {
+    }
+
+    public static class Circle extends Shape {
+        public int radius = 2;
+    }
+
+    @Test
+    void listOfPolymorphicTypeKeepsTypeInformation() throws IOException {
+        Type type = new ParameterizedTypeReference<List<Shape>>() { }.getType();
+        assertEquals("[{\"kind\":\"circle\",\"radius\":2}]", write(List.of(new Circle()), type));
+    }
+
+    @Test
+    void objectIsWrittenAsItsRuntimeClass() throws IOException {
+        assertEquals("{\"kind\":\"circle\",\"radius\":2}", write(new Circle(), Object.class));
+        assertEquals("{\"kind\":\"circle\",\"radius\":2}", write(new Circle(), null));
+    }
+
+    private String write(Object object, Type type) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        HttpHeaders headers = new HttpHeaders();
+        converter.write(object, type, MediaType.APPLICATION_JSON, new HttpOutputMessage() {
+            @Override
+            public OutputStream getBody() {
+                return body;
+            }
+
+            @Override
+            public HttpHeaders getHeaders() {
+                return headers;
+            }
+        });
+        return body.toString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2023 Open Text Corporation, All Rights Reserved.
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.opentext.exstream.sdk.exstreamApi.utils;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RestTemplateResponseErrorHandlerTest {
+    private final RestTemplateResponseErrorHandler handler = new RestTemplateResponseErrorHandler();
+
+    @Test
+    void endlessErrorBodyIsReadOnlyUpToTheKeptBytes() {
+        // Would never end if it were read in full
+        InputStream endless = new InputStream() {
+            @Override
+            public int read() {
+                return 'x';
+            }
+        };
+        ExstreamApiException exception = assertThrows(ExstreamApiException.class,
+                () -> handler.handleError(URI.create("http://localhost/api/v1/version"), HttpMethod.GET, new TestResponse(502, endless)));
+
+        assertTrue(exception.isBodyTruncated());
+        assertEquals(ExstreamApiException.MAX_BODY_BYTES, exception.getResponseBodyAsByteArray().length);
+    }
+
+    @Test
+    void errorResponseIsParsed() {
+        byte[] body = "{\"errorCode\":309016,\"message\":\"Conflict\"}".getBytes(StandardCharsets.UTF_8);
+        ExstreamApiException exception = assertThrows(ExstreamApiException.class,
+                () -> handler.handleError(URI.create("http://localhost/api/v1/import/package/domain"), HttpMethod.POST,
+                        new TestResponse(409, new ByteArrayInputStream(body))));
+
+        assertFalse(exception.isBodyTruncated());
+        assertEquals(body.length, exception.getBodyLength());
+        assertEquals(309016, exception.getErrorCode());
+    }
+
+    private static class TestResponse implements ClientHttpResponse {
+        private final int status;
+        private final InputStream body;
+
+        TestResponse(int status, InputStream body) {
+            this.status = status;
+            this.body = body;
+        }
+
+        @Override
+        public HttpStatus getStatusCode() {
+            return HttpStatus.valueOf(status);
+        }
+
+        @Override
+        public int getRawStatusCode() {
+            return status;
+        }
+
+        @Override
+        public String getStatusText() {
+            return getStatusCode().getReasonPhrase();
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public InputStream getBody() {
+            return body;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return new HttpHeaders();
+        }
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2023 Open Text Corporation, All Rights Reserved.
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.opentext.exstream.sdk.benchmarks;
+
+import com.opentext.exstream.sdk.exstreamApi.model.dto.DasResourceVersion;
+import com.opentext.exstream.sdk.exstreamApi.model.dto.ResourceMetadata;
+import com.opentext.exstream.sdk.exstreamApi.model.enumeration.ResourceType;
+import com.opentext.exstream.sdk.exstreamApi.model.enumeration.WorkflowState;
+import com.opentext.exstream.sdk.exstreamApi.model.response.ExstreamPageResponse;
+import com.opentext.exstream.sdk.exstreamApi.model.response.SimplePage;
+import com.opentext.exstream.sdk.exstreamApi.utils.ExstreamJson;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.core.ParameterizedTypeReference;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Deserialization of a page of the DAS resources response, as the SDK's JSON message converter reads it
+ */
+@State(Scope.Benchmark)
+public class DasResponseBenchmark {
+    private static final Type PAGE_RESPONSE_TYPE = new ParameterizedTypeReference<ExstreamPageResponse<DasResourceVersion>>(){}.getType();
+
+    // Number of resources in the page
+    @Param({"20", "100"})
+    public int pageSize;
+
+    private byte[] pageResponse;
+
+    @Setup
+    public void setUp() throws IOException {
+        List<DasResourceVersion> resources = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            DasResourceVersion resource = new DasResourceVersion();
+            resource.id = UUID.randomUUID();
+            resource.version = 1 + i % 5;
+            resource.name = "Claim Acknowledgement " + i;
+            resource.type = ResourceType.exstrcommunicationset;
+            resource.state = WorkflowState.APPROVED;
+            resource.stateComment = "Approved for production";
+            resource.description = "Communication set " + i;
+            resource.createdBy = "designer@example.com";
+            resource.createdDate = new Date();
+            resource.lastModifiedBy = "designer@example.com";
+            resource.lastModifiedDate = new Date();
+            resource.metadata = new ResourceMetadata();
+            resource.metadata.subtype = "communicationset";
+            resources.add(resource);
+        }
+
+        ExstreamPageResponse<DasResourceVersion> response = new ExstreamPageResponse<>();
+        response.status = "success";
+        response.data = resources;
+        response.page = new SimplePage();
+        response.page.pageSize = pageSize;
+        response.page.totalElements = pageSize;
+        response.page.totalPages = 1;
+        pageResponse = ExstreamJson.writerFor(PAGE_RESPONSE_TYPE).writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public ExstreamPageResponse<DasResourceVersion> readPageResponse() throws IOException {
+        return ExstreamJson.readerFor(PAGE_RESPONSE_TYPE).readValue(pageResponse);
+    }
+}
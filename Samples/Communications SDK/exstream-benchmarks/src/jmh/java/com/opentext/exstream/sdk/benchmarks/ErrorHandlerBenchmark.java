@@ -0,0 +1,141 @@
+/*
+ * Copyright 2023 Open Text Corporation, All Rights Reserved.
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.opentext.exstream.sdk.benchmarks;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.opentext.exstream.sdk.exstreamApi.model.response.ExstreamErrorResponse;
+import com.opentext.exstream.sdk.exstreamApi.utils.ExstreamJson;
+import com.opentext.exstream.sdk.exstreamApi.utils.RestTemplateResponseErrorHandler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.web.client.RestClientException;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Handling of error responses by {@link RestTemplateResponseErrorHandler}: reading the body, parsing it and building
+ * the exception. Errors are frequent when a backend is overloaded, so this path needs to stay cheap then. A 503 is
+ * retryable and its exception has no stack trace, the other errors capture one.<br>
+ * There is no logging backend on the benchmark classpath, so the cost of writing the log messages isn't included.
+ */
+@State(Scope.Benchmark)
+public class ErrorHandlerBenchmark {
+    private final RestTemplateResponseErrorHandler errorHandler = new RestTemplateResponseErrorHandler();
+
+    private byte[] exstreamError;
+    private byte[] orchestrationError;
+    private byte[] gatewayError;
+
+    @Setup
+    public void setUp() throws IOException {
+        ExstreamErrorResponse error = new ExstreamErrorResponse();
+        error.timestamp = System.currentTimeMillis();
+        error.status = HttpStatus.SERVICE_UNAVAILABLE.value();
+        error.error = HttpStatus.SERVICE_UNAVAILABLE.getReasonPhrase();
+        error.message = "The service is temporarily unavailable";
+        error.errorCode = 309016;
+        error.path = "/design/api/v1/resources/Testdomain";
+        exstreamError = ExstreamJson.writerFor(ExstreamErrorResponse.class).writeValueAsBytes(error);
+
+        // The status comes first in Orchestration error responses
+        ObjectNode response = ExstreamJson.getObjectMapper().createObjectNode();
+        response.put("status", "error");
+        ObjectNode data = response.putArray("data").addObject();
+        data.put("errorMessage", "The engine failed to generate the output");
+        data.put("statusCode", "500");
+        data.putObject("engineOutputContext").put("fileName", "ClaimAcknowledgement");
+        orchestrationError = ExstreamJson.getObjectMapper().writeValueAsBytes(response);
+
+        // Proxies in front of the services answer with a page rather than an Exstream error response
+        gatewayError = "<html><head><title>502 Bad Gateway</title></head><body><center><h1>502 Bad Gateway</h1></center></body></html>"
+                .getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public Exception exstreamErrorResponse() throws IOException {
+        return handleError(HttpStatus.SERVICE_UNAVAILABLE, exstreamError);
+    }
+
+    @Benchmark
+    public Exception orchestrationErrorResponse() throws IOException {
+        return handleError(HttpStatus.INTERNAL_SERVER_ERROR, orchestrationError);
+    }
+
+    @Benchmark
+    public Exception unparsedErrorResponse() throws IOException {
+        return handleError(HttpStatus.BAD_GATEWAY, gatewayError);
+    }
+
+    private Exception handleError(HttpStatus status, byte[] body) throws IOException {
+        try {
+            errorHandler.handleError(new ErrorResponse(status, body));
+        } catch (RestClientException e) {
+            return e;
+        }
+        throw new IllegalStateException("The error handler didn't throw an exception");
+    }
+
+    // An error response received from a backend
+    private static class ErrorResponse implements ClientHttpResponse {
+        private final HttpStatus status;
+        private final byte[] body;
+        private final HttpHeaders headers = new HttpHeaders();
+
+        ErrorResponse(HttpStatus status, byte[] body) {
+            this.status = status;
+            this.body = body;
+            headers.setContentType(MediaType.APPLICATION_JSON);
+            headers.setContentLength(body.length);
+        }
+
+        @Override
+        public HttpStatus getStatusCode() {
+            return status;
+        }
+
+        @Override
+        public int getRawStatusCode() {
+            return status.value();
+        }
+
+        @Override
+        public String getStatusText() {
+            return status.getReasonPhrase();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+
+        @Override
+        public InputStream getBody() {
+            return new ByteArrayInputStream(body);
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2023 Open Text Corporation, All Rights Reserved.
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.opentext.exstream.sdk.benchmarks;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.opentext.exstream.sdk.exstreamApi.model.response.OrchestrationDataListResponse;
+import com.opentext.exstream.sdk.exstreamApi.utils.ExstreamJson;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.util.Base64;
+import java.util.Random;
+
+/**
+ * Handling of the full response of an Orchestration generate request: deserializing it, and decoding the base64
+ * content of the output the way the samples do before saving it
+ */
+@State(Scope.Benchmark)
+public class OrchestrationResponseBenchmark {
+    // Size of the generated document before base64 encoding
+    @Param({"65536", "1048576"})
+    public int outputBytes;
+
+    private byte[] fullResponse;
+    private String content;
+
+    @Setup
+    public void setUp() throws IOException {
+        byte[] output = new byte[outputBytes];
+        new Random(42).nextBytes(output);
+        content = Base64.getEncoder().encodeToString(output);
+
+        // Built as a tree to have the same shape as the Orchestration response
+        ObjectNode response = ExstreamJson.getObjectMapper().createObjectNode();
+        response.put("status", "success");
+        ObjectNode data = response.putArray("data").addObject();
+        data.put("content", content);
+        data.put("mimeType", "application/pdf");
+        ObjectNode engineOutputContext = data.putObject("engineOutputContext");
+        engineOutputContext.put("queueName", "PDF");
+        engineOutputContext.put("fileName", "ClaimAcknowledgement");
+        engineOutputContext.put("customerNumber", "1");
+        fullResponse = ExstreamJson.getObjectMapper().writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public OrchestrationDataListResponse readFullResponse() throws IOException {
+        return ExstreamJson.readerFor(OrchestrationDataListResponse.class).readValue(fullResponse);
+    }
+
+    @Benchmark
+    public byte[] decodeContent() {
+        return Base64.getDecoder().decode(content);
+    }
+}
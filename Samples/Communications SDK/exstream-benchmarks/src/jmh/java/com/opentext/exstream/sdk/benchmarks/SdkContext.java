@@ -0,0 +1,75 @@
+/*
+ * Copyright 2023 Open Text Corporation, All Rights Reserved.
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.opentext.exstream.sdk.benchmarks;
+
+import com.sun.net.httpserver.HttpServer;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * The Spring context of the SDK, configured the way an application would, for benchmarks of its beans.<br>
+ * A stub OTDS on a local port answers token requests, so that a token can be fetched and cached. The other services
+ * point at the same port but are never called.
+ */
+final class SdkContext implements AutoCloseable {
+    private static final byte[] TOKEN_RESPONSE = ("{\"access_token\":\"benchmark-token\",\"refresh_token\":\"benchmark-refresh\","
+            + "\"token_type\":\"Bearer\",\"expires_in\":3600}").getBytes(StandardCharsets.UTF_8);
+
+    private final HttpServer otds;
+    private final AnnotationConfigApplicationContext context;
+
+    SdkContext() throws IOException {
+        otds = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        otds.createContext("/", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, TOKEN_RESPONSE.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(TOKEN_RESPONSE);
+            }
+        });
+        otds.start();
+
+        String url = "http://localhost:" + otds.getAddress().getPort();
+        context = new AnnotationConfigApplicationContext();
+        context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("benchmark", Map.of(
+                "exstream.deployment.type", "local",
+                "otds.url", url,
+                "otds.tenant", "benchmark",
+                "exstream.das.url", url,
+                "exstream.orchestration.url", url,
+                "exstream.empower.url", url,
+                "exstream.wireLog.enabled", "false")));
+        context.scan("com.opentext.exstream.sdk.exstreamApi");
+        context.refresh();
+    }
+
+    <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    @Override
+    public void close() {
+        context.close();
+        otds.stop(0);
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2023 Open Text Corporation, All Rights Reserved.
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.opentext.exstream.sdk.benchmarks;
+
+import com.opentext.exstream.sdk.exstreamApi.service.OtdsService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.io.IOException;
+
+/**
+ * Reads of the cached OTDS token, which every request to DAS, Orchestration and Empower starts with
+ */
+@State(Scope.Benchmark)
+public class TokenCacheBenchmark {
+    private SdkContext sdk;
+    private OtdsService otdsService;
+
+    @Setup
+    public void setUp() throws IOException {
+        sdk = new SdkContext();
+        otdsService = sdk.getBean(OtdsService.class);
+        // Fetch the token from the stub once, every call after this one is served from the cache
+        otdsService.getToken();
+    }
+
+    @TearDown
+    public void tearDown() {
+        sdk.close();
+    }
+
+    @Benchmark
+    public String cachedToken() {
+        return otdsService.getToken();
+    }
+
+    // The same read from several threads at once, as when many requests are sent in parallel
+    @Benchmark
+    @Threads(8)
+    public String cachedTokenConcurrent() {
+        return otdsService.getToken();
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2023 Open Text Corporation, All Rights Reserved.
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.opentext.exstream.sdk.benchmarks;
+
+import com.opentext.exstream.sdk.exstreamApi.model.dto.PageInfo;
+import com.opentext.exstream.sdk.exstreamApi.model.dto.ResourceFilter;
+import com.opentext.exstream.sdk.exstreamApi.model.enumeration.ResourceType;
+import com.opentext.exstream.sdk.exstreamApi.model.enumeration.WorkflowState;
+import com.opentext.exstream.sdk.exstreamApi.service.DasUriBuilder;
+import com.opentext.exstream.sdk.exstreamApi.service.OrchestrationUriBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.util.MultiValueMap;
+
+import java.io.IOException;
+import java.net.URI;
+
+/**
+ * Construction of the DAS and Orchestration URIs, which happens once for every request the SDK sends
+ */
+@State(Scope.Benchmark)
+public class UriBuilderBenchmark {
+    private static final String DOMAIN = "Testdomain";
+    private static final String RESOURCE_ID = "619bd602-05de-4c30-829b-7ed074263dff";
+
+    private SdkContext sdk;
+    private DasUriBuilder dasUriBuilder;
+    private OrchestrationUriBuilder orchestrationUriBuilder;
+    private ResourceFilter resourceFilter;
+    private ResourceFilter linkFilter;
+    private PageInfo pageInfo;
+
+    @Setup
+    public void setUp() throws IOException {
+        sdk = new SdkContext();
+        dasUriBuilder = sdk.getBean(DasUriBuilder.class);
+        orchestrationUriBuilder = sdk.getBean(OrchestrationUriBuilder.class);
+        // The filters the samples use to list communications and to find the communications that use a resource
+        resourceFilter = new ResourceFilter()
+                .setLatestVersion(true)
+                .addType(ResourceType.exstrcommunicationset)
+                .addState(WorkflowState.APPROVED);
+        linkFilter = new ResourceFilter()
+                .addRfilterType(ResourceType.exstrapplication)
+                .addRfilterState(WorkflowState.APPROVED);
+        pageInfo = new PageInfo().setDefaults();
+    }
+
+    @TearDown
+    public void tearDown() {
+        sdk.close();
+    }
+
+    @Benchmark
+    public MultiValueMap<String, String> resourceFilterQueryParams() {
+        return resourceFilter.getQueryParamMap();
+    }
+
+    @Benchmark
+    public URI dasResourcesUri() {
+        return dasUriBuilder.buildResourcesUri(DOMAIN, resourceFilter, pageInfo);
+    }
+
+    @Benchmark
+    public URI dasResourceContentUri() {
+        return dasUriBuilder.buildResourcesContentUri(DOMAIN, RESOURCE_ID);
+    }
+
+    @Benchmark
+    public URI dasRecursiveLinksUri() {
+        return dasUriBuilder.buildRecursiveLinksUri(DOMAIN, RESOURCE_ID, 2, linkFilter);
+    }
+
+    @Benchmark
+    public URI orchestrationGenerateUri() {
+        return orchestrationUriBuilder.buildOnDemandGenerateUri(DOMAIN);
+    }
+}
@@ -0,0 +1,196 @@
+/*
+ * Copyright 2023 Open Text Corporation, All Rights Reserved.
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.opentext.exstream.sdk.loadtest;
+
+import com.opentext.exstream.sdk.exstreamApi.utils.ExstreamApiException;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.web.client.RestClientResponseException;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records the outcome of the requests of a load test, per operation, such as a {@link LoadOperation}.<br>
+ * Each successful request adds two values in microseconds to HdrHistograms. Its response time is measured from the
+ * time the workload intended to send it, and its service time from the time it was actually sent. A request that
+ * waited for a worker because earlier requests were slow has that wait in its response time, so the response time
+ * percentiles are corrected for coordinated omission, and the service time percentiles are not. Failed requests are
+ * counted by the kind of error, their latency isn't recorded.<br>
+ * Only the requests the workload intended to send within the recording window are recorded, which leaves out warmup.
+ * @param <K> The enum of the operations
+ */
+class LatencyRecorder<K extends Enum<K>> {
+    private static final int SIGNIFICANT_DIGITS = 3;
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    private final Map<K, OperationStats> stats;
+    private final long recordFromNanos;
+    private final long recordUntilNanos;
+
+    // Guarded by this. Collects the values of all operations for a progress line.
+    private final Histogram intervalResponseTimes = new Histogram(SIGNIFICANT_DIGITS);
+    private final LongAdder intervalErrors = new LongAdder();
+
+    /**
+     * @param operationType The enum of the operations
+     * @param operations The operations of the workload
+     * @param recordFromNanos Start of the recording window, in {@link System#nanoTime()}
+     * @param recordUntilNanos End of the recording window
+     */
+    LatencyRecorder(Class<K> operationType, Collection<K> operations, long recordFromNanos, long recordUntilNanos) {
+        stats = new EnumMap<>(operationType);
+        operations.forEach(operation -> stats.put(operation, new OperationStats()));
+        this.recordFromNanos = recordFromNanos;
+        this.recordUntilNanos = recordUntilNanos;
+    }
+
+    void recordSuccess(K operation, long intendedStartNanos, long startNanos, long endNanos) {
+        if (isRecorded(intendedStartNanos)) {
+            OperationStats operationStats = stats.get(operation);
+            operationStats.responseTimes.recordValue(TimeUnit.NANOSECONDS.toMicros(endNanos - intendedStartNanos));
+            operationStats.serviceTimes.recordValue(TimeUnit.NANOSECONDS.toMicros(endNanos - startNanos));
+        }
+    }
+
+    void recordError(K operation, long intendedStartNanos, String kind) {
+        if (isRecorded(intendedStartNanos)) {
+            stats.get(operation).errors.computeIfAbsent(kind, k -> new LongAdder()).increment();
+            intervalErrors.increment();
+        }
+    }
+
+    private boolean isRecorded(long intendedStartNanos) {
+        return intendedStartNanos - recordFromNanos >= 0 && intendedStartNanos - recordUntilNanos < 0;
+    }
+
+    /**
+     * @return The kind of error a request failed with: the HTTP status and Exstream errorCode of an error response,
+     * otherwise the exception
+     */
+    static String errorKind(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof ExstreamApiException && ((ExstreamApiException) cause).getErrorCode() != null) {
+            ExstreamApiException apiException = (ExstreamApiException) cause;
+            return "HTTP " + apiException.getRawStatusCode() + " errorCode " + apiException.getErrorCode();
+        }
+        if (cause instanceof RestClientResponseException) {
+            return "HTTP " + ((RestClientResponseException) cause).getRawStatusCode();
+        }
+        return cause.getClass().getSimpleName();
+    }
+
+    /**
+     * Move the values recorded since the last call into the totals
+     * @param elapsedSeconds Time since recording started
+     * @param intervalSeconds Time since the last call
+     * @return A progress line about the interval
+     */
+    synchronized String collectInterval(double elapsedSeconds, double intervalSeconds) {
+        intervalResponseTimes.reset();
+        for (OperationStats operationStats : stats.values()) {
+            intervalResponseTimes.add(operationStats.collect());
+        }
+        long count = intervalResponseTimes.getTotalCount();
+        return String.format(Locale.ROOT, "%6.0fs %9.1f requests/s %6d errors   response time p50 %s p99 %s max %s",
+                elapsedSeconds, count / intervalSeconds, intervalErrors.sumThenReset(), millis(intervalResponseTimes.getValueAtPercentile(50)),
+                millis(intervalResponseTimes.getValueAtPercentile(99)), millis(intervalResponseTimes.getMaxValue()));
+    }
+
+    /**
+     * @param description The workload, for the first line
+     * @param recordedSeconds Length of the recording window
+     * @return The throughput, errors and percentiles of every operation and of all of them together
+     */
+    synchronized String report(String description, double recordedSeconds) {
+        collectInterval(recordedSeconds, recordedSeconds);
+
+        Histogram allResponseTimes = new Histogram(SIGNIFICANT_DIGITS);
+        Histogram allServiceTimes = new Histogram(SIGNIFICANT_DIGITS);
+        Map<String, Long> allErrors = new TreeMap<>();
+        StringBuilder report = new StringBuilder();
+        report.append("Load test: ").append(description).append('\n');
+        report.append(String.format(Locale.ROOT, "%-11s %-9s %9s %7s %12s %9s %9s %9s %9s %9s%n",
+                "operation", "latency", "requests", "errors", "requests/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms"));
+        for (Map.Entry<K, OperationStats> entry : stats.entrySet()) {
+            OperationStats operationStats = entry.getValue();
+            Map<String, Long> errors = operationStats.getErrors();
+            appendRows(report, entry.getKey().name().toLowerCase(Locale.ROOT), operationStats.totalResponseTimes, operationStats.totalServiceTimes, errors, recordedSeconds);
+            allResponseTimes.add(operationStats.totalResponseTimes);
+            allServiceTimes.add(operationStats.totalServiceTimes);
+            errors.forEach((kind, count) -> allErrors.merge(entry.getKey().name().toLowerCase(Locale.ROOT) + " " + kind, count, Long::sum));
+        }
+        if (stats.size() > 1) {
+            appendRows(report, "all", allResponseTimes, allServiceTimes, allErrors, recordedSeconds);
+        }
+        report.append("Response time is measured from the intended send time and corrected for coordinated omission, service time from the actual send time.\n");
+        allErrors.forEach((kind, count) -> report.append("Errors: ").append(kind).append(" x").append(count).append('\n'));
+        return report.toString();
+    }
+
+    private static void appendRows(StringBuilder report, String name, Histogram responseTimes, Histogram serviceTimes, Map<String, Long> errors, double recordedSeconds) {
+        long errorCount = errors.values().stream().mapToLong(Long::longValue).sum();
+        long requests = responseTimes.getTotalCount() + errorCount;
+        report.append(String.format(Locale.ROOT, "%-11s %-9s %9d %7d %12.1f%s%n", name, "response", requests, errorCount,
+                responseTimes.getTotalCount() / recordedSeconds, percentiles(responseTimes)));
+        report.append(String.format(Locale.ROOT, "%-11s %-9s %9s %7s %12s%s%n", "", "service", "", "", "", percentiles(serviceTimes)));
+    }
+
+    private static String percentiles(Histogram histogram) {
+        StringBuilder values = new StringBuilder();
+        for (double percentile : PERCENTILES) {
+            values.append(String.format(Locale.ROOT, " %9s", millis(histogram.getValueAtPercentile(percentile))));
+        }
+        return values.append(String.format(Locale.ROOT, " %9s", millis(histogram.getMaxValue()))).toString();
+    }
+
+    private static String millis(long micros) {
+        return String.format(Locale.ROOT, "%.1f", micros / 1000.0);
+    }
+
+    private static class OperationStats {
+        final Recorder responseTimes = new Recorder(SIGNIFICANT_DIGITS);
+        final Recorder serviceTimes = new Recorder(SIGNIFICANT_DIGITS);
+        final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+
+        // Guarded by the LatencyRecorder
+        final Histogram totalResponseTimes = new Histogram(SIGNIFICANT_DIGITS);
+        final Histogram totalServiceTimes = new Histogram(SIGNIFICANT_DIGITS);
+        private Histogram recycledResponseTimes;
+        private Histogram recycledServiceTimes;
+
+        // Adds the values recorded since the last call to the totals and returns the response times among them
+        Histogram collect() {
+            recycledResponseTimes = responseTimes.getIntervalHistogram(recycledResponseTimes);
+            recycledServiceTimes = serviceTimes.getIntervalHistogram(recycledServiceTimes);
+            totalResponseTimes.add(recycledResponseTimes);
+            totalServiceTimes.add(recycledServiceTimes);
+            return recycledResponseTimes;
+        }
+
+        Map<String, Long> getErrors() {
+            Map<String, Long> counts = new TreeMap<>();
+            errors.forEach((kind, count) -> counts.put(kind, count.sum()));
+            return counts;
+        }
+    }
+}
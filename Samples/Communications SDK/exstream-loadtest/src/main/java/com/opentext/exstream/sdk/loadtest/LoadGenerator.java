@@ -0,0 +1,197 @@
+/*
+ * Copyright 2023 Open Text Corporation, All Rights Reserved.
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.opentext.exstream.sdk.loadtest;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Runs the workload of the {@link LoadTestSettings} and records it.<br>
+ * In the open model a scheduler hands the requests to the workers at their intended send times, and requests queue
+ * while every worker is busy. In the closed model each worker sends its requests one after the other, following its
+ * share of the rate if one is set. Either way every request has an intended send time that doesn't move when earlier
+ * requests are slow, which is what the response times are measured from.
+ */
+@Component
+public class LoadGenerator {
+    private static final Logger logger = LoggerFactory.getLogger(LoadGenerator.class);
+
+    @Autowired
+    LoadTestSettings settings;
+
+    @Autowired
+    WorkloadClient client;
+
+    /**
+     * Run the warmup and the recorded part of the workload, then wait for the requests still in progress
+     * @return The report of the recorded part
+     */
+    public String run() throws InterruptedException {
+        long startNanos = System.nanoTime();
+        long recordFromNanos = startNanos + TimeUnit.SECONDS.toNanos(settings.getWarmupSeconds());
+        long endNanos = recordFromNanos + TimeUnit.SECONDS.toNanos(settings.getDurationSeconds());
+        LatencyRecorder<LoadOperation> recorder = new LatencyRecorder<>(LoadOperation.class, settings.getWeights().keySet(), recordFromNanos, endNanos);
+
+        ScheduledExecutorService reporter = startReporter(recorder, recordFromNanos, settings.getReportIntervalSeconds());
+        System.out.println("Warming up for " + settings.getWarmupSeconds() + "s, then recording for " + settings.getDurationSeconds() + "s");
+        ThreadPoolExecutor workers = newWorkers(settings.getConcurrency());
+        try {
+            if (settings.getWorkloadModel() == WorkloadModel.OPEN) {
+                runOpen(workers, recorder, startNanos, endNanos);
+            } else {
+                runClosed(workers, recorder, startNanos, endNanos);
+            }
+            for (Runnable notStarted : drain(workers, endNanos, settings.getDrainSeconds())) {
+                if (notStarted instanceof Request) {
+                    Request request = (Request) notStarted;
+                    recorder.recordError(request.operation, request.intendedStartNanos, "NotSent");
+                }
+            }
+        } finally {
+            reporter.shutdownNow();
+            workers.shutdownNow();
+        }
+        return recorder.report(settings.describe(), settings.getDurationSeconds());
+    }
+
+    // Hand a request to the workers at each intended send time
+    private void runOpen(ThreadPoolExecutor workers, LatencyRecorder<LoadOperation> recorder, long startNanos, long endNanos) {
+        double intervalNanos = 1e9 / settings.getRatePerSecond();
+        for (long i = 0; ; i++) {
+            long intendedStartNanos = startNanos + (long) (i * intervalNanos);
+            if (intendedStartNanos - endNanos >= 0) {
+                return;
+            }
+            if (!sleepUntil(intendedStartNanos)) {
+                return;
+            }
+            workers.execute(new Request(settings.pickOperation(), intendedStartNanos, recorder));
+        }
+    }
+
+    // Each worker sends its next request when the previous one completes, or at its next intended send time if paced
+    private void runClosed(ThreadPoolExecutor workers, LatencyRecorder<LoadOperation> recorder, long startNanos, long endNanos) {
+        int concurrency = settings.getConcurrency();
+        double workerIntervalNanos = settings.getRatePerSecond() > 0 ? 1e9 * concurrency / settings.getRatePerSecond() : 0;
+        for (int worker = 0; worker < concurrency; worker++) {
+            // Spread the paced workers over the interval so that they don't all send at once
+            long firstStartNanos = startNanos + (long) (worker * workerIntervalNanos / concurrency);
+            workers.execute(() -> {
+                for (long i = 0; ; i++) {
+                    long intendedStartNanos = workerIntervalNanos > 0 ? firstStartNanos + (long) (i * workerIntervalNanos) : System.nanoTime();
+                    if (intendedStartNanos - endNanos >= 0 || !sleepUntil(intendedStartNanos)) {
+                        return;
+                    }
+                    new Request(settings.pickOperation(), intendedStartNanos, recorder).run();
+                }
+            });
+        }
+    }
+
+    /**
+     * @return A pool of daemon threads that send the requests, with a queue for requests that wait for a thread
+     */
+    static ThreadPoolExecutor newWorkers(int concurrency) {
+        return new ThreadPoolExecutor(concurrency, concurrency, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), threadFactory("loadtest-worker"));
+    }
+
+    /**
+     * Print a progress line at every interval after recording starts
+     * @return The executor printing the lines, to be shut down at the end
+     */
+    static ScheduledExecutorService startReporter(LatencyRecorder<?> recorder, long recordFromNanos, int intervalSeconds) {
+        ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor(threadFactory("loadtest-reporter"));
+        if (intervalSeconds > 0) {
+            long firstReportNanos = recordFromNanos - System.nanoTime() + TimeUnit.SECONDS.toNanos(intervalSeconds);
+            reporter.scheduleAtFixedRate(() -> System.out.println(recorder.collectInterval((System.nanoTime() - recordFromNanos) / 1e9, intervalSeconds)),
+                    firstReportNanos, TimeUnit.SECONDS.toNanos(intervalSeconds), TimeUnit.NANOSECONDS);
+        }
+        return reporter;
+    }
+
+    /**
+     * Give the requests in progress after the end time drainSeconds to complete
+     * @return The requests that were never started
+     */
+    static List<Runnable> drain(ThreadPoolExecutor workers, long endNanos, int drainSeconds) throws InterruptedException {
+        workers.shutdown();
+        long drainNanos = endNanos - System.nanoTime() + TimeUnit.SECONDS.toNanos(drainSeconds);
+        if (workers.awaitTermination(drainNanos, TimeUnit.NANOSECONDS)) {
+            return List.of();
+        }
+        List<Runnable> notStarted = workers.shutdownNow();
+        logger.warn("{} requests were still queued and {} in progress after draining", notStarted.size(), workers.getActiveCount());
+        return notStarted;
+    }
+
+    /**
+     * Sleep until a time of {@link System#nanoTime()}
+     * @return False if the thread was interrupted
+     */
+    static boolean sleepUntil(long nanos) {
+        long remaining;
+        while ((remaining = nanos - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+            if (Thread.currentThread().isInterrupted()) {
+                return false;
+            }
+        }
+        return !Thread.currentThread().isInterrupted();
+    }
+
+    private static ThreadFactory threadFactory(String name) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private class Request implements Runnable {
+        private final LoadOperation operation;
+        private final long intendedStartNanos;
+        private final LatencyRecorder<LoadOperation> recorder;
+
+        Request(LoadOperation operation, long intendedStartNanos, LatencyRecorder<LoadOperation> recorder) {
+            this.operation = operation;
+            this.intendedStartNanos = intendedStartNanos;
+            this.recorder = recorder;
+        }
+
+        @Override
+        public void run() {
+            long startNanos = System.nanoTime();
+            try {
+                client.execute(operation);
+                recorder.recordSuccess(operation, intendedStartNanos, startNanos, System.nanoTime());
+            } catch (RuntimeException e) {
+                recorder.recordError(operation, intendedStartNanos, LatencyRecorder.errorKind(e));
+            }
+        }
+    }
+}
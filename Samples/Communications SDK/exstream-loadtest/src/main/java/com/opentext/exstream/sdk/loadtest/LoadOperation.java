@@ -0,0 +1,31 @@
+/*
+ * Copyright 2023 Open Text Corporation, All Rights Reserved.
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.opentext.exstream.sdk.loadtest;
+
+/**
+ * The requests a load test sends, each through the SDK method an application would call
+ */
+public enum LoadOperation {
+    // Generate the communication and receive the PDF
+    PDF,
+    // Generate the communication and receive the full response with the base64 content
+    FULL,
+    // List the latest approved communication sets of the domain
+    RESOURCES,
+    // Find the applications that include the communication
+    LINKS,
+    // Look up the driver data source of the communication
+    DATASOURCE
+}
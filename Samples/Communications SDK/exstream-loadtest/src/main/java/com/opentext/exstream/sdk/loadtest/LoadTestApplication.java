@@ -0,0 +1,53 @@
+/*
+ * Copyright 2023 Open Text Corporation, All Rights Reserved.
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.opentext.exstream.sdk.loadtest;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+import java.io.IOException;
+
+/**
+ * Load test of the SDK against the services configured in the otds and exstream URLs, usually the simulator. Sends
+ * the workload of the {@link LoadTestSettings} through {@link com.opentext.exstream.sdk.exstreamApi.service.OrchestrationService}
+ * and {@link com.opentext.exstream.sdk.exstreamApi.service.DasService}, prints the throughput, errors and latency
+ * percentiles, and exits. With loadtest.replay.file set, replays a captured traffic journal with the
+ * {@link TrafficReplayer} instead.
+ */
+@SpringBootApplication(
+        scanBasePackages = {"com.opentext.exstream.sdk" }
+)
+public class LoadTestApplication implements ApplicationRunner {
+    @Autowired
+    LoadTestSettings settings;
+
+    @Autowired
+    LoadGenerator loadGenerator;
+
+    @Autowired
+    TrafficReplayer trafficReplayer;
+
+    public static void main(String[] args) {
+        System.exit(SpringApplication.exit(SpringApplication.run(LoadTestApplication.class, args)));
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws IOException, InterruptedException {
+        System.out.println(settings.isReplay() ? trafficReplayer.run() : loadGenerator.run());
+    }
+}
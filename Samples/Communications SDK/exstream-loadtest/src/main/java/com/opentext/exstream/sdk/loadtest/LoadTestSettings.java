@@ -0,0 +1,250 @@
+/*
+ * Copyright 2023 Open Text Corporation, All Rights Reserved.
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.opentext.exstream.sdk.loadtest;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The workload of a load test. Reads the following environmental properties:<br>
+ * loadtest.model: open or closed, see {@link WorkloadModel}.<br>
+ * loadtest.ratePerSecond: Requests sent per second. In the closed model 0 lets each worker send its next request as
+ * soon as the previous one completes, and a rate paces the workers so that together they send that many.<br>
+ * loadtest.concurrency: Number of workers, and so the most requests in progress at once. In the open model requests
+ * that arrive while every worker is busy wait for one, and the wait counts in their response time.<br>
+ * loadtest.warmupSeconds: Time the workload runs before it is recorded.<br>
+ * loadtest.durationSeconds: Time the workload is recorded.<br>
+ * loadtest.drainSeconds: Time the requests still in progress at the end are given to complete.<br>
+ * loadtest.reportIntervalSeconds: Interval between progress lines. 0 prints none.<br>
+ * loadtest.mix: Comma separated weights of the {@link LoadOperation}s, for example pdf=8,resources=2<br>
+ * loadtest.domain: The domain of the communication.<br>
+ * loadtest.communicationId: The communication that is generated, and whose links and data source are looked up.<br>
+ * loadtest.driverData: The driver data sent with every generate request.<br>
+ * loadtest.driverContentType: The content type of the driver data.<br>
+ * loadtest.replay.file: A traffic journal to replay instead of the workload, see {@link TrafficReplayer}. Empty runs the
+ * workload.<br>
+ * loadtest.replay.speed: How much faster than captured the journal is replayed, for example 2 for twice the rate.<br>
+ * loadtest.replay.drivers: Comma separated communicationId=driver entries. Generate requests of these communications
+ * whose body wasn't captured are sent with that driver data, for example
+ * 9e49a94b-8860-4318-a2a0-15ae506e328b=classpath:samples/claimAcknowledgementDriverDataForPdfOutput.json<br>
+ * loadtest.replay.sizedBodies: Set to true to send other requests whose body wasn't captured with a body of the same
+ * size made of spaces. The backend rejects such bodies, so the replay refuses to start without this.<br>
+ */
+@Component
+public class LoadTestSettings {
+    private static final Logger logger = LoggerFactory.getLogger(LoadTestSettings.class);
+
+    @Value("${loadtest.model:open}")
+    private String model;
+
+    @Value("${loadtest.ratePerSecond:50}")
+    private double ratePerSecond;
+
+    @Value("${loadtest.concurrency:32}")
+    private int concurrency;
+
+    @Value("${loadtest.warmupSeconds:10}")
+    private int warmupSeconds;
+
+    @Value("${loadtest.durationSeconds:60}")
+    private int durationSeconds;
+
+    @Value("${loadtest.drainSeconds:30}")
+    private int drainSeconds;
+
+    @Value("${loadtest.reportIntervalSeconds:10}")
+    private int reportIntervalSeconds;
+
+    @Value("${loadtest.mix:pdf=1}")
+    private String mix;
+
+    @Value("${loadtest.domain:Testdomain}")
+    private String domain;
+
+    @Value("${loadtest.communicationId}")
+    private String communicationId;
+
+    @Value("${loadtest.driverData}")
+    private Resource driverData;
+
+    @Value("${loadtest.driverContentType:application/json}")
+    private String driverContentType;
+
+    @Value("${loadtest.replay.file:}")
+    private String replayFile;
+
+    @Value("${loadtest.replay.speed:1.0}")
+    private double replaySpeed;
+
+    @Value("${loadtest.replay.drivers:}")
+    private String replayDrivers;
+
+    @Value("${loadtest.replay.sizedBodies:false}")
+    private boolean replaySizedBodies;
+
+    @Autowired
+    ResourceLoader resourceLoader;
+
+    private WorkloadModel workloadModel;
+    private final Map<LoadOperation, Integer> weights = new EnumMap<>(LoadOperation.class);
+    private int totalWeight;
+    private final Map<String, Resource> replayDriversByCommunication = new LinkedHashMap<>();
+
+    @PostConstruct
+    private void logConfig() {
+        workloadModel = WorkloadModel.valueOf(model.trim().toUpperCase(Locale.ROOT));
+        for (String entry : mix.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            String[] keyAndValue = entry.split("=", 2);
+            if (keyAndValue.length != 2) {
+                throw new IllegalArgumentException("Invalid operation weight: " + entry);
+            }
+            int weight = Integer.parseInt(keyAndValue[1].trim());
+            if (weight > 0) {
+                weights.put(LoadOperation.valueOf(keyAndValue[0].trim().toUpperCase(Locale.ROOT)), weight);
+                totalWeight += weight;
+            }
+        }
+        for (String entry : replayDrivers.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            String[] keyAndValue = entry.split("=", 2);
+            if (keyAndValue.length != 2) {
+                throw new IllegalArgumentException("Invalid replay driver: " + entry);
+            }
+            replayDriversByCommunication.put(keyAndValue[0].trim(), resourceLoader.getResource(keyAndValue[1].trim()));
+        }
+        if (totalWeight == 0 || concurrency < 1 || durationSeconds < 1 || ratePerSecond < 0 || replaySpeed <= 0
+                || (workloadModel == WorkloadModel.OPEN && ratePerSecond == 0)) {
+            throw new IllegalArgumentException("Invalid load test settings");
+        }
+
+        logger.info("model={} ratePerSecond={} concurrency={}", workloadModel, ratePerSecond, concurrency);
+        logger.info("warmupSeconds={} durationSeconds={} drainSeconds={} reportIntervalSeconds={}", warmupSeconds, durationSeconds, drainSeconds, reportIntervalSeconds);
+        logger.info("mix={} domain={} communicationId={}", weights, domain, communicationId);
+        logger.info("driverData={} driverContentType={}", driverData, driverContentType);
+        logger.info("replay.file={} replay.speed={} replay.drivers={} replay.sizedBodies={}", replayFile, replaySpeed, replayDriversByCommunication.keySet(), replaySizedBodies);
+    }
+
+    /**
+     * @return A random operation, chosen according to the weights of the mix
+     */
+    public LoadOperation pickOperation() {
+        int value = ThreadLocalRandom.current().nextInt(totalWeight);
+        for (Map.Entry<LoadOperation, Integer> weight : weights.entrySet()) {
+            value -= weight.getValue();
+            if (value < 0) {
+                return weight.getKey();
+            }
+        }
+        throw new IllegalStateException("Weights changed while picking an operation");
+    }
+
+    public Map<LoadOperation, Integer> getWeights() {
+        return weights;
+    }
+
+    public WorkloadModel getWorkloadModel() {
+        return workloadModel;
+    }
+
+    public double getRatePerSecond() {
+        return ratePerSecond;
+    }
+
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    public int getWarmupSeconds() {
+        return warmupSeconds;
+    }
+
+    public int getDurationSeconds() {
+        return durationSeconds;
+    }
+
+    public int getDrainSeconds() {
+        return drainSeconds;
+    }
+
+    public int getReportIntervalSeconds() {
+        return reportIntervalSeconds;
+    }
+
+    public String getDomain() {
+        return domain;
+    }
+
+    public String getCommunicationId() {
+        return communicationId;
+    }
+
+    public Resource getDriverData() {
+        return driverData;
+    }
+
+    public MediaType getDriverContentType() {
+        return MediaType.parseMediaType(driverContentType);
+    }
+
+    public boolean isReplay() {
+        return !replayFile.isBlank();
+    }
+
+    public String getReplayFile() {
+        return replayFile;
+    }
+
+    public double getReplaySpeed() {
+        return replaySpeed;
+    }
+
+    /**
+     * @return The driver data sent with replayed generate requests whose body wasn't captured, by communication id
+     */
+    public Map<String, Resource> getReplayDrivers() {
+        return replayDriversByCommunication;
+    }
+
+    public boolean isReplaySizedBodies() {
+        return replaySizedBodies;
+    }
+
+    /**
+     * @return A one line description of the workload, for the report
+     */
+    public String describe() {
+        String rate = ratePerSecond > 0 ? String.format(Locale.ROOT, "%.1f requests/s", ratePerSecond) : "no pacing";
+        return String.format(Locale.ROOT, "%s model, %s, %d workers, mix %s, recorded for %ds after a %ds warmup",
+                workloadModel.name().toLowerCase(Locale.ROOT), rate, concurrency, weights, durationSeconds, warmupSeconds);
+    }
+}
@@ -0,0 +1,284 @@
+/*
+ * Copyright 2023 Open Text Corporation, All Rights Reserved.
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.opentext.exstream.sdk.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.opentext.exstream.sdk.exstreamApi.capture.CapturedExchange;
+import com.opentext.exstream.sdk.exstreamApi.capture.TrafficJournal;
+import com.opentext.exstream.sdk.exstreamApi.model.enumeration.ExstreamBackend;
+import com.opentext.exstream.sdk.exstreamApi.model.enumeration.ExstreamOperation;
+import com.opentext.exstream.sdk.exstreamApi.service.OrchestrationService;
+import com.opentext.exstream.sdk.exstreamApi.service.OtdsService;
+import com.opentext.exstream.sdk.exstreamApi.spring.ExstreamRestTemplateConfigurer;
+import com.opentext.exstream.sdk.exstreamApi.utils.ExstreamJson;
+import com.opentext.exstream.sdk.exstreamApi.utils.RestTemplateUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.RequestEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Replays a journal written by {@link TrafficJournal}, so that SDK versions or settings can be compared on the traffic
+ * of a real application.<br>
+ * Each request is sent at its captured offset from the first one, divided by loadtest.replay.speed, to the scheme, host
+ * and port of the configured URL of its service. It goes through a RestTemplate the SDK configured like the one of that
+ * service, so it passes the same connection pool, timeouts, resilience and metrics, and it carries a token the SDK
+ * fetched. Token requests are left out. Response bodies are read but not deserialized.<br>
+ * Journals captured without payloads have no request bodies. Generate requests of the communications in
+ * loadtest.replay.drivers are sent with that driver data. Other requests that had a body are only replayed with
+ * loadtest.replay.sizedBodies, as a body of the same size, since the backend rejects it and the replay would measure
+ * its error path.<br>
+ * The requests are recorded per {@link ExstreamOperation} like in the load test, from the time they should have been
+ * sent.
+ */
+@Component
+public class TrafficReplayer {
+    private static final Logger logger = LoggerFactory.getLogger(TrafficReplayer.class);
+
+    @Autowired
+    LoadTestSettings settings;
+
+    @Autowired
+    ExstreamRestTemplateConfigurer restTemplateConfigurer;
+
+    @Autowired
+    OtdsService otdsService;
+
+    @Value("${exstream.das.url:http://localhost/}")
+    private String dasUrl;
+
+    @Value("${exstream.orchestration.url:http://localhost/}")
+    private String orchestrationUrl;
+
+    @Value("${exstream.empower.url:http://localhost/}")
+    private String empowerUrl;
+
+    @Value("${ets.url.root.backend:http://localhost}")
+    private String etsUrl;
+
+    private final Map<ExstreamBackend, RestTemplate> restTemplates = new EnumMap<>(ExstreamBackend.class);
+    private final Map<ExstreamBackend, String> origins = new EnumMap<>(ExstreamBackend.class);
+    private final Map<String, byte[]> drivers = new HashMap<>();
+
+    /**
+     * Replay the journal and wait for the requests still in progress
+     * @return The report of the replay
+     */
+    public String run() throws IOException, InterruptedException {
+        List<CapturedExchange> exchanges = readJournal(Path.of(settings.getReplayFile()));
+        if (exchanges.isEmpty()) {
+            throw new IllegalArgumentException("There are no requests to replay in " + settings.getReplayFile());
+        }
+        for (Map.Entry<String, Resource> driver : settings.getReplayDrivers().entrySet()) {
+            drivers.put(driver.getKey(), StreamUtils.copyToByteArray(driver.getValue().getInputStream()));
+        }
+        Set<ExstreamOperation> operations = EnumSet.noneOf(ExstreamOperation.class);
+        long substitutedBodies = 0;
+        long sizedBodies = 0;
+        for (CapturedExchange exchange : exchanges) {
+            operations.add(exchange.operation);
+            restTemplates.computeIfAbsent(exchange.backend, this::buildRestTemplate);
+            if (exchange.requestBytes > 0 && exchange.requestBody == null) {
+                if (driverOf(exchange) != null) {
+                    substitutedBodies++;
+                } else {
+                    sizedBodies++;
+                }
+            }
+        }
+        if (sizedBodies > 0 && !settings.isReplaySizedBodies()) {
+            throw new IllegalArgumentException(sizedBodies + " requests in " + settings.getReplayFile() + " have no captured body. Capture with "
+                    + "exstream.capture.payloads=full, set loadtest.replay.drivers for their communications, or set "
+                    + "loadtest.replay.sizedBodies=true to send bodies of the same size that the backend will reject");
+        }
+        if (substitutedBodies > 0) {
+            logger.info("{} generate requests have no captured body and are sent with the driver data of loadtest.replay.drivers", substitutedBodies);
+        }
+        if (sizedBodies > 0) {
+            logger.warn("{} requests have no captured body and are sent with a body of the same size", sizedBodies);
+        }
+
+        double speed = settings.getReplaySpeed();
+        long firstTimestamp = exchanges.get(0).timestamp;
+        long replayNanos = (long) (TimeUnit.MILLISECONDS.toNanos(exchanges.get(exchanges.size() - 1).timestamp - firstTimestamp) / speed);
+        // Fetch the tokens before the replay starts, like the captured application had them
+        otdsService.getToken();
+        otdsService.getServiceClientToken();
+
+        long startNanos = System.nanoTime();
+        long endNanos = startNanos + replayNanos + 1;
+        LatencyRecorder<ExstreamOperation> recorder = new LatencyRecorder<>(ExstreamOperation.class, operations, startNanos, endNanos);
+        ScheduledExecutorService reporter = LoadGenerator.startReporter(recorder, startNanos, settings.getReportIntervalSeconds());
+        System.out.println("Replaying " + exchanges.size() + " requests over " + TimeUnit.NANOSECONDS.toSeconds(replayNanos) + "s");
+        ThreadPoolExecutor workers = LoadGenerator.newWorkers(settings.getConcurrency());
+        try {
+            for (CapturedExchange exchange : exchanges) {
+                long intendedStartNanos = startNanos + (long) (TimeUnit.MILLISECONDS.toNanos(exchange.timestamp - firstTimestamp) / speed);
+                if (!LoadGenerator.sleepUntil(intendedStartNanos)) {
+                    break;
+                }
+                workers.execute(new ReplayedRequest(exchange, intendedStartNanos, recorder));
+            }
+            for (Runnable notStarted : LoadGenerator.drain(workers, endNanos, settings.getDrainSeconds())) {
+                if (notStarted instanceof ReplayedRequest) {
+                    ReplayedRequest request = (ReplayedRequest) notStarted;
+                    recorder.recordError(request.exchange.operation, request.intendedStartNanos, "NotSent");
+                }
+            }
+        } finally {
+            reporter.shutdownNow();
+            workers.shutdownNow();
+        }
+
+        String description = String.format(Locale.ROOT, "replay of %d requests from %s at %.2fx the captured rate, %d workers",
+                exchanges.size(), settings.getReplayFile(), speed, settings.getConcurrency());
+        return recorder.report(description, Math.max(replayNanos, TimeUnit.MILLISECONDS.toNanos(1)) / 1e9);
+    }
+
+    // The requests of the journal in the order they were sent, without the token requests
+    private static List<CapturedExchange> readJournal(Path journal) throws IOException {
+        ObjectReader reader = ExstreamJson.readerFor(CapturedExchange.class);
+        List<CapturedExchange> exchanges = new ArrayList<>();
+        try (BufferedReader in = Files.newBufferedReader(journal, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                CapturedExchange exchange = reader.readValue(line);
+                if (exchange.operation != ExstreamOperation.TOKEN && exchange.backend != ExstreamBackend.OTDS) {
+                    exchanges.add(exchange);
+                }
+            }
+        }
+        // Requests are written when they complete, not when they were sent
+        exchanges.sort(Comparator.comparingLong(exchange -> exchange.timestamp));
+        return exchanges;
+    }
+
+    // The driver data to send with a generate request whose body wasn't captured, or null if there is none
+    private byte[] driverOf(CapturedExchange exchange) {
+        if (exchange.operation != ExstreamOperation.GENERATE || exchange.headers == null) {
+            return null;
+        }
+        for (Map.Entry<String, String> header : exchange.headers.entrySet()) {
+            if (header.getKey().equalsIgnoreCase(OrchestrationService.COMMUNICATION_ID_HEADER)) {
+                return drivers.get(header.getValue());
+            }
+        }
+        return null;
+    }
+
+    private RestTemplate buildRestTemplate(ExstreamBackend backend) {
+        URI url = URI.create(urlOf(backend));
+        origins.put(backend, UriComponentsBuilder.newInstance().scheme(url.getScheme()).host(url.getHost()).port(url.getPort()).toUriString());
+        RestTemplate restTemplate = RestTemplateUtils.buildRestTemplateWithLoggingAndErrorHandler();
+        restTemplateConfigurer.configure(restTemplate, backend);
+        return restTemplate;
+    }
+
+    private String urlOf(ExstreamBackend backend) {
+        switch (backend) {
+            case DAS:
+                return dasUrl;
+            case ORCHESTRATION:
+                return orchestrationUrl;
+            case EMPOWER:
+                return empowerUrl;
+            case ETS:
+                return etsUrl;
+            default:
+                throw new IllegalArgumentException("Requests to " + backend + " can't be replayed");
+        }
+    }
+
+    private class ReplayedRequest implements Runnable {
+        private final CapturedExchange exchange;
+        private final long intendedStartNanos;
+        private final LatencyRecorder<ExstreamOperation> recorder;
+
+        ReplayedRequest(CapturedExchange exchange, long intendedStartNanos, LatencyRecorder<ExstreamOperation> recorder) {
+            this.exchange = exchange;
+            this.intendedStartNanos = intendedStartNanos;
+            this.recorder = recorder;
+        }
+
+        @Override
+        public void run() {
+            long startNanos = System.nanoTime();
+            try {
+                HttpHeaders headers = new HttpHeaders();
+                if (exchange.headers != null) {
+                    exchange.headers.forEach(headers::set);
+                }
+                // Output requests are sent with the service client token, like the SDK does
+                boolean output = exchange.operation == ExstreamOperation.GENERATE || exchange.operation == ExstreamOperation.FULFILL;
+                headers.setBearerAuth(output ? otdsService.getServiceClientToken() : otdsService.getToken());
+
+                RequestEntity<byte[]> request = new RequestEntity<>(body(), headers, HttpMethod.resolve(exchange.method),
+                        URI.create(origins.get(exchange.backend) + exchange.uri));
+                restTemplates.get(exchange.backend).exchange(request, byte[].class);
+                recorder.recordSuccess(exchange.operation, intendedStartNanos, startNanos, System.nanoTime());
+            } catch (RuntimeException e) {
+                recorder.recordError(exchange.operation, intendedStartNanos, LatencyRecorder.errorKind(e));
+            }
+        }
+
+        private byte[] body() {
+            if (exchange.requestBody != null) {
+                return Base64.getDecoder().decode(exchange.requestBody);
+            }
+            if (exchange.requestBytes == 0) {
+                return null;
+            }
+            byte[] driver = driverOf(exchange);
+            if (driver != null) {
+                return driver;
+            }
+            byte[] body = new byte[(int) exchange.requestBytes];
+            Arrays.fill(body, (byte) ' ');
+            return body;
+        }
+    }
+}
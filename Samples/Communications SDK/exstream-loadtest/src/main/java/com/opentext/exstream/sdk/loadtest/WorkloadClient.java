@@ -0,0 +1,91 @@
+/*
+ * Copyright 2023 Open Text Corporation, All Rights Reserved.
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.opentext.exstream.sdk.loadtest;
+
+import com.opentext.exstream.sdk.exstreamApi.model.dto.ResourceFilter;
+import com.opentext.exstream.sdk.exstreamApi.model.enumeration.ResourceType;
+import com.opentext.exstream.sdk.exstreamApi.model.enumeration.WorkflowState;
+import com.opentext.exstream.sdk.exstreamApi.service.DasService;
+import com.opentext.exstream.sdk.exstreamApi.service.OrchestrationService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Sends the request of a {@link LoadOperation} through {@link OrchestrationService} or {@link DasService}
+ */
+@Component
+public class WorkloadClient {
+    @Autowired
+    LoadTestSettings settings;
+
+    @Autowired
+    OrchestrationService orchestrationService;
+
+    @Autowired
+    DasService dasService;
+
+    // Read once, so that the load test doesn't measure reading the file
+    private byte[] driverData;
+    private MediaType driverContentType;
+
+    private final ResourceFilter communicationSetFilter = new ResourceFilter()
+            .setLatestVersion(true)
+            .addType(ResourceType.exstrcommunicationset)
+            .addState(WorkflowState.APPROVED);
+    private final ResourceFilter applicationFilter = new ResourceFilter()
+            .addRfilterType(ResourceType.exstrapplication);
+
+    @PostConstruct
+    private void readDriverData() throws IOException {
+        try (InputStream in = settings.getDriverData().getInputStream()) {
+            driverData = StreamUtils.copyToByteArray(in);
+        }
+        driverContentType = settings.getDriverContentType();
+    }
+
+    /**
+     * Send one request and wait for its response
+     * @param operation The request to send
+     */
+    public void execute(LoadOperation operation) {
+        String domain = settings.getDomain();
+        String communicationId = settings.getCommunicationId();
+        switch (operation) {
+            case PDF:
+                orchestrationService.generateCommunicationWithContentResponse(domain, communicationId, driverData, driverContentType, MediaType.APPLICATION_PDF);
+                break;
+            case FULL:
+                orchestrationService.generateCommunicationWithFullResponse(domain, communicationId, driverData, driverContentType);
+                break;
+            case RESOURCES:
+                dasService.listResources(domain, communicationSetFilter);
+                break;
+            case LINKS:
+                dasService.recursiveListLinks(domain, communicationId, 2, applicationFilter);
+                break;
+            case DATASOURCE:
+                dasService.getDriverDataSourceForCommunication(domain, communicationId);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown operation " + operation);
+        }
+    }
+}
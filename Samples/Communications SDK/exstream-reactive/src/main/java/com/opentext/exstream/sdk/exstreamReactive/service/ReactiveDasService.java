@@ -0,0 +1,335 @@
+/*
+ * Copyright 2023 Open Text Corporation, All Rights Reserved.
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.opentext.exstream.sdk.exstreamReactive.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.opentext.exstream.sdk.exstreamApi.model.dto.*;
+import com.opentext.exstream.sdk.exstreamApi.model.enumeration.ImportPackageTypes;
+import com.opentext.exstream.sdk.exstreamApi.model.enumeration.ImportReplacementPolicy;
+import com.opentext.exstream.sdk.exstreamApi.model.enumeration.ResourceType;
+import com.opentext.exstream.sdk.exstreamApi.model.enumeration.WorkflowState;
+import com.opentext.exstream.sdk.exstreamApi.model.request.WorkflowRequestBody;
+import com.opentext.exstream.sdk.exstreamApi.model.response.ExstreamDataResponse;
+import com.opentext.exstream.sdk.exstreamApi.model.response.ExstreamPageResponse;
+import com.opentext.exstream.sdk.exstreamApi.model.response.ImportResponse;
+import com.opentext.exstream.sdk.exstreamApi.service.DasUriBuilder;
+import com.opentext.exstream.sdk.exstreamApi.utils.ExstreamJson;
+import com.opentext.exstream.sdk.exstreamReactive.utils.WebClientUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.MultipartBodyBuilder;
+import org.springframework.http.client.reactive.ClientHttpRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.BodyInserter;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Non-blocking service layer for making API calls to an Exstream Design and Administration Service (DAS) instance.<br>
+ * Nothing is sent until the returned {@link Mono} or {@link Flux} is subscribed to. Paged endpoints are returned as a
+ * {@link Flux} that requests the next page only when the subscriber has consumed the current one.
+ * @see com.opentext.exstream.sdk.exstreamApi.service.DasService
+ */
+@Service
+public class ReactiveDasService {
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveDasService.class);
+    private static final int DEFAULT_PAGE_SIZE = 100;
+
+    @Autowired
+    ReactiveOtdsService otdsService;
+
+    @Autowired
+    DasUriBuilder uriBuilder;
+
+    WebClient webClient;
+
+    public ReactiveDasService() {
+        webClient = WebClientUtils.buildWebClientWithErrorHandler();
+    }
+
+    /**
+     * Stream all resources from DAS, fetching them in pages of 100
+     * @param domain The domain to get resources from
+     * @param resourceFilter {@link ResourceFilter} to apply to the request
+     * @return {@link Flux} of {@link DasResourceVersion} objects representing each resource
+     */
+    public Flux<DasResourceVersion> listResources(String domain, ResourceFilter resourceFilter) {
+        return listResources(domain, resourceFilter, DEFAULT_PAGE_SIZE);
+    }
+
+    /**
+     * Stream all resources from DAS. At most one page is fetched ahead of the subscriber.
+     * @param domain The domain to get resources from
+     * @param resourceFilter {@link ResourceFilter} to apply to the request
+     * @param pageSize The number of resources to request per page
+     * @return {@link Flux} of {@link DasResourceVersion} objects representing each resource
+     */
+    public Flux<DasResourceVersion> listResources(String domain, ResourceFilter resourceFilter, int pageSize) {
+        return listPages(pageInfo -> uriBuilder.buildResourcesUri(domain, resourceFilter, pageInfo), pageSize,
+                new ParameterizedTypeReference<>(){}, "Fetching resources from DAS: {}");
+    }
+
+    /**
+     * Get a list of domains from DAS
+     * @return {@link Flux} of {@link DasDomain} objects from DAS
+     */
+    public Flux<DasDomain> listDomains() {
+        final URI uri = uriBuilder.buildDomainsUri();
+        return this.<ExstreamPageResponse<DasDomain>>exchange(HttpMethod.GET, uri, null, new ParameterizedTypeReference<>(){}, "Fetching domains from DAS: {}")
+                .flatMapIterable(responseBody -> responseBody.data);
+    }
+
+    /**
+     * Imports an export file to DAS. The {@link ImportReplacementPolicy} ERROR is used by default.
+     * @param domain The domain to import into.
+     * @param exportPackageBody The export file that is being imported. The object should be a {@link org.springframework.core.io.Resource}, {@link java.io.File}, or byte array.
+     * @return {@link Mono} of the {@link ImportResponse} from DAS.
+     */
+    public Mono<ImportResponse> importPackage(String domain, Object exportPackageBody) {
+        return importPackage(domain, exportPackageBody, ImportPackageTypes.DAS, ImportReplacementPolicy.ERROR, true);
+    }
+
+    /**
+     * Imports an export file to DAS
+     * @param domain The domain to import into.
+     * @param exportPackageBody The export file that is being imported. The object should be a {@link org.springframework.core.io.Resource}, {@link java.io.File}, or byte array.
+     * @param packageType The package type being imported. See {@link ImportPackageTypes}.
+     * @param generalReplacementPolicy The replacement policy to use for conflicting resources. See {@link ImportReplacementPolicy}
+     * @param commit Flag to indicate whether to commit the import. Use false for a "dry run".
+     * @return {@link Mono} of the {@link ImportResponse} from DAS.
+     */
+    public Mono<ImportResponse> importPackage(String domain, Object exportPackageBody, ImportPackageTypes packageType, ImportReplacementPolicy generalReplacementPolicy, boolean commit) {
+        // Add conflict settings file with the general replacement policy
+        ImportResponse conflictSettings = new ImportResponse();
+        conflictSettings.policies.generalPolicy = generalReplacementPolicy;
+        byte[] conflictSettingsBytes;
+        try {
+            conflictSettingsBytes = ExstreamJson.writerFor(ImportResponse.class).writeValueAsBytes(conflictSettings);
+        } catch (JsonProcessingException e) {
+            logger.error("Could not serialize conflict settings", e);
+            return Mono.error(e);
+        }
+
+        MultipartBodyBuilder body = new MultipartBodyBuilder();
+        body.part("exportPackage", WebClientUtils.toBodyValue(exportPackageBody));
+        // The conflict settings part needs a file name or it won't be recognized as a valid part of the request
+        body.part("conflictSettings", new ByteArrayResource(conflictSettingsBytes) {
+            @Override
+            public String getFilename() {
+                return "conflictSettings.json";
+            }
+        });
+
+        final URI uri = uriBuilder.buildImportPackageUri(domain, packageType, commit);
+        return this.<ExstreamDataResponse<ImportResponse>>exchange(HttpMethod.POST, uri, BodyInserters.fromMultipartData(body.build()), new ParameterizedTypeReference<>(){}, "Importing package to DAS: {}")
+                .map(responseBody -> responseBody.data);
+    }
+
+    /**
+     * Get the DAS service version information
+     * @return {@link Mono} of the {@link ServiceVersionInfo} from the DAS version response
+     */
+    public Mono<ServiceVersionInfo> getVersion() {
+        final URI uri = uriBuilder.buildVersionUri();
+        return this.<BackendServiceVersionInfo>exchange(HttpMethod.GET, uri, null, new ParameterizedTypeReference<>(){}, "Fetching version info from DAS: {}")
+                .cast(ServiceVersionInfo.class);
+    }
+
+    /**
+     * Move a resource to a new workflow state. See {@link com.opentext.exstream.sdk.exstreamApi.service.DasService#changeWorkflowState}
+     * for the valid state changes.
+     * @param domain The domain the resource is associated with
+     * @param resourceId The ID of the resource being modified
+     * @param targetState The desired state for the resource
+     * @param workflowComment An optional comment describing the workflow change
+     * @param shouldLockResource A flag that indicates whether to lock the resource while changing the state
+     * @return {@link Mono} of the {@link DasResourceVersion} of the resource after the workflow change is complete
+     */
+    public Mono<DasResourceVersion> changeWorkflowState(String domain, String resourceId, WorkflowState targetState, String workflowComment, boolean shouldLockResource) {
+        final URI uri = uriBuilder.buildResourcesWorkflowStateUri(domain, resourceId);
+        WorkflowRequestBody body = new WorkflowRequestBody(targetState, workflowComment, shouldLockResource);
+        return this.<ExstreamDataResponse<DasResourceVersion>>exchange(HttpMethod.PUT, uri, BodyInserters.fromValue(body), new ParameterizedTypeReference<>(){}, "Changing the workflow state of a resource: {}")
+                .map(responseBody -> responseBody.data);
+    }
+
+    /**
+     * Upload new content for a resource
+     * @param domain The domain the resource is associated with
+     * @param resourceId The ID of the resource being modified
+     * @param newContent The new content for the resource being updated
+     * @return {@link Mono} of the {@link DasResourceVersion} of the resource after the update
+     */
+    public Mono<DasResourceVersion> updateResourceContent(String domain, String resourceId, Object newContent) {
+        final URI uri = uriBuilder.buildResourcesContentUri(domain, resourceId);
+        MultipartBodyBuilder body = new MultipartBodyBuilder();
+        body.part("file", WebClientUtils.toBodyValue(newContent));
+        return this.<ExstreamDataResponse<DasResourceVersion>>exchange(HttpMethod.PUT, uri, BodyInserters.fromMultipartData(body.build()), new ParameterizedTypeReference<>(){}, "Uploading new content for a resource: {}")
+                .map(responseBody -> responseBody.data);
+    }
+
+    /**
+     * Create a new resource in DAS
+     * @param domain The domain the resource will be associated with. Required
+     * @param resourceName The name for the new resource. Required.
+     * @param resourceType The type of the new resource. Required.
+     * @param resourceSubtype The subtype of the new resource. Optional.
+     * @param resourceContent The new content for the resource being created. Optional.
+     * @return {@link Mono} of the {@link DasResourceVersion} of the resource that was created
+     */
+    public Mono<DasResourceVersion> createResource(String domain, String resourceName, ResourceType resourceType, String resourceSubtype, Object resourceContent) {
+        final URI uri = uriBuilder.buildResourcesContentUri(domain, resourceName, resourceType, resourceSubtype);
+        MultipartBodyBuilder body = new MultipartBodyBuilder();
+        body.part("file", WebClientUtils.toBodyValue(resourceContent));
+        return this.<ExstreamDataResponse<DasResourceVersion>>exchange(HttpMethod.POST, uri, BodyInserters.fromMultipartData(body.build()), new ParameterizedTypeReference<>(){}, "Creating new resource: {}")
+                .map(responseBody -> responseBody.data);
+    }
+
+    /**
+     * Get a list of links from DAS
+     * @param domain The domain to get links from
+     * @param linkSubjectId The link subject ID to query for
+     * @param linkDepth The maximum link depth for a recursive traversal of a link tree
+     * @param resourceFilter {@link ResourceFilter} to apply when querying links
+     * @return {@link Flux} of {@link DasLink} objects representing each link from the response
+     */
+    public Flux<DasLink> listLinks(String domain, String linkSubjectId, int linkDepth, ResourceFilter resourceFilter) {
+        return listLinks(domain, linkSubjectId, null, linkDepth, resourceFilter);
+    }
+
+    /**
+     * Get a list of links from DAS
+     * @param domain The domain to get links from
+     * @param linkSubjectId The link subject ID to query for
+     * @param linkSubjectVersion The version of the link subject. Null will query for the latest version.
+     * @param linkDepth The maximum link depth for a recursive traversal of a link tree
+     * @param resourceFilter {@link ResourceFilter} to apply when querying links
+     * @return {@link Flux} of {@link DasLink} objects representing each link from the response
+     */
+    public Flux<DasLink> listLinks(String domain, String linkSubjectId, Integer linkSubjectVersion, int linkDepth, ResourceFilter resourceFilter) {
+        final URI uri = uriBuilder.buildLinksUri(domain, linkSubjectId, linkSubjectVersion, linkDepth, resourceFilter);
+        return this.<ExstreamPageResponse<DasLink>>exchange(HttpMethod.GET, uri, null, new ParameterizedTypeReference<>(){}, "Querying links from DAS: {}")
+                .flatMapIterable(responseBody -> responseBody.data);
+    }
+
+    /**
+     * Stream the resources that link to an object, fetching them in pages of 100
+     * @param domain The domain to get links from
+     * @param linkObjectId The link object ID to query for
+     * @param linkDepth The maximum link depth for a recursive traversal of a link tree
+     * @param resourceFilter {@link ResourceFilter} to apply when querying links
+     * @return {@link Flux} of {@link DasResourceVersion} objects linking to the object
+     */
+    public Flux<DasResourceVersion> recursiveListLinks(String domain, String linkObjectId, int linkDepth, ResourceFilter resourceFilter) {
+        return recursiveListLinks(domain, linkObjectId, linkDepth, resourceFilter, DEFAULT_PAGE_SIZE);
+    }
+
+    /**
+     * Stream the resources that link to an object. At most one page is fetched ahead of the subscriber.
+     * @param domain The domain to get links from
+     * @param linkObjectId The link object ID to query for
+     * @param linkDepth The maximum link depth for a recursive traversal of a link tree
+     * @param resourceFilter {@link ResourceFilter} to apply when querying links
+     * @param pageSize The number of resources to request per page
+     * @return {@link Flux} of {@link DasResourceVersion} objects linking to the object
+     */
+    public Flux<DasResourceVersion> recursiveListLinks(String domain, String linkObjectId, int linkDepth, ResourceFilter resourceFilter, int pageSize) {
+        final URI baseUri = uriBuilder.buildRecursiveLinksUri(domain, linkObjectId, linkDepth, resourceFilter);
+        Function<PageInfo, URI> uriForPage = pageInfo -> UriComponentsBuilder.fromUri(baseUri)
+                .replaceQueryParam("count", pageInfo.getCount())
+                .replaceQueryParam("offset", pageInfo.getOffset())
+                .build(true)
+                .toUri();
+        return listPages(uriForPage, pageSize, new ParameterizedTypeReference<>(){}, "Querying recursive links from DAS: {}");
+    }
+
+    /**
+     * Get the manifest for a communication set in DAS
+     * @param domain The domain to get the manifest from
+     * @param communicationSetId The communication set ID to get the manifest for
+     * @return {@link Mono} of the {@link DasManifest} from the response
+     */
+    public Mono<DasManifest> getManifestForCommunicationSet(String domain, String communicationSetId) {
+        final URI uri = uriBuilder.buildManifestsForCommunicationSetsUri(domain, communicationSetId);
+        return exchange(HttpMethod.GET, uri, null, new ParameterizedTypeReference<>(){}, "Getting the manifest for a communication set from DAS: {}");
+    }
+
+    /**
+     * Stream every item of a paged endpoint. The next page is requested when the previous one has been emitted, and
+     * the stream ends after a short page or when the offset reaches the total number of elements.
+     */
+    private <T> Flux<T> listPages(Function<PageInfo, URI> uriForPage, int pageSize, ParameterizedTypeReference<ExstreamPageResponse<T>> responseType, String logMessage) {
+        if (pageSize < 1) {
+            return Flux.error(new IllegalArgumentException("pageSize must be positive: " + pageSize));
+        }
+        return fetchPage(uriForPage, new PageInfo().setCount(pageSize).setOffset(0), responseType, logMessage)
+                .expand(page -> page.next == null ? Mono.empty() : fetchPage(uriForPage, page.next, responseType, logMessage))
+                .concatMapIterable(page -> page.items, 1);
+    }
+
+    private <T> Mono<Page<T>> fetchPage(Function<PageInfo, URI> uriForPage, PageInfo pageInfo, ParameterizedTypeReference<ExstreamPageResponse<T>> responseType, String logMessage) {
+        return exchange(HttpMethod.GET, uriForPage.apply(pageInfo), null, responseType, logMessage)
+                .map(responseBody -> {
+                    Collection<T> items = responseBody.data == null ? List.of() : responseBody.data;
+                    int nextOffset = pageInfo.getOffset() + items.size();
+                    boolean lastPage = items.size() < pageInfo.getCount()
+                            || (responseBody.page != null && nextOffset >= responseBody.page.totalElements);
+                    return new Page<>(items, lastPage ? null : new PageInfo().setCount(pageInfo.getCount()).setOffset(nextOffset));
+                });
+    }
+
+    private <T> Mono<T> exchange(HttpMethod method, URI uri, BodyInserter<?, ? super ClientHttpRequest> body, ParameterizedTypeReference<T> responseType, String logMessage) {
+        return otdsService.getToken().flatMap(token -> {
+            WebClient.RequestBodySpec requestSpec = webClient.method(method).uri(uri).headers(headers -> headers.setBearerAuth(token));
+            WebClient.RequestHeadersSpec<?> request = body != null ? requestSpec.body(body) : requestSpec;
+
+            // Send the request
+            logger.info(logMessage, uri);
+            return request.retrieve().toEntity(responseType);
+        }).map(response -> {
+            // Log response code
+            logger.info("DAS response: {}", response.getStatusCode());
+
+            // Parse response
+            T responseBody = Objects.requireNonNull(response.getBody());
+            logger.debug("Response data:\n{}", responseBody);
+            return responseBody;
+        });
+    }
+
+    private static class Page<T> {
+        final Collection<T> items;
+        // Null on the last page
+        final PageInfo next;
+
+        Page(Collection<T> items, PageInfo next) {
+            this.items = items;
+            this.next = next;
+        }
+    }
+}
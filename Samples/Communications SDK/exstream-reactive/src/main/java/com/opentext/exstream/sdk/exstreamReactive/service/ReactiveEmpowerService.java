@@ -0,0 +1,77 @@
+/*
+ * Copyright 2023 Open Text Corporation, All Rights Reserved.
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.opentext.exstream.sdk.exstreamReactive.service;
+
+import com.opentext.exstream.sdk.exstreamApi.model.dto.EmpowerServiceVersionInfo;
+import com.opentext.exstream.sdk.exstreamApi.model.dto.ServiceVersionInfo;
+import com.opentext.exstream.sdk.exstreamApi.model.response.EmpowerResponse;
+import com.opentext.exstream.sdk.exstreamApi.service.EmpowerUriBuilder;
+import com.opentext.exstream.sdk.exstreamReactive.utils.WebClientUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.util.Objects;
+
+/**
+ * Non-blocking service layer for making API calls to an Exstream Empower instance.
+ * @see com.opentext.exstream.sdk.exstreamApi.service.EmpowerService
+ */
+@Service
+public class ReactiveEmpowerService {
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveEmpowerService.class);
+
+    @Autowired
+    ReactiveOtdsService otdsService;
+
+    @Autowired
+    EmpowerUriBuilder uriBuilder;
+
+    WebClient webClient;
+
+    public ReactiveEmpowerService() {
+        webClient = WebClientUtils.buildWebClientWithErrorHandler();
+    }
+
+    /**
+     * Get the Empower service version information
+     * @return {@link Mono} of the {@link ServiceVersionInfo} from the Empower version response
+     */
+    public Mono<ServiceVersionInfo> getVersion() {
+        final URI uri = uriBuilder.buildVersionUri();
+        return otdsService.getToken().flatMap(token -> {
+            // Send the request
+            logger.info("Fetching version info from Empower: {}", uri);
+            return webClient.get()
+                    .uri(uri)
+                    .headers(headers -> headers.setBearerAuth(token))
+                    .retrieve()
+                    .toEntity(new ParameterizedTypeReference<EmpowerResponse<EmpowerServiceVersionInfo>>(){});
+        }).map(response -> {
+            // Log response code
+            logger.info("Empower response: {}", response.getStatusCode());
+
+            // Parse response
+            EmpowerResponse<EmpowerServiceVersionInfo> responseBody = Objects.requireNonNull(response.getBody());
+            logger.debug("Response data:\n{}", responseBody);
+            return responseBody.body;
+        });
+    }
+}
@@ -0,0 +1,240 @@
+/*
+ * Copyright 2023 Open Text Corporation, All Rights Reserved.
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.opentext.exstream.sdk.exstreamReactive.service;
+
+import com.opentext.exstream.sdk.exstreamApi.model.dto.BackendServiceVersionInfo;
+import com.opentext.exstream.sdk.exstreamApi.model.dto.EmpowerOutputChannelContent;
+import com.opentext.exstream.sdk.exstreamApi.model.dto.OrchestrationResponseData;
+import com.opentext.exstream.sdk.exstreamApi.model.dto.ServiceVersionInfo;
+import com.opentext.exstream.sdk.exstreamApi.model.request.EmpowerFulfillmentRequestBody;
+import com.opentext.exstream.sdk.exstreamApi.model.response.OrchestrationDataListResponse;
+import com.opentext.exstream.sdk.exstreamApi.service.OrchestrationService;
+import com.opentext.exstream.sdk.exstreamApi.service.OrchestrationUriBuilder;
+import com.opentext.exstream.sdk.exstreamReactive.utils.WebClientUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Non-blocking service layer for making API calls to an Exstream Orchestration instance.<br>
+ * Nothing is sent until the returned {@link Mono} or {@link Flux} is subscribed to. Output content is streamed as
+ * {@link DataBuffer}s as it arrives, so it is never held in memory as a whole. The subscriber must release each buffer,
+ * for example with {@link org.springframework.core.io.buffer.DataBufferUtils#release}, or pass the stream to something
+ * that does, such as a WebFlux response or {@link org.springframework.core.io.buffer.DataBufferUtils#write}.
+ * @see OrchestrationService
+ */
+@Service
+public class ReactiveOrchestrationService {
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveOrchestrationService.class);
+
+    @Autowired
+    ReactiveOtdsService otdsService;
+
+    @Autowired
+    OrchestrationUriBuilder uriBuilder;
+
+    WebClient webClient;
+
+    public ReactiveOrchestrationService() {
+        webClient = WebClientUtils.buildWebClientWithErrorHandler();
+    }
+
+    /**
+     * Get the Orchestration service version information
+     * @return {@link Mono} of the {@link ServiceVersionInfo} from the Orchestration version response
+     */
+    public Mono<ServiceVersionInfo> getVersion() {
+        final URI uri = uriBuilder.buildVersionUri();
+        return otdsService.getToken().flatMap(token -> {
+            // Send the request
+            logger.info("Fetching version info from Orchestration: {}", uri);
+            return webClient.get()
+                    .uri(uri)
+                    .headers(headers -> headers.setBearerAuth(token))
+                    .retrieve()
+                    .toEntity(BackendServiceVersionInfo.class);
+        }).map(response -> {
+            // Log response code
+            logger.info("Orchestration response: {}", response.getStatusCode());
+
+            // Parse response
+            BackendServiceVersionInfo responseBody = Objects.requireNonNull(response.getBody());
+            logger.debug("Response data:\n{}", responseBody);
+            return responseBody;
+        });
+    }
+
+    /**
+     * Generate on-demand output and get the full response with all outputs
+     * @param domain             Domain id to access.
+     * @param communicationId    The id of the communication to generate output for.
+     * @param driverDataSource   The prodDsn value of the driver file associated with the communication (retrieve this value from the communication set associated with the communication).
+     * @param driverData         The driver file data that will be sent to the Exstream Orchestration service.
+     * @param requestContentType Content type of the driver data file.
+     * @return {@link Mono} of the {@link List}<{@link OrchestrationResponseData}> objects representing each output in the response.
+     */
+    public Mono<List<OrchestrationResponseData>> generateOnDemandOutputWithFullResponse(String domain, String communicationId, String driverDataSource, Object driverData, MediaType requestContentType) {
+        HttpHeaders headers = generateHeaders(communicationId, driverDataSource, null, requestContentType, null);
+        return postForObject(uriBuilder.buildOnDemandGenerateUri(domain), headers, driverData, OrchestrationDataListResponse.class)
+                .map(responseBody -> responseBody.data);
+    }
+
+    /**
+     * Generate on-demand output and stream the content of the output that matches the Accept type
+     * @param domain             Domain id to access.
+     * @param communicationId    The id of the communication to generate output for.
+     * @param driverDataSource   The prodDsn value of the driver file associated with the communication (retrieve this value from the communication set associated with the communication).
+     * @param driverData         The driver file data that will be sent to the Exstream Orchestration service.
+     * @param requestContentType Content type of the driver data file.
+     * @param acceptsMediaType   Content type to pass to the Accept header.
+     * @return {@link Flux} of {@link DataBuffer}s with the binary data of the output file. Each buffer must be released.
+     */
+    public Flux<DataBuffer> generateOnDemandOutputWithContentResponse(String domain, String communicationId, String driverDataSource, Object driverData, MediaType requestContentType, MediaType acceptsMediaType) {
+        HttpHeaders headers = generateHeaders(communicationId, driverDataSource, null, requestContentType, Objects.requireNonNull(acceptsMediaType));
+        return postForContent(uriBuilder.buildOnDemandGenerateUri(domain), headers, driverData);
+    }
+
+    /**
+     * Generate on-demand Empower output and get the full response with all outputs
+     * @param domain             Domain id to access.
+     * @param communicationId    The id of the communication to generate output for.
+     * @param driverDataSource   The prodDsn value of the driver file associated with the communication (retrieve this value from the communication set associated with the communication).
+     * @param empowerUser        The user that should be used to import documents into Empower
+     * @param driverData         The driver file data that will be sent to the Exstream Orchestration service.
+     * @param requestContentType Content type of the driver data file.
+     * @return {@link Mono} of the {@link List}<{@link OrchestrationResponseData}> objects representing each output in the response.
+     */
+    public Mono<List<OrchestrationResponseData>> generateOnDemandEmpowerOutputWithFullResponse(String domain, String communicationId, String driverDataSource, String empowerUser, Object driverData, MediaType requestContentType) {
+        HttpHeaders headers = generateHeaders(communicationId, driverDataSource, Objects.requireNonNull(empowerUser), requestContentType, null);
+        return postForObject(uriBuilder.buildOnDemandGenerateUri(domain), headers, driverData, OrchestrationDataListResponse.class)
+                .map(responseBody -> responseBody.data);
+    }
+
+    /**
+     * Generate on-demand Empower output and get only the Empower document id
+     * @param domain             Domain id to access.
+     * @param communicationId    The id of the communication to generate output for.
+     * @param driverDataSource   The prodDsn value of the driver file associated with the communication (retrieve this value from the communication set associated with the communication).
+     * @param empowerUser        The user that should be used to import documents into Empower
+     * @param driverData         The driver file data that will be sent to the Exstream Orchestration service.
+     * @param requestContentType Content type of the driver data file.
+     * @return {@link Mono} of the {@link EmpowerOutputChannelContent} containing the document id of the generated document
+     */
+    public Mono<EmpowerOutputChannelContent> generateOnDemandEmpowerOutputDocumentIdResponse(String domain, String communicationId, String driverDataSource, String empowerUser, Object driverData, MediaType requestContentType) {
+        HttpHeaders headers = generateHeaders(communicationId, driverDataSource, Objects.requireNonNull(empowerUser), requestContentType, MediaType.APPLICATION_JSON);
+        return postForObject(uriBuilder.buildOnDemandGenerateUri(domain), headers, driverData, EmpowerOutputChannelContent.class);
+    }
+
+    /**
+     * Fulfill an Empower document and get the full response with all outputs
+     * @param domain             Domain id to access.
+     * @param empowerDocumentId  The id of the Empower document to fulfill
+     * @param communicationId    The id of the fulfillment communication to generate output for.
+     * @param driverDataSource   The prodDsn value of the driver file associated with the communication (retrieve this
+     *                           value from the communication set associated with the communication).
+     * @param preserveDocuments  Flag to indicate whether to preserve the Empower document after fulfillment. Setting
+     *                           this to false will remove the document from Empower upon fulfillment.
+     * @return {@link Mono} of the {@link List}<{@link OrchestrationResponseData}> objects representing each output in the response.
+     */
+    public Mono<List<OrchestrationResponseData>> fulfillOnDemandEmpowerDocumentWithFullResponse(String domain, String empowerDocumentId, String communicationId, String driverDataSource, boolean preserveDocuments) {
+        HttpHeaders headers = fulfillHeaders(communicationId, driverDataSource, preserveDocuments, null);
+        return postForObject(uriBuilder.buildOnDemandFulfillmentUri(domain), headers, new EmpowerFulfillmentRequestBody(List.of(empowerDocumentId)), OrchestrationDataListResponse.class)
+                .map(responseBody -> responseBody.data);
+    }
+
+    /**
+     * Fulfill an Empower document and stream the content of the output that matches the Accept type
+     * @param domain             Domain id to access.
+     * @param empowerDocumentId  The id of the Empower document to fulfill
+     * @param communicationId    The id of the fulfillment communication to generate output for.
+     * @param driverDataSource   The prodDsn value of the driver file associated with the communication (retrieve this
+     *                           value from the communication set associated with the communication).
+     * @param preserveDocuments  Flag to indicate whether to preserve the Empower document after fulfillment. Setting
+     *                           this to false will remove the document from Empower upon fulfillment.
+     * @param acceptsMediaType   Content type to pass to the Accept header.
+     * @return {@link Flux} of {@link DataBuffer}s with the binary data of the output file. Each buffer must be released.
+     */
+    public Flux<DataBuffer> fulfillOnDemandEmpowerDocumentWithContentResponse(String domain, String empowerDocumentId, String communicationId, String driverDataSource, boolean preserveDocuments, MediaType acceptsMediaType) {
+        HttpHeaders headers = fulfillHeaders(communicationId, driverDataSource, preserveDocuments, Objects.requireNonNull(acceptsMediaType));
+        return postForContent(uriBuilder.buildOnDemandFulfillmentUri(domain), headers, new EmpowerFulfillmentRequestBody(List.of(empowerDocumentId)));
+    }
+
+    private static HttpHeaders generateHeaders(String communicationId, String driverDataSource, String empowerUser, MediaType requestContentType, MediaType acceptsMediaType) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(OrchestrationService.COMMUNICATION_ID_HEADER, communicationId);
+        headers.add(OrchestrationService.DRIVER_DATA_SOURCE_HEADER, driverDataSource);
+        if (empowerUser != null) {
+            headers.add(OrchestrationService.EMPOWER_USER_HEADER, empowerUser);
+        }
+        headers.setContentType(requestContentType);
+        if (acceptsMediaType != null) {
+            headers.setAccept(List.of(acceptsMediaType));
+        }
+        return headers;
+    }
+
+    private static HttpHeaders fulfillHeaders(String communicationId, String driverDataSource, boolean preserveDocuments, MediaType acceptsMediaType) {
+        HttpHeaders headers = generateHeaders(communicationId, driverDataSource, null, MediaType.APPLICATION_JSON, acceptsMediaType);
+        headers.set(OrchestrationService.PRESERVE_DOCUMENTS_HEADER, Boolean.toString(preserveDocuments));
+        return headers;
+    }
+
+    private <T> Mono<T> postForObject(URI uri, HttpHeaders headers, Object body, Class<T> expectedResponseType) {
+        return post(uri, headers, body)
+                .flatMap(request -> request.retrieve().toEntity(expectedResponseType))
+                .map(response -> {
+                    // Log response code
+                    logger.info("Orchestration response: {}", response.getStatusCode());
+
+                    T responseBody = Objects.requireNonNull(response.getBody());
+                    logger.debug("Response data:\n{}", responseBody);
+                    return responseBody;
+                });
+    }
+
+    private Flux<DataBuffer> postForContent(URI uri, HttpHeaders headers, Object body) {
+        return post(uri, headers, body)
+                .flatMap(request -> request.retrieve().toEntityFlux(DataBuffer.class))
+                .flatMapMany(response -> {
+                    // Log response code
+                    logger.info("Orchestration response: {}", response.getStatusCode());
+                    return Objects.requireNonNull(response.getBody());
+                });
+    }
+
+    private Mono<WebClient.RequestHeadersSpec<?>> post(URI uri, HttpHeaders headers, Object body) {
+        return otdsService.getServiceClientToken().map(token -> {
+            logger.info("Requesting output from Exstream orchestration service: {}", uri);
+            return webClient.post()
+                    .uri(uri)
+                    .headers(requestHeaders -> {
+                        requestHeaders.addAll(headers);
+                        requestHeaders.setBearerAuth(token);
+                    })
+                    .bodyValue(WebClientUtils.toBodyValue(body));
+        });
+    }
+}
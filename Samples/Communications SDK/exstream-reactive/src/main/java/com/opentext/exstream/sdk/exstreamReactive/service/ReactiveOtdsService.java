@@ -0,0 +1,179 @@
+/*
+ * Copyright 2023 Open Text Corporation, All Rights Reserved.
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.opentext.exstream.sdk.exstreamReactive.service;
+
+import com.opentext.exstream.sdk.exstreamApi.model.response.OtdsTokenResponse;
+import com.opentext.exstream.sdk.exstreamApi.service.OtdsUriBuilder;
+import com.opentext.exstream.sdk.exstreamApi.spring.ExstreamApiConfiguration;
+import com.opentext.exstream.sdk.exstreamReactive.utils.WebClientUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Non-blocking service layer for interacting with an OpenText Directory Service instance. Reads the same properties
+ * as {@link com.opentext.exstream.sdk.exstreamApi.service.OtdsService}:<br>
+ * otds.tenant: The tenant to connect to.<br>
+ * otds.username: Username to authenticate as.<br>
+ * otds.password: Password for the user.<br>
+ * otds.clientId: Client id to include in the authentication header.<br>
+ * otds.serviceClientId: Service client id for client credentials authentication.<br>
+ * otds.serviceClientSecret: Service client secret for client credentials authentication.<br>
+ * otds.subscription.name: OT2 subscription name.<br>
+ * Tokens are cached after they are first retrieved. Concurrent requests for a token that isn't cached yet share one
+ * OTDS request, and a failed request isn't cached.
+ */
+@Service
+public class ReactiveOtdsService {
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveOtdsService.class);
+    private static final String GRANT_TYPE_PASSWORD = "password";
+    private static final String GRANT_TYPE_CLIENT_CREDENTIALS = "client_credentials";
+    private static final String LOCAL_OTDS_SCOPE = "otds:groups";
+    private static final String OT2_OTDS_SCOPE = "search otds:groups subscription:%s";
+
+    @Autowired
+    ExstreamApiConfiguration configuration;
+
+    @Autowired
+    OtdsUriBuilder uriBuilder;
+
+    @Value("${otds.tenant:}")
+    private String otdsTenant;
+
+    @Value("${otds.username:}")
+    private String otdsUserName;
+
+    @Value("${otds.password:}")
+    private String otdsPassword;
+
+    @Value("${otds.clientId:}")
+    private String otdsClientId;
+
+    @Value("${otds.serviceClientId:}")
+    private String serviceClientId;
+
+    @Value("${otds.serviceClientSecret:}")
+    private String serviceClientSecret;
+
+    @Value("${otds.subscription.name:}")
+    private String otdsSubscriptionName;
+
+    private final AtomicReference<Mono<String>> cachedToken = new AtomicReference<>();
+    private final AtomicReference<Mono<String>> cachedServiceClientToken = new AtomicReference<>();
+
+    WebClient webClient;
+
+    public ReactiveOtdsService() {
+        webClient = WebClientUtils.buildWebClientWithErrorHandler();
+    }
+
+    /**
+     * Authenticates as the configured user in the configured tenant. The cached token is used if it exists.
+     * @return {@link Mono} of the access token string
+     */
+    public Mono<String> getToken() {
+        return getToken(false);
+    }
+
+    /**
+     * Authenticates as the configured user in the configured tenant
+     * @param refreshToken If true, get a new token and overwrite the existing cached copy
+     * @return {@link Mono} of the access token string
+     */
+    public Mono<String> getToken(boolean refreshToken) {
+        return cached(cachedToken, refreshToken, () -> {
+            MultiValueMap<String, String> form = new LinkedMultiValueMap<>();
+            form.add("grant_type", GRANT_TYPE_PASSWORD);
+            form.add("username", otdsUserName);
+            form.add("password", otdsPassword);
+            form.add("client_id", otdsClientId);
+            return requestToken(form);
+        });
+    }
+
+    /**
+     * Authenticates with the configured service client credentials. The cached token is used if it exists.
+     * @return {@link Mono} of the access token string
+     */
+    public Mono<String> getServiceClientToken() {
+        return getServiceClientToken(false);
+    }
+
+    /**
+     * Authenticates with the configured service client credentials
+     * @param refreshToken If true, get a new token and overwrite the existing cached copy
+     * @return {@link Mono} of the access token string
+     */
+    public Mono<String> getServiceClientToken(boolean refreshToken) {
+        return cached(cachedServiceClientToken, refreshToken, () -> {
+            MultiValueMap<String, String> form = new LinkedMultiValueMap<>();
+            form.add("grant_type", GRANT_TYPE_CLIENT_CREDENTIALS);
+            form.add("client_id", serviceClientId);
+            form.add("client_secret", serviceClientSecret);
+            return requestToken(form);
+        });
+    }
+
+    private Mono<String> cached(AtomicReference<Mono<String>> cache, boolean refreshToken, Supplier<Mono<String>> tokenRequest) {
+        Mono<String> token = cache.get();
+        if (token != null && !refreshToken) {
+            return token;
+        }
+
+        // Successful tokens are kept until they are refreshed, errors and empty responses aren't cached
+        Mono<String> newToken = tokenRequest.get().cache(value -> Duration.ofMillis(Long.MAX_VALUE), e -> Duration.ZERO, () -> Duration.ZERO);
+        if (refreshToken) {
+            cache.set(newToken);
+            return newToken;
+        }
+        return cache.compareAndSet(null, newToken) ? newToken : cache.get();
+    }
+
+    private Mono<String> requestToken(MultiValueMap<String, String> form) {
+        if (configuration.isOT2()) {
+            form.add("scope", String.format(OT2_OTDS_SCOPE, otdsSubscriptionName));
+        } else {
+            form.add("scope", LOCAL_OTDS_SCOPE);
+        }
+
+        URI uri = uriBuilder.buildOtdsTokenUri(otdsTenant);
+        return webClient.post()
+                .uri(uri)
+                .accept(MediaType.APPLICATION_JSON)
+                .contentType(MediaType.APPLICATION_FORM_URLENCODED)
+                .body(BodyInserters.fromFormData(form))
+                .retrieve()
+                .bodyToMono(OtdsTokenResponse.class)
+                .doOnSubscribe(subscription -> logger.info("Fetching token from OTDS: {}.", uri))
+                .map(response -> {
+                    logger.info("Successfully authenticated to OTDS.");
+                    return Objects.requireNonNull(response.access_token);
+                });
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2023 Open Text Corporation, All Rights Reserved.
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.opentext.exstream.sdk.exstreamReactive.utils;
+
+import com.opentext.exstream.sdk.exstreamApi.utils.ExstreamJson;
+import com.opentext.exstream.sdk.exstreamApi.utils.RestTemplateResponseErrorHandler;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.io.File;
+import java.time.Duration;
+
+public class WebClientUtils {
+    // Largest response that is decoded into an object in memory. Full Orchestration responses contain the outputs as base64.
+    private static final int MAX_IN_MEMORY_SIZE = 64 * 1024 * 1024;
+
+    // Shared by every WebClient so all services use one connection pool and the Reactor Netty event loop
+    private static final HttpClient HTTP_CLIENT = HttpClient.create(ConnectionProvider.builder("exstream")
+            .maxConnections(500)
+            .pendingAcquireMaxCount(-1)
+            .maxIdleTime(Duration.ofSeconds(30))
+            .build());
+
+    public static WebClient buildWebClientWithErrorHandler() {
+        return WebClient.builder()
+                .clientConnector(new ReactorClientHttpConnector(HTTP_CLIENT))
+                .codecs(configurer -> {
+                    configurer.defaultCodecs().jackson2JsonEncoder(new Jackson2JsonEncoder(ExstreamJson.getObjectMapper()));
+                    configurer.defaultCodecs().jackson2JsonDecoder(new Jackson2JsonDecoder(ExstreamJson.getObjectMapper()));
+                    configurer.defaultCodecs().maxInMemorySize(MAX_IN_MEMORY_SIZE);
+                })
+                .filter(ExchangeFilterFunction.ofResponseProcessor(WebClientUtils::handleError))
+                .build();
+    }
+
+    /**
+     * Convert a request body to a type the WebClient encoders can write
+     * @param body A {@link org.springframework.core.io.Resource}, {@link File}, {@link String}, byte array, or an object to write as JSON
+     * @return The body to pass to the WebClient
+     */
+    public static Object toBodyValue(Object body) {
+        // The reactive encoders write Resources but not Files
+        return body instanceof File ? new FileSystemResource((File) body) : body;
+    }
+
+    private static Mono<ClientResponse> handleError(ClientResponse response) {
+        if (response.rawStatusCode() < 400) {
+            return Mono.just(response);
+        }
+        return response.bodyToMono(byte[].class)
+                .defaultIfEmpty(new byte[0])
+                .flatMap(body -> Mono.error(RestTemplateResponseErrorHandler.toException(response.rawStatusCode(), response.headers().asHttpHeaders(), body)));
+    }
+}
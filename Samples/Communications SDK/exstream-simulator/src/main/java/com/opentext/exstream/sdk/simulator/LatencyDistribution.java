@@ -0,0 +1,128 @@
+/*
+ * Copyright 2023 Open Text Corporation, All Rights Reserved.
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.opentext.exstream.sdk.simulator;
+
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Distribution of the time the simulator takes to answer a request. Written as one of:<br>
+ * none: Answer immediately<br>
+ * fixed:MILLIS: Always wait the same time, for example fixed:20<br>
+ * uniform:MIN:MAX: Wait any time between MIN and MAX milliseconds, for example uniform:10:50<br>
+ * lognormal:MEDIAN:P99: Wait a log-normally distributed time with the given median and 99th percentile in milliseconds,
+ * for example lognormal:40:400. Most requests are quick and a few are much slower, like a real backend.<br>
+ */
+public final class LatencyDistribution {
+    public static final LatencyDistribution NONE = new LatencyDistribution(Kind.NONE, 0, 0, "none");
+
+    // z-score of the 99th percentile of the standard normal distribution
+    private static final double Z_99 = 2.326348;
+
+    private final Kind kind;
+    private final double first;
+    private final double second;
+    private final String spec;
+
+    private LatencyDistribution(Kind kind, double first, double second, String spec) {
+        this.kind = kind;
+        this.first = first;
+        this.second = second;
+        this.spec = spec;
+    }
+
+    /**
+     * Parse a distribution
+     * @param spec The distribution, for example lognormal:40:400
+     * @return The distribution
+     * @throws IllegalArgumentException If the distribution isn't valid
+     */
+    public static LatencyDistribution parse(String spec) {
+        String trimmed = spec == null ? "" : spec.trim().toLowerCase(Locale.ROOT);
+        if (trimmed.isEmpty() || trimmed.equals("none")) {
+            return NONE;
+        }
+        String[] parts = trimmed.split(":");
+        try {
+            switch (parts[0]) {
+                case "fixed":
+                    if (parts.length == 2) {
+                        return new LatencyDistribution(Kind.FIXED, nonNegative(parts[1]), 0, trimmed);
+                    }
+                    break;
+                case "uniform":
+                    if (parts.length == 3 && nonNegative(parts[1]) <= nonNegative(parts[2])) {
+                        return new LatencyDistribution(Kind.UNIFORM, nonNegative(parts[1]), nonNegative(parts[2]), trimmed);
+                    }
+                    break;
+                case "lognormal":
+                    if (parts.length == 3 && 0 < nonNegative(parts[1]) && nonNegative(parts[1]) <= nonNegative(parts[2])) {
+                        double median = Double.parseDouble(parts[1]);
+                        double p99 = Double.parseDouble(parts[2]);
+                        // mu and sigma of the underlying normal distribution
+                        return new LatencyDistribution(Kind.LOGNORMAL, Math.log(median), Math.log(p99 / median) / Z_99, trimmed);
+                    }
+                    break;
+                default:
+                    break;
+            }
+        } catch (NumberFormatException e) {
+            // Reported below
+        }
+        throw new IllegalArgumentException("Invalid latency distribution: " + spec);
+    }
+
+    private static double nonNegative(String value) {
+        double parsed = Double.parseDouble(value);
+        if (parsed < 0 || Double.isNaN(parsed)) {
+            throw new NumberFormatException(value);
+        }
+        return parsed;
+    }
+
+    /**
+     * @return A random latency in nanoseconds
+     */
+    public long sampleNanos() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        double millis;
+        switch (kind) {
+            case FIXED:
+                millis = first;
+                break;
+            case UNIFORM:
+                millis = first + random.nextDouble() * (second - first);
+                break;
+            case LOGNORMAL:
+                millis = Math.exp(first + second * random.nextGaussian());
+                break;
+            default:
+                return 0;
+        }
+        return (long) (millis * 1_000_000);
+    }
+
+    @Override
+    public String toString() {
+        return spec;
+    }
+
+    private enum Kind {
+        NONE,
+        FIXED,
+        UNIFORM,
+        LOGNORMAL
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2023 Open Text Corporation, All Rights Reserved.
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.opentext.exstream.sdk.simulator;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.opentext.exstream.sdk.exstreamApi.model.enumeration.ExstreamOperation;
+import com.opentext.exstream.sdk.simulator.otds.TokenIssuer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Applies the configured conditions to every request before it reaches a simulated endpoint. The request waits for a
+ * latency drawn from the distribution of its operation, then fails with the error status at the error rate of its
+ * operation. Requests to services other than OTDS fail with 401 Unauthorized unless they carry a token the simulator
+ * issued that hasn't expired.
+ */
+@Component
+public class SimulatedConditionsFilter extends OncePerRequestFilter {
+    private static final Logger logger = LoggerFactory.getLogger(SimulatedConditionsFilter.class);
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    @Autowired
+    SimulatorSettings settings;
+
+    @Autowired
+    TokenIssuer tokenIssuer;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        String path = request.getRequestURI();
+        ExstreamOperation operation = ExstreamOperation.of(path);
+
+        long latencyNanos = settings.getLatency(operation).sampleNanos();
+        if (latencyNanos > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(latencyNanos);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ServletException("Interrupted while simulating latency", e);
+            }
+        }
+
+        double errorRate = settings.getErrorRate(operation);
+        if (errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate) {
+            logger.debug("Failing {} {} with simulated status {}", request.getMethod(), path, settings.getErrorStatus());
+            if (settings.getRetryAfterSeconds() > 0) {
+                response.setHeader(HttpHeaders.RETRY_AFTER, Integer.toString(settings.getRetryAfterSeconds()));
+            }
+            writeError(response, new SimulatorException(settings.getErrorStatus(), settings.getErrorCode(), "Simulated " + operation.name().toLowerCase() + " error"), path);
+            return;
+        }
+
+        if (operation != ExstreamOperation.TOKEN && settings.isTokenRequired()) {
+            String authorization = request.getHeader(HttpHeaders.AUTHORIZATION);
+            String token = authorization != null && authorization.startsWith(BEARER_PREFIX) ? authorization.substring(BEARER_PREFIX.length()).trim() : null;
+            TokenIssuer.TokenState tokenState = tokenIssuer.check(token);
+            if (tokenState != TokenIssuer.TokenState.VALID) {
+                logger.debug("Rejecting {} {}, the token is {}", request.getMethod(), path, tokenState);
+                writeError(response, new SimulatorException(HttpStatus.UNAUTHORIZED, "The bearer token is " + tokenState.name().toLowerCase()), path);
+                return;
+            }
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    private void writeError(HttpServletResponse response, SimulatorException error, String path) throws IOException {
+        response.setStatus(error.getStatus());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), error.toErrorResponse(path));
+    }
+}
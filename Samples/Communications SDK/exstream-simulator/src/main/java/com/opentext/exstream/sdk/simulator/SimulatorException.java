@@ -0,0 +1,63 @@
+/*
+ * Copyright 2023 Open Text Corporation, All Rights Reserved.
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.opentext.exstream.sdk.simulator;
+
+import com.opentext.exstream.sdk.exstreamApi.model.response.ExstreamErrorResponse;
+import org.springframework.http.HttpStatus;
+
+/**
+ * An error the simulator answers with, in the same form as the errors of the Exstream services
+ */
+public class SimulatorException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    private final int status;
+    private final Integer errorCode;
+
+    /**
+     * @param status HTTP status of the response
+     * @param errorCode Exstream error code, or null if the error has none
+     * @param message Message of the error
+     */
+    public SimulatorException(int status, Integer errorCode, String message) {
+        super(message, null, false, false);
+        this.status = status;
+        this.errorCode = errorCode;
+    }
+
+    public SimulatorException(HttpStatus status, String message) {
+        this(status.value(), null, message);
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    /**
+     * @param path Path of the request that failed
+     * @return The body of the error response
+     */
+    public ExstreamErrorResponse toErrorResponse(String path) {
+        HttpStatus httpStatus = HttpStatus.resolve(status);
+        ExstreamErrorResponse response = new ExstreamErrorResponse();
+        response.timestamp = System.currentTimeMillis();
+        response.status = status;
+        response.error = httpStatus != null ? httpStatus.getReasonPhrase() : null;
+        response.errorCode = errorCode;
+        response.message = getMessage();
+        response.path = path;
+        return response;
+    }
+}
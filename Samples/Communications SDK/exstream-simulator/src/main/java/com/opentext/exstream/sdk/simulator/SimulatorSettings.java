@@ -0,0 +1,194 @@
+/*
+ * Copyright 2023 Open Text Corporation, All Rights Reserved.
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.opentext.exstream.sdk.simulator;
+
+import com.opentext.exstream.sdk.exstreamApi.model.dto.BackendServiceVersionInfo;
+import com.opentext.exstream.sdk.exstreamApi.model.enumeration.ExstreamOperation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * How the simulated backends behave. Operations are the kinds of requests of {@link ExstreamOperation} (token, version,
+ * manifest, links, resources, content, import, generate, fulfill, other). Reads the following environmental properties:<br>
+ * simulator.latency: {@link LatencyDistribution} of every operation, for example lognormal:20:200<br>
+ * simulator.latencyByOperation: Comma separated overrides of the latency, for example generate=lognormal:300:3000,token=fixed:5<br>
+ * simulator.errorRate: Fraction of requests, from 0 to 1, that fail with the error status.<br>
+ * simulator.errorRateByOperation: Comma separated overrides of the error rate, for example generate=0.02<br>
+ * simulator.errorStatus: HTTP status of the failed requests.<br>
+ * simulator.errorCode: Exstream error code in the body of the failed requests. Empty leaves it out.<br>
+ * simulator.retryAfterSeconds: Retry-After header of the failed requests. 0 leaves it out.<br>
+ * simulator.token.expiresInSeconds: Lifetime of the OTDS tokens the simulator issues.<br>
+ * simulator.token.required: Set to false to accept requests without a valid token.<br>
+ * simulator.output.minBytes: Smallest generated document.<br>
+ * simulator.output.maxBytes: Largest generated document. The size of each document is uniformly distributed between the two.<br>
+ * simulator.domains: Comma separated DAS domains that exist from the start.<br>
+ * simulator.samples.location: Export packages imported into the first domain at startup. Empty imports none.<br>
+ * simulator.version: Version the simulated services report.<br>
+ */
+@Component
+public class SimulatorSettings {
+    private static final Logger logger = LoggerFactory.getLogger(SimulatorSettings.class);
+
+    @Value("${simulator.latency:none}")
+    private String latency;
+
+    @Value("${simulator.latencyByOperation:}")
+    private String latencyByOperation;
+
+    @Value("${simulator.errorRate:0}")
+    private double errorRate;
+
+    @Value("${simulator.errorRateByOperation:}")
+    private String errorRateByOperation;
+
+    @Value("${simulator.errorStatus:503}")
+    private int errorStatus;
+
+    @Value("${simulator.errorCode:}")
+    private Integer errorCode;
+
+    @Value("${simulator.retryAfterSeconds:0}")
+    private int retryAfterSeconds;
+
+    @Value("${simulator.token.expiresInSeconds:3600}")
+    private int tokenExpiresInSeconds;
+
+    @Value("${simulator.token.required:true}")
+    private boolean tokenRequired;
+
+    @Value("${simulator.output.minBytes:65536}")
+    private int outputMinBytes;
+
+    @Value("${simulator.output.maxBytes:65536}")
+    private int outputMaxBytes;
+
+    @Value("${simulator.domains:Testdomain}")
+    private String[] domains;
+
+    @Value("${simulator.samples.location:classpath*:samples/*.zip}")
+    private String samplesLocation;
+
+    @Value("${simulator.version:22.2.0.13282}")
+    private String version;
+
+    private final Map<ExstreamOperation, LatencyDistribution> latencies = new EnumMap<>(ExstreamOperation.class);
+    private final Map<ExstreamOperation, Double> errorRates = new EnumMap<>(ExstreamOperation.class);
+
+    @PostConstruct
+    private void logConfig() {
+        if (errorRate < 0 || errorRate > 1 || errorStatus < 400 || outputMinBytes < 0 || outputMaxBytes < outputMinBytes) {
+            throw new IllegalArgumentException("Invalid simulator settings");
+        }
+        LatencyDistribution defaultLatency = LatencyDistribution.parse(latency);
+        for (ExstreamOperation operation : ExstreamOperation.values()) {
+            latencies.put(operation, defaultLatency);
+            errorRates.put(operation, errorRate);
+        }
+        parseOperationValues(latencyByOperation).forEach((operation, value) -> latencies.put(operation, LatencyDistribution.parse(value)));
+        parseOperationValues(errorRateByOperation).forEach((operation, value) -> errorRates.put(operation, Double.parseDouble(value)));
+
+        logger.info("latencies={}", latencies);
+        logger.info("errorRates={} errorStatus={} errorCode={} retryAfterSeconds={}", errorRates, errorStatus, errorCode, retryAfterSeconds);
+        logger.info("token.expiresInSeconds={} token.required={}", tokenExpiresInSeconds, tokenRequired);
+        logger.info("output.minBytes={} output.maxBytes={}", outputMinBytes, outputMaxBytes);
+        logger.info("domains={} samples.location={} version={}", String.join(",", domains), samplesLocation, version);
+    }
+
+    // Parse a comma separated list of operation=value entries
+    private static Map<ExstreamOperation, String> parseOperationValues(String entries) {
+        Map<ExstreamOperation, String> values = new EnumMap<>(ExstreamOperation.class);
+        for (String entry : entries.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            String[] keyAndValue = entry.split("=", 2);
+            if (keyAndValue.length != 2) {
+                throw new IllegalArgumentException("Invalid operation setting: " + entry);
+            }
+            values.put(ExstreamOperation.valueOf(keyAndValue[0].trim().toUpperCase(Locale.ROOT)), keyAndValue[1].trim());
+        }
+        return values;
+    }
+
+    public LatencyDistribution getLatency(ExstreamOperation operation) {
+        return latencies.get(operation);
+    }
+
+    public double getErrorRate(ExstreamOperation operation) {
+        return errorRates.get(operation);
+    }
+
+    public int getErrorStatus() {
+        return errorStatus;
+    }
+
+    public Integer getErrorCode() {
+        return errorCode;
+    }
+
+    public int getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+    public int getTokenExpiresInSeconds() {
+        return tokenExpiresInSeconds;
+    }
+
+    public boolean isTokenRequired() {
+        return tokenRequired;
+    }
+
+    public int getOutputMinBytes() {
+        return outputMinBytes;
+    }
+
+    public int getOutputMaxBytes() {
+        return outputMaxBytes;
+    }
+
+    public String[] getDomains() {
+        return domains;
+    }
+
+    public String getSamplesLocation() {
+        return samplesLocation;
+    }
+
+    public String getVersion() {
+        return version;
+    }
+
+    /**
+     * @param apiIdentifier Identifier of the simulated API, for example das/v1
+     * @return The version the API reports
+     */
+    public BackendServiceVersionInfo getVersionInfo(String apiIdentifier) {
+        String[] parts = version.split("\\.");
+        BackendServiceVersionInfo versionInfo = new BackendServiceVersionInfo();
+        versionInfo.apiIdentifier = apiIdentifier;
+        versionInfo.major = parts[0];
+        versionInfo.minor = parts.length > 1 ? parts[1] : "0";
+        versionInfo.patch = parts.length > 2 ? parts[2] : "0";
+        versionInfo.versionString = version;
+        return versionInfo;
+    }
+}
@@ -0,0 +1,206 @@
+/*
+ * Copyright 2023 Open Text Corporation, All Rights Reserved.
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.opentext.exstream.sdk.simulator.das;
+
+import com.opentext.exstream.sdk.exstreamApi.model.dto.BackendServiceVersionInfo;
+import com.opentext.exstream.sdk.exstreamApi.model.dto.DasDomain;
+import com.opentext.exstream.sdk.exstreamApi.model.dto.DasLink;
+import com.opentext.exstream.sdk.exstreamApi.model.dto.DasManifest;
+import com.opentext.exstream.sdk.exstreamApi.model.dto.DasResourceVersion;
+import com.opentext.exstream.sdk.exstreamApi.model.enumeration.ImportPackageTypes;
+import com.opentext.exstream.sdk.exstreamApi.model.enumeration.ResourceType;
+import com.opentext.exstream.sdk.exstreamApi.model.enumeration.WorkflowState;
+import com.opentext.exstream.sdk.exstreamApi.model.response.ExstreamDataResponse;
+import com.opentext.exstream.sdk.exstreamApi.model.response.ExstreamPageResponse;
+import com.opentext.exstream.sdk.exstreamApi.model.response.ImportResponse;
+import com.opentext.exstream.sdk.exstreamApi.model.response.SimplePage;
+import com.opentext.exstream.sdk.simulator.SimulatorException;
+import com.opentext.exstream.sdk.simulator.SimulatorSettings;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RequestPart;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Simulated DAS endpoints, at the paths {@link com.opentext.exstream.sdk.exstreamApi.service.DasUriBuilder} builds.
+ * The filter.types and filter.states parameters are applied to the resources and links that are returned. The
+ * rfilter parameters of recursive link queries are accepted and ignored.
+ */
+@RestController
+@RequestMapping("/design/api/v1")
+public class DasController {
+    private static final String API_IDENTIFIER = "das/v1";
+
+    @Autowired
+    SimulatorSettings settings;
+
+    @Autowired
+    DesignRepository repository;
+
+    @GetMapping("/version")
+    public BackendServiceVersionInfo getVersion() {
+        return settings.getVersionInfo(API_IDENTIFIER);
+    }
+
+    @GetMapping("/domains")
+    public ExstreamPageResponse<DasDomain> listDomains() {
+        List<DasDomain> domains = List.copyOf(repository.listDomains());
+        return page(domains, Math.max(domains.size(), 1), 0);
+    }
+
+    @GetMapping("/resources/{domain}")
+    public ExstreamPageResponse<DasResourceVersion> listResources(@PathVariable String domain,
+                                                                  @RequestParam(name = "filter.types", required = false) String types,
+                                                                  @RequestParam(name = "filter.states", required = false) String states,
+                                                                  @RequestParam(defaultValue = "100") int count,
+                                                                  @RequestParam(defaultValue = "0") int offset) {
+        return page(repository.listResources(domain, parseTypes(types), parseStates(states)), count, offset);
+    }
+
+    @PutMapping(path = "/resources/{domain}/{resourceId}/state", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ExstreamDataResponse<DasResourceVersion> changeWorkflowState(@PathVariable String domain, @PathVariable UUID resourceId, @RequestBody Map<String, Object> body) {
+        Object state = body.get("state");
+        if (state == null) {
+            throw new SimulatorException(HttpStatus.BAD_REQUEST, "The workflow state is missing");
+        }
+        Object comment = body.get("auditedComment");
+        boolean locked = Boolean.TRUE.equals(body.get("locked"));
+        return data(repository.changeState(domain, resourceId, parseState(state.toString()), comment != null ? comment.toString() : null, locked));
+    }
+
+    @GetMapping(path = "/resources/{domain}/{resourceId}/content", produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public byte[] getContent(@PathVariable String domain, @PathVariable UUID resourceId) {
+        return repository.getContent(domain, resourceId);
+    }
+
+    @PutMapping(path = "/resources/{domain}/{resourceId}/content", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ExstreamDataResponse<DasResourceVersion> updateContent(@PathVariable String domain, @PathVariable UUID resourceId, @RequestPart("file") MultipartFile file) throws IOException {
+        return data(repository.updateContent(domain, resourceId, file.getBytes()));
+    }
+
+    @PostMapping(path = "/resources/{domain}/content", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ExstreamDataResponse<DasResourceVersion> createResource(@PathVariable String domain, @RequestParam String name, @RequestParam String type,
+                                                                   @RequestParam(required = false) String subtype, @RequestPart("file") MultipartFile file) throws IOException {
+        return data(repository.createResource(domain, name, parseType(type), subtype, file.getBytes()));
+    }
+
+    @GetMapping("/links/{domain}")
+    public ExstreamPageResponse<DasLink> listLinks(@PathVariable String domain, @RequestParam UUID linkSubjectId, @RequestParam(defaultValue = "1") int linkDepth,
+                                                   @RequestParam(name = "filter.types", required = false) String types) {
+        List<DasLink> links = repository.findLinks(domain, linkSubjectId, linkDepth, parseTypes(types));
+        return page(links, Math.max(links.size(), 1), 0);
+    }
+
+    @GetMapping("/links/{domain}/resources")
+    public ExstreamPageResponse<DasResourceVersion> recursiveListLinks(@PathVariable String domain, @RequestParam UUID linkObjectId, @RequestParam(defaultValue = "1") int linkDepth,
+                                                                       @RequestParam(name = "filter.types", required = false) String types,
+                                                                       @RequestParam(name = "filter.states", required = false) String states) {
+        List<DasResourceVersion> resources = repository.findLinkingResources(domain, linkObjectId, linkDepth, parseTypes(types), parseStates(states));
+        return page(resources, Math.max(resources.size(), 1), 0);
+    }
+
+    @GetMapping("/manifests/{domain}/communication-set/{communicationSetId}")
+    public DasManifest getManifest(@PathVariable String domain, @PathVariable UUID communicationSetId) {
+        return repository.getManifest(domain, communicationSetId);
+    }
+
+    @PostMapping(path = "/import/{packageType}/{domain}", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ExstreamDataResponse<ImportResponse> importPackage(@PathVariable String packageType, @PathVariable String domain,
+                                                              @RequestParam(defaultValue = "false") boolean commit,
+                                                              @RequestPart("exportPackage") MultipartFile exportPackage) throws IOException {
+        if (!packageType.equalsIgnoreCase(ImportPackageTypes.DAS.name())) {
+            throw new SimulatorException(HttpStatus.BAD_REQUEST, "Only DAS export packages can be imported into the simulator");
+        }
+        try (InputStream in = exportPackage.getInputStream()) {
+            return data(repository.importPackage(domain, in, commit));
+        }
+    }
+
+    private static <T> ExstreamDataResponse<T> data(T data) {
+        ExstreamDataResponse<T> response = new ExstreamDataResponse<>();
+        response.data = data;
+        return response;
+    }
+
+    // One page of count items, starting at offset
+    private static <T> ExstreamPageResponse<T> page(List<T> items, int count, int offset) {
+        if (count < 1 || offset < 0) {
+            throw new SimulatorException(HttpStatus.BAD_REQUEST, "Invalid page, count " + count + " offset " + offset);
+        }
+        ExstreamPageResponse<T> response = new ExstreamPageResponse<>();
+        response.data = List.copyOf(items.subList(Math.min(offset, items.size()), Math.min(offset + count, items.size())));
+        response.page = new SimplePage();
+        response.page.pageSize = count;
+        response.page.totalElements = items.size();
+        response.page.totalPages = (items.size() + count - 1) / count;
+        response.page.currentPageNumber = offset / count;
+        return response;
+    }
+
+    private static Set<ResourceType> parseTypes(String types) {
+        Set<ResourceType> parsed = EnumSet.noneOf(ResourceType.class);
+        for (String type : split(types)) {
+            parsed.add(parseType(type));
+        }
+        return parsed;
+    }
+
+    private static ResourceType parseType(String type) {
+        try {
+            return ResourceType.valueOf(type.trim());
+        } catch (IllegalArgumentException e) {
+            throw new SimulatorException(HttpStatus.BAD_REQUEST, "Unknown resource type " + type);
+        }
+    }
+
+    private static Set<WorkflowState> parseStates(String states) {
+        Set<WorkflowState> parsed = EnumSet.noneOf(WorkflowState.class);
+        for (String state : split(states)) {
+            parsed.add(parseState(state));
+        }
+        return parsed;
+    }
+
+    private static WorkflowState parseState(String state) {
+        try {
+            return WorkflowState.valueOf(state.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new SimulatorException(HttpStatus.BAD_REQUEST, "Unknown workflow state " + state);
+        }
+    }
+
+    private static Collection<String> split(String values) {
+        return values == null || values.isBlank() ? List.of() : List.of(values.split(","));
+    }
+}
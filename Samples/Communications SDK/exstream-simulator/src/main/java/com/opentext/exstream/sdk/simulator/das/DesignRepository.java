@@ -0,0 +1,448 @@
+/*
+ * Copyright 2023 Open Text Corporation, All Rights Reserved.
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.opentext.exstream.sdk.simulator.das;
+
+import com.opentext.exstream.sdk.exstreamApi.model.dto.DasDataSource;
+import com.opentext.exstream.sdk.exstreamApi.model.dto.DasDomain;
+import com.opentext.exstream.sdk.exstreamApi.model.dto.DasLink;
+import com.opentext.exstream.sdk.exstreamApi.model.dto.DasManifest;
+import com.opentext.exstream.sdk.exstreamApi.model.dto.DasQueue;
+import com.opentext.exstream.sdk.exstreamApi.model.dto.DasResourceVersion;
+import com.opentext.exstream.sdk.exstreamApi.model.dto.ImportFoundResource;
+import com.opentext.exstream.sdk.exstreamApi.model.dto.ResourceMetadata;
+import com.opentext.exstream.sdk.exstreamApi.model.enumeration.ResourceType;
+import com.opentext.exstream.sdk.exstreamApi.model.enumeration.WorkflowState;
+import com.opentext.exstream.sdk.exstreamApi.model.response.ImportResponse;
+import com.opentext.exstream.sdk.exstreamApi.utils.ExstreamJson;
+import com.opentext.exstream.sdk.simulator.SimulatorException;
+import com.opentext.exstream.sdk.simulator.SimulatorSettings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * In-memory DAS of the simulator. Holds the latest version of each resource of each domain, its content and the links
+ * between resources. Export packages, such as the ones in the samples, are read the way DAS imports them: the
+ * resources/ folder holds the resources, the content/ folder their content and links/links.json the links.
+ */
+@Component
+public class DesignRepository {
+    private static final Logger logger = LoggerFactory.getLogger(DesignRepository.class);
+
+    private static final String RESOURCES_FOLDER = "resources/";
+    private static final String CONTENT_FOLDER = "content/";
+    private static final String CONTENT_SUFFIX = "-CONTENT.bin";
+    private static final String LINKS_FILE = "links/links.json";
+    private static final String SIMULATOR_USER = "simulator";
+
+    @Autowired
+    SimulatorSettings settings;
+
+    private final Map<String, Domain> domains = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    private void loadSamples() throws IOException {
+        for (String domain : settings.getDomains()) {
+            if (!domain.isBlank()) {
+                domains.computeIfAbsent(domain.trim(), Domain::new);
+            }
+        }
+        if (settings.getSamplesLocation().isBlank() || domains.isEmpty()) {
+            return;
+        }
+        String domain = settings.getDomains()[0].trim();
+        for (Resource exportPackage : new PathMatchingResourcePatternResolver().getResources(settings.getSamplesLocation())) {
+            try (InputStream in = exportPackage.getInputStream()) {
+                ImportResponse response = importPackage(domain, in, true);
+                logger.info("Imported {} resources from {} into {}", response.importedResources.size(), exportPackage.getFilename(), domain);
+            }
+        }
+    }
+
+    /**
+     * @return Every domain
+     */
+    public Collection<DasDomain> listDomains() {
+        return domains.keySet().stream().sorted().map(id -> {
+            DasDomain domain = new DasDomain();
+            domain.id = id;
+            domain.workflow = "default";
+            return domain;
+        }).collect(Collectors.toList());
+    }
+
+    /**
+     * Import an export package. Resources that are already in the domain at the same or a later version are left as
+     * they are.
+     * @param domain The domain to import into. It's created if it doesn't exist.
+     * @param exportPackage The zip file of the export package
+     * @param commit Set to false to only find out what would be imported
+     * @return What was imported
+     * @throws IOException If the package can't be read
+     */
+    public ImportResponse importPackage(String domain, InputStream exportPackage, boolean commit) throws IOException {
+        // Resources by the name their content files start with, {type}-{id}-{version}
+        Map<String, DasResourceVersion> resources = new LinkedHashMap<>();
+        Map<String, byte[]> contents = new HashMap<>();
+        List<DasLink> links = new ArrayList<>();
+
+        ZipInputStream zip = new ZipInputStream(exportPackage);
+        for (ZipEntry entry = zip.getNextEntry(); entry != null; entry = zip.getNextEntry()) {
+            String name = entry.getName();
+            if (name.startsWith(RESOURCES_FOLDER) && name.endsWith(".json")) {
+                String baseName = name.substring(RESOURCES_FOLDER.length(), name.length() - ".json".length());
+                resources.put(baseName, ExstreamJson.readerFor(DasResourceVersion.class).readValue(zip.readAllBytes()));
+            } else if (name.startsWith(CONTENT_FOLDER) && name.endsWith(CONTENT_SUFFIX)) {
+                contents.put(name.substring(CONTENT_FOLDER.length(), name.length() - CONTENT_SUFFIX.length()), zip.readAllBytes());
+            } else if (name.equals(LINKS_FILE)) {
+                links.addAll(List.of(ExstreamJson.readerFor(DasLink[].class).<DasLink[]>readValue(zip.readAllBytes())));
+            }
+        }
+        if (resources.isEmpty()) {
+            throw new SimulatorException(HttpStatus.BAD_REQUEST, "The file isn't an export package");
+        }
+
+        ImportResponse response = new ImportResponse();
+        Domain store = domains.computeIfAbsent(domain, Domain::new);
+        synchronized (store) {
+            resources.forEach((baseName, resource) -> {
+                StoredResource existing = store.resources.get(resource.id);
+                if (existing != null && existing.version.version >= resource.version) {
+                    response.existingResources.add(toFoundResource(existing.version));
+                } else {
+                    if (commit) {
+                        store.resources.put(resource.id, new StoredResource(resource, contents.get(baseName)));
+                    }
+                    response.importedResources.add(toFoundResource(resource));
+                }
+            });
+            if (commit) {
+                links.forEach(store::addLink);
+            }
+        }
+        return response;
+    }
+
+    private static ImportFoundResource toFoundResource(DasResourceVersion resource) {
+        ImportFoundResource found = new ImportFoundResource();
+        found.id = resource.id;
+        found.name = resource.name;
+        found.type = String.valueOf(resource.type);
+        found.version = resource.version;
+        found.state = String.valueOf(resource.state);
+        return found;
+    }
+
+    /**
+     * List the resources of a domain
+     * @param domain The domain
+     * @param types The types of the resources to list, or empty for all types
+     * @param states The states of the resources to list, or empty for all states
+     * @return The resources in the order they were added
+     */
+    public List<DasResourceVersion> listResources(String domain, Set<ResourceType> types, Set<WorkflowState> states) {
+        Domain store = getDomain(domain);
+        synchronized (store) {
+            return store.resources.values().stream()
+                    .map(stored -> stored.version)
+                    .filter(resource -> matches(resource, types, states))
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private static boolean matches(DasResourceVersion resource, Set<ResourceType> types, Set<WorkflowState> states) {
+        return (types.isEmpty() || types.contains(resource.type)) && (states.isEmpty() || states.contains(resource.state));
+    }
+
+    /**
+     * Get the content of a resource
+     * @return The content, empty if the resource has none
+     */
+    public byte[] getContent(String domain, UUID resourceId) {
+        Domain store = getDomain(domain);
+        synchronized (store) {
+            byte[] content = store.getResource(resourceId).content;
+            return content != null ? content : new byte[0];
+        }
+    }
+
+    /**
+     * Create a resource in the draft state
+     * @return The new resource
+     */
+    public DasResourceVersion createResource(String domain, String name, ResourceType type, String subtype, byte[] content) {
+        Date now = new Date();
+        DasResourceVersion resource = new DasResourceVersion();
+        resource.id = UUID.randomUUID();
+        resource.version = 1;
+        resource.name = name;
+        resource.type = type;
+        resource.state = WorkflowState.DRAFT;
+        resource.createdBy = SIMULATOR_USER;
+        resource.createdDate = now;
+        resource.lastModifiedBy = SIMULATOR_USER;
+        resource.lastModifiedDate = now;
+        if (subtype != null && !subtype.isBlank()) {
+            resource.metadata = new ResourceMetadata();
+            resource.metadata.subtype = subtype;
+        }
+
+        Domain store = getDomain(domain);
+        synchronized (store) {
+            store.resources.put(resource.id, new StoredResource(resource, content));
+        }
+        return resource;
+    }
+
+    /**
+     * Replace the content of a resource, which creates a new draft version of it
+     * @return The new version
+     */
+    public DasResourceVersion updateContent(String domain, UUID resourceId, byte[] content) {
+        Domain store = getDomain(domain);
+        synchronized (store) {
+            DasResourceVersion resource = copyOf(store.getResource(resourceId).version);
+            resource.version++;
+            resource.state = WorkflowState.DRAFT;
+            resource.lastModifiedBy = SIMULATOR_USER;
+            resource.lastModifiedDate = new Date();
+            store.resources.put(resourceId, new StoredResource(resource, content));
+            return resource;
+        }
+    }
+
+    /**
+     * Move a resource to another workflow state
+     * @return The resource in its new state
+     */
+    public DasResourceVersion changeState(String domain, UUID resourceId, WorkflowState state, String comment, boolean locked) {
+        Domain store = getDomain(domain);
+        synchronized (store) {
+            StoredResource stored = store.getResource(resourceId);
+            DasResourceVersion resource = copyOf(stored.version);
+            resource.state = state;
+            resource.stateComment = comment;
+            resource.locked = locked;
+            resource.lastModifiedBy = SIMULATOR_USER;
+            resource.lastModifiedDate = new Date();
+            store.resources.put(resourceId, new StoredResource(resource, stored.content));
+            return resource;
+        }
+    }
+
+    // Resources are shared with requests that are being answered, so they are replaced rather than changed
+    private static DasResourceVersion copyOf(DasResourceVersion resource) {
+        DasResourceVersion copy = new DasResourceVersion();
+        copy.id = resource.id;
+        copy.version = resource.version;
+        copy.name = resource.name;
+        copy.type = resource.type;
+        copy.state = resource.state;
+        copy.stateComment = resource.stateComment;
+        copy.description = resource.description;
+        copy.createdBy = resource.createdBy;
+        copy.createdDate = resource.createdDate;
+        copy.lastModifiedBy = resource.lastModifiedBy;
+        copy.lastModifiedDate = resource.lastModifiedDate;
+        copy.metadata = resource.metadata;
+        copy.locked = resource.locked;
+        return copy;
+    }
+
+    /**
+     * Follow the links of a resource to the resources it uses, and the links of those, up to a depth
+     * @param domain The domain
+     * @param subjectId The resource to start from
+     * @param depth The number of links to follow from the resource
+     * @param types The types of the linked resources whose links are returned, or empty for all types
+     * @return The links found, with the type of the resource they link to
+     */
+    public List<DasLink> findLinks(String domain, UUID subjectId, int depth, Set<ResourceType> types) {
+        Domain store = getDomain(domain);
+        synchronized (store) {
+            List<DasLink> found = new ArrayList<>();
+            Set<UUID> visited = new HashSet<>(Set.of(subjectId));
+            List<UUID> subjects = List.of(subjectId);
+            for (int level = 0; level < depth && !subjects.isEmpty(); level++) {
+                List<UUID> objects = new ArrayList<>();
+                for (UUID subject : subjects) {
+                    for (DasLink link : store.linksBySubject.getOrDefault(subject, List.of())) {
+                        ResourceType objectType = store.typeOf(link.linkObjectId);
+                        if (types.isEmpty() || types.contains(objectType)) {
+                            DasLink typed = new DasLink();
+                            typed.linkSubjectId = link.linkSubjectId;
+                            typed.subjectVersion = link.subjectVersion;
+                            typed.linkObjectId = link.linkObjectId;
+                            typed.typeId = objectType;
+                            found.add(typed);
+                        }
+                        if (visited.add(link.linkObjectId)) {
+                            objects.add(link.linkObjectId);
+                        }
+                    }
+                }
+                subjects = objects;
+            }
+            return found;
+        }
+    }
+
+    /**
+     * Follow the links to a resource back to the resources that use it, and the links to those, up to a depth
+     * @param domain The domain
+     * @param objectId The resource to start from
+     * @param depth The number of links to follow back from the resource
+     * @param types The types of the resources to return, or empty for all types
+     * @param states The states of the resources to return, or empty for all states
+     * @return The resources that use the resource
+     */
+    public List<DasResourceVersion> findLinkingResources(String domain, UUID objectId, int depth, Set<ResourceType> types, Set<WorkflowState> states) {
+        Domain store = getDomain(domain);
+        synchronized (store) {
+            Set<UUID> found = new LinkedHashSet<>();
+            Set<UUID> objects = Set.of(objectId);
+            for (int level = 0; level < depth && !objects.isEmpty(); level++) {
+                Set<UUID> subjects = new LinkedHashSet<>();
+                for (UUID object : objects) {
+                    for (DasLink link : store.linksByObject.getOrDefault(object, List.of())) {
+                        if (!link.linkSubjectId.equals(objectId) && found.add(link.linkSubjectId)) {
+                            subjects.add(link.linkSubjectId);
+                        }
+                    }
+                }
+                objects = subjects;
+            }
+            return found.stream()
+                    .map(store.resources::get)
+                    .filter(stored -> stored != null && matches(stored.version, types, states))
+                    .map(stored -> stored.version)
+                    .collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Build the manifest of a communication set from the data sources and output queues it links to
+     */
+    public DasManifest getManifest(String domain, UUID communicationSetId) {
+        Domain store = getDomain(domain);
+        synchronized (store) {
+            if (store.typeOf(communicationSetId) != ResourceType.exstrcommunicationset) {
+                throw new SimulatorException(HttpStatus.NOT_FOUND, "Communication set " + communicationSetId + " not found in domain " + domain);
+            }
+            DasManifest manifest = new DasManifest();
+            manifest.dsnlist = new ArrayList<>();
+            manifest.queueList = new ArrayList<>();
+            for (DasLink link : store.linksBySubject.getOrDefault(communicationSetId, List.of())) {
+                StoredResource linked = store.resources.get(link.linkObjectId);
+                if (linked == null) {
+                    continue;
+                }
+                DasResourceVersion resource = linked.version;
+                if (resource.type == ResourceType.exstrdatasource) {
+                    DasDataSource dataSource = new DasDataSource();
+                    dataSource.name = resource.name;
+                    dataSource.prodDsn = resource.name;
+                    dataSource.resourceId = resource.id.toString();
+                    dataSource.type = resource.metadata != null && resource.metadata.subtype != null ? resource.metadata.subtype : "driver";
+                    manifest.dsnlist.add(dataSource);
+                } else if (resource.type == ResourceType.exstroutputqueue) {
+                    DasQueue queue = new DasQueue();
+                    // The samples name their queues after the output they produce
+                    queue.driver = resource.name.toLowerCase(Locale.ROOT).contains("empower") ? "Empower" : "PDF";
+                    queue.name = resource.name;
+                    queue.prodFile = resource.name;
+                    queue.use = "output";
+                    manifest.queueList.add(queue);
+                }
+            }
+            return manifest;
+        }
+    }
+
+    private Domain getDomain(String domain) {
+        Domain store = domains.get(domain);
+        if (store == null) {
+            throw new SimulatorException(HttpStatus.NOT_FOUND, "Domain " + domain + " not found");
+        }
+        return store;
+    }
+
+    // The resources and links of one domain. Guarded by the instance.
+    private static class Domain {
+        final String id;
+        final Map<UUID, StoredResource> resources = new LinkedHashMap<>();
+        final Map<UUID, List<DasLink>> linksBySubject = new HashMap<>();
+        final Map<UUID, List<DasLink>> linksByObject = new HashMap<>();
+
+        Domain(String id) {
+            this.id = id;
+        }
+
+        void addLink(DasLink link) {
+            List<DasLink> subjectLinks = linksBySubject.computeIfAbsent(link.linkSubjectId, subject -> new ArrayList<>());
+            if (subjectLinks.stream().noneMatch(existing -> existing.linkObjectId.equals(link.linkObjectId))) {
+                subjectLinks.add(link);
+                linksByObject.computeIfAbsent(link.linkObjectId, object -> new ArrayList<>()).add(link);
+            }
+        }
+
+        StoredResource getResource(UUID resourceId) {
+            StoredResource stored = resources.get(resourceId);
+            if (stored == null) {
+                throw new SimulatorException(HttpStatus.NOT_FOUND, "Resource " + resourceId + " not found in domain " + id);
+            }
+            return stored;
+        }
+
+        ResourceType typeOf(UUID resourceId) {
+            StoredResource stored = resources.get(resourceId);
+            return stored != null ? stored.version.type : null;
+        }
+    }
+
+    private static class StoredResource {
+        final DasResourceVersion version;
+        final byte[] content;
+
+        StoredResource(DasResourceVersion version, byte[] content) {
+            this.version = version;
+            this.content = content;
+        }
+    }
+}
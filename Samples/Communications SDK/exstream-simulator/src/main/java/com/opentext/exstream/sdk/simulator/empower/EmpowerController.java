@@ -0,0 +1,44 @@
+/*
+ * Copyright 2023 Open Text Corporation, All Rights Reserved.
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.opentext.exstream.sdk.simulator.empower;
+
+import com.opentext.exstream.sdk.exstreamApi.model.dto.EmpowerServiceVersionInfo;
+import com.opentext.exstream.sdk.exstreamApi.model.response.EmpowerHeaderResponse;
+import com.opentext.exstream.sdk.exstreamApi.model.response.EmpowerHeaderStatus;
+import com.opentext.exstream.sdk.exstreamApi.model.response.EmpowerResponse;
+import com.opentext.exstream.sdk.simulator.SimulatorSettings;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Simulated Empower version endpoint, so connection checks against the simulator pass
+ */
+@RestController
+public class EmpowerController {
+    @Autowired
+    SimulatorSettings settings;
+
+    @GetMapping("/empower/api/v1/version")
+    public EmpowerResponse<EmpowerServiceVersionInfo> getVersion() {
+        EmpowerResponse<EmpowerServiceVersionInfo> response = new EmpowerResponse<>();
+        response.header = new EmpowerHeaderResponse();
+        response.header.status = new EmpowerHeaderStatus();
+        response.header.status.code = "OK";
+        response.body = new EmpowerServiceVersionInfo();
+        response.body.servicesVersion = settings.getVersion();
+        return response;
+    }
+}
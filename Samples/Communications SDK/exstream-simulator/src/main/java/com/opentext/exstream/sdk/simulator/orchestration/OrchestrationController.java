@@ -0,0 +1,165 @@
+/*
+ * Copyright 2023 Open Text Corporation, All Rights Reserved.
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.opentext.exstream.sdk.simulator.orchestration;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.opentext.exstream.sdk.exstreamApi.model.dto.BackendServiceVersionInfo;
+import com.opentext.exstream.sdk.exstreamApi.model.dto.EmpowerOutputChannelContent;
+import com.opentext.exstream.sdk.exstreamApi.model.dto.EngineOutputContext;
+import com.opentext.exstream.sdk.exstreamApi.model.response.ExstreamListResponse;
+import com.opentext.exstream.sdk.exstreamApi.service.OrchestrationService;
+import com.opentext.exstream.sdk.exstreamApi.utils.ExstreamJson;
+import com.opentext.exstream.sdk.simulator.SimulatorException;
+import com.opentext.exstream.sdk.simulator.SimulatorSettings;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Simulated Orchestration on-demand endpoints, at the paths
+ * {@link com.opentext.exstream.sdk.exstreamApi.service.OrchestrationUriBuilder} builds. Generate requests with an
+ * empowerUser header create an Empower document, others and fulfillment requests create one PDF per document.<br>
+ * A request whose Accept header names a single media type gets the content of the first output of that type, the way
+ * the SDK asks for a raw PDF or an Empower document id. Other requests get the full response with every output in
+ * base64.
+ */
+@RestController
+@RequestMapping("/orchestration/api/v1")
+public class OrchestrationController {
+    private static final String API_IDENTIFIER = "orchestration/v1";
+    private static final String EMPOWER_MEDIA_TYPE = "application/vnd.exstream-empower";
+
+    @Autowired
+    SimulatorSettings settings;
+
+    @Autowired
+    OutputGenerator outputGenerator;
+
+    @GetMapping("/version")
+    public BackendServiceVersionInfo getVersion() {
+        return settings.getVersionInfo(API_IDENTIFIER);
+    }
+
+    @PostMapping("/inputs/ondemand/{domain}/generate")
+    public ResponseEntity<?> generate(@PathVariable String domain,
+                                      @RequestHeader(name = OrchestrationService.COMMUNICATION_ID_HEADER, required = false) String communicationId,
+                                      @RequestHeader(name = OrchestrationService.DRIVER_DATA_SOURCE_HEADER, required = false) String driverDataSource,
+                                      @RequestHeader(name = OrchestrationService.EMPOWER_USER_HEADER, required = false) String empowerUser,
+                                      @RequestHeader(name = HttpHeaders.ACCEPT, required = false) String accept,
+                                      @RequestBody(required = false) byte[] driverData) {
+        if (communicationId == null || driverDataSource == null) {
+            throw new SimulatorException(HttpStatus.BAD_REQUEST, "The communicationId and driverDataSource headers are required");
+        }
+        if (driverData == null || driverData.length == 0) {
+            throw new SimulatorException(HttpStatus.BAD_REQUEST, "The driver data is empty");
+        }
+
+        Output output;
+        if (empowerUser != null) {
+            EmpowerOutputChannelContent document = new EmpowerOutputChannelContent();
+            document.documentId = UUID.randomUUID().toString();
+            try {
+                output = new Output(EMPOWER_MEDIA_TYPE, "Empower", document.documentId, ExstreamJson.writerFor(EmpowerOutputChannelContent.class).writeValueAsBytes(document));
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException(e);
+            }
+        } else {
+            output = new Output(MediaType.APPLICATION_PDF_VALUE, "PDF", communicationId, outputGenerator.generateDocument());
+        }
+        return respond(List.of(output), accept);
+    }
+
+    @PostMapping("/inputs/fulfillment/ondemand/{domain}/fulfill")
+    public ResponseEntity<?> fulfill(@PathVariable String domain,
+                                     @RequestHeader(name = HttpHeaders.ACCEPT, required = false) String accept,
+                                     @RequestBody Map<String, Object> body) {
+        Object documents = body.get("documents");
+        if (!(documents instanceof List) || ((List<?>) documents).isEmpty()) {
+            throw new SimulatorException(HttpStatus.BAD_REQUEST, "No documents to fulfill");
+        }
+        List<Output> outputs = new ArrayList<>();
+        for (Object documentId : (List<?>) documents) {
+            outputs.add(new Output(MediaType.APPLICATION_PDF_VALUE, "PDF", String.valueOf(documentId), outputGenerator.generateDocument()));
+        }
+        return respond(outputs, accept);
+    }
+
+    private static ResponseEntity<?> respond(List<Output> outputs, String accept) {
+        List<MediaType> acceptedTypes = accept == null ? List.of() : MediaType.parseMediaTypes(accept);
+        if (acceptedTypes.size() == 1 && !acceptedTypes.get(0).isWildcardType()) {
+            // The content of one output
+            MediaType acceptedType = acceptedTypes.get(0);
+            for (Output output : outputs) {
+                MediaType outputType = MediaType.parseMediaType(output.mimeType);
+                // An Empower output is a JSON document
+                if (acceptedType.includes(outputType) || (outputType.toString().equals(EMPOWER_MEDIA_TYPE) && acceptedType.includes(MediaType.APPLICATION_JSON))) {
+                    return ResponseEntity.ok().contentType(acceptedType.isConcrete() ? acceptedType : outputType).body(output.content);
+                }
+            }
+            throw new SimulatorException(HttpStatus.NOT_ACCEPTABLE, "No output of type " + acceptedType);
+        }
+
+        ExstreamListResponse<OutputData> response = new ExstreamListResponse<>();
+        response.data = new ArrayList<>();
+        for (Output output : outputs) {
+            OutputData data = new OutputData();
+            data.content = Base64.getEncoder().encodeToString(output.content);
+            data.mimeType = output.mimeType;
+            data.engineOutputContext = new EngineOutputContext();
+            data.engineOutputContext.queueName = output.queueName;
+            data.engineOutputContext.fileName = output.fileName;
+            response.data.add(data);
+        }
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(response);
+    }
+
+    private static class Output {
+        final String mimeType;
+        final String queueName;
+        final String fileName;
+        final byte[] content;
+
+        Output(String mimeType, String queueName, String fileName, byte[] content) {
+            this.mimeType = mimeType;
+            this.queueName = queueName;
+            this.fileName = fileName;
+            this.content = content;
+        }
+    }
+
+    /**
+     * One output of a full response, as read by {@link com.opentext.exstream.sdk.exstreamApi.model.dto.OrchestrationResponseData}
+     */
+    public static class OutputData {
+        public String content;
+        public String mimeType;
+        public EngineOutputContext engineOutputContext;
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2023 Open Text Corporation, All Rights Reserved.
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.opentext.exstream.sdk.simulator.orchestration;
+
+import com.opentext.exstream.sdk.simulator.SimulatorSettings;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Makes the documents the simulated Orchestration service returns. A document is a PDF header and trailer around
+ * random bytes, which compress as badly as the compressed streams of a real PDF. Its size is uniformly distributed
+ * between simulator.output.minBytes and simulator.output.maxBytes.
+ */
+@Component
+public class OutputGenerator {
+    private static final byte[] PDF_HEADER = "%PDF-1.7\n%simulated\n".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] PDF_TRAILER = "\n%%EOF\n".getBytes(StandardCharsets.US_ASCII);
+
+    @Autowired
+    SimulatorSettings settings;
+
+    // Body of every document, so documents cost a copy rather than generating random bytes
+    private byte[] filler;
+
+    @PostConstruct
+    private void createFiller() {
+        filler = new byte[settings.getOutputMaxBytes()];
+        new Random(0).nextBytes(filler);
+    }
+
+    /**
+     * @return A new document
+     */
+    public byte[] generateDocument() {
+        int size = settings.getOutputMinBytes() + ThreadLocalRandom.current().nextInt(settings.getOutputMaxBytes() - settings.getOutputMinBytes() + 1);
+        byte[] document = new byte[Math.max(size, PDF_HEADER.length + PDF_TRAILER.length)];
+        System.arraycopy(PDF_HEADER, 0, document, 0, PDF_HEADER.length);
+        System.arraycopy(filler, 0, document, PDF_HEADER.length, document.length - PDF_HEADER.length - PDF_TRAILER.length);
+        System.arraycopy(PDF_TRAILER, 0, document, document.length - PDF_TRAILER.length, PDF_TRAILER.length);
+        return document;
+    }
+}
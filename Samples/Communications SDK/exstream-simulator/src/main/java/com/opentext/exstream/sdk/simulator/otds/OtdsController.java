@@ -0,0 +1,45 @@
+/*
+ * Copyright 2023 Open Text Corporation, All Rights Reserved.
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.opentext.exstream.sdk.simulator.otds;
+
+import com.opentext.exstream.sdk.exstreamApi.model.response.OtdsTokenResponse;
+import com.opentext.exstream.sdk.simulator.SimulatorException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Simulated OTDS token endpoint, at the paths of both local deployments and OT2. Accepts the password and client
+ * credentials grants with any credentials.
+ */
+@RestController
+public class OtdsController {
+    @Autowired
+    TokenIssuer tokenIssuer;
+
+    @PostMapping(path = {"/otdsws/otdstenant/{tenant}/oauth2/token", "/otdstenant/{tenant}/oauth2/token"}, consumes = MediaType.APPLICATION_FORM_URLENCODED_VALUE)
+    public OtdsTokenResponse token(@PathVariable String tenant, @RequestBody MultiValueMap<String, String> form) {
+        String grantType = form.getFirst("grant_type");
+        if (!"password".equals(grantType) && !"client_credentials".equals(grantType)) {
+            throw new SimulatorException(HttpStatus.BAD_REQUEST, "Unsupported grant_type " + grantType);
+        }
+        return tokenIssuer.issue();
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2023 Open Text Corporation, All Rights Reserved.
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.opentext.exstream.sdk.simulator.otds;
+
+import com.opentext.exstream.sdk.exstreamApi.model.response.OtdsTokenResponse;
+import com.opentext.exstream.sdk.simulator.SimulatorSettings;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Issues the OTDS tokens of the simulator and checks the tokens of the requests to the other services. A token is
+ * valid until it expires, and tokens the simulator didn't issue are never valid.
+ */
+@Component
+public class TokenIssuer {
+    // Expired tokens are forgotten once there are this many tokens, after that they count as unknown
+    private static final int MAX_TOKENS = 100_000;
+
+    @Autowired
+    SimulatorSettings settings;
+
+    private final SecureRandom random = new SecureRandom();
+
+    // Token to the System.nanoTime at which it expires
+    private final Map<String, Long> expiries = new ConcurrentHashMap<>();
+
+    /**
+     * Issue a new token
+     * @return The token response
+     */
+    public OtdsTokenResponse issue() {
+        if (expiries.size() >= MAX_TOKENS) {
+            long now = System.nanoTime();
+            expiries.values().removeIf(expiry -> expiry - now <= 0);
+        }
+        byte[] bytes = new byte[24];
+        random.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        expiries.put(token, System.nanoTime() + TimeUnit.SECONDS.toNanos(settings.getTokenExpiresInSeconds()));
+
+        OtdsTokenResponse response = new OtdsTokenResponse();
+        response.access_token = token;
+        response.token_type = "Bearer";
+        response.expires_in = settings.getTokenExpiresInSeconds();
+        return response;
+    }
+
+    /**
+     * Check a token
+     * @param token The bearer token of a request, or null if it has none
+     * @return The state of the token
+     */
+    public TokenState check(String token) {
+        if (token == null) {
+            return TokenState.MISSING;
+        }
+        Long expiry = expiries.get(token);
+        if (expiry == null) {
+            return TokenState.UNKNOWN;
+        }
+        return expiry - System.nanoTime() > 0 ? TokenState.VALID : TokenState.EXPIRED;
+    }
+
+    public enum TokenState {
+        // Issued by the simulator and not expired
+        VALID,
+        // Issued by the simulator and expired
+        EXPIRED,
+        // Not issued by the simulator
+        UNKNOWN,
+        // The request has no bearer token
+        MISSING
+    }
+}
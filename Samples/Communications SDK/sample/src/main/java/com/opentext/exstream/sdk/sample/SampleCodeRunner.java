@@ -14,12 +14,19 @@
 
 package com.opentext.exstream.sdk.sample;
 
+import com.opentext.exstream.sdk.exstreamApi.health.BackendReadiness;
+import com.opentext.exstream.sdk.exstreamApi.health.ReadinessCheck;
 import com.opentext.exstream.sdk.exstreamApi.model.dto.*;
 import com.opentext.exstream.sdk.exstreamApi.model.enumeration.ResourceType;
 import com.opentext.exstream.sdk.exstreamApi.model.enumeration.WorkflowState;
 import com.opentext.exstream.sdk.exstreamApi.model.response.ImportResponse;
 import com.opentext.exstream.sdk.exstreamApi.service.*;
+import com.opentext.exstream.sdk.exstreamApi.template.DriverTemplate;
+import com.opentext.exstream.sdk.exstreamApi.template.PlaceholderType;
+import com.opentext.exstream.sdk.exstreamApi.template.RenderedDriverData;
+import com.opentext.exstream.sdk.exstreamApi.template.TemplatePlaceholder;
 import com.opentext.exstream.sdk.exstreamApi.utils.ExstreamApiUtils;
+import com.opentext.exstream.sdk.sample.soak.SoakTest;
 import com.opentext.exstream.sdk.sample.utils.SampleClassPathResources;
 import com.opentext.exstream.sdk.sample.utils.SampleUtils;
 import org.slf4j.Logger;
@@ -28,18 +35,20 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.ApplicationArguments;
 import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.ExitCodeGenerator;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.http.MediaType;
 
-import java.io.File;
+import java.time.LocalDate;
 import java.util.*;
 
 @SpringBootApplication(
         scanBasePackages = {"com.opentext.exstream.sdk" }
 )
-public class SampleCodeRunner implements ApplicationRunner {
+public class SampleCodeRunner implements ApplicationRunner, ExitCodeGenerator {
     private final Logger logger = LoggerFactory.getLogger(this.getClass());
     @Value("${sampleApp.domain}")
     String domain;
@@ -54,9 +63,25 @@ public class SampleCodeRunner implements ApplicationRunner {
     EmpowerService empowerService;
     @Autowired
     OtdsService otdsService;
+    @Autowired
+    ReadinessCheck readinessCheck;
+    @Autowired
+    SoakTest soakTest;
+
+    // Set by a soak test, and returned when the application exits
+    private volatile int exitCode = 0;
 
     public static void main(String[] args) {
-        SpringApplication.run(SampleCodeRunner.class, args);
+        ConfigurableApplicationContext context = SpringApplication.run(SampleCodeRunner.class, args);
+        if (context.getBean(SoakTest.class).isEnabled()) {
+            // The soak test is done once the context has started. Shut down cleanly with its result as the exit code.
+            System.exit(SpringApplication.exit(context));
+        }
+    }
+
+    @Override
+    public int getExitCode() {
+        return exitCode;
     }
 
     @Override
@@ -66,6 +91,18 @@ public class SampleCodeRunner implements ApplicationRunner {
         // Validate that we can connect to all services before we start
         verifyConnections();
 
+        if (soakTest.isEnabled()) {
+            // Run the samples for hours, then exit with a failure if a resource kept growing
+            exitCode = soakTest.run(this::runSamples) ? 0 : 1;
+            return;
+        }
+        runSamples();
+
+        logger.info("Finished running sample code. Web server will continue to run until killed.");
+        logger.info("Sample web page with Empower iframe example: http://localhost:8080");
+    }
+
+    private void runSamples() {
         // To run specific samples, call the functions that execute them here
         listDasDomains();
         importToDasExample1();
@@ -84,27 +121,28 @@ public class SampleCodeRunner implements ApplicationRunner {
         containsEmpowerOutputQueueInCommunicationSet();
         generateOutputWithOrchestrationFullResponse();
         generateOutputWithOrchestrationPdfOnly();
+        generateOutputWithOrchestrationFromDriverTemplate();
         generateEmpowerDocumentWithOrchestrationFullResponse();
         generateEmpowerDocumentWithOrchestrationDocumentIdOnly();
         fulfillEmpowerDocumentWithOrchestrationFullResponse();
         fulfillEmpowerDocumentWithOrchestrationPdfOnly();
 
-        logger.info("Finished running sample code. Web server will continue to run until killed.");
-        logger.info("Sample web page with Empower iframe example: http://localhost:8080");
+        // Output files are written in the background, wait for them before reporting that the samples are done
+        SampleUtils.flushOutputFolder();
     }
 
     private void verifyConnections() {
-        // Verify OTDS connection
-        otdsService.getToken();
-
-        // Verify DAS connection
-        System.out.println("Connected to DAS, version: " + dasService.getVersion().getServiceVersion());
-
-        // Verify Orchestration connection
-        System.out.println("Connected to Orchestration, version: " + orchestrationService.getVersion().getServiceVersion());
-
-        // Verify Empower connection
-        System.out.println("Connected to Empower, version: " + empowerService.getVersion().getServiceVersion());
+        // Fetch the OTDS token, then connect to DAS, Orchestration and Empower at the same time. Skipped when the
+        // check already ran on startup, see exstream.readiness.onStartup.
+        List<BackendReadiness> results = readinessCheck.isReady() ? readinessCheck.getLastResults() : readinessCheck.check();
+        for (BackendReadiness result : results) {
+            if (result.isReady() && result.getVersion() != null) {
+                System.out.println("Connected to " + result.getBackend() + ", version: " + result.getVersion());
+            }
+        }
+        if (!readinessCheck.isReady()) {
+            throw new IllegalStateException("Could not connect to all services: " + results);
+        }
     }
 
     //region Common Requests
@@ -403,8 +441,8 @@ public class SampleCodeRunner implements ApplicationRunner {
             System.out.println("Output files generated by Exstream Orchestration:");
             responseDataList.forEach(r -> {
                 System.out.println(r.toString().trim());
-                final File outputFile = SampleUtils.saveContentToOutputFolder(String.join(".", List.of(r.getFileName(), r.getFileExtension())), r.getContent());
-                System.out.println("Local file: \"" + outputFile.getAbsolutePath() + "\"");
+                SampleUtils.saveContentToOutputFolderAsync(String.join(".", List.of(r.getFileName(), r.getFileExtension())), r.getContent())
+                        .thenAccept(outputFile -> System.out.println("Local file: \"" + outputFile.getAbsolutePath() + "\""));
             });
         }
     }
@@ -427,8 +465,45 @@ public class SampleCodeRunner implements ApplicationRunner {
 
         // Print the response data. Also save the file to ./output
         System.out.println("PDF file generated by Exstream Orchestration:");
-        final File outputFile = SampleUtils.saveContentToOutputFolder("generateOutputWithOrchestrationPdfOnlyExample.pdf", pdfBytes);
-        System.out.println("Saved file: \"" + outputFile.getAbsolutePath() + "\"");
+        SampleUtils.saveContentToOutputFolderAsync("generateOutputWithOrchestrationPdfOnlyExample.pdf", pdfBytes)
+                .thenAccept(outputFile -> System.out.println("Saved file: \"" + outputFile.getAbsolutePath() + "\""));
+    }
+
+    // Generate output for several records using a prepared communication and a compiled driver template - PDF Only
+    private void generateOutputWithOrchestrationFromDriverTemplate() {
+        // Pre-req: Ensure there are resources in DAS. This import is optional if resources already exist.
+        // Uncomment the line below to run the necessary import or run importToDasExample1 and importToDasExample2 before this method
+        // importToDasExample1();
+        // importToDasExample2();
+
+        final String communicationId = "e0421aa8-c1ce-41d9-a10a-cb830ebd4beb";
+        final UUID commSetId = getCommunicationSetIdForCommunicationInDas(communicationId);
+        final String driverFileDsn = getDriverFileForCommunicationSetInDas(commSetId.toString());
+
+        // Prepare the communication once. The URI and communication headers are reused for every record.
+        PreparedCommunication communication = orchestrationService.prepareCommunication(domain, communicationId, driverFileDsn);
+
+        // Compile the sample driver file into a template. Only the placeholder fields change between records.
+        DriverTemplate template = DriverTemplate.compile(SampleClassPathResources.CLAIM_ACKNOWLEDGEMENT_DRIVER_DATA_FOR_PDF_OUTPUT,
+                TemplatePlaceholder.of("claimNumber", "/claim/claimNumber", PlaceholderType.STRING),
+                TemplatePlaceholder.of("description", "/claim/description", PlaceholderType.STRING),
+                TemplatePlaceholder.of("lossDate", "/claim/lossDate", PlaceholderType.DATE));
+
+        List<Object[]> records = List.of(
+                new Object[]{"000-00-000204", "Hit curb!", LocalDate.of(2021, 4, 15)},
+                new Object[]{"000-00-000205", "Rear-ended at a stop light", LocalDate.of(2021, 5, 2)});
+
+        for (int i = 0; i < records.size(); i++) {
+            // Close the rendered driver data after the request to return its buffer to the pool
+            byte[] pdfBytes;
+            try (RenderedDriverData driverData = template.render(records.get(i))) {
+                pdfBytes = communication.generateWithContentResponse(driverData, MediaType.APPLICATION_JSON, MediaType.APPLICATION_PDF);
+            }
+
+            System.out.println("PDF file generated by Exstream Orchestration for claim " + records.get(i)[0] + ":");
+            SampleUtils.saveContentToOutputFolderAsync("generateOutputWithOrchestrationFromDriverTemplateExample" + (i + 1) + ".pdf", pdfBytes)
+                    .thenAccept(outputFile -> System.out.println("Saved file: \"" + outputFile.getAbsolutePath() + "\""));
+        }
     }
 
     // Generate Empower document using Orchestration - Full response
@@ -499,8 +574,8 @@ public class SampleCodeRunner implements ApplicationRunner {
             System.out.println("Output files generated by Exstream Orchestration:");
             responseDataList.forEach(r -> {
                 System.out.println(r.toString().trim());
-                final File outputFile = SampleUtils.saveContentToOutputFolder(String.join(".", List.of(r.getFileName(), r.getFileExtension())), r.getContent());
-                System.out.println("Local file: \"" + outputFile.getAbsolutePath() + "\"");
+                SampleUtils.saveContentToOutputFolderAsync(String.join(".", List.of(r.getFileName(), r.getFileExtension())), r.getContent())
+                        .thenAccept(outputFile -> System.out.println("Local file: \"" + outputFile.getAbsolutePath() + "\""));
             });
         }
     }
@@ -524,8 +599,8 @@ public class SampleCodeRunner implements ApplicationRunner {
 
         // Print the response data. Also save the file to ./output
         System.out.println("PDF file generated by Exstream Orchestration:");
-        final File outputFile = SampleUtils.saveContentToOutputFolder("fulfillEmpowerDocumentWithOrchestrationPdfOnlyExample.pdf", pdfBytes);
-        System.out.println("Saved file: \"" + outputFile.getAbsolutePath() + "\"");
+        SampleUtils.saveContentToOutputFolderAsync("fulfillEmpowerDocumentWithOrchestrationPdfOnlyExample.pdf", pdfBytes)
+                .thenAccept(outputFile -> System.out.println("Saved file: \"" + outputFile.getAbsolutePath() + "\""));
     }
 
     //endregion
@@ -28,11 +28,8 @@
 
 package com.opentext.exstream.sdk.sample.controller;
 
-import com.opentext.exstream.sdk.exstreamApi.model.dto.DasLink;
-import com.opentext.exstream.sdk.exstreamApi.model.dto.DasManifest;
 import com.opentext.exstream.sdk.exstreamApi.model.dto.EmpowerOutputChannelContent;
-import com.opentext.exstream.sdk.exstreamApi.model.dto.ResourceFilter;
-import com.opentext.exstream.sdk.exstreamApi.model.enumeration.ResourceType;
+import com.opentext.exstream.sdk.exstreamApi.resilience.Deadline;
 import com.opentext.exstream.sdk.exstreamApi.service.DasService;
 import com.opentext.exstream.sdk.exstreamApi.service.DasUriBuilder;
 import com.opentext.exstream.sdk.exstreamApi.service.EmpowerUriBuilder;
@@ -48,8 +45,7 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
-import java.util.Collection;
-import java.util.Objects;
+import java.time.Duration;
 
 /**
  * Controller for sample page
@@ -78,6 +74,8 @@ public class SamplePageController {
     String domain;
     @Value("${sampleApp.empower.user}")
     String empowerUser;
+    @Value("${sampleApp.generateDeadlineMillis:30000}")
+    long generateDeadlineMillis;
 
     /**
      * Open the sample Exstream integration webpage served by this application. The page provides controls to generate
@@ -101,16 +99,18 @@ public class SamplePageController {
     }
 
     /**
-     * Generate an Empower document using the Claim Acknowledgement communication provided in the sample imports
+     * Generate an Empower document using the Claim Acknowledgement communication provided in the sample imports.<br>
+     * The whole generation must finish within sampleApp.generateDeadlineMillis. The driver data source is looked up
+     * in DAS while the token is fetched, and the lookup only gets a share of that time so a hung DAS request leaves
+     * time for the render.
      * @param communicationId The communication ID to generate output for
      * @param redirectAttributes Model attributes that will be maintained in a session across a redirect
      * @return Redirects to the sample page view
      */
     @PostMapping(value="/generate")
     public String generateDocument(String communicationId, RedirectAttributes redirectAttributes) {
-        final String driverDataSource = getDriverFileForCommunication(domain, communicationId);
-
-        EmpowerOutputChannelContent responseData = orchestrationService.generateOnDemandEmpowerOutputDocumentIdResponse(domain, communicationId, driverDataSource, empowerUser, SampleClassPathResources.CLAIM_ACKNOWLEDGEMENT_DRIVER_DATA_FOR_EMPOWER_OUTPUT, MediaType.APPLICATION_JSON);
+        final Deadline deadline = Deadline.after(Duration.ofMillis(generateDeadlineMillis));
+        EmpowerOutputChannelContent responseData = deadline.call(() -> orchestrationService.generateCommunicationEmpowerDocumentIdResponse(domain, communicationId, empowerUser, SampleClassPathResources.CLAIM_ACKNOWLEDGEMENT_DRIVER_DATA_FOR_EMPOWER_OUTPUT, MediaType.APPLICATION_JSON));
 
         redirectAttributes.addFlashAttribute(MODEL_DOCUMENT_ID, responseData.documentId);
         return "redirect:/";
@@ -125,29 +125,14 @@ public class SamplePageController {
      */
     @PostMapping(value="/fulfill")
     public String fulfillEmpowerDocument(String communicationId, String documentId, RedirectAttributes redirectAttributes) {
-        final String driverDataSource = getDriverFileForCommunication(domain, communicationId);
-
-        byte[] pdfBytes = orchestrationService.fulfillOnDemandEmpowerDocumentWithContentResponse(domain, documentId, communicationId, driverDataSource, false, MediaType.APPLICATION_PDF);
+        final Deadline deadline = Deadline.after(Duration.ofMillis(generateDeadlineMillis));
+        byte[] pdfBytes = deadline.call(() -> {
+            final String driverDataSource = dasService.getDriverDataSourceForCommunication(domain, communicationId);
+            return orchestrationService.fulfillOnDemandEmpowerDocumentWithContentResponse(domain, documentId, communicationId, driverDataSource, false, MediaType.APPLICATION_PDF);
+        });
 
         String pdfUrl = "data:application/pdf;base64," + Base64.encodeBase64String(pdfBytes);
         redirectAttributes.addFlashAttribute(MODEL_FRAME_URL, pdfUrl);
         return "redirect:/";
     }
-
-    /**
-     * Helper method to get the driver file for a given communication
-     * @param domain The DAS domain of the communication
-     * @param communicationId The communication ID to get the driver file for
-     * @return DSN string retrieved from the communication set linked to the communication with the given ID
-     */
-    private String getDriverFileForCommunication(String domain, String communicationId) {
-        // Get the communication set id for the communication
-        ResourceFilter resourceFilter = new ResourceFilter().addType(ResourceType.exstrcommunicationset);
-        Collection<DasLink> links = dasService.listLinks(domain, communicationId, 2, resourceFilter);
-        final String communicationSetId = Objects.requireNonNull(links.stream().findFirst().map(l -> l.linkObjectId).orElse(null)).toString();
-
-        // Get the driver file DSN for the communication set
-        DasManifest manifest = dasService.getManifestForCommunicationSet(domain, communicationSetId);
-        return Objects.requireNonNull(Objects.requireNonNull(manifest.dsnlist).stream().findFirst().orElseThrow()).prodDsn;
-    }
 }
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2023 Open Text Corporation, All Rights Reserved.
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.opentext.exstream.sdk.sample.soak;
+
+import com.sun.management.UnixOperatingSystemMXBean;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.OperatingSystemMXBean;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * The resources the process held at one point in time.<br>
+ * Resources that can't be measured on this platform are left out.
+ */
+public class ResourceUsage {
+    private static final Path FILE_DESCRIPTORS = Path.of("/proc/self/fd");
+    private static final List<Path> TCP_TABLES = List.of(Path.of("/proc/self/net/tcp"), Path.of("/proc/self/net/tcp6"));
+    // State of an established connection in the TCP tables
+    private static final String ESTABLISHED = "01";
+
+    private final Map<TrackedResource, Long> values;
+
+    private ResourceUsage(Map<TrackedResource, Long> values) {
+        this.values = Collections.unmodifiableMap(values);
+    }
+
+    /**
+     * Measure the resources the process holds now. Runs a full garbage collection first.
+     */
+    public static ResourceUsage sample() {
+        Map<TrackedResource, Long> values = new EnumMap<>(TrackedResource.class);
+        // Collect first, so the heap only holds objects that are still reachable
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        memory.gc();
+        values.put(TrackedResource.HEAP_AFTER_GC, memory.getHeapMemoryUsage().getUsed());
+        values.put(TrackedResource.THREADS, (long) ManagementFactory.getThreadMXBean().getThreadCount());
+
+        OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+        if (os instanceof UnixOperatingSystemMXBean) {
+            values.put(TrackedResource.FILE_DESCRIPTORS, ((UnixOperatingSystemMXBean) os).getOpenFileDescriptorCount());
+        }
+        Long connections = countEstablishedConnections();
+        if (connections != null) {
+            values.put(TrackedResource.CONNECTIONS, connections);
+        }
+        return new ResourceUsage(values);
+    }
+
+    /**
+     * @return The value of the resource, or null if it can't be measured on this platform
+     */
+    public Long get(TrackedResource resource) {
+        return values.get(resource);
+    }
+
+    // The TCP tables list the sockets of every process in the network namespace, so only count those this process has
+    // a descriptor for. Returns null when /proc isn't available.
+    private static Long countEstablishedConnections() {
+        if (!Files.isDirectory(FILE_DESCRIPTORS)) {
+            return null;
+        }
+        try {
+            Set<String> socketInodes = new HashSet<>();
+            try (DirectoryStream<Path> descriptors = Files.newDirectoryStream(FILE_DESCRIPTORS)) {
+                for (Path descriptor : descriptors) {
+                    String target;
+                    try {
+                        target = Files.readSymbolicLink(descriptor).toString();
+                    } catch (IOException e) {
+                        // Closed while the directory was listed
+                        continue;
+                    }
+                    if (target.startsWith("socket:[")) {
+                        socketInodes.add(target.substring("socket:[".length(), target.length() - 1));
+                    }
+                }
+            }
+
+            long established = 0;
+            for (Path table : TCP_TABLES) {
+                if (!Files.isReadable(table)) {
+                    continue;
+                }
+                List<String> lines = Files.readAllLines(table);
+                // Columns: sl local_address rem_address st tx_queue:rx_queue tr:tm->when retrnsmt uid timeout inode
+                for (String line : lines.subList(Math.min(1, lines.size()), lines.size())) {
+                    String[] columns = line.trim().split("\\s+");
+                    if (columns.length > 9 && ESTABLISHED.equals(columns[3]) && socketInodes.contains(columns[9])) {
+                        established++;
+                    }
+                }
+            }
+            return established;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return values.entrySet().stream()
+                .map(e -> e.getKey().getDescription() + " " + e.getKey().format(e.getValue()))
+                .collect(Collectors.joining(", "));
+    }
+}
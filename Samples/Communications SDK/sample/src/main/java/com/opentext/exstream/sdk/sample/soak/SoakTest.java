@@ -0,0 +1,179 @@
+/*
+ * Copyright 2023 Open Text Corporation, All Rights Reserved.
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.opentext.exstream.sdk.sample.soak;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Runs the samples over and over for hours and checks that the resources the process holds don't keep growing.<br>
+ * Between two runs of the samples, at most once per sample interval, the heap in use after a full garbage collection,
+ * the live threads, the open file descriptors and the established TCP connections of the process are measured. Samples
+ * taken during the warmup are left out while the caches, connection pools and JIT compiler settle. The remaining
+ * samples are split into windows, and a resource leaks when the lowest value of each window is higher than that of the
+ * window before and it grew by more than its tolerance from the first window to the last. The lowest value of a window
+ * ignores the short peaks of a resource that is in use.<br>
+ * Reads the following environmental properties:<br>
+ * sampleApp.soak.durationMinutes: How long the samples are run. 0 runs them once, without a soak test.<br>
+ * sampleApp.soak.warmupMinutes: Time at the start whose samples aren't checked for growth<br>
+ * sampleApp.soak.sampleIntervalSeconds: Minimum time between two samples<br>
+ * sampleApp.soak.windows: Number of windows the samples after the warmup are split into<br>
+ * sampleApp.soak.heapToleranceMb: Growth of the heap after GC that isn't reported as a leak<br>
+ * sampleApp.soak.countTolerance: Growth in threads, file descriptors or connections that isn't reported as a leak<br>
+ */
+@Component
+public class SoakTest {
+    private static final Logger logger = LoggerFactory.getLogger(SoakTest.class);
+
+    @Value("${sampleApp.soak.durationMinutes:0}")
+    private long durationMinutes;
+
+    @Value("${sampleApp.soak.warmupMinutes:10}")
+    private long warmupMinutes;
+
+    @Value("${sampleApp.soak.sampleIntervalSeconds:60}")
+    private long sampleIntervalSeconds;
+
+    @Value("${sampleApp.soak.windows:6}")
+    private int windows;
+
+    @Value("${sampleApp.soak.heapToleranceMb:16}")
+    private long heapToleranceMb;
+
+    @Value("${sampleApp.soak.countTolerance:2}")
+    private long countTolerance;
+
+    @PostConstruct
+    private void logConfig() {
+        if (!isEnabled()) {
+            return;
+        }
+        if (warmupMinutes < 0 || sampleIntervalSeconds < 1 || windows < 2 || heapToleranceMb < 0 || countTolerance < 0) {
+            throw new IllegalArgumentException("Invalid sampleApp.soak settings");
+        }
+        long checkedSamples = TimeUnit.MINUTES.toSeconds(durationMinutes - warmupMinutes) / sampleIntervalSeconds;
+        if (checkedSamples < minSamples()) {
+            throw new IllegalArgumentException("sampleApp.soak.durationMinutes must leave time for at least " + minSamples()
+                    + " samples after the warmup, " + checkedSamples + " fit");
+        }
+        logger.info("soak.durationMinutes={} warmupMinutes={} sampleIntervalSeconds={} windows={} heapToleranceMb={} countTolerance={}",
+                durationMinutes, warmupMinutes, sampleIntervalSeconds, windows, heapToleranceMb, countTolerance);
+    }
+
+    public boolean isEnabled() {
+        return durationMinutes > 0;
+    }
+
+    // Samples needed after the warmup, two per window so the lowest value of a window can leave out a peak
+    private int minSamples() {
+        return windows * 2;
+    }
+
+    /**
+     * Run the samples until the soak test duration has passed, and check the resources of the process for leaks
+     * @param samples Runs each sample once
+     * @return Whether no resource kept growing
+     */
+    public boolean run(Runnable samples) {
+        long startNanos = System.nanoTime();
+        long warmupEndNanos = startNanos + TimeUnit.MINUTES.toNanos(warmupMinutes);
+        long endNanos = startNanos + TimeUnit.MINUTES.toNanos(durationMinutes);
+        long nextSampleNanos = startNanos;
+        List<ResourceUsage> usages = new ArrayList<>();
+        long runs = 0;
+        long failedRuns = 0;
+
+        logger.info("Running the samples for {} minutes, checking for leaks after {} minutes", durationMinutes, warmupMinutes);
+        while (System.nanoTime() - endNanos < 0) {
+            runs++;
+            try {
+                samples.run();
+            } catch (RuntimeException e) {
+                // Keep going, a failure that repeats for hours would flood the log with stack traces otherwise
+                if (failedRuns++ == 0) {
+                    logger.warn("Run {} of the samples failed", runs, e);
+                } else {
+                    logger.warn("Run {} of the samples failed: {}", runs, e.toString());
+                }
+            }
+
+            // Sample between two runs, when no request is in progress
+            long nowNanos = System.nanoTime();
+            if (nowNanos - nextSampleNanos >= 0) {
+                ResourceUsage usage = ResourceUsage.sample();
+                boolean warmup = nowNanos - warmupEndNanos < 0;
+                if (!warmup) {
+                    usages.add(usage);
+                }
+                logger.info("Soak test after {} minutes and {} runs{}: {}", TimeUnit.NANOSECONDS.toMinutes(nowNanos - startNanos), runs,
+                        warmup ? " (warmup)" : "", usage);
+                nextSampleNanos = nowNanos + TimeUnit.SECONDS.toNanos(sampleIntervalSeconds);
+            }
+        }
+
+        logger.info("Soak test ran the samples {} times in {} minutes, {} runs failed", runs, durationMinutes, failedRuns);
+        return checkGrowth(usages);
+    }
+
+    private boolean checkGrowth(List<ResourceUsage> usages) {
+        if (usages.size() < minSamples()) {
+            // The runs took longer than the sample interval
+            logger.error("Soak test failed: only {} samples were taken after the warmup and {} are needed", usages.size(), minSamples());
+            return false;
+        }
+
+        boolean passed = true;
+        for (TrackedResource resource : TrackedResource.values()) {
+            if (usages.stream().anyMatch(usage -> usage.get(resource) == null)) {
+                logger.info("{} can't be measured on this platform", resource.getDescription());
+                continue;
+            }
+            long[] lowest = new long[windows];
+            for (int window = 0; window < windows; window++) {
+                lowest[window] = usages.subList(window * usages.size() / windows, (window + 1) * usages.size() / windows).stream()
+                        .mapToLong(usage -> usage.get(resource))
+                        .min().orElseThrow();
+            }
+
+            boolean rising = true;
+            for (int window = 1; window < windows; window++) {
+                rising &= lowest[window] > lowest[window - 1];
+            }
+            long tolerance = resource == TrackedResource.HEAP_AFTER_GC ? heapToleranceMb * 1024 * 1024 : countTolerance;
+            boolean leaking = rising && lowest[windows - 1] - lowest[0] > tolerance;
+            passed &= !leaking;
+
+            String lowestValues = Arrays.stream(lowest).mapToObj(resource::format).collect(Collectors.joining(", "));
+            if (leaking) {
+                logger.error("Soak test failed: {} kept growing, lowest value per window {}", resource.getDescription(), lowestValues);
+            } else {
+                logger.info("{} didn't keep growing, lowest value per window {}", resource.getDescription(), lowestValues);
+            }
+        }
+        if (passed) {
+            logger.info("Soak test passed");
+        }
+        return passed;
+    }
+}
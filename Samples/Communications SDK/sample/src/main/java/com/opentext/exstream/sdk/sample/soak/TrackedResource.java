@@ -0,0 +1,48 @@
+/*
+ * Copyright 2023 Open Text Corporation, All Rights Reserved.
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.opentext.exstream.sdk.sample.soak;
+
+import java.util.Locale;
+
+/**
+ * A resource of the process that {@link SoakTest} watches for leaks
+ */
+public enum TrackedResource {
+    // Heap in use after a full garbage collection, in bytes
+    HEAP_AFTER_GC("heap after GC"),
+    // Live threads, daemon or not
+    THREADS("threads"),
+    // Open file descriptors, measured on Unix only
+    FILE_DESCRIPTORS("file descriptors"),
+    // Established TCP connections of the process, measured on Linux only
+    CONNECTIONS("connections");
+
+    private final String description;
+
+    TrackedResource(String description) {
+        this.description = description;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    /**
+     * @return The value with its unit
+     */
+    public String format(long value) {
+        return this == HEAP_AFTER_GC ? String.format(Locale.ROOT, "%.1fMB", value / (1024.0 * 1024.0)) : Long.toString(value);
+    }
+}
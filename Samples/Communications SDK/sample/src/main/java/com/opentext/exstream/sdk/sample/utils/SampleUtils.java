@@ -15,23 +15,24 @@
 package com.opentext.exstream.sdk.sample.utils;
 
 import com.opentext.exstream.sdk.exstreamApi.model.dto.OrchestrationResponseData;
+import com.opentext.exstream.sdk.exstreamApi.output.FileSystemOutputSink;
+import com.opentext.exstream.sdk.exstreamApi.output.OutputSink;
 import com.opentext.exstream.sdk.exstreamApi.service.EmpowerUriBuilder;
 import com.opentext.exstream.sdk.exstreamApi.utils.ExstreamApiUtils;
 
 import java.io.File;
-import java.io.FileOutputStream;
-import java.io.IOException;
-import java.io.OutputStream;
-import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.util.Base64;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public class SampleUtils {
     // The directory that saveContentToOutputFolder will save files to
     private static final String outputDir = "output";
 
+    // Writes files on a dedicated I/O thread. Files are written to a temporary name and renamed once complete.
+    private static final OutputSink outputSink = new FileSystemOutputSink(Path.of(outputDir));
+
     public static void printEmpowerUrls(EmpowerUriBuilder empowerUrlBuilder, List<OrchestrationResponseData> files) {
         System.out.println("The following Empower documents are available for editing:");
         // Assumes all files are empower files
@@ -61,22 +62,38 @@ public class SampleUtils {
      * @return A {@link File} object representing the newly created file
      */
     public static File saveContentToOutputFolder(String fileName, byte[] fileContent) {
-        // Create the output directory if it doesn't exist
-        Path outputPath;
-        try {
-            outputPath = Files.createDirectories(Path.of(outputDir));
-        } catch (IOException e) {
-            throw new RuntimeException(e);
-        }
+        return saveContentToOutputFolderAsync(fileName, fileContent).join();
+    }
 
-        File outputFile = Paths.get(outputPath.toString(), fileName).toFile();
-        try (OutputStream stream = new FileOutputStream(outputFile)) {
-            stream.write(fileContent);
-        } catch (Exception e) {
-            throw new RuntimeException(e);
-        }
+    /**
+     * Saves a base64 content string to a file without waiting for the write to complete.<br>
+     * The file is saved to a directory called ./output relative to the current working directory by default.<br>
+     * Multiple calls to this method with the same file name will overwrite the file if it exists.
+     * @param fileName The name of the file to create
+     * @param base64Content The file contents as a base64 encoded string
+     * @return A future that completes with a {@link File} object representing the newly created file
+     */
+    public static CompletableFuture<File> saveContentToOutputFolderAsync(String fileName, String base64Content) {
+        return saveContentToOutputFolderAsync(fileName, Base64.getDecoder().decode(base64Content));
+    }
 
-        return outputFile;
+    /**
+     * Saves byte array content to a file without waiting for the write to complete.<br>
+     * The file is saved to a directory called ./output relative to the current working directory by default.<br>
+     * Multiple calls to this method with the same file name will overwrite the file if it exists.
+     * @param fileName The name of the file to create
+     * @param fileContent The file contents as a byte array
+     * @return A future that completes with a {@link File} object representing the newly created file
+     */
+    public static CompletableFuture<File> saveContentToOutputFolderAsync(String fileName, byte[] fileContent) {
+        return outputSink.write(fileName, fileContent).thenApply(uri -> Path.of(uri).toFile());
+    }
+
+    /**
+     * Waits for all pending writes to the output folder to complete
+     */
+    public static void flushOutputFolder() {
+        outputSink.flush();
     }
 
 }